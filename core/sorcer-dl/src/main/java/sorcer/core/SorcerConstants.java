@@ -84,6 +84,8 @@ public interface SorcerConstants {
 
 	String P_LOCATION = "provider.location";
 
+	String P_WEIGHT = "provider.weight";
+
 	String J_LOCATION = "location";
 
 	String P_INTERFACES = "provider.published.interfaces";
@@ -286,6 +288,50 @@ public interface SorcerConstants {
 
 	String LOOKUP_MAX_MATCHES = "lookup.maxMatches";
 
+	// selection among matching providers: first, roundRobin, powerOfTwo, leastLatency
+
+	String PROVIDER_SELECTION = "sorcer.provider.selection";
+
+	// client cache of objects retrieved from database storers
+
+	String SDB_CACHE_ENABLED = "sdb.cache.enabled";
+
+	String SDB_CACHE_SIZE = "sdb.cache.size";
+
+	String SDB_CACHE_TTL = "sdb.cache.ttl";
+
+	// cache of compiled Groovy scripts
+
+	String SCRIPT_CACHE_SIZE = "sorcer.script.cache.size";
+
+	// max number of threads evaluating responses of parallel models
+
+	String MODEL_RESPONSE_THREADS = "sorcer.model.response.threads";
+
+	// max number of threads of asynchronous exertions by service shells
+
+	String EXERT_ASYNC_THREADS = "sorcer.exert.async.threads";
+
+	// max number of threads evaluating disciplines of parallel collaborations
+
+	String COLLAB_DISCIPLINE_THREADS = "sorcer.collab.discipline.threads";
+
+	// max number of threads deploying and undeploying provisioned services
+
+	String PROVISION_THREADS = "sorcer.provision.threads";
+
+	// max number of threads evaluating perturbed models of gradients
+
+	String GRADIENT_THREADS = "sorcer.gradient.threads";
+
+	// max number of threads evaluating points of parametric studies
+
+	String PARAMETRIC_THREADS = "sorcer.parametric.threads";
+
+	// max number of threads of asynchronous and prefetched service lookups
+
+	String LOOKUP_THREADS = "sorcer.lookup.threads";
+
 	/**
 	 * SORCER Notifier Message Indexing Constants used by sorcer.notifier.
 	 * NotificationRetrievalListener* and the launcher
@@ -17,11 +17,15 @@
 
 package sorcer.core.provider;
 
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.lease.LeaseDeniedException;
 import net.jini.id.Uuid;
 
 import java.io.InvalidObjectException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.rmi.MarshalledObject;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 
@@ -32,6 +36,9 @@ import java.rmi.RemoteException;
 public interface DatabaseStorer extends StorageManagement, Remote {
 	
 	public enum Store { context, exertion, var, varmodel, table, object, all }
+
+	/** Secondary indexes of stored records */
+	public enum Index { name, owner, type, created }
 	
 	public URL storeObject(Object object) throws RemoteException;
 
@@ -40,4 +47,14 @@ public interface DatabaseStorer extends StorageManagement, Remote {
 	public Uuid deleteObject(URL url) throws RemoteException;
 	
 	public URL getDatabaseURL(Store storeType, Uuid uuid) throws MalformedURLException, RemoteException;
+
+	/**
+	 * Registers a listener for {@link StoreEvent}s published after stored
+	 * objects are updated or deleted.
+	 */
+	public EventRegistration registerStoreListener(RemoteEventListener listener,
+			MarshalledObject handback, long duration)
+			throws LeaseDeniedException, RemoteException;
+
+	public void unregisterStoreListener(EventRegistration evReg) throws RemoteException;
 }
\ No newline at end of file
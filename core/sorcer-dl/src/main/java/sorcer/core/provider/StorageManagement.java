@@ -38,6 +38,12 @@ public interface StorageManagement {
 	final static String store_type = "store/type";
 	final static String store_size = "store/size";
 	final static String store_content_list = "store/content/list";
+	final static String store_index = "store/index";
+	final static String store_from = "store/from";
+	final static String store_to = "store/to";
+	final static String store_offset = "store/offset";
+	final static String store_limit = "store/limit";
+	final static String store_records = "store/records";
 
 	public Context contextRetrieve(Context context) throws RemoteException,
 			ContextException;
@@ -0,0 +1,71 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.id.Uuid;
+import org.rioproject.event.RemoteServiceEvent;
+import sorcer.core.provider.DatabaseStorer.Store;
+
+import java.io.Serializable;
+
+/**
+ * An event published by a {@link DatabaseStorer} after a stored object has
+ * been updated or deleted, so clients holding copies of the object can
+ * discard them.
+ */
+public class StoreEvent extends RemoteServiceEvent implements Serializable {
+
+	private static final long serialVersionUID = 2834165927318254470L;
+
+	public static final long ID = 168572317279L;
+
+	public enum Action { updated, deleted }
+
+	private Store storeType;
+
+	private Uuid uuid;
+
+	private Action action;
+
+	public StoreEvent(Object source) {
+		super(source);
+	}
+
+	public StoreEvent(Object source, Store storeType, Uuid uuid, Action action) {
+		super(source);
+		this.storeType = storeType;
+		this.uuid = uuid;
+		this.action = action;
+	}
+
+	public Store getStoreType() {
+		return storeType;
+	}
+
+	public Uuid getUuid() {
+		return uuid;
+	}
+
+	public Action getAction() {
+		return action;
+	}
+
+	@Override
+	public String toString() {
+		return "StoreEvent: " + action + " " + storeType + "=" + uuid;
+	}
+}
@@ -123,6 +123,12 @@ public class SorcerServiceInfo extends ServiceType {
 	 */
 	public String location;
 
+	/**
+	 * The relative capacity of this service used by weighted round robin
+	 * selection among matching services, 1 if not defined.
+	 */
+	public Integer weight;
+
 	/**
 	 * The host name this service in running on, for example, "
 	 * hippolyta.cs.ttu.edu".
@@ -108,6 +108,8 @@ public interface Modeling extends Model {
 	
 	public static String OUT_STREAM = "table/outstream";
 
+	public static String OUT_STREAM_ROWS = "table/outstream/rows";
+
 	public static String IN_TABLE_RESOURCE = "table/in/resource";
 	
 	public static String OUT_TABLE_RESOURCE = "table/out/resource";
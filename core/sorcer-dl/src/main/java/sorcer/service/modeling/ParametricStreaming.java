@@ -15,9 +15,24 @@
  */
 package sorcer.service.modeling;
 
+import sorcer.service.Context;
+import sorcer.service.EvaluationException;
+
+import java.rmi.RemoteException;
+
 /**
  * @author Mike Sobolewski
  */
 public interface ParametricStreaming extends ParametricModeling {
 
+	/**
+	 * Evaluates the responses for the input rows at {@link Modeling#IN_STREAM}
+	 * of the context and writes rows of inputs and responses to the stream at
+	 * {@link Modeling#OUT_STREAM} as they are evaluated, without collecting a
+	 * response table. Local entry models evaluate response streams with
+	 * <code>EntryModel#evaluateResponseStream</code>.
+	 */
+	public Context evaluateResponseStream(Context<?> context)
+			throws EvaluationException, RemoteException;
+
 }
@@ -9,13 +9,17 @@ import sorcer.arithmetic.tester.provider.impl.AdderImpl;
 import sorcer.arithmetic.tester.provider.impl.MultiplierImpl;
 import sorcer.arithmetic.tester.provider.impl.SubtractorImpl;
 import sorcer.co.operator;
+import sorcer.core.dispatch.CatalogParallelDispatcher;
 import sorcer.core.dispatch.ExertionSorter;
 import sorcer.core.provider.rendezvous.ServiceJobber;
 import sorcer.service.*;
 import sorcer.service.Strategy.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.*;
@@ -157,6 +161,79 @@ public class ExertionSorterTest {
                 pipe(outPoint(f5, "result/y2"), inPoint(f3, "arg/x6")), p1);
     }
 
+    private static Task multiply(String name) throws Exception {
+        return task(name, sig("multiply", Multiplier.class),
+                context("multiply", inVal("arg/x1", 10.0), inVal("arg/x2", 50.0),
+                        outVal("result/y")));
+    }
+
+    // a -> b, a -> c, b -> d, c -> d
+    private static Job createDiamondJob(Access access) throws Exception {
+        Task a = multiply("a");
+        Task b = multiply("b");
+        Task c = multiply("c");
+        Task d = multiply("d");
+        return job("diamond", d, c, b, a, strategy(Flow.AUTO, access),
+                pipe(outPoint(a, "result/y"), inPoint(b, "arg/x1")),
+                pipe(outPoint(a, "result/y"), inPoint(c, "arg/x1")),
+                pipe(outPoint(b, "result/y"), inPoint(d, "arg/x1")),
+                pipe(outPoint(c, "result/y"), inPoint(d, "arg/x2")));
+    }
+
+    // a -> b -> c
+    private static Job createChainJob() throws Exception {
+        Task a = multiply("a");
+        Task b = multiply("b");
+        Task c = multiply("c");
+        return job("chain", c, b, a, strategy(Flow.AUTO, Access.PUSH),
+                pipe(outPoint(a, "result/y"), inPoint(b, "arg/x1")),
+                pipe(outPoint(b, "result/y"), inPoint(c, "arg/x1")));
+    }
+
+    // j2(t4, t5) and t6 independent, t3 takes its input from j2
+    private static Job createMixedJob() throws Exception {
+        Task t3 = multiply("t3");
+        Task t4 = multiply("t4");
+        Task t5 = multiply("t5");
+        Task t6 = multiply("t6");
+        return job("mixed", t3, t6, job("j2", t4, t5, strategy(Flow.AUTO, Access.PUSH)),
+                strategy(Flow.AUTO, Access.PUSH),
+                pipe(outPoint(t4, "result/y"), inPoint(t3, "arg/x1")),
+                pipe(outPoint(t5, "result/y"), inPoint(t3, "arg/x2")));
+    }
+
+    private static List<Set<String>> names(List<List<Contextion>> layers) {
+        List<Set<String>> names = new ArrayList<Set<String>>();
+        for (List<Contextion> layer : layers) {
+            Set<String> layerNames = new HashSet<String>();
+            for (Contextion mogram : layer)
+                layerNames.add(mogram.getName());
+            names.add(layerNames);
+        }
+        return names;
+    }
+
+    private static List<Set<String>> layers(String[]... layers) {
+        List<Set<String>> names = new ArrayList<Set<String>>();
+        for (String[] layer : layers)
+            names.add(new HashSet<String>(Arrays.asList(layer)));
+        return names;
+    }
+
+    // exposes the input layers of a job as executed by the dispatcher
+    private static class LayersDispatcher extends CatalogParallelDispatcher {
+
+        LayersDispatcher(Job job, List<List<Contextion>> layers) throws ContextException {
+            super(job, null, false, null, null);
+            setLayers(layers);
+            inputXrts = getInputExertions();
+        }
+
+        List<List<Contextion>> layers() {
+            return getInputLayers();
+        }
+    }
+
     @Test
     public void testSorterSimple() throws Exception {
         System.out.println("Before sorting");
@@ -201,4 +278,51 @@ public class ExertionSorterTest {
         Assert.assertArrayEquals(expList.toArray(), es.getSortedJob().getMograms().toArray());
     }
 
+    @Test
+    public void testDiamondLayers() throws Exception {
+        Job job = createDiamondJob(Access.PUSH);
+        ExertionSorter es = new ExertionSorter(job);
+        List<Set<String>> expected = layers(new String[] { "a" }, new String[] { "b", "c" }, new String[] { "d" });
+        Assert.assertEquals(expected, names(es.getLayers(job)));
+        Assert.assertEquals(expected, names(new LayersDispatcher(job, es.getLayers(job)).layers()));
+        // layers of several components are executed in parallel by catalog dispatchers
+        Assert.assertEquals(Flow.PAR, job.getFlowType());
+        Assert.assertEquals("a", job.getMograms().get(0).getName());
+        Assert.assertEquals("d", job.getMograms().get(3).getName());
+
+        // but not pulled from the space
+        job = createDiamondJob(Access.PULL);
+        new ExertionSorter(job);
+        Assert.assertEquals(Flow.SEQ, job.getFlowType());
+    }
+
+    @Test
+    public void testChainLayers() throws Exception {
+        Job job = createChainJob();
+        ExertionSorter es = new ExertionSorter(job);
+        List<Set<String>> expected = layers(new String[] { "a" }, new String[] { "b" }, new String[] { "c" });
+        Assert.assertEquals(expected, names(es.getLayers(job)));
+        Assert.assertEquals(expected, names(new LayersDispatcher(job, es.getLayers(job)).layers()));
+        Assert.assertEquals(Flow.SEQ, job.getFlowType());
+        List<String> order = new ArrayList<String>();
+        for (Contextion mogram : job.getMograms())
+            order.add(mogram.getName());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), order);
+    }
+
+    @Test
+    public void testMixedJobFlow() throws Exception {
+        Job job = createMixedJob();
+        ExertionSorter es = new ExertionSorter(job);
+        Routine j2 = (Routine) job.getMogram("j2");
+        Assert.assertEquals(layers(new String[] { "t6", "j2" }, new String[] { "t3" }), names(es.getLayers(job)));
+        Assert.assertEquals(layers(new String[] { "t4", "t5" }), names(es.getLayers(j2)));
+        Assert.assertEquals(Flow.PAR, job.getFlowType());
+        Assert.assertEquals(Flow.PAR, j2.getFlowType());
+
+        // a single layer is dispatched at once
+        List<List<Contextion>> inputLayers = new LayersDispatcher((Job) j2, es.getLayers(j2)).layers();
+        Assert.assertEquals(layers(new String[] { "t4", "t5" }), names(inputLayers));
+    }
+
 }
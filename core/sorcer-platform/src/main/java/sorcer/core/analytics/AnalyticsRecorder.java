@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.monitoring.Monitor;
 import sorcer.core.monitoring.MonitorAgent;
+import sorcer.core.provider.ProviderLoad;
 
 import java.text.NumberFormat;
 import java.util.HashMap;
@@ -40,6 +41,8 @@ public class AnalyticsRecorder {
     private ServiceID serviceID;
     private String hostName;
     private final MonitorAgent monitorAgent;
+    // latencies fed to provider selection in this JVM
+    private final ProviderLoad load;
     private NumberFormat percentFormatter = NumberFormat.getPercentInstance();
 
     public AnalyticsRecorder(String hostName, ServiceID serviceID, String name, String principal) {
@@ -48,6 +51,7 @@ public class AnalyticsRecorder {
         percentFormatter.setMaximumFractionDigits(3);
         monitorAgent = new MonitorAgent();
         monitorAgent.register(name, principal);
+        load = serviceID != null ? ProviderLoad.get(serviceID) : null;
     }
 
     public Map<String, MethodAnalytics> getMethodAnalytics() {
@@ -79,6 +83,8 @@ public class AnalyticsRecorder {
         MethodInvocationRecord record = getMethodInvocationRecord(m);
         record.complete(id);
         activityMap.put(m, record);
+        if (load != null)
+            load.recordLatency(record.getLastCallTime());
         monitorAgent.completed(record.create(serviceID, hostName));
     }
 
@@ -36,6 +36,7 @@ class MethodInvocationRecord {
     private AtomicInteger totalOperationCalls = new AtomicInteger();
     private AtomicLong totalCallTime = new AtomicLong();
     private volatile double averageExecTime;
+    private volatile long lastCallTime;
     private final String methodName;
     static Logger logger = LoggerFactory.getLogger(MethodInvocationRecord.class);
 
@@ -65,6 +66,10 @@ class MethodInvocationRecord {
         completed.incrementAndGet();
     }
 
+    long getLastCallTime() {
+        return lastCallTime;
+    }
+
     MethodAnalytics create(ServiceID serviceID, String hostName) {
         String activeOps = "";
         synchronized (stopWatch) {
@@ -92,6 +97,7 @@ class MethodInvocationRecord {
 
     private void handleCallTime(long startTime) {
         long callTime = System.nanoTime() - startTime;;
+        lastCallTime = callTime;
         totalCallTime.addAndGet(callTime);
         int totalCalls = totalOperationCalls.incrementAndGet();
         averageExecTime = totalCallTime.get() / totalCalls;
@@ -1585,14 +1585,33 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public Context execSignature(Signature sig, Arg... items) throws ServiceException, RemoteException {
+		Context.Return rp = getSignatureReturn(sig);
+		Task sTask = createSignatureTask(sig, rp, items);
+		Context outcxt = sTask.exert().getContext();
+		return appendSignatureOutput(sig, rp, outcxt);
+	}
+
+	/**
+	 * Returns the context return of the signature with the return path
+	 * defaulted to the signature name.
+	 */
+	protected Context.Return getSignatureReturn(Signature sig) throws ServiceException {
 		if (sig.getContextReturn() == null)
 			throw new MogramException("No signature return contextReturn defined!");
 		Context.Return rp = sig.getContextReturn();
 		if (rp.getReturnPath() == null) {
 			rp.returnPath = sig.getName();
 		}
+		return rp;
+	}
+
+	/**
+	 * Returns the task of the signature with the input context specified by
+	 * the context return <code>rp</code> evaluated in this context.
+	 */
+	protected Task createSignatureTask(Signature sig, Context.Return rp, Arg... items)
+			throws ServiceException, RemoteException {
 		In ips = rp.inPaths;
-		Out ops = rp.outPaths;
 		Context incxt = null;
 		if (rp.getDataContext() != null) {
 			incxt = rp.getDataContext();
@@ -1609,16 +1628,25 @@ public class ServiceContext<T> extends ServiceMogram implements
 			}
 		}
 		incxt.setContextReturn(rp);
-		String returnPath = rp.getReturnPath();
-		Context outcxt, resultContext;
 		// define output context here
 		Task sTask = task(sig, incxt);
 		sTask.setAccess(sig.getAccessType());
-		outcxt = sTask.exert().getContext();
+		return sTask;
+	}
+
+	/**
+	 * Appends the output context of the exerted signature task to this
+	 * context.
+	 *
+	 * @return the result context of the signature
+	 */
+	protected Context appendSignatureOutput(Signature sig, Context.Return rp, Context outcxt)
+			throws ContextException, RemoteException {
 		// restore return contextReturn
 		sig.setContextReturn(rp);
-
-		resultContext = outcxt;
+		Out ops = rp.outPaths;
+		String returnPath = rp.getReturnPath();
+		Context resultContext = outcxt;
 		if (ops != null && ops.size() > 0) {
 			Context returnContext = outcxt.getDirectionalSubcontext(ops);
 			// make sure the result is returned correctly
@@ -1684,6 +1712,15 @@ public class ServiceContext<T> extends ServiceMogram implements
 		return subcntxt;
 	}
 
+	/**
+	 * Returns the values of the response paths evaluated ahead of merging
+	 * them into a response context, or <code>null</code> if the paths are
+	 * evaluated one by one while merged.
+	 */
+	protected Map<String, Object> evaluateResponses(List<Path> paths, Arg... args) throws ContextException {
+		return null;
+	}
+
 	public ServiceContext getMergedSubcontext(ServiceContext intial, List<Path> paths, Arg... args)
 			throws ContextException {
 		ServiceContext subcntxt = null;
@@ -1694,9 +1731,13 @@ public class ServiceContext<T> extends ServiceMogram implements
 		}
 		subcntxt.setModeling(true);
 		Object val = null;
+		Map<String, Object> values = evaluateResponses(paths, args);
 		for (Arg arg : paths) {
 			String path = arg.getName();
-			val = getValue(path, args);
+			if (values != null && values.containsKey(path))
+				val = values.get(path);
+			else
+				val = getValue(path, args);
 			if (val instanceof Context) {
 				subcntxt.append((Context) val);
 			} else if (val instanceof Entry) {
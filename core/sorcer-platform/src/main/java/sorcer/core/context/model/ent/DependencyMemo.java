@@ -0,0 +1,180 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import sorcer.service.ContextException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizes the execution of exec dependencies of an {@link EntryModel}
+ * within a response computation. The computation is bracketed by
+ * {@link #begin()} and {@link #end()}; in between each dependency path is
+ * executed at most once, unless the path or one of the paths read by its
+ * execution is changed, and executions requested again are counted as
+ * avoided. Outside a response computation dependencies are executed each
+ * time as requested.
+ * <p>
+ * A dependency requested by another thread while being executed is awaited,
+ * so responses evaluated in parallel share its execution.
+ */
+public class DependencyMemo {
+
+	/**
+	 * An execution of a dependency path.
+	 */
+	public interface Execution {
+		void run() throws ContextException;
+	}
+
+	private static final class Pending {
+		final Thread thread = Thread.currentThread();
+		final CompletableFuture<Void> done = new CompletableFuture<Void>();
+		volatile Collection<String> reads = Collections.emptySet();
+	}
+
+	private final ConcurrentHashMap<String, Pending> executed = new ConcurrentHashMap<String, Pending>();
+
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private final LongAdder executions = new LongAdder();
+
+	private final LongAdder avoided = new LongAdder();
+
+	/**
+	 * Starts a response computation; nested computations share the
+	 * memoized executions of the outermost one.
+	 */
+	public void begin() {
+		if (depth.getAndIncrement() == 0)
+			executed.clear();
+	}
+
+	/**
+	 * Ends the response computation started last.
+	 */
+	public void end() {
+		if (depth.decrementAndGet() == 0)
+			executed.clear();
+	}
+
+	/**
+	 * Returns true if a response computation is in progress.
+	 */
+	public boolean isActive() {
+		return depth.get() > 0;
+	}
+
+	/**
+	 * Executes the dependency path unless it has been executed already in the
+	 * current response computation.
+	 */
+	public void execute(String path, Execution execution) throws ContextException {
+		if (!isActive()) {
+			executions.increment();
+			execution.run();
+			return;
+		}
+		Pending pending = new Pending();
+		Pending previous = executed.putIfAbsent(path, pending);
+		if (previous != null) {
+			if (!isInProgress(previous)) {
+				try {
+					previous.done.join();
+					avoided.increment();
+					return;
+				} catch (CompletionException e) {
+					// the previous execution failed, execute again
+				}
+			}
+			// executed again within its own execution, as requested
+			executions.increment();
+			execution.run();
+			return;
+		}
+		executions.increment();
+		try {
+			execution.run();
+			pending.done.complete(null);
+		} catch (ContextException | RuntimeException | Error e) {
+			executed.remove(path, pending);
+			pending.done.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Records the paths read by the execution of the path in progress by
+	 * this thread; the execution is dropped when one of them is changed.
+	 */
+	public void setReads(String path, Collection<String> reads) {
+		Pending pending = executed.get(path);
+		if (pending != null && isInProgress(pending))
+			pending.reads = reads;
+	}
+
+	/**
+	 * Drops the memoized execution of the path and the executions that read
+	 * it, so they are executed again when requested. Executions in progress
+	 * by this thread are kept, as changes they make are outputs of the
+	 * execution.
+	 */
+	public void invalidate(String path) {
+		invalidate(Collections.singleton(path));
+	}
+
+	public void invalidate(Collection<String> paths) {
+		if (!executed.isEmpty()) {
+			executed.entrySet().removeIf(e -> !isInProgress(e.getValue())
+					&& (paths.contains(e.getKey()) || !Collections.disjoint(paths, e.getValue().reads)));
+		}
+	}
+
+	private static boolean isInProgress(Pending pending) {
+		return pending.thread == Thread.currentThread() && !pending.done.isDone();
+	}
+
+	public void invalidateAll() {
+		executed.values().removeIf(pending -> !isInProgress(pending));
+	}
+
+	/**
+	 * Returns the number of executed dependency paths.
+	 */
+	public long getExecutionCount() {
+		return executions.sum();
+	}
+
+	/**
+	 * Returns the number of executions avoided by memoization.
+	 */
+	public long getAvoidedCount() {
+		return avoided.sum();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[executions: " + getExecutionCount()
+				+ ", avoided: " + getAvoidedCount() + "]";
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the read set of each evaluated entry of an {@link EntryModel} and
+ * maintains the reverse dependency graph of the model, i.e., for each path
+ * the paths whose last evaluation read it.
+ * <p>
+ * An evaluation of a path is bracketed by {@link #begin(String)} and
+ * {@link #end()}; all paths read in between by the evaluating thread are
+ * recorded together with the values read. The result is kept as a
+ * {@link Record} until one of the paths it depends on, directly or
+ * transitively, is changed with {@link #changed(String)}. Changes the model
+ * cannot attribute to a path start a new epoch with {@link #changedAll()},
+ * after which records are revalidated by comparing their read values.
+ */
+public class DependencyTracker {
+
+	/**
+	 * The result of an evaluation of a path with the values it read.
+	 */
+	public static class Record {
+		private final Map<String, Object> reads;
+		private final Object value;
+		/* the epoch in which the reads were last found current */
+		private volatile long epoch;
+
+		Record(Map<String, Object> reads, Object value, long epoch) {
+			this.reads = reads;
+			this.value = value;
+			this.epoch = epoch;
+		}
+
+		public Map<String, Object> getReads() {
+			return reads;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+	}
+
+	private static final class Frame {
+		final String path;
+		final Map<String, Object> reads;
+
+		Frame(String path) {
+			this.path = path;
+			reads = path != null ? new LinkedHashMap<String, Object>() : null;
+		}
+	}
+
+	/* a frame of reads that are not recorded, e.g. while validating */
+	private static final Frame SUSPENDED = new Frame(null);
+
+	private final ConcurrentHashMap<String, Record> records = new ConcurrentHashMap<String, Record>();
+
+	private final ConcurrentHashMap<String, Set<String>> dependents = new ConcurrentHashMap<String, Set<String>>();
+
+	private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final AtomicLong epoch = new AtomicLong();
+
+	private final LongAdder evaluations = new LongAdder();
+
+	private final LongAdder reuses = new LongAdder();
+
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * Starts recording the reads of an evaluation of the path.
+	 */
+	public void begin(String path) {
+		frames.get().push(new Frame(path));
+	}
+
+	/**
+	 * Ends the evaluation started last by this thread.
+	 *
+	 * @return the paths and values read by the evaluation
+	 */
+	public Map<String, Object> end() {
+		Frame frame = frames.get().pop();
+		return frame.reads != null ? frame.reads : Collections.<String, Object>emptyMap();
+	}
+
+	/**
+	 * Stops recording reads by this thread until {@link #resume()}.
+	 */
+	public void suspend() {
+		frames.get().push(SUSPENDED);
+	}
+
+	public void resume() {
+		frames.get().pop();
+	}
+
+	/**
+	 * Records a read of the path by the evaluation in progress, if any.
+	 */
+	public void read(String path, Object value) {
+		Frame frame = frames.get().peek();
+		if (frame != null && frame != SUSPENDED && !path.equals(frame.path))
+			frame.reads.put(path, value);
+	}
+
+	/**
+	 * Returns the record of the last evaluation of the path, or
+	 * <code>null</code> if the path has to be evaluated.
+	 */
+	public Record getRecord(String path) {
+		return records.get(path);
+	}
+
+	/**
+	 * Returns true if the record was validated in the current epoch.
+	 */
+	public boolean isCurrent(Record record) {
+		return record.epoch == epoch.get();
+	}
+
+	/**
+	 * Marks the record as validated in the current epoch.
+	 */
+	public void validated(Record record) {
+		record.epoch = epoch.get();
+	}
+
+	/**
+	 * Counts an evaluation avoided by reusing a record.
+	 */
+	public void reused() {
+		reuses.increment();
+	}
+
+	/**
+	 * Keeps the result of an evaluation of the path and updates the
+	 * dependency graph with the reads of the evaluation.
+	 */
+	public Record store(String path, Map<String, Object> reads, Object value) {
+		evaluations.increment();
+		Record record = new Record(reads, value, epoch.get());
+		Record previous = records.put(path, record);
+		if (previous != null) {
+			for (String read : previous.reads.keySet()) {
+				if (!reads.containsKey(read)) {
+					Set<String> ds = dependents.get(read);
+					if (ds != null)
+						ds.remove(path);
+				}
+			}
+		}
+		for (String read : reads.keySet()) {
+			dependents.computeIfAbsent(read, k -> ConcurrentHashMap.newKeySet()).add(path);
+		}
+		return record;
+	}
+
+	/**
+	 * Drops the record of the changed path and the records of all paths
+	 * that depend on it, directly or transitively.
+	 *
+	 * @return the number of dropped records
+	 */
+	public int changed(String path) {
+		return changed(path, null);
+	}
+
+	/**
+	 * Drops the record of the changed path and the records of all paths
+	 * that depend on it, and adds the dependent paths to
+	 * <code>affected</code>, if not null.
+	 *
+	 * @return the number of dropped records
+	 */
+	public int changed(String path, Collection<String> affected) {
+		int count = 0;
+		// the entry itself may be replaced, e.g. a new invoker
+		if (records.remove(path) != null)
+			count++;
+		Deque<String> queue = new ArrayDeque<String>();
+		Set<String> visited = new HashSet<String>();
+		visited.add(path);
+		queue.add(path);
+		while (!queue.isEmpty()) {
+			Set<String> ds = dependents.get(queue.poll());
+			if (ds == null)
+				continue;
+			for (String d : ds) {
+				if (visited.add(d)) {
+					if (records.remove(d) != null)
+						count++;
+					if (affected != null)
+						affected.add(d);
+					queue.add(d);
+				}
+			}
+		}
+		invalidations.add(count);
+		return count;
+	}
+
+	/**
+	 * Starts a new epoch after changes not attributed to paths; records
+	 * have to be revalidated before being reused.
+	 */
+	public void changedAll() {
+		epoch.incrementAndGet();
+	}
+
+	/**
+	 * Returns the paths whose last evaluation read the given path.
+	 */
+	public Set<String> getDependents(String path) {
+		Set<String> ds = dependents.get(path);
+		return ds != null ? Collections.unmodifiableSet(ds)
+				: Collections.<String>emptySet();
+	}
+
+	public void clear() {
+		records.clear();
+		dependents.clear();
+		epoch.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of evaluations of paths recorded.
+	 */
+	public long getEvaluationCount() {
+		return evaluations.sum();
+	}
+
+	/**
+	 * Returns the number of evaluations avoided by reusing records.
+	 */
+	public long getReuseCount() {
+		return reuses.sum();
+	}
+
+	/**
+	 * Returns the number of records dropped by changes of paths.
+	 */
+	public long getInvalidationCount() {
+		return invalidations.sum();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[records: " + records.size() + ", evaluations: "
+				+ getEvaluationCount() + ", reuses: " + getReuseCount() + ", invalidations: "
+				+ getInvalidationCount() + "]";
+	}
+}
@@ -28,6 +28,7 @@ import sorcer.service.*;
 import sorcer.service.ContextDomain;
 import sorcer.service.modeling.Conditional;
 import sorcer.service.modeling.Model;
+import sorcer.service.modeling.Modeling;
 import sorcer.service.modeling.Functionality;
 import sorcer.util.Row;
 import sorcer.util.bdb.objects.UuidObject;
@@ -74,6 +75,14 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
     // model supporting collaboration
 	protected Collaboration collaboration;
 
+	// recompute only entries depending on changed paths
+	protected boolean isIncremental = false;
+
+	transient protected volatile DependencyTracker dependencies;
+
+	// exec dependencies executed within a response computation
+	transient protected volatile DependencyMemo dependencyMemo;
+
 	public static EntryModel instance(Signature builder) throws SignatureException {
 		EntryModel model = (EntryModel) sorcer.co.operator.instance(builder);
 		model.setBuilder(builder);
@@ -111,6 +120,87 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
     }
 
 	public Object getValue(String path, Arg... args) throws ContextException {
+		DependencyTracker tracker = getDependencyTracker();
+		if (tracker == null || path == null) {
+			return evalValue(path, args);
+		}
+		Object val;
+		ServiceInvoker invoker = (args == null || args.length == 0) ? getTracedInvoker(path) : null;
+		if (invoker != null) {
+			val = getTracedValue(tracker, path, invoker);
+		} else {
+			val = evalValue(path, args);
+		}
+		tracker.read(path, val);
+		return val;
+	}
+
+	/**
+	 * Returns the last computed value of the path if none of its reads have
+	 * changed since, otherwise recomputes the path recording its reads.
+	 */
+	private Object getTracedValue(DependencyTracker tracker, String path, ServiceInvoker invoker)
+			throws ContextException {
+		DependencyTracker.Record record = tracker.getRecord(path);
+		if (record != null && (tracker.isCurrent(record) || isCurrent(tracker, record))) {
+			tracker.reused();
+			return record.getValue();
+		}
+		Object entry = data.get(path);
+		if (entry instanceof Entry) {
+			((Entry) entry).setValid(false);
+		}
+		invoker.setValid(false);
+		Object val;
+		Map<String, Object> reads;
+		tracker.begin(path);
+		try {
+			val = evalValue(path);
+		} finally {
+			reads = tracker.end();
+		}
+		tracker.store(path, reads, val);
+		return val;
+	}
+
+	private boolean isCurrent(DependencyTracker tracker, DependencyTracker.Record record)
+			throws ContextException {
+		tracker.suspend();
+		try {
+			for (Map.Entry<String, Object> read : record.getReads().entrySet()) {
+				if (!Objects.equals(read.getValue(), getValue(read.getKey()))) {
+					return false;
+				}
+			}
+		} finally {
+			tracker.resume();
+		}
+		tracker.validated(record);
+		return true;
+	}
+
+	/**
+	 * Returns the invoker of the path if its evaluation reads its arguments
+	 * from this model, so its read set can be recorded, otherwise null.
+	 */
+	private ServiceInvoker getTracedInvoker(String path) {
+		Object val = data.get(path);
+		if (val instanceof Entry && !(val instanceof Req)) {
+			val = ((Entry) val).getImpl();
+		}
+		if (val instanceof ServiceInvoker) {
+			ServiceInvoker invoker = (ServiceInvoker) val;
+			Context ic = invoker.getInvokeContext();
+			Context sc = invoker.getScope();
+			if ((ic == this && (sc == null || sc == this || sc.size() == 0))
+					|| (ic == null && sc == this)) {
+				return invoker;
+			}
+		}
+		return null;
+	}
+
+	protected Object evalValue(String path, Arg... args) throws ContextException {
 		try {
 			append(args);
 			Object val;
@@ -240,6 +330,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 		Object obj = get(path);
 		if (obj instanceof Pcr) {
 			(( Pcr ) obj).setValue(value);
+			changed(path);
 			return value;
 		} else {
 			if (value instanceof Scopable) {
@@ -256,7 +347,180 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
                 }
             }
 		}
-		return super.put(path, value);
+		Object previous = super.put(path, value);
+		if (previous != value) {
+			changed(path);
+		} else if (dependencies != null) {
+			dependencies.changed(path);
+		}
+		return previous;
+	}
+
+	@Override
+	public Object put(String path, Object value) {
+		Object previous = super.put(path, value);
+		if (previous != value) {
+			changed(path);
+		}
+		return previous;
+	}
+
+	@Override
+	public Object remove(Object path) {
+		Object previous = super.remove(path);
+		if (previous != null) {
+			changed((String) path);
+		}
+		return previous;
+	}
+
+	/**
+	 * Drops the recorded values and memoized dependency executions that
+	 * depend on the changed path.
+	 */
+	private void changed(String path) {
+		DependencyMemo memo = dependencyMemo;
+		if (dependencies != null) {
+			if (memo != null && memo.isActive()) {
+				Set<String> affected = new HashSet<String>();
+				affected.add(path);
+				dependencies.changed(path, affected);
+				memo.invalidate(affected);
+			} else {
+				dependencies.changed(path);
+			}
+		}
+	}
+
+	@Override
+	public void setChanged(boolean state) {
+		super.setChanged(state);
+		// a change not attributed to paths, revalidate recorded values
+		if (state && dependencies != null) {
+			dependencies.changedAll();
+		}
+	}
+
+	@Override
+	public Fi selectFidelity(String selection) throws ConfigurationException {
+		Fi fi = super.selectFidelity(selection);
+		if (dependencies != null) {
+			dependencies.clear();
+		}
+		if (dependencyMemo != null) {
+			dependencyMemo.invalidateAll();
+		}
+		return fi;
+	}
+
+	/**
+	 * Computes the response of this model. Incremental models execute each
+	 * exec dependency at most once, unless a path it read is changed in the
+	 * meantime, as recorded by the dependency tracker. Dependencies are then
+	 * executed with the arguments of their first request.
+	 *
+	 * @see DependencyMemo
+	 */
+	@Override
+	public Context getResponse(Arg... args) throws ContextException {
+		if (getDependencyTracker() == null) {
+			return super.getResponse(args);
+		}
+		DependencyMemo memo = getDependencyMemo();
+		memo.begin();
+		try {
+			return super.getResponse(args);
+		} finally {
+			memo.end();
+		}
+	}
+
+	/**
+	 * Evaluates the responses of this model for the input rows at
+	 * {@link Modeling#IN_STREAM} of the context and writes rows of inputs and
+	 * responses to {@link Modeling#OUT_STREAM} as they are evaluated. The
+	 * number of rows written is returned at {@link Modeling#OUT_STREAM_ROWS}.
+	 *
+	 * @see ParametricRunner
+	 * @see sorcer.service.modeling.ParametricStreaming
+	 */
+	public Context evaluateResponseStream(Context<?> context) throws EvaluationException {
+		try {
+			long rows = new ParametricRunner(this).run(context);
+			((Context) context).putValue(Modeling.OUT_STREAM_ROWS, rows);
+		} catch (EvaluationException e) {
+			throw e;
+		} catch (ContextException e) {
+			throw new EvaluationException(e);
+		}
+		return context;
+	}
+
+	/**
+	 * Returns true if independent response paths of this model are evaluated
+	 * in parallel, i.e., the flow type of the model is {@link Strategy.Flow#PAR}.
+	 * Parallel responses are evaluated on copies of this model, so they leave
+	 * the entries of this model unevaluated, see {@link ResponseEvaluator}.
+	 */
+	public boolean isParallel() {
+		return domainStrategy != null && ((ModelStrategy) domainStrategy).getFlowType() == Strategy.Flow.PAR;
+	}
+
+	@Override
+	protected Map<String, Object> evaluateResponses(List<Path> paths, Arg... args) throws ContextException {
+		if (isParallel() && paths.size() > 1 && !ResponseEvaluator.isInResponse()) {
+			return new ResponseEvaluator(this).evaluate(paths, args);
+		}
+		return null;
+	}
+
+	public boolean isIncremental() {
+		return isIncremental;
+	}
+
+	/**
+	 * Enables recording of the read set of each invoker evaluated by this
+	 * model. Values are then recomputed only when a path they depend on,
+	 * directly or transitively, has changed by {@link #putValue(String, Object)},
+	 * {@link #substitute(Arg...)} or {@link #setChanged(boolean)}. Inputs
+	 * mutated in place must be put again or followed by
+	 * <code>setChanged(true)</code>. Exec dependencies of responses are
+	 * then memoized by their read sets as well.
+	 */
+	public EntryModel setIncremental(boolean incremental) {
+		isIncremental = incremental;
+		dependencies = null;
+		updateEvaluations();
+		return this;
+	}
+
+	/**
+	 * Returns the dependency graph of an incremental model or null.
+	 */
+	public DependencyTracker getDependencyTracker() {
+		if (isIncremental && dependencies == null) {
+			synchronized (this) {
+				if (dependencies == null) {
+					dependencies = new DependencyTracker();
+				}
+			}
+		}
+		return isIncremental ? dependencies : null;
+	}
+
+	/**
+	 * Returns the memoized executions of exec dependencies with the number
+	 * of executions avoided.
+	 */
+	public DependencyMemo getDependencyMemo() {
+		if (dependencyMemo == null) {
+			synchronized (this) {
+				if (dependencyMemo == null) {
+					dependencyMemo = new DependencyMemo();
+				}
+			}
+		}
+		return dependencyMemo;
 	}
 
 	public Pcr getCall(String name) throws ContextException {
@@ -360,6 +624,9 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 	}
 
 	protected void updateEvaluations() {
+		if (dependencies != null) {
+			dependencies.changedAll();
+		}
 		Iterator<Map.Entry<String,Object>>  i = entryIterator();
 		while (i.hasNext()) {
 			Map.Entry<String, Object> entry = i.next();
@@ -522,7 +789,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 								// apply only to matched fidelity
 								if (dpl != null && dpl.size() > 0) {
 									for (Path p : dpl) {
-										getValue(p.path, args);
+										execDependency(p.path, args);
 									}
 								}
 							}
@@ -541,7 +808,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 							// apply only if condition is true
 							if (dpl != null && dpl.size() > 0) {
 								for (Path p : dpl) {
-									getValue(p.path, args);
+									execDependency(p.path, args);
 								}
 							}
 						}
@@ -549,7 +816,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 					}
 					if (dpl != null && dpl.size() > 0) {
 						for (Path p : dpl) {
-							getValue(p.path, args);
+							execDependency(p.path, args);
 						}
 					}
 
@@ -561,6 +828,25 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 	protected void execDependencies(Signature sig, Arg... args) throws ContextException {
 		execDependencies(sig.getName(), args);
 	}
+
+	private void execDependency(String path, Arg... args) throws ContextException {
+		DependencyTracker tracker = getDependencyTracker();
+		DependencyMemo memo = dependencyMemo;
+		if (tracker == null || memo == null || !memo.isActive()) {
+			getValue(path, args);
+			return;
+		}
+		memo.execute(path, () -> {
+			Map<String, Object> reads;
+			tracker.begin(path);
+			try {
+				getValue(path, args);
+			} finally {
+				reads = tracker.end();
+			}
+			memo.setReads(path, reads.keySet());
+		});
+	}
 	/**
 	 * Returns an enumeration of all contextReturn marking variable nodes.
 	 *
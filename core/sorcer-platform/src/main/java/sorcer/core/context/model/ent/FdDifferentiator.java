@@ -0,0 +1,370 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import sorcer.service.*;
+import sorcer.service.modeling.Functionality;
+import sorcer.service.modeling.Wrt;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.DataTable;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.rmi.MarshalledObject;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Computes finite difference gradients of the responses of an
+ * {@link EntryModel} with respect to its {@link Wrt} variables. All perturbed
+ * evaluations of a gradient are independent and are evaluated concurrently
+ * on a bounded executor. Each evaluation runs on its own copy of the model
+ * unmarshalled from a snapshot taken once per differentiation, so the model
+ * and concurrent evaluations do not observe each other's perturbations.
+ * <p>
+ * For forward and backward differences the model is evaluated once at the
+ * unperturbed point and the baseline is shared by the gradients of all
+ * responses; each perturbed evaluation computes all responses. Gradients
+ * are kept as rows of doubles by response over the wrt variables, see
+ * {@link #getGradientTable()}.
+ * <p>
+ * Variables with bounds are perturbed within their bounds: a difference
+ * that would step over a bound is taken on the other side of the point,
+ * and the step is shortened if it does not fit on either side.
+ */
+public class FdDifferentiator implements Differentiator, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Scheme {
+		FORWARD, BACKWARD, CENTRAL
+	}
+
+	private static ExecutorService executor;
+
+	/* set while a perturbed model is evaluated by the executor */
+	private static final ThreadLocal<Boolean> inDifferentiation = new ThreadLocal<Boolean>();
+
+	private final EntryModel model;
+
+	// response paths, if empty the response paths of the model
+	private final List<String> responses;
+
+	private Wrt wrt;
+
+	private Scheme scheme = Scheme.FORWARD;
+
+	// perturbation relative to the magnitude of a variable, at least 1
+	private double step = 1.0e-6;
+
+	// lower and upper bounds by wrt variable
+	private final Map<String, double[]> bounds = new HashMap<String, double[]>();
+
+	private String[] responseNames;
+
+	private String[] wrtNames;
+
+	// gradients by response over the wrt variables
+	private double[][] gradients;
+
+	public FdDifferentiator(EntryModel model, String... responses) {
+		this.model = model;
+		this.responses = Arrays.asList(responses);
+	}
+
+	public FdDifferentiator(EntryModel model, Wrt wrt, String... responses) {
+		this(model, responses);
+		this.wrt = wrt;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Gradient-%2$d");
+			int threads = Math.max(1, Sorcer.getGradientThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	@Override
+	public Functionality.Type getType() {
+		return Functionality.Type.MPFD;
+	}
+
+	@Override
+	public void setWrt(Wrt wrt) {
+		this.wrt = wrt;
+		gradients = null;
+	}
+
+	public Wrt getWrt() {
+		return wrt;
+	}
+
+	public Scheme getScheme() {
+		return scheme;
+	}
+
+	public void setScheme(Scheme scheme) {
+		this.scheme = scheme;
+		gradients = null;
+	}
+
+	public double getStep() {
+		return step;
+	}
+
+	public void setStep(double step) {
+		this.step = step;
+		gradients = null;
+	}
+
+	/**
+	 * Sets the bounds of the wrt variable within which it is perturbed.
+	 */
+	public void setBounds(String name, double lower, double upper) {
+		if (lower > upper)
+			throw new IllegalArgumentException("lower bound of " + name + " exceeds its upper bound");
+		bounds.put(name, new double[] { lower, upper });
+		gradients = null;
+	}
+
+	/**
+	 * Computes the gradients of all responses at the point of the model with
+	 * values of entries in args substituted. A {@link Wrt} in args replaces
+	 * the wrt variables of this differentiator.
+	 */
+	@Override
+	public DataTable differentiate(Arg... args) throws EvaluationException {
+		List<Arg> point = new ArrayList<Arg>();
+		for (Arg arg : args) {
+			if (arg instanceof Wrt)
+				wrt = (Wrt) arg;
+			else if (arg instanceof Entry)
+				point.add(arg);
+		}
+		if (wrt == null || wrt.getWrtNames().isEmpty())
+			throw new EvaluationException("No wrt variables to differentiate " + model.getName());
+		String[] names = wrt.getWrtNames().toArray(new String[0]);
+		String[] paths = getResponseNames();
+		Arg[] pointArgs = point.toArray(new Arg[point.size()]);
+		MarshalledObject<EntryModel> snapshot;
+		try {
+			snapshot = new MarshalledObject<EntryModel>(model);
+		} catch (IOException e) {
+			throw new EvaluationException("Cannot copy model " + model.getName(), e);
+		}
+
+		// the point and the schemes of the variables within their bounds
+		int n = names.length;
+		double[] x = new double[n];
+		double[] up = new double[n];
+		double[] down = new double[n];
+		Scheme[] schemes = new Scheme[n];
+		EntryModel copy;
+		try {
+			copy = snapshot.get();
+			for (int i = 0; i < n; i++) {
+				x[i] = toDouble(names[i], copy.getValue(names[i], pointArgs));
+				schemes[i] = perturb(names[i], x[i], up, down, i);
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new EvaluationException("Cannot copy model " + model.getName(), e);
+		} catch (ContextException e) {
+			throw toEvaluationException(e);
+		}
+
+		// the baseline shared by one-sided differences
+		double[] baseline = null;
+		if (Arrays.stream(schemes).anyMatch(sc -> sc != Scheme.CENTRAL)) {
+			try {
+				baseline = evaluate(copy, paths, pointArgs);
+			} catch (ContextException e) {
+				throw toEvaluationException(e);
+			}
+		}
+
+		List<CompletableFuture<double[]>> upper = new ArrayList<CompletableFuture<double[]>>(n);
+		List<CompletableFuture<double[]>> lower = new ArrayList<CompletableFuture<double[]>>(n);
+		for (int i = 0; i < n; i++) {
+			upper.add(schemes[i] == Scheme.BACKWARD ? CompletableFuture.completedFuture(baseline)
+					: evaluate(snapshot, paths, pointArgs, names[i], up[i]));
+			lower.add(schemes[i] == Scheme.FORWARD ? CompletableFuture.completedFuture(baseline)
+					: evaluate(snapshot, paths, pointArgs, names[i], down[i]));
+		}
+		double[][] values = new double[paths.length][n];
+		for (int i = 0; i < n; i++) {
+			double[] fu = join(upper.get(i));
+			double[] fl = join(lower.get(i));
+			double h = up[i] - down[i];
+			for (int k = 0; k < paths.length; k++)
+				values[k][i] = (fu[k] - fl[k]) / h;
+		}
+		responseNames = paths;
+		wrtNames = names;
+		gradients = values;
+		return getGradientTable();
+	}
+
+	/**
+	 * Sets the perturbed values of the variable at the index and returns the
+	 * scheme of its difference, one-sided at a bound.
+	 */
+	private Scheme perturb(String name, double x, double[] up, double[] down, int index)
+			throws EvaluationException {
+		double h = step * Math.max(Math.abs(x), 1.0);
+		Scheme sc = scheme;
+		double[] b = bounds.get(name);
+		if (b != null) {
+			boolean upFits = x + h <= b[1];
+			boolean downFits = x - h >= b[0];
+			if (!upFits && !downFits) {
+				// a shorter step on the side with more room
+				double room = Math.max(b[1] - x, x - b[0]);
+				if (room <= 0)
+					throw new EvaluationException("No room to perturb " + name + " within its bounds");
+				h = room;
+				sc = b[1] - x >= x - b[0] ? Scheme.FORWARD : Scheme.BACKWARD;
+			} else if (sc == Scheme.CENTRAL && !(upFits && downFits)) {
+				sc = upFits ? Scheme.FORWARD : Scheme.BACKWARD;
+			} else if (sc == Scheme.FORWARD && !upFits) {
+				sc = Scheme.BACKWARD;
+			} else if (sc == Scheme.BACKWARD && !downFits) {
+				sc = Scheme.FORWARD;
+			}
+		}
+		// exactly representable perturbations of the variable
+		up[index] = sc == Scheme.BACKWARD ? x : x + h;
+		down[index] = sc == Scheme.FORWARD ? x : x - h;
+		return sc;
+	}
+
+	private String[] getResponseNames() throws EvaluationException {
+		if (!responses.isEmpty())
+			return responses.toArray(new String[responses.size()]);
+		List<Path> paths = model.getDomainStrategy().getResponsePaths();
+		if (paths == null || paths.isEmpty())
+			throw new EvaluationException("No responses to differentiate " + model.getName());
+		String[] names = new String[paths.size()];
+		for (int i = 0; i < names.length; i++)
+			names[i] = paths.get(i).path;
+		return names;
+	}
+
+	private CompletableFuture<double[]> evaluate(MarshalledObject<EntryModel> snapshot, String[] paths,
+												 Arg[] point, String name, double value) {
+		Arg[] args = Arrays.copyOf(point, point.length + 1);
+		args[point.length] = new Value(name, value);
+		if (inDifferentiation.get() != null) {
+			// perturbed models evaluated in a perturbed model run sequentially
+			CompletableFuture<double[]> future = new CompletableFuture<double[]>();
+			try {
+				future.complete(evaluate(snapshot, paths, args));
+			} catch (CompletionException e) {
+				future.completeExceptionally(e.getCause());
+			}
+			return future;
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			inDifferentiation.set(Boolean.TRUE);
+			try {
+				return evaluate(snapshot, paths, args);
+			} finally {
+				inDifferentiation.remove();
+			}
+		}, getExecutor());
+	}
+
+	private double[] evaluate(MarshalledObject<EntryModel> snapshot, String[] paths, Arg[] args) {
+		try {
+			return evaluate(snapshot.get(), paths, args);
+		} catch (IOException | ClassNotFoundException e) {
+			throw new CompletionException(new EvaluationException("Cannot copy model " + model.getName(), e));
+		} catch (ContextException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private static double[] evaluate(EntryModel copy, String[] paths, Arg[] args) throws ContextException {
+		double[] values = new double[paths.length];
+		for (int k = 0; k < paths.length; k++)
+			values[k] = toDouble(paths[k], copy.getValue(paths[k], args));
+		return values;
+	}
+
+	private static double toDouble(String path, Object value) throws EvaluationException {
+		if (value instanceof Entry) {
+			value = ((Entry) value).getOut();
+		}
+		if (!(value instanceof Number))
+			throw new EvaluationException("Value of " + path + " is not a number: " + value);
+		return ((Number) value).doubleValue();
+	}
+
+	private static double[] join(CompletableFuture<double[]> future) throws EvaluationException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ContextException)
+				throw toEvaluationException((ContextException) cause);
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new EvaluationException((Exception) cause);
+		}
+	}
+
+	private static EvaluationException toEvaluationException(ContextException e) {
+		return e instanceof EvaluationException ? (EvaluationException) e : new EvaluationException(e);
+	}
+
+	/**
+	 * Returns the gradient of the response over the wrt variables, computing
+	 * gradients if not computed yet.
+	 */
+	@Override
+	public double[] getGradient(String gradientName) throws EvaluationException {
+		if (gradients == null)
+			differentiate();
+		for (int k = 0; k < responseNames.length; k++) {
+			if (responseNames[k].equals(gradientName))
+				return gradients[k].clone();
+		}
+		throw new EvaluationException("No gradient of " + gradientName);
+	}
+
+	/**
+	 * Returns the gradients with a row by response and a column by wrt
+	 * variable, computing gradients if not computed yet.
+	 */
+	@Override
+	public DataTable getGradientTable() throws EvaluationException {
+		if (gradients == null)
+			differentiate();
+		DataTable table = new DataTable(Arrays.asList(wrtNames), 0);
+		for (double[] gradient : gradients)
+			table.addRow(gradient);
+		table.setRowIdentifiers(Arrays.asList(responseNames));
+		return table;
+	}
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import sorcer.service.*;
+import sorcer.service.modeling.Modeling;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.DataTable;
+import sorcer.util.Sorcer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.rmi.MarshalledObject;
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Runs parametric studies of an {@link EntryModel}: evaluates the responses
+ * of the model for each row of input values and writes rows of input values
+ * followed by response values to a {@link Sink}. Input rows are read as the
+ * study runs, evaluated concurrently on copies of the model unmarshalled from
+ * a snapshot, and written in the order of input rows; at most a window of
+ * rows is held in memory, so studies of any size run in bounded memory.
+ * <p>
+ * With a checkpoint file, the number of rows written is recorded after every
+ * checkpoint interval and when the study ends or fails. A run with an
+ * existing checkpoint skips the rows already written and resumes with the
+ * next input row; the sink is expected to append to the rows written
+ * before. This is the evaluation of response streams of
+ * {@link sorcer.service.modeling.ParametricStreaming}, see
+ * {@link EntryModel#evaluateResponseStream(Context)}.
+ */
+public class ParametricRunner {
+
+	/**
+	 * Receives the rows of a parametric study in the order of input rows.
+	 */
+	public interface Sink {
+
+		void write(long index, Object[] row) throws IOException;
+
+		/**
+		 * Makes the rows written so far durable, called before each
+		 * checkpoint.
+		 */
+		default void flush() throws IOException {
+		}
+	}
+
+	private static ExecutorService executor;
+
+	private final EntryModel model;
+
+	// response paths, if empty the response paths of the model
+	private final List<String> responses;
+
+	// a fresh copy of the model for each row instead of reused copies
+	private boolean isolated = false;
+
+	// max number of rows evaluated or waiting to be written
+	private int window = 2 * Math.max(1, Sorcer.getParametricThreads());
+
+	private File checkpoint;
+
+	private int checkpointInterval = 100;
+
+	public ParametricRunner(EntryModel model, String... responses) {
+		this.model = model;
+		this.responses = Arrays.asList(responses);
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Parametric-%2$d");
+			int threads = Math.max(1, Sorcer.getParametricThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	public boolean isIsolated() {
+		return isolated;
+	}
+
+	/**
+	 * Evaluates each row on a fresh copy of the model if true, otherwise
+	 * copies of the model are reused by subsequent rows.
+	 */
+	public void setIsolated(boolean isolated) {
+		this.isolated = isolated;
+	}
+
+	public int getWindow() {
+		return window;
+	}
+
+	public void setWindow(int window) {
+		this.window = window;
+	}
+
+	public File getCheckpoint() {
+		return checkpoint;
+	}
+
+	public void setCheckpoint(File checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Returns the names of the columns of rows written to sinks: the input
+	 * names followed by the response paths.
+	 */
+	public List<String> getColumnNames(List<String> inputNames) throws EvaluationException {
+		List<String> names = new ArrayList<String>(inputNames);
+		names.addAll(Arrays.asList(getResponseNames()));
+		return names;
+	}
+
+	/**
+	 * Runs the study for the input stream at {@link Modeling#IN_STREAM} of
+	 * the context, a {@link DataTable} or a {@link Reader} of delimited rows
+	 * with a header, and writes to the {@link Sink} or {@link Writer} at
+	 * {@link Modeling#OUT_STREAM}.
+	 *
+	 * @return the number of rows written, including rows written before the
+	 *         checkpoint
+	 */
+	public long run(Context<?> context) throws ContextException {
+		Object in, out;
+		try {
+			in = context.getValue(Modeling.IN_STREAM);
+			out = context.getValue(Modeling.OUT_STREAM);
+		} catch (RemoteException e) {
+			throw new ContextException(e);
+		}
+		Sink sink;
+		if (out instanceof Sink)
+			sink = (Sink) out;
+		else if (out instanceof Writer)
+			sink = writerSink(out instanceof PrintWriter ? (PrintWriter) out : new PrintWriter((Writer) out), ",");
+		else
+			throw new ContextException("No output stream at " + Modeling.OUT_STREAM + ": " + out);
+		if (in instanceof DataTable)
+			return run((DataTable) in, sink);
+		else if (in instanceof Reader)
+			return run(in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader((Reader) in), ",", sink);
+		throw new ContextException("No input stream at " + Modeling.IN_STREAM + ": " + in);
+	}
+
+	/**
+	 * Runs the study for the rows of the table.
+	 */
+	public long run(DataTable table, Sink sink) throws EvaluationException {
+		return run(table.getColumnNames(),
+				IntStream.range(0, table.getRowCount()).mapToObj(i -> (List<?>) table.getRow(i)), sink);
+	}
+
+	/**
+	 * Runs the study for rows of values separated by the delimiter, the first
+	 * line is the header with input names. Numeric values are read as
+	 * doubles.
+	 */
+	public long run(BufferedReader reader, String delimiter, Sink sink) throws EvaluationException {
+		Pattern separator = Pattern.compile(Pattern.quote(delimiter));
+		try {
+			String header = reader.readLine();
+			if (header == null)
+				throw new EvaluationException("No header of input rows");
+			Iterator<List<Object>> rows = reader.lines()
+					.filter(line -> !line.trim().isEmpty())
+					.map(line -> parse(separator.split(line, -1)))
+					.iterator();
+			List<String> names = new ArrayList<String>();
+			for (String name : separator.split(header))
+				names.add(name.trim());
+			return run(names, rows, sink);
+		} catch (IOException | UncheckedIOException e) {
+			throw new EvaluationException("Cannot read input rows", e instanceof UncheckedIOException
+					? ((UncheckedIOException) e).getCause() : (IOException) e);
+		}
+	}
+
+	private static List<Object> parse(String[] fields) {
+		List<Object> values = new ArrayList<Object>(fields.length);
+		for (String field : fields) {
+			String value = field.trim();
+			try {
+				values.add(Double.valueOf(value));
+			} catch (NumberFormatException e) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	public long run(List<String> inputNames, Stream<? extends List<?>> rows, Sink sink) throws EvaluationException {
+		return run(inputNames, rows.iterator(), sink);
+	}
+
+	/**
+	 * Runs the study for rows of values of the inputs with the given names.
+	 *
+	 * @return the number of rows written, including rows written before the
+	 *         checkpoint
+	 */
+	public long run(List<String> inputNames, Iterator<? extends List<?>> rows, Sink sink)
+			throws EvaluationException {
+		String[] names = inputNames.toArray(new String[inputNames.size()]);
+		String[] paths = getResponseNames();
+		long written = readCheckpoint();
+		// skip the rows written before the checkpoint
+		for (long i = 0; i < written && rows.hasNext(); i++)
+			rows.next();
+
+		MarshalledObject<EntryModel> snapshot;
+		try {
+			snapshot = new MarshalledObject<EntryModel>(model);
+		} catch (IOException e) {
+			throw new EvaluationException("Cannot copy model " + model.getName(), e);
+		}
+		Queue<EntryModel> copies = new ConcurrentLinkedQueue<EntryModel>();
+		Deque<CompletableFuture<Object[]>> pending = new ArrayDeque<CompletableFuture<Object[]>>();
+		int limit = Math.max(1, window);
+		long index = written;
+		try {
+			while (rows.hasNext()) {
+				List<?> row = rows.next();
+				if (row.size() != names.length)
+					throw new EvaluationException("Row " + index + " has " + row.size()
+							+ " values for " + names.length + " inputs");
+				pending.add(CompletableFuture.supplyAsync(
+						() -> evaluate(snapshot, copies, names, row, paths), getExecutor()));
+				index++;
+				if (pending.size() >= limit)
+					written = write(pending.poll(), written, sink);
+			}
+			while (!pending.isEmpty())
+				written = write(pending.poll(), written, sink);
+			saveCheckpoint(written, sink);
+			return written;
+		} catch (EvaluationException | RuntimeException e) {
+			for (CompletableFuture<Object[]> future : pending)
+				future.cancel(false);
+			try {
+				saveCheckpoint(written, sink);
+			} catch (EvaluationException ce) {
+				e.addSuppressed(ce);
+			}
+			throw e;
+		}
+	}
+
+	private String[] getResponseNames() throws EvaluationException {
+		if (!responses.isEmpty())
+			return responses.toArray(new String[responses.size()]);
+		List<Path> paths = model.getDomainStrategy().getResponsePaths();
+		if (paths == null || paths.isEmpty())
+			throw new EvaluationException("No responses of " + model.getName());
+		String[] names = new String[paths.size()];
+		for (int i = 0; i < names.length; i++)
+			names[i] = paths.get(i).path;
+		return names;
+	}
+
+	private Object[] evaluate(MarshalledObject<EntryModel> snapshot, Queue<EntryModel> copies,
+							  String[] names, List<?> row, String[] paths) {
+		try {
+			EntryModel copy = isolated ? null : copies.poll();
+			if (copy == null)
+				copy = snapshot.get();
+			Arg[] args = new Arg[names.length];
+			Object[] values = new Object[names.length + paths.length];
+			for (int i = 0; i < names.length; i++) {
+				args[i] = new Value(names[i], row.get(i));
+				values[i] = row.get(i);
+			}
+			for (int k = 0; k < paths.length; k++) {
+				Object value = copy.getValue(paths[k], args);
+				if (value instanceof Entry)
+					value = ((Entry) value).getOut();
+				values[names.length + k] = value;
+			}
+			// copies that failed to evaluate a row are not reused
+			if (!isolated)
+				copies.add(copy);
+			return values;
+		} catch (IOException | ClassNotFoundException e) {
+			throw new CompletionException(new EvaluationException("Cannot copy model " + model.getName(), e));
+		} catch (ContextException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private long write(CompletableFuture<Object[]> future, long index, Sink sink) throws EvaluationException {
+		Object[] row;
+		try {
+			row = future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof EvaluationException)
+				throw (EvaluationException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new EvaluationException("Cannot evaluate row " + index, (Exception) cause);
+		}
+		try {
+			sink.write(index, row);
+		} catch (IOException e) {
+			throw new EvaluationException("Cannot write row " + index, e);
+		}
+		index++;
+		if (checkpointInterval > 0 && index % checkpointInterval == 0)
+			saveCheckpoint(index, sink);
+		return index;
+	}
+
+	private long readCheckpoint() throws EvaluationException {
+		if (checkpoint == null || !checkpoint.exists())
+			return 0;
+		try {
+			return Long.parseLong(new String(Files.readAllBytes(checkpoint.toPath()),
+					StandardCharsets.UTF_8).trim());
+		} catch (IOException | NumberFormatException e) {
+			throw new EvaluationException("Cannot read checkpoint " + checkpoint, e);
+		}
+	}
+
+	private void saveCheckpoint(long written, Sink sink) throws EvaluationException {
+		try {
+			sink.flush();
+			if (checkpoint == null)
+				return;
+			File tmp = new File(checkpoint.getPath() + ".tmp");
+			Files.write(tmp.toPath(), Long.toString(written).getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp.toPath(), checkpoint.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new EvaluationException("Cannot save checkpoint " + checkpoint, e);
+		}
+	}
+
+	/**
+	 * Returns a sink writing rows of values separated by the delimiter.
+	 */
+	public static Sink writerSink(PrintWriter writer, String delimiter) {
+		return new Sink() {
+			@Override
+			public void write(long index, Object[] row) {
+				for (int i = 0; i < row.length; i++) {
+					if (i > 0)
+						writer.print(delimiter);
+					writer.print(row[i]);
+				}
+				writer.println();
+			}
+
+			@Override
+			public void flush() throws IOException {
+				// also flushes the writer
+				if (writer.checkError())
+					throw new IOException("Cannot flush rows");
+			}
+		};
+	}
+}
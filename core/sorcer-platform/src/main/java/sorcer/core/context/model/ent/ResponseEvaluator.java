@@ -0,0 +1,238 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.co.tuple.ExecDependency;
+import sorcer.core.invoker.ServiceInvoker;
+import sorcer.service.*;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.net.URL;
+import java.rmi.MarshalledObject;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Evaluates the response paths of an {@link EntryModel} concurrently. Two
+ * response paths are dependent if one depends on the other or both depend on
+ * a common evaluated entry, as declared by the exec dependencies of the
+ * model strategy or recorded as read sets of an incremental model.
+ * Dependent response paths form a group evaluated sequentially in the
+ * declared order, and groups are evaluated on a bounded executor in
+ * parallel, so independent responses, e.g. requests to remote services, do
+ * not wait for each other.
+ * <p>
+ * A model is not safe for concurrent evaluation, so each group is evaluated
+ * on its own copy of the model unmarshalled from a snapshot taken for each
+ * evaluation of responses. Evaluations of parallel responses are not merged
+ * back: the entries of the model itself are left unevaluated, and evaluating
+ * the responses again evaluates them again on new copies. Models that cannot
+ * be copied, or with a single group of responses, are evaluated sequentially.
+ * <p>
+ * Results are returned in the order of response paths. Response paths of
+ * models evaluated within a parallel response are evaluated sequentially.
+ * Entries shared by responses have to be reachable from the response paths
+ * by exec dependencies, invoker arguments or recorded reads, otherwise they
+ * are evaluated once by each group.
+ */
+public class ResponseEvaluator {
+
+	private static final Logger logger = LoggerFactory.getLogger(ResponseEvaluator.class);
+
+	private static ExecutorService executor;
+
+	/* set while a response is evaluated by the executor */
+	private static final ThreadLocal<Boolean> inResponse = new ThreadLocal<Boolean>();
+
+	private final EntryModel model;
+
+	public ResponseEvaluator(EntryModel model) {
+		this.model = model;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Response-%2$d");
+			int threads = Math.max(1, Sorcer.getModelResponseThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * Returns true if the current thread evaluates a parallel response.
+	 */
+	public static boolean isInResponse() {
+		return inResponse.get() != null;
+	}
+
+	/**
+	 * Evaluates the response paths with the given arguments.
+	 *
+	 * @return the response values by path in the order of paths
+	 */
+	public Map<String, Object> evaluate(List<Path> paths, Arg... args) throws ContextException {
+		List<List<String>> groups = getGroups(paths);
+		MarshalledObject<EntryModel> snapshot = null;
+		if (groups.size() > 1) {
+			try {
+				snapshot = new MarshalledObject<EntryModel>(model);
+			} catch (IOException e) {
+				logger.warn("Responses of model {} are evaluated sequentially, the model cannot be copied: {}",
+						model.getName(), e.toString());
+			}
+		}
+		Map<String, Object> values = new HashMap<String, Object>();
+		if (snapshot == null) {
+			for (Path path : paths)
+				values.put(path.path, model.getValue(path.path, args));
+		} else {
+			List<CompletableFuture<Map<String, Object>>> futures
+					= new ArrayList<CompletableFuture<Map<String, Object>>>(groups.size());
+			for (List<String> group : groups) {
+				MarshalledObject<EntryModel> shared = snapshot;
+				futures.add(CompletableFuture.supplyAsync(() -> evaluate(shared, group, args), getExecutor()));
+			}
+			for (CompletableFuture<Map<String, Object>> future : futures) {
+				try {
+					values.putAll(future.join());
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof ContextException)
+						throw (ContextException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new ContextException((Exception) cause);
+				}
+			}
+		}
+		Map<String, Object> ordered = new LinkedHashMap<String, Object>();
+		for (Path path : paths)
+			ordered.put(path.path, values.get(path.path));
+		return ordered;
+	}
+
+	/**
+	 * Returns the response paths grouped by their dependencies, each group
+	 * in the order of paths.
+	 */
+	protected List<List<String>> getGroups(List<Path> paths) {
+		int n = paths.size();
+		List<Set<String>> closures = new ArrayList<Set<String>>(n);
+		for (Path path : paths) {
+			closures.add(getDependencies(path.path));
+		}
+		// union of the groups of dependent paths
+		int[] group = new int[n];
+		for (int i = 0; i < n; i++) {
+			group[i] = i;
+			for (int j = 0; j < i; j++) {
+				if (group[j] != group[i] && !Collections.disjoint(closures.get(i), closures.get(j))) {
+					int merged = group[i];
+					for (int k = 0; k <= i; k++) {
+						if (group[k] == merged)
+							group[k] = group[j];
+					}
+				}
+			}
+		}
+		Map<Integer, List<String>> groups = new LinkedHashMap<Integer, List<String>>();
+		for (int i = 0; i < n; i++) {
+			groups.computeIfAbsent(group[i], k -> new ArrayList<String>()).add(paths.get(i).path);
+		}
+		return new ArrayList<List<String>>(groups.values());
+	}
+
+	private Map<String, Object> evaluate(MarshalledObject<EntryModel> snapshot, List<String> group, Arg... args) {
+		inResponse.set(Boolean.TRUE);
+		try {
+			EntryModel copy = snapshot.get();
+			Map<String, Object> values = new HashMap<String, Object>();
+			for (String path : group)
+				values.put(path, copy.getValue(path, args));
+			return values;
+		} catch (IOException | ClassNotFoundException e) {
+			throw new CompletionException(new EvaluationException("Cannot copy model " + model.getName(), e));
+		} catch (ContextException e) {
+			throw new CompletionException(e);
+		} finally {
+			inResponse.remove();
+		}
+	}
+
+	/**
+	 * Returns the response path with the evaluated entries it depends on,
+	 * directly or transitively.
+	 */
+	protected Set<String> getDependencies(String path) {
+		Map<String, List<ExecDependency>> dpm = model.getDomainStrategy().getDependentPaths();
+		DependencyTracker tracker = model.getDependencyTracker();
+		Set<String> closure = new HashSet<String>();
+		Deque<String> queue = new ArrayDeque<String>();
+		queue.add(path);
+		while (!queue.isEmpty()) {
+			String p = queue.poll();
+			if (!closure.add(p))
+				continue;
+			if (dpm != null && dpm.get(p) != null) {
+				for (ExecDependency de : dpm.get(p)) {
+					List<Path> dpl = (List<Path>) de.getImpl();
+					if (dpl != null) {
+						for (Path dp : dpl)
+							queue.add(dp.path);
+					}
+				}
+			}
+			if (tracker != null) {
+				DependencyTracker.Record record = tracker.getRecord(p);
+				if (record != null)
+					queue.addAll(record.getReads().keySet());
+			}
+			// arguments declared by invokers
+			Object val = model.get(p);
+			if (val instanceof Entry) {
+				val = ((Entry) val).getImpl();
+			}
+			if (val instanceof ServiceInvoker && ((ServiceInvoker) val).getArgs() != null) {
+				for (Object arg : ((ServiceInvoker) val).getArgs()) {
+					queue.add(((Arg) arg).getName());
+				}
+			}
+		}
+		// shared input values do not make responses dependent
+		closure.removeIf(p -> !p.equals(path) && !isEvaluated(model.get(p)));
+		return closure;
+	}
+
+	private static boolean isEvaluated(Object value) {
+		if (value instanceof Entry) {
+			value = ((Entry) value).getImpl();
+		}
+		return !(value == null || value == Context.none || value instanceof Number
+				|| value instanceof String || value instanceof Boolean || value instanceof Date
+				|| value instanceof URL || value.getClass().isArray());
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The input points of a sensitivity analysis over the bounds of its
+ * variables. Points are grouped into blocks evaluated together by the
+ * estimators of {@link SensitivityIndices}:
+ * <ul>
+ * <li>{@link Method#SOBOL}: Saltelli blocks of k + 2 points, a point of the
+ * Latin hypercube sample A, the point of the sample B and the points of A
+ * with the i-th variable from B;</li>
+ * <li>{@link Method#MORRIS}: trajectories of k + 1 points on a grid of
+ * levels, each point after the first changes one variable by a fixed
+ * step.</li>
+ * </ul>
+ * Points are generated from the seed, so a plan is the same when created
+ * again, e.g. to resume an analysis, and rows are computed on demand.
+ */
+public class SamplingPlan implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Method {
+		MORRIS, SOBOL
+	}
+
+	private final Method method;
+
+	private final String[] names;
+
+	private final double[] lower;
+
+	private final double[] upper;
+
+	private final int samples;
+
+	// Sobol samples A and B in the unit hypercube
+	private double[][] a, b;
+
+	// Morris trajectories: start points, orders of variables and directions
+	private double[][] starts;
+	private int[][] orders;
+	private boolean[][] down;
+	private double delta;
+
+	private SamplingPlan(Method method, String[] names, double[] lower, double[] upper, int samples) {
+		if (names.length == 0 || names.length != lower.length || names.length != upper.length)
+			throw new IllegalArgumentException("names and bounds of variables differ in length");
+		if (samples < 1)
+			throw new IllegalArgumentException("no samples");
+		this.method = method;
+		this.names = names.clone();
+		this.lower = lower.clone();
+		this.upper = upper.clone();
+		this.samples = samples;
+	}
+
+	/**
+	 * Returns a Saltelli plan for first order and total Sobol indices with
+	 * base samples of the given size.
+	 */
+	public static SamplingPlan sobol(String[] names, double[] lower, double[] upper, int samples, long seed) {
+		SamplingPlan plan = new SamplingPlan(Method.SOBOL, names, lower, upper, samples);
+		int k = names.length;
+		double[][] ab = latinHypercube(samples, 2 * k, new Random(seed));
+		plan.a = new double[samples][];
+		plan.b = new double[samples][];
+		for (int j = 0; j < samples; j++) {
+			plan.a[j] = Arrays.copyOfRange(ab[j], 0, k);
+			plan.b[j] = Arrays.copyOfRange(ab[j], k, 2 * k);
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns a Morris plan of trajectories on a grid of an even number of
+	 * levels, with the step of levels / (2 (levels - 1)).
+	 */
+	public static SamplingPlan morris(String[] names, double[] lower, double[] upper,
+									  int trajectories, int levels, long seed) {
+		if (levels < 2 || levels % 2 != 0)
+			throw new IllegalArgumentException("levels not even: " + levels);
+		SamplingPlan plan = new SamplingPlan(Method.MORRIS, names, lower, upper, trajectories);
+		int k = names.length;
+		Random random = new Random(seed);
+		plan.delta = levels / (2.0 * (levels - 1));
+		plan.starts = new double[trajectories][k];
+		plan.orders = new int[trajectories][];
+		plan.down = new boolean[trajectories][k];
+		for (int t = 0; t < trajectories; t++) {
+			for (int i = 0; i < k; i++) {
+				// levels of base values, a step up stays in the unit interval
+				double base = random.nextInt(levels / 2) / (double) (levels - 1);
+				plan.down[t][i] = random.nextBoolean();
+				plan.starts[t][i] = plan.down[t][i] ? base + plan.delta : base;
+			}
+			plan.orders[t] = permutation(k, random);
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns a Latin hypercube sample of n points in k dimensions of the
+	 * unit hypercube, each dimension has a point in each of n strata.
+	 */
+	public static double[][] latinHypercube(int n, int k, Random random) {
+		double[][] points = new double[n][k];
+		for (int i = 0; i < k; i++) {
+			int[] strata = permutation(n, random);
+			for (int j = 0; j < n; j++)
+				points[j][i] = (strata[j] + random.nextDouble()) / n;
+		}
+		return points;
+	}
+
+	private static int[] permutation(int n, Random random) {
+		int[] p = new int[n];
+		for (int i = 0; i < n; i++)
+			p[i] = i;
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = p[i];
+			p[i] = p[j];
+			p[j] = t;
+		}
+		return p;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	/**
+	 * Returns the number of base samples or trajectories.
+	 */
+	public int getSamples() {
+		return samples;
+	}
+
+	public int getBlockSize() {
+		return method == Method.SOBOL ? names.length + 2 : names.length + 1;
+	}
+
+	public long getRowCount() {
+		return (long) samples * getBlockSize();
+	}
+
+	/**
+	 * Returns the point at the index in the unit hypercube.
+	 */
+	public double[] getUnitRow(long index) {
+		int block = (int) (index / getBlockSize());
+		int position = (int) (index % getBlockSize());
+		if (method == Method.SOBOL) {
+			if (position == 0)
+				return a[block].clone();
+			if (position == 1)
+				return b[block].clone();
+			double[] row = a[block].clone();
+			row[position - 2] = b[block][position - 2];
+			return row;
+		}
+		double[] row = starts[block].clone();
+		for (int m = 0; m < position; m++) {
+			int i = orders[block][m];
+			row[i] += down[block][i] ? -delta : delta;
+		}
+		return row;
+	}
+
+	/**
+	 * Returns the point at the index within the bounds of variables.
+	 */
+	public double[] getRow(long index) {
+		double[] row = getUnitRow(index);
+		for (int i = 0; i < row.length; i++)
+			row[i] = lower[i] + row[i] * (upper[i] - lower[i]);
+		return row;
+	}
+
+	/**
+	 * Returns the variable changed at the position, after the first, of the
+	 * Morris trajectory.
+	 */
+	public int getVariable(int trajectory, int position) {
+		return orders[trajectory][position - 1];
+	}
+
+	/**
+	 * Returns the signed change in the unit hypercube of the variable changed
+	 * at the position, after the first, of the Morris trajectory.
+	 */
+	public double getStep(int trajectory, int position) {
+		return down[trajectory][getVariable(trajectory, position)] ? -delta : delta;
+	}
+
+	/**
+	 * Returns the rows of the plan as lists of values of the variables.
+	 */
+	public Iterator<List<?>> rows() {
+		return new Iterator<List<?>>() {
+			private long index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < getRowCount();
+			}
+
+			@Override
+			public List<?> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				double[] row = getRow(index++);
+				List<Double> values = new ArrayList<Double>(row.length);
+				for (double v : row)
+					values.add(v);
+				return values;
+			}
+		};
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.service.EvaluationException;
+import sorcer.util.DataTable;
+import sorcer.util.ModelTable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a sensitivity analysis of the responses of an {@link EntryModel},
+ * including request models whose entries are evaluated by exertions, over
+ * the points of a {@link SamplingPlan}. Points are evaluated concurrently by
+ * a {@link ParametricRunner} and the {@link SensitivityIndices} are updated
+ * as rows of responses arrive, in the order of the plan.
+ * <p>
+ * With a results file, rows of inputs and responses are appended to the file
+ * and their count is checkpointed. A rerun with the same plan replays the
+ * checkpointed rows of the file into the indices and evaluates only the
+ * remaining points. Progress and throughput are logged every progress
+ * interval of rows and are available with {@link #getEvaluated()} and
+ * {@link #getThroughput()}.
+ */
+public class SensitivityAnalyzer {
+
+	private static Logger logger = LoggerFactory.getLogger(SensitivityAnalyzer.class.getName());
+
+	private final EntryModel model;
+
+	private final SamplingPlan plan;
+
+	// response paths, if empty the response paths of the model
+	private final String[] responses;
+
+	private File results;
+
+	private int progressInterval = 1000;
+
+	private volatile SensitivityIndices indices;
+
+	private volatile String[] responseNames;
+
+	// rows evaluated by the current or last run
+	private final LongAdder evaluated = new LongAdder();
+
+	private volatile long replayed;
+
+	private volatile long started;
+
+	private volatile long stopped;
+
+	public SensitivityAnalyzer(EntryModel model, SamplingPlan plan, String... responses) {
+		this.model = model;
+		this.plan = plan;
+		this.responses = responses;
+	}
+
+	public File getResults() {
+		return results;
+	}
+
+	/**
+	 * Sets the file of rows of inputs and responses that makes the analysis
+	 * restartable; the checkpoint is kept next to it.
+	 */
+	public void setResults(File results) {
+		this.results = results;
+	}
+
+	public int getProgressInterval() {
+		return progressInterval;
+	}
+
+	public void setProgressInterval(int progressInterval) {
+		this.progressInterval = progressInterval;
+	}
+
+	/**
+	 * Evaluates the remaining points of the plan and returns the
+	 * sensitivities of all responses.
+	 */
+	public List<ModelTable> analyze() throws EvaluationException {
+		ParametricRunner runner = new ParametricRunner(model, responses);
+		List<String> inputNames = Arrays.asList(plan.getNames());
+		List<String> columns = runner.getColumnNames(inputNames);
+		String[] names = columns.subList(inputNames.size(), columns.size()).toArray(new String[0]);
+		SensitivityIndices estimates = new SensitivityIndices(plan, names.length);
+		responseNames = names;
+		indices = estimates;
+		evaluated.reset();
+		replayed = 0;
+		stopped = 0;
+
+		PrintWriter writer = null;
+		try {
+			if (results != null) {
+				File checkpoint = new File(results.getPath() + ".checkpoint");
+				replayed = replay(checkpoint, inputNames.size(), estimates);
+				runner.setCheckpoint(checkpoint);
+				writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(results, true), StandardCharsets.UTF_8)));
+			}
+			started = System.nanoTime();
+			runner.run(inputNames, plan.rows(), getSink(inputNames.size(), estimates, writer));
+		} catch (IOException e) {
+			throw new EvaluationException("Cannot open results " + results, e);
+		} finally {
+			stopped = System.nanoTime();
+			if (writer != null)
+				writer.close();
+		}
+		logProgress();
+		return getSensitivities();
+	}
+
+	private ParametricRunner.Sink getSink(int inputs, SensitivityIndices estimates, PrintWriter writer) {
+		ParametricRunner.Sink out = writer != null ? ParametricRunner.writerSink(writer, ",") : null;
+		return new ParametricRunner.Sink() {
+			@Override
+			public void write(long index, Object[] row) throws IOException {
+				double[] values = new double[row.length - inputs];
+				for (int r = 0; r < values.length; r++) {
+					Object value = row[inputs + r];
+					if (!(value instanceof Number))
+						throw new IOException("Response " + responseNames[r] + " of row " + index
+								+ " is not a number: " + value);
+					values[r] = ((Number) value).doubleValue();
+				}
+				if (out != null)
+					out.write(index, row);
+				estimates.add(values);
+				evaluated.increment();
+				if (progressInterval > 0 && evaluated.sum() % progressInterval == 0)
+					logProgress();
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (out != null)
+					out.flush();
+			}
+		};
+	}
+
+	/**
+	 * Adds the checkpointed rows of the results file to the indices and
+	 * drops rows written after the checkpoint.
+	 */
+	private long replay(File checkpoint, int inputs, SensitivityIndices estimates) throws IOException {
+		if (!results.exists())
+			return 0;
+		long count = 0;
+		long rows = 0;
+		long length = 0;
+		try {
+			if (checkpoint.exists())
+				count = Long.parseLong(new String(Files.readAllBytes(checkpoint.toPath()),
+						StandardCharsets.UTF_8).trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("Cannot read checkpoint " + checkpoint, e);
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(results), StandardCharsets.UTF_8))) {
+			String line;
+			while (rows < count && (line = reader.readLine()) != null) {
+				String[] fields = line.split(",", -1);
+				double[] values = new double[fields.length - inputs];
+				for (int r = 0; r < values.length; r++)
+					values[r] = Double.parseDouble(fields[inputs + r]);
+				estimates.add(values);
+				length += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+				rows++;
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Cannot read results " + results, e);
+		}
+		if (rows < count)
+			throw new IOException("Results " + results + " hold " + rows + " of " + count + " checkpointed rows");
+		try (RandomAccessFile file = new RandomAccessFile(results, "rw")) {
+			file.setLength(length);
+		}
+		return rows;
+	}
+
+	private void logProgress() {
+		logger.info("Sensitivity of {}: {} of {} points, {} points/s", model.getName(),
+				replayed + evaluated.sum(), plan.getRowCount(), String.format("%.1f", getThroughput()));
+	}
+
+	/**
+	 * Returns the number of points evaluated by the current or last run, not
+	 * counting points replayed from results.
+	 */
+	public long getEvaluated() {
+		return evaluated.sum();
+	}
+
+	/**
+	 * Returns the fraction of points of the plan with known responses.
+	 */
+	public double getProgress() {
+		return (double) (replayed + evaluated.sum()) / plan.getRowCount();
+	}
+
+	/**
+	 * Returns the points evaluated per second by the current or last run.
+	 */
+	public double getThroughput() {
+		if (started == 0)
+			return 0.0;
+		long end = stopped != 0 ? stopped : System.nanoTime();
+		double seconds = (end - started) / 1.0e9;
+		return seconds > 0 ? evaluated.sum() / seconds : 0.0;
+	}
+
+	public SensitivityIndices getIndices() {
+		return indices;
+	}
+
+	/**
+	 * Returns a table by response of the current estimates with a row by
+	 * variable: mu, mu* and sigma of Morris elementary effects, or first order
+	 * and total Sobol indices.
+	 */
+	public List<ModelTable> getSensitivities() {
+		SensitivityIndices estimates = indices;
+		if (estimates == null)
+			return Collections.emptyList();
+		String[] variables = plan.getNames();
+		boolean morris = plan.getMethod() == SamplingPlan.Method.MORRIS;
+		List<ModelTable> tables = new ArrayList<ModelTable>(responseNames.length);
+		for (int r = 0; r < responseNames.length; r++) {
+			double[][] columns = morris
+					? new double[][] { estimates.getMeans(r), estimates.getAbsoluteMeans(r), estimates.getDeviations(r) }
+					: new double[][] { estimates.getFirstOrder(r), estimates.getTotal(r) };
+			DataTable table = new DataTable(morris ? Arrays.asList("mu", "mu*", "sigma")
+					: Arrays.asList("S1", "ST"), 0);
+			for (int i = 0; i < variables.length; i++) {
+				double[] row = new double[columns.length];
+				for (int c = 0; c < columns.length; c++)
+					row[c] = columns[c][i];
+				table.addRow(row);
+			}
+			table.setRowIdentifiers(Arrays.asList(variables));
+			table.setName(responseNames[r]);
+			tables.add(table);
+		}
+		return tables;
+	}
+}
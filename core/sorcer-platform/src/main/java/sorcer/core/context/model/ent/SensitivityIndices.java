@@ -0,0 +1,211 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.ent;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Estimates sensitivity indices of responses from the values of responses at
+ * the points of a {@link SamplingPlan}, added in the order of the plan.
+ * Estimates are updated as each block of points completes, so indices are
+ * available at any time during an analysis.
+ * <ul>
+ * <li>Sobol: first order indices by the estimator of Saltelli (2010) and
+ * total indices by the estimator of Jansen, over the variance of responses
+ * at the points of A and B.</li>
+ * <li>Morris: the mean, the mean of absolute values and the standard
+ * deviation of elementary effects, in units of the responses per unit range
+ * of the variables.</li>
+ * </ul>
+ */
+public class SensitivityIndices implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final SamplingPlan plan;
+
+	private final int responses;
+
+	private final int k;
+
+	// response values at the points of the current block
+	private final double[][] block;
+
+	private int position;
+
+	private long blocks;
+
+	// Sobol: running mean and sum of squared deviations of responses at A and B
+	private long count;
+	private double[] mean;
+	private double[] m2;
+	private double[][] firstSums;
+	private double[][] totalSums;
+
+	// Morris: running mean, mean of absolute values and sum of squared
+	// deviations of elementary effects
+	private double[][] effectMeans;
+	private double[][] absoluteMeans;
+	private double[][] effectM2;
+
+	public SensitivityIndices(SamplingPlan plan, int responses) {
+		this.plan = plan;
+		this.responses = responses;
+		k = plan.getNames().length;
+		block = new double[plan.getBlockSize()][];
+		if (plan.getMethod() == SamplingPlan.Method.SOBOL) {
+			mean = new double[responses];
+			m2 = new double[responses];
+			firstSums = new double[responses][k];
+			totalSums = new double[responses][k];
+		} else {
+			effectMeans = new double[responses][k];
+			absoluteMeans = new double[responses][k];
+			effectM2 = new double[responses][k];
+		}
+	}
+
+	public SamplingPlan getPlan() {
+		return plan;
+	}
+
+	/**
+	 * Adds the values of responses at the next point of the plan.
+	 */
+	public synchronized void add(double[] values) {
+		if (values.length != responses)
+			throw new IllegalArgumentException("expected " + responses + " responses, got " + values.length);
+		block[position++] = values.clone();
+		if (position < block.length)
+			return;
+		if (plan.getMethod() == SamplingPlan.Method.SOBOL)
+			addSaltelliBlock();
+		else
+			addTrajectory();
+		position = 0;
+		blocks++;
+	}
+
+	private void addSaltelliBlock() {
+		double[] fa = block[0];
+		double[] fb = block[1];
+		for (int r = 0; r < responses; r++) {
+			addVariance(r, fa[r]);
+			addVariance(r, fb[r]);
+			for (int i = 0; i < k; i++) {
+				double fab = block[i + 2][r];
+				firstSums[r][i] += fb[r] * (fab - fa[r]);
+				totalSums[r][i] += (fa[r] - fab) * (fa[r] - fab);
+			}
+		}
+	}
+
+	private void addVariance(int r, double value) {
+		if (r == 0)
+			count++;
+		double d = value - mean[r];
+		mean[r] += d / count;
+		m2[r] += d * (value - mean[r]);
+	}
+
+	private void addTrajectory() {
+		int t = (int) blocks;
+		long n = blocks + 1;
+		for (int m = 1; m < block.length; m++) {
+			int i = plan.getVariable(t, m);
+			double step = plan.getStep(t, m);
+			for (int r = 0; r < responses; r++) {
+				double effect = (block[m][r] - block[m - 1][r]) / step;
+				double d = effect - effectMeans[r][i];
+				effectMeans[r][i] += d / n;
+				effectM2[r][i] += d * (effect - effectMeans[r][i]);
+				absoluteMeans[r][i] += (Math.abs(effect) - absoluteMeans[r][i]) / n;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of complete blocks of points.
+	 */
+	public synchronized long getBlockCount() {
+		return blocks;
+	}
+
+	/**
+	 * Returns first order Sobol indices of the response by variable.
+	 */
+	public synchronized double[] getFirstOrder(int response) {
+		checkMethod(SamplingPlan.Method.SOBOL);
+		return getSobol(firstSums[response], response, 1.0);
+	}
+
+	/**
+	 * Returns total Sobol indices of the response by variable.
+	 */
+	public synchronized double[] getTotal(int response) {
+		checkMethod(SamplingPlan.Method.SOBOL);
+		return getSobol(totalSums[response], response, 2.0);
+	}
+
+	private double[] getSobol(double[] sums, int response, double scale) {
+		double[] indices = new double[k];
+		double variance = count > 0 ? m2[response] / count : 0.0;
+		if (blocks == 0 || variance == 0.0) {
+			Arrays.fill(indices, Double.NaN);
+			return indices;
+		}
+		for (int i = 0; i < k; i++)
+			indices[i] = sums[i] / blocks / (scale * variance);
+		return indices;
+	}
+
+	/**
+	 * Returns the means of Morris elementary effects of the response by
+	 * variable.
+	 */
+	public synchronized double[] getMeans(int response) {
+		checkMethod(SamplingPlan.Method.MORRIS);
+		return effectMeans[response].clone();
+	}
+
+	/**
+	 * Returns the means of absolute Morris elementary effects of the response
+	 * by variable.
+	 */
+	public synchronized double[] getAbsoluteMeans(int response) {
+		checkMethod(SamplingPlan.Method.MORRIS);
+		return absoluteMeans[response].clone();
+	}
+
+	/**
+	 * Returns the sample standard deviations of Morris elementary effects of
+	 * the response by variable.
+	 */
+	public synchronized double[] getDeviations(int response) {
+		checkMethod(SamplingPlan.Method.MORRIS);
+		double[] deviations = new double[k];
+		for (int i = 0; i < k; i++)
+			deviations[i] = blocks > 1 ? Math.sqrt(effectM2[response][i] / (blocks - 1)) : Double.NaN;
+		return deviations;
+	}
+
+	private void checkMethod(SamplingPlan.Method method) {
+		if (plan.getMethod() != method)
+			throw new IllegalStateException("no " + method + " indices of a " + plan.getMethod() + " plan");
+	}
+}
@@ -21,17 +21,21 @@ import groovy.lang.Closure;
 import net.jini.core.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sorcer.co.tuple.ExecDependency;
 import sorcer.co.tuple.MogramEntry;
 import sorcer.core.context.model.ent.Signatory;
+import sorcer.core.context.ModelStrategy;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.EntryModel;
 import sorcer.core.context.model.ent.*;
 import sorcer.core.invoker.ServiceInvoker;
 import sorcer.core.plexus.FidelityManager;
 import sorcer.core.plexus.MorphFidelity;
+import sorcer.core.exertion.NetJob;
 import sorcer.core.plexus.MorphMogram;
 import sorcer.core.provider.rendezvous.ServiceModeler;
 import sorcer.service.Projection;
+import sorcer.core.signature.RemoteSignature;
 import sorcer.core.signature.ServiceSignature;
 import sorcer.eo.operator;
 import sorcer.service.*;
@@ -40,6 +44,7 @@ import sorcer.service.modeling.Functionality;
 
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static sorcer.eo.operator.*;
 import static sorcer.so.operator.execMogram;
@@ -58,6 +63,12 @@ import static sorcer.so.operator.execMogram;
 public class RequestModel extends EntryModel implements Invocation<Object> {
     private static final Logger logger = LoggerFactory.getLogger(RequestModel.class);
 
+    // remote requests of responses exerted in batches per provider
+    protected boolean isRequestBatching = false;
+
+    // outputs of batched requests by path, taken by evalSignature
+    transient private volatile Map<String, Context> batchedOutputs;
+
     public static RequestModel instance(Signature builder) throws SignatureException {
         RequestModel model = (RequestModel) sorcer.co.operator.instance(builder);
         model.setBuilder(builder);
@@ -120,7 +131,13 @@ public class RequestModel extends EntryModel implements Invocation<Object> {
 
     @Override
     public Object getValue(String path, Arg... args) throws ContextException {
-        return getReqValue(path, args);
+        Object val = getReqValue(path, args);
+        // record the read for memoized dependencies of incremental models
+        DependencyTracker tracker = getDependencyTracker();
+        if (tracker != null && path != null) {
+            tracker.read(path, val);
+        }
+        return val;
     }
 
     // calls from VarModels to pcr Req args of Vars
@@ -352,7 +369,10 @@ public class RequestModel extends EntryModel implements Invocation<Object> {
     }
 
     public Object evalSignature(Signature sig, String path, Arg... args) throws ServiceException, RemoteException {
-        Context out = execSignature(sig, args);
+        Context out = batchedOutputs != null ? batchedOutputs.remove(path) : null;
+        if (out == null) {
+            out = execSignature(sig, args);
+        }
         String sigrp = null;
         String  crp = null;
         if (sig.getContextReturn() != null) {
@@ -387,6 +407,179 @@ public class RequestModel extends EntryModel implements Invocation<Object> {
         return out;
     }
 
+    public boolean isRequestBatching() {
+        return isRequestBatching;
+    }
+
+    /**
+     * Enables batching of remote requests of responses. Ready requests with
+     * remote signatures are grouped by provider and signature type and each
+     * group is exerted as a single job, so a response makes one round trip per
+     * provider instead of one per request.
+     */
+    public RequestModel setRequestBatching(boolean batching) {
+        isRequestBatching = batching;
+        return this;
+    }
+
+    @Override
+    public Context getResponse(Arg... args) throws ContextException {
+        try {
+            return super.getResponse(args);
+        } finally {
+            if (batchedOutputs != null) {
+                batchedOutputs.clear();
+            }
+        }
+    }
+
+    @Override
+    protected Map<String, Object> evaluateResponses(List<Path> paths, Arg... args) throws ContextException {
+        if (isRequestBatching && paths.size() > 1) {
+            execBatches(paths, args);
+        }
+        return super.evaluateResponses(paths, args);
+    }
+
+    /**
+     * Exerts the remote requests of the response paths that are ready, i.e.,
+     * with no exec dependencies and inputs not computed by other requests, in
+     * one job per provider and signature type. Requests with inputs computed
+     * by other requests are exerted in later batches once these inputs are
+     * appended to this model. The outputs are kept by path for
+     * {@link #evalSignature}; requests of failed batches are evaluated one by
+     * one.
+     */
+    protected void execBatches(List<Path> paths, Arg... args) throws ContextException {
+        // paths computed by the remote requests of responses
+        Map<String, Set<String>> outputs = new HashMap<>();
+        for (Path p : paths) {
+            Object val = get(p.path);
+            if (val instanceof Req && (( Req ) val).getImpl() instanceof Signature) {
+                Signature sig = (Signature) (( Req ) val).getImpl();
+                Set<String> outs = new HashSet<>();
+                outs.add(p.path);
+                Context.Return rp = sig.getContextReturn();
+                if (rp != null) {
+                    outs.add(rp.returnPath != null ? rp.returnPath : sig.getName());
+                    if (rp.outPaths != null) {
+                        for (Path op : rp.outPaths) {
+                            outs.add(op.path);
+                        }
+                    }
+                }
+                outputs.put(p.path, outs);
+            }
+        }
+        Set<String> pending = new HashSet<>(outputs.keySet());
+        Set<String> done = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Set<String> computed = new HashSet<>();
+            for (Map.Entry<String, Set<String>> e : outputs.entrySet()) {
+                if (!done.contains(e.getKey())) {
+                    computed.addAll(e.getValue());
+                }
+            }
+            Map<String, Signature> requests = new HashMap<>();
+            Map<List<Object>, List<String>> batches = new LinkedHashMap<>();
+            for (Path p : paths) {
+                Object val = get(p.path);
+                if (pending.contains(p.path) && val instanceof Req
+                        && isReady(p.path, ( Req ) val, computed)) {
+                    Signature sig = (Signature) (( Req ) val).getImpl();
+                    requests.put(p.path, sig);
+                    List<Object> provider = Arrays.asList(sig.getServiceType(),
+                            sig.getProviderName() != null ? sig.getProviderName().getName() : null,
+                            sig.getExecType());
+                    batches.computeIfAbsent(provider, k -> new ArrayList<>()).add(p.path);
+                }
+            }
+            if (requests.isEmpty()) {
+                break;
+            }
+            pending.removeAll(requests.keySet());
+            for (List<String> batch : batches.values()) {
+                // a single request is exerted ahead when pending ones may depend on it
+                if (batch.size() > 1 || !pending.isEmpty()) {
+                    done.addAll(execBatch(batch, requests, args));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the request is remote, not evaluated yet, and its
+     * inputs are neither requests nor <code>computed</code> by other requests.
+     */
+    protected boolean isReady(String path, Req req, Set<String> computed) {
+        if (!(req.getImpl() instanceof RemoteSignature) || req.getMultiFi() != null
+                || (req.isCached() && req.isValid())) {
+            return false;
+        }
+        Signature sig = (Signature) req.getImpl();
+        Context.Return rp = sig.getContextReturn();
+        if (rp == null || rp.getDataContext() != null || rp.inPaths == null || rp.inPaths.size() == 0) {
+            return false;
+        }
+        Map<String, List<ExecDependency>> dpm = ((ModelStrategy) domainStrategy).getDependentPaths();
+        if (dpm != null && (dpm.get(path) != null || dpm.get(sig.getName()) != null)) {
+            return false;
+        }
+        for (Path ip : rp.inPaths) {
+            if (computed.contains(ip.path) || get(ip.path) instanceof Req) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Exerts the requests of the batch in a single job.
+     *
+     * @return the paths of the requests with outputs kept for
+     *         {@link #evalSignature}
+     */
+    protected List<String> execBatch(List<String> batch, Map<String, Signature> requests, Arg... args) {
+        List<String> done = new ArrayList<>(batch.size());
+        Job job = new NetJob(getName() + "-" + batch.get(0) + "-batch");
+        List<Context.Return> returns = new ArrayList<>(batch.size());
+        try {
+            for (String path : batch) {
+                Signature sig = requests.get(path);
+                Context.Return rp = getSignatureReturn(sig);
+                returns.add(rp);
+                job.addMogram(createSignatureTask(sig, rp, args));
+            }
+            job.setFlowType(Strategy.Flow.PAR);
+            job.setAccessType(Strategy.Access.PUSH);
+            Job out = job.exert();
+            if (batchedOutputs == null) {
+                synchronized (this) {
+                    if (batchedOutputs == null) {
+                        batchedOutputs = new ConcurrentHashMap<>();
+                    }
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Subroutine task = (Subroutine) out.getMograms().get(i);
+                Signature sig = requests.get(batch.get(i));
+                if (task.getStatus() <= Exec.FAILED) {
+                    sig.setContextReturn(returns.get(i));
+                    logger.warn("batched request {} failed, evaluating it again", batch.get(i));
+                    continue;
+                }
+                batchedOutputs.put(batch.get(i), appendSignatureOutput(sig, returns.get(i), task.getContext()));
+                done.add(batch.get(i));
+            }
+        } catch (ServiceException | RemoteException e) {
+            for (int i = 0; i < returns.size(); i++) {
+                requests.get(batch.get(i)).setContextReturn(returns.get(i));
+            }
+            logger.warn("batch of requests {} failed, evaluating them one by one", batch, e);
+        }
+        return done;
+    }
+
     private Object evalMogram(MogramEntry mogramEntry, String path, Arg... entries)
             throws ServiceException, RemoteException {
         Mogram mogram = (Mogram) mogramEntry.getImpl();
@@ -1,12 +1,126 @@
 package sorcer.core.context.model.req;
 
-import sorcer.core.context.model.ent.EntryModel;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.context.model.ent.Entry;
+import sorcer.core.context.model.ent.Snr;
+import sorcer.core.invoker.Activator;
+import sorcer.service.Arg;
+import sorcer.service.ArgSet;
+import sorcer.service.ContextException;
+import sorcer.service.Slot;
+import sorcer.service.modeling.Functionality;
+
+import java.util.*;
 
 /**
  * In service-based modeling, a neural network is a special kind of RsponseModel
  * comprised of service neuron entries of Snr type.
+ * <p>
+ * For repeated evaluations the neurons of the model can be compiled into a
+ * {@link SnrNetwork} that evaluates batches of input vectors without
+ * evaluating entries of the model; outputs are written back to the neurons
+ * only with {@link #setOutputs(SnrNetwork, double[])}.
  *
  * @author Mike Sobolewski
  */
-public class SnrModel extends RequestModel{
+public class SnrModel extends RequestModel {
+
+	/**
+	 * Compiles the neurons of this model into a network. Neurons are Snr
+	 * entries with signals; entries that neurons take signals from and that
+	 * are not neurons are inputs of the network. Threshold and bias entries
+	 * in args override those of the neurons of the same name as in
+	 * {@link Activator#activate(Arg...)}.
+	 */
+	public SnrNetwork compile(Arg... args) throws ContextException {
+		List<String> names = new ArrayList<String>(keySet());
+		Collections.sort(names);
+		List<SnrNetwork.Neuron> neurons = new ArrayList<SnrNetwork.Neuron>();
+		Set<String> signals = new TreeSet<String>();
+		for (String name : names) {
+			Activator activator = getActivator(get(name));
+			if (activator == null)
+				continue;
+			List<String> inputs = activator.getArgs().getNames();
+			String[] neuronSignals = inputs.toArray(new String[inputs.size()]);
+			double[] weights = new double[neuronSignals.length];
+			for (int i = 0; i < neuronSignals.length; i++) {
+				Object weight = activator.getWeights() != null
+						? ((ServiceContext) activator.getWeights()).get(neuronSignals[i]) : null;
+				if (!(weight instanceof Number))
+					throw new ContextException("No weight of signal " + neuronSignals[i] + " for neuron " + name);
+				weights[i] = ((Number) weight).doubleValue();
+			}
+			double threshold = activator.getThreshold();
+			double bias = activator.getBias();
+			for (Arg arg : args) {
+				if (arg instanceof Entry && activator.getName().equals(arg.getName())) {
+					if (((Entry) arg).getType() == Functionality.Type.THRESHOLD)
+						threshold = (double) ((Entry) arg).getImpl();
+					else if (((Entry) arg).getType() == Functionality.Type.BIAS)
+						bias = (double) ((Entry) arg).getImpl();
+				}
+			}
+			neurons.add(new SnrNetwork.Neuron(name, neuronSignals, weights,
+					bias, threshold, activator.isRectified()));
+			signals.addAll(inputs);
+		}
+		for (SnrNetwork.Neuron neuron : neurons)
+			signals.remove(neuron.getName());
+		return new SnrNetwork(new ArrayList<String>(signals), neurons);
+	}
+
+	private static Activator getActivator(Object entry) {
+		if (!(entry instanceof Snr))
+			return null;
+		Snr snr = (Snr) entry;
+		Object impl = snr.getMultiFi() != null ? snr.getMultiFi().getSelect() : snr.getImpl();
+		if (impl instanceof Activator) {
+			ArgSet args = ((Activator) impl).getArgs();
+			if (args != null && args.size() > 0)
+				return (Activator) impl;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the current values of the inputs of the network in this model.
+	 */
+	public double[] getInputs(SnrNetwork network) throws ContextException {
+		String[] names = network.getInputNames();
+		double[] inputs = new double[names.length];
+		for (int i = 0; i < names.length; i++) {
+			Object value = get(names[i]);
+			if (value instanceof Slot)
+				value = ((Slot) value).getOut();
+			if (!(value instanceof Number))
+				throw new ContextException("No value of input " + names[i]);
+			inputs[i] = ((Number) value).doubleValue();
+		}
+		return inputs;
+	}
+
+	/**
+	 * Sets the outputs of the neurons of this model to the outputs of the
+	 * network.
+	 */
+	public void setOutputs(SnrNetwork network, double[] outputs) throws ContextException {
+		String[] names = network.getOutputNames();
+		for (int i = 0; i < names.length; i++) {
+			Object neuron = get(names[i]);
+			if (!(neuron instanceof Snr))
+				throw new ContextException("No neuron " + names[i]);
+			((Snr) neuron).setOut(outputs[i]);
+		}
+	}
+
+	/**
+	 * Evaluates the network at the current inputs of this model and sets the
+	 * outputs of its neurons.
+	 */
+	public double[] activate(SnrNetwork network) throws ContextException {
+		double[] outputs = network.evaluate(getInputs(network));
+		setOutputs(network, outputs);
+		return outputs;
+	}
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context.model.req;
+
+import sorcer.service.ContextException;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A compiled form of the neurons of a {@link SnrModel}. Neurons are grouped
+ * into layers, a neuron is in the layer after the last layer of neurons it
+ * takes signals from, and each layer is flattened into a dense weight matrix
+ * over the signals of the layer with bias and threshold vectors. Forward
+ * passes over input vectors run in loops over primitive arrays, without
+ * lookups of entries by name and without boxing.
+ * <p>
+ * Values of a pass are ordered as input values followed by outputs of
+ * neurons layer by layer, see {@link #getInputNames()} and
+ * {@link #getOutputNames()}.
+ */
+public class SnrNetwork implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * A neuron to be compiled with its weighted signals and activation.
+	 */
+	public static class Neuron implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		final String name;
+		final String[] signals;
+		final double[] weights;
+		final double bias;
+		final double threshold;
+		final boolean rectified;
+
+		public Neuron(String name, String[] signals, double[] weights,
+					  double bias, double threshold, boolean rectified) {
+			if (signals.length != weights.length)
+				throw new IllegalArgumentException("signals and weights of " + name + " differ in length");
+			this.name = name;
+			this.signals = signals;
+			this.weights = weights;
+			this.bias = bias;
+			this.threshold = threshold;
+			this.rectified = rectified;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static final class Layer implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		// index of the first output of the layer in the value vector
+		final int offset;
+		// indexes of the signals of the layer in the value vector
+		final int[] signals;
+		// row-major weights, a row per neuron over the signals
+		final double[] weights;
+		final double[] bias;
+		final double[] threshold;
+		final boolean[] rectified;
+
+		Layer(int offset, int[] signals, int size) {
+			this.offset = offset;
+			this.signals = signals;
+			weights = new double[size * signals.length];
+			bias = new double[size];
+			threshold = new double[size];
+			rectified = new boolean[size];
+		}
+
+		int size() {
+			return bias.length;
+		}
+	}
+
+	private final String[] inputNames;
+
+	private final String[] outputNames;
+
+	private final Layer[] layers;
+
+	private final int width;
+
+	/**
+	 * Compiles the neurons that take signals from the given inputs and other
+	 * neurons.
+	 *
+	 * @throws ContextException
+	 *             if a signal is neither an input nor a neuron, or neurons
+	 *             depend on each other in a cycle
+	 */
+	public SnrNetwork(List<String> inputs, List<Neuron> neurons) throws ContextException {
+		inputNames = inputs.toArray(new String[inputs.size()]);
+		Map<String, Neuron> byName = new LinkedHashMap<String, Neuron>();
+		for (Neuron n : neurons)
+			byName.put(n.name, n);
+		Set<String> inputSet = new HashSet<String>(inputs);
+
+		// layer of each neuron, inputs are layer 0
+		Map<String, Integer> layerOf = new HashMap<String, Integer>();
+		int layerCount = 0;
+		for (Neuron n : neurons)
+			layerCount = Math.max(layerCount, getLayer(n, byName, inputSet, layerOf, new HashSet<String>()));
+
+		List<List<Neuron>> grouped = new ArrayList<List<Neuron>>(layerCount);
+		for (int i = 0; i < layerCount; i++)
+			grouped.add(new ArrayList<Neuron>());
+		for (Neuron n : byName.values())
+			grouped.get(layerOf.get(n.name) - 1).add(n);
+
+		Map<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = 0; i < inputNames.length; i++)
+			index.put(inputNames[i], i);
+		outputNames = new String[byName.size()];
+		layers = new Layer[layerCount];
+		int position = inputNames.length;
+		for (int l = 0; l < layerCount; l++) {
+			List<Neuron> group = grouped.get(l);
+			// the signals of the layer in order of their positions
+			SortedSet<Integer> signalSet = new TreeSet<Integer>();
+			for (Neuron n : group) {
+				for (String s : n.signals)
+					signalSet.add(index.get(s));
+			}
+			int[] signals = new int[signalSet.size()];
+			Map<Integer, Integer> column = new HashMap<Integer, Integer>();
+			int c = 0;
+			for (int s : signalSet) {
+				column.put(s, c);
+				signals[c++] = s;
+			}
+			Layer layer = new Layer(position, signals, group.size());
+			for (int j = 0; j < group.size(); j++) {
+				Neuron n = group.get(j);
+				for (int k = 0; k < n.signals.length; k++)
+					layer.weights[j * signals.length + column.get(index.get(n.signals[k]))] += n.weights[k];
+				layer.bias[j] = n.bias;
+				layer.threshold[j] = n.threshold;
+				layer.rectified[j] = n.rectified;
+				outputNames[position - inputNames.length] = n.name;
+				index.put(n.name, position++);
+			}
+			layers[l] = layer;
+		}
+		width = position;
+	}
+
+	private static int getLayer(Neuron n, Map<String, Neuron> byName, Set<String> inputs,
+								Map<String, Integer> layerOf, Set<String> visiting) throws ContextException {
+		Integer known = layerOf.get(n.name);
+		if (known != null)
+			return known;
+		if (!visiting.add(n.name))
+			throw new ContextException("Neuron " + n.name + " depends on itself");
+		int layer = 1;
+		for (String s : n.signals) {
+			Neuron source = byName.get(s);
+			if (source != null)
+				layer = Math.max(layer, getLayer(source, byName, inputs, layerOf, visiting) + 1);
+			else if (!inputs.contains(s))
+				throw new ContextException("Signal " + s + " of neuron " + n.name + " is not an input or a neuron");
+		}
+		visiting.remove(n.name);
+		layerOf.put(n.name, layer);
+		return layer;
+	}
+
+	public String[] getInputNames() {
+		return inputNames.clone();
+	}
+
+	/**
+	 * Returns the names of neurons in the order of their outputs.
+	 */
+	public String[] getOutputNames() {
+		return outputNames.clone();
+	}
+
+	public int getLayerCount() {
+		return layers.length;
+	}
+
+	/**
+	 * Returns the outputs of all neurons for the input vector.
+	 */
+	public double[] evaluate(double[] input) {
+		double[] values = new double[width];
+		double[] signals = new double[width];
+		double[] output = new double[outputNames.length];
+		forward(input, values, signals, output);
+		return output;
+	}
+
+	/**
+	 * Returns the outputs of all neurons for each input vector of the batch.
+	 */
+	public double[][] evaluate(double[][] inputs) {
+		double[] values = new double[width];
+		double[] signals = new double[width];
+		double[][] outputs = new double[inputs.length][];
+		for (int b = 0; b < inputs.length; b++) {
+			outputs[b] = new double[outputNames.length];
+			forward(inputs[b], values, signals, outputs[b]);
+		}
+		return outputs;
+	}
+
+	private void forward(double[] input, double[] values, double[] signals, double[] output) {
+		if (input.length != inputNames.length)
+			throw new IllegalArgumentException("expected " + inputNames.length + " inputs, got " + input.length);
+		System.arraycopy(input, 0, values, 0, input.length);
+		for (Layer layer : layers) {
+			int[] index = layer.signals;
+			int n = index.length;
+			// gather the signals of the layer into a contiguous vector
+			for (int k = 0; k < n; k++)
+				signals[k] = values[index[k]];
+			double[] w = layer.weights;
+			for (int j = 0, row = 0; j < layer.size(); j++, row += n) {
+				double sum = 0.0;
+				for (int k = 0; k < n; k++)
+					sum += w[row + k] * signals[k];
+				values[layer.offset + j] = activate(sum + layer.bias[j], layer.threshold[j], layer.rectified[j]);
+			}
+		}
+		System.arraycopy(values, inputNames.length, output, 0, output.length);
+	}
+
+	/**
+	 * The activation of {@link sorcer.core.invoker.Activator}: rectified
+	 * linear, a step at a nonzero threshold, or linear.
+	 */
+	static double activate(double sum, double threshold, boolean rectified) {
+		if (rectified) {
+			if (sum < 0.0)
+				return 0.0;
+		} else if (threshold != 0.0) {
+			return sum > threshold ? 1.0 : -1.0;
+		}
+		return sum;
+	}
+}
@@ -23,10 +23,12 @@ import net.jini.core.lookup.ServiceTemplate;
 import net.jini.discovery.DiscoveryEvent;
 import net.jini.discovery.DiscoveryListener;
 import net.jini.discovery.LookupDiscoveryManager;
+import net.jini.lookup.ServiceDiscoveryListener;
 import net.jini.lookup.ServiceDiscoveryManager;
 import org.rioproject.config.Constants;
 import org.rioproject.deploy.DeployAdmin;
 import org.rioproject.impl.client.JiniClient;
+import sorcer.service.Service;
 import sorcer.util.Sorcer;
 
 import java.rmi.RemoteException;
@@ -42,6 +44,9 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class ProvisionMonitorCache {
     private final net.jini.lookup.LookupCache cache;
+    private final ServiceDiscoveryManager lookupMgr;
+    /* services discovered in the groups of provision monitors, created for the first listener */
+    private net.jini.lookup.LookupCache services;
     private static final ProvisionMonitorCache instance = new ProvisionMonitorCache();
     private final Map<String, String> discoveryInfo = new HashMap<>();
     private static Listener listener;
@@ -62,7 +67,7 @@ public class ProvisionMonitorCache {
             discoveryInfo.put("groups", g.toString());
             Class cl = org.rioproject.deploy.ProvisionManager.class;
             listener = new Listener();
-            ServiceDiscoveryManager lookupMgr =
+            lookupMgr =
                     new ServiceDiscoveryManager(new LookupDiscoveryManager(Sorcer.getLookupGroups(),
                                                                            locators,
                                                                            listener), // DiscoveryListener
@@ -88,6 +93,25 @@ public class ProvisionMonitorCache {
         return discoveryInfo.get("locators");
     }
 
+    /**
+     * Adds a listener notified when services are discovered, discarded or
+     * changed, e.g. as services are provisioned and undeployed. The cache of
+     * services is created when the first listener is added, so only clients
+     * waiting on provisioned services discover them.
+     */
+    public synchronized void addServiceDiscoveryListener(ServiceDiscoveryListener listener) {
+        if (services == null) {
+            try {
+                services = lookupMgr.createLookupCache(new ServiceTemplate(null, new Class[]{Service.class}, null),
+                                                       null,
+                                                       null);
+            } catch (RemoteException e) {
+                throw new IllegalStateException("Unable to create the lookup cache of services", e);
+            }
+        }
+        services.addListener(listener);
+    }
+
     public DeployAdmin getDeployAdmin() {
         if(listener.monitor.get()!=null) {
             return listener.monitor.get();
@@ -25,6 +25,8 @@ import sorcer.service.Exerter;
 import sorcer.service.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -35,6 +37,8 @@ import static sorcer.service.Exec.*;
 public class CatalogParallelDispatcher extends CatalogExertDispatcher {
     private final Logger logger = LoggerFactory.getLogger(CatalogParallelDispatcher.class);
     protected ExecutorService executor = Executors.newCachedThreadPool();
+    // layers of dependent components executed in turn, if any
+    protected List<List<Contextion>> layers;
 
     public CatalogParallelDispatcher(Job job,
             Set<Context> sharedContexts,
@@ -54,35 +58,48 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
         });
     }
 
+    /**
+     * Sets the layers of the job components as sorted by the
+     * {@link ExertionSorter}. The components of a layer are executed in
+     * parallel after all components of the preceding layer are done.
+     */
+    public void setLayers(List<List<Contextion>> layers) {
+        this.layers = layers;
+    }
+
     public void doExec(Arg... args) throws RoutineException,
 			SignatureException {
-        List<Future<Routine>> results = new ArrayList<Future<Routine>>(inputXrts.size());
-        for (Contextion mogram : inputXrts) {
-            if (mogram instanceof Routine)
-                results.add(executor.submit(new ExecExertion((Routine)mogram)));
-		}
-
         boolean isFailed = false;
         boolean isSuspended = false;
-        for (Future<Routine> result : results) {
-            try {
-                Subroutine se = (Subroutine) result.get();
-                se.stopExecTime();
-                if (se.getStatus() == FAILED)
+        for (List<Contextion> layer : getInputLayers()) {
+            List<Future<Routine>> results = new ArrayList<Future<Routine>>(layer.size());
+            for (Contextion mogram : layer) {
+                if (mogram instanceof Routine)
+                    results.add(executor.submit(new ExecExertion((Routine)mogram)));
+            }
+
+            for (Future<Routine> result : results) {
+                try {
+                    Subroutine se = (Subroutine) result.get();
+                    se.stopExecTime();
+                    if (se.getStatus() == FAILED)
+                        isFailed = true;
+                    else if (se.getStatus() == SUSPENDED)
+                        isSuspended = true;
+                } catch (InterruptedException e) {
+                    logger.warn("Interrupted {}", result, e);
                     isFailed = true;
-                else if (se.getStatus() == SUSPENDED)
-                    isSuspended = true;
-            } catch (InterruptedException e) {
-                logger.warn("Interrupted {}", result, e);
-                isFailed = true;
-            } catch (ExecutionException e) {
-                logger.warn("Error while executing {}", result, e.getCause());
-                isFailed = true;
+                } catch (ExecutionException e) {
+                    logger.warn("Error while executing {}", result, e.getCause());
+                    isFailed = true;
+                }
             }
+            if (isFailed || isSuspended)
+                break;
         }
 		if (isFailed) {
 			xrt.setStatus(FAILED);
-			state = FAILED;
+			setState(FAILED);
 			RoutineException fe = new RoutineException(this.getClass().getName()
 					+ " failed job", xrt);
 			xrt.reportException(fe);
@@ -91,7 +108,7 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 		}
 		else if (isSuspended) {
 			xrt.setStatus(SUSPENDED);
-			state = SUSPENDED;
+			setState(SUSPENDED);
 			RoutineException fe = new RoutineException(this.getClass().getName()
 					+ " suspended job", xrt);
 			xrt.reportException(fe);
@@ -116,9 +133,32 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 		}
 		xrt.setStatus(DONE);
 		dispatchers.remove(xrt.getId());
-		state = DONE;
+		setState(DONE);
 	}
 
+    /**
+     * Returns the input domains in layers, or in a single layer if the job
+     * has no dependent components.
+     */
+    protected List<List<Contextion>> getInputLayers() {
+        if (layers == null || layers.size() <= 1)
+            return Collections.singletonList(inputXrts);
+        Set<Object> inputIds = new HashSet<Object>();
+        for (Contextion mogram : inputXrts)
+            inputIds.add(mogram.getId());
+        List<List<Contextion>> inputLayers = new ArrayList<List<Contextion>>(layers.size());
+        for (List<Contextion> layer : layers) {
+            List<Contextion> inputLayer = new ArrayList<Contextion>(layer.size());
+            for (Contextion mogram : layer) {
+                if (inputIds.contains(mogram.getId()))
+                    inputLayer.add(mogram);
+            }
+            if (inputLayer.size() > 0)
+                inputLayers.add(inputLayer);
+        }
+        return inputLayers;
+    }
+
     @Override
     protected List<Contextion> getInputExertions() throws ContextException {
         return Mograms.getInputExertions(((Job) xrt));
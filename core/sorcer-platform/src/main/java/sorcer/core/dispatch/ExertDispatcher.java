@@ -38,6 +38,8 @@ import javax.security.auth.Subject;
 import java.lang.reflect.Array;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import static sorcer.service.Exec.*;
 
 @SuppressWarnings("rawtypes")
@@ -52,6 +54,12 @@ abstract public class ExertDispatcher implements Dispatcher {
 
 	protected volatile int state = Exec.INITIAL;
 
+    // completed with the result when the dispatch is done, failed, or suspended
+    protected final CompletableFuture<DispatchResult> completion = new CompletableFuture<DispatchResult>();
+
+    // set while exec is running, the result is completed by exec then
+    private volatile boolean executing;
+
     protected boolean isMonitored;
 
     protected Set<Context> sharedContexts;
@@ -101,8 +109,9 @@ abstract public class ExertDispatcher implements Dispatcher {
     }
 
     public void exec(Arg... args) {
+        executing = true;
         dispatchers.put(xrt.getId(), this);
-        state = Exec.RUNNING;
+        setState(Exec.RUNNING);
         xrt.setStatus(state);
         if (xrt instanceof Job) {
             masterXrt = (Subroutine) ((Job) xrt).getMasterExertion();
@@ -114,8 +123,12 @@ abstract public class ExertDispatcher implements Dispatcher {
             xrt.finalizeOutDataContext();
         } catch (Exception e) {
             logger.warn("Routine governor thread killed by exception: ", e);
-            xrt.setStatus(Exec.FAILED);
-            state = Exec.FAILED;
+            if (xrt.getStatus() == Exec.SUSPENDED) {
+                setState(Exec.SUSPENDED);
+            } else {
+                xrt.setStatus(Exec.FAILED);
+                setState(Exec.FAILED);
+            }
             xrt.reportException(e);
         } finally {
             try {
@@ -125,6 +138,8 @@ abstract public class ExertDispatcher implements Dispatcher {
                 logger.warn("Problem removing lease for : " + xrt.getName() + " " + Exec.State.name(xrt.getStatus()) , ce);
             }
             dispatchers.remove(xrt.getId());
+            executing = false;
+            complete();
         }
     }
 
@@ -172,20 +187,36 @@ abstract public class ExertDispatcher implements Dispatcher {
     @Override
     public DispatchResult getResult() {
         /**
-         * The default implementation - wait for status to be changed by another thread
+         * The default implementation - wait for the state to be set
+         * finished by another thread
          */
-
         try {
-            while (!finished())
-                Thread.sleep(50);
+            return completion.get();
         } catch (InterruptedException e) {
             logger.warn("Interrupted!", e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Dispatch failed", e);
         }
         return new DispatchResult(State.values()[state], xrt);
     }
 
+    /**
+     * Returns the future completed with the result of this dispatcher when
+     * its state is set to DONE, FAILED, or SUSPENDED.
+     */
+    public CompletableFuture<DispatchResult> getCompletion() {
+        return completion;
+    }
+
+    private void complete() {
+        if (finished())
+            completion.complete(new DispatchResult(State.values()[state], xrt));
+    }
+
     private boolean finished(){
-        return state == State.DONE.ordinal() || state == State.FAILED.ordinal();
+        return state == State.DONE.ordinal() || state == State.FAILED.ordinal()
+                || state == State.SUSPENDED.ordinal();
     }
 
     /**
@@ -214,6 +245,8 @@ abstract public class ExertDispatcher implements Dispatcher {
 
     public void setState(int state) {
         this.state = state;
+        if (!executing)
+            complete();
     }
 
     protected class CollectResultThread implements Runnable {
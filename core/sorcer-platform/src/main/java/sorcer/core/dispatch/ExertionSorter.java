@@ -1,8 +1,5 @@
 package sorcer.core.dispatch;
 
-import org.codehaus.plexus.util.dag.CycleDetectedException;
-import org.codehaus.plexus.util.dag.DAG;
-import org.codehaus.plexus.util.dag.TopologicalSorter;
 import sorcer.service.*;
 
 import java.util.*;
@@ -18,16 +15,27 @@ import org.slf4j.LoggerFactory;
  * the tasks and jobs hierarchy. The sorter also determines the Flow for jobs
  * that have the Flow setValue to AUTO.
  *
- * This code is based on the ProjectSorter class from Apache Maven 2
+ * The dependency graph is indexed by exertion IDs and built once for the
+ * top-level job. The dependencies of exertions nested in a component of a job
+ * are lifted to that component, so each job is sorted in linear time and its
+ * components are grouped into layers of mutually independent exertions. A job
+ * with dependent components is sequential only if each of its layers holds a
+ * single component, otherwise its layers are executed one after another with
+ * the components of a layer in parallel.
  */
 public class ExertionSorter {
 
     private static Logger logger = LoggerFactory.getLogger(ExertionSorter.class.getName());
-    private final DAG dag;
-    private final Map projectMap;
-    private final Map<String, String> contextIdsMap;
-    private final Map<String, String> revContextIdsMap;
-    private List<Mogram> sortedProjects = null;
+    /* routines of the job tree by their IDs */
+    private final Map<Object, Routine> routines;
+    /* the job a routine is a component of, by routine ID */
+    private final Map<Object, Routine> parents;
+    /* routine IDs by the IDs of their data contexts */
+    private final Map<String, Object> revContextIdsMap;
+    /* IDs of routines a routine takes its input from, by routine ID */
+    private final Map<Object, Set<Object>> dependencies;
+    /* layers of components by job ID */
+    private final Map<Object, List<List<Contextion>>> layers;
     private Routine topLevelJob;
 
     /**
@@ -35,29 +43,18 @@ public class ExertionSorter {
      */
     public ExertionSorter(Routine topLevelJob) throws ContextException, SortingException {
 
-        dag = new DAG();
-        projectMap = new HashMap();
-        contextIdsMap = new HashMap<String, String>();
-        revContextIdsMap = new HashMap<String, String>();
+        routines = new HashMap<Object, Routine>();
+        parents = new HashMap<Object, Routine>();
+        revContextIdsMap = new HashMap<String, Object>();
+        dependencies = new HashMap<Object, Set<Object>>();
+        layers = new HashMap<Object, List<List<Contextion>>>();
         this.topLevelJob = topLevelJob;
 
+        routines.put(topLevelJob.getId(), topLevelJob);
+        revContextIdsMap.put(topLevelJob.getDataContext().getId().toString(), topLevelJob.getId());
         addVertex(this.topLevelJob);
-
-        try {
-            getMapping(this.topLevelJob);
-            checkParentCycle(this.topLevelJob);
-
-            List sortedProjects = new ArrayList();
-            for (Iterator i = TopologicalSorter.sort(dag).iterator(); i.hasNext(); ) {
-                String id = (String) i.next();
-                sortedProjects.add(projectMap.get(id));
-            }
-
-            this.sortedProjects = Collections.unmodifiableList(sortedProjects);
-            reorderJob(this.topLevelJob, this.sortedProjects);
-        } catch (CycleDetectedException ce) {
-            throw new SortingException(ce.getMessage());
-        }
+        getMapping(this.topLevelJob);
+        reorderJob(this.topLevelJob);
     }
 
     /**
@@ -69,92 +66,165 @@ public class ExertionSorter {
         return topLevelJob;
     }
 
-
     /**
-     * Helper method to build a tree of all exertion IDs in a tree - required by setFlow
-     * @param sortedSubXrt
-     * @return
+     * Returns the components of the job, as sorted, in layers; the components
+     * of a layer depend only on components of preceding layers.
+     *
+     * @param job
+     *            the top-level job or a job nested in it
+     * @return the layers of the job or null if the job was not sorted
      */
-    private List<String> addSubExertions(List<Contextion> sortedSubXrt) {
-        List<String> sortedSubsetIds = new ArrayList<String>();
-        for (Contextion xrt : sortedSubXrt) {
-            sortedSubsetIds.add(xrt.getId().toString());
-            if (xrt instanceof Job)
-                sortedSubsetIds.addAll(addSubExertions(((Job) xrt).getMograms()));
-        }
-        return sortedSubsetIds;
+    public List<List<Contextion>> getLayers(Routine job) {
+        return layers.get(job.getId());
     }
 
-
     /**
      * Determine the Flow (PAR or SEQ) for domains that have the Flow setValue to AUTO
      *
      * @param topXrt
-     * @param sortedSubXrt
+     * @param jobLayers
      * @return
      */
-    private Strategy.Flow setFlow(Routine topXrt, List<Contextion> sortedSubXrt) {
-        List<String> sortedSubsetIds = addSubExertions(sortedSubXrt);
-
-        int edges = 0;
-        for (Contextion xrt : topXrt.getMograms()) {
-            for (String depId : dag.getParentLabels(xrt.getId().toString())) {
-                if (sortedSubsetIds.contains(depId)) {
-                    edges++;
-                    logger.debug("Edge: " + xrt.getName() + " parent: " + depId);
-                }
-            }
-            for (String depId : dag.getChildLabels(xrt.getId().toString())) {
-                if (sortedSubsetIds.contains(depId)) {
-                    edges++;
-                    logger.debug("Edge: " + xrt.getName() + " child: " + depId);
-                }
+    private Strategy.Flow setFlow(Routine topXrt, List<List<Contextion>> jobLayers) {
+        if (topXrt.getMograms().size() > 0)
+            logger.debug("XRT " + topXrt.getName() + " has layers: " + jobLayers.size());
+        if (jobLayers.size() <= 1)
+            return Strategy.Flow.PAR;
+        for (List<Contextion> layer : jobLayers) {
+            if (layer.size() > 1) {
+                // layers are executed in turn by catalog dispatchers only
+                return topXrt.getAccessType() == Strategy.Access.PULL
+                        ? Strategy.Flow.SEQ : Strategy.Flow.PAR;
             }
         }
-        if (topXrt.getMograms().size() > 0)
-            logger.debug("XRT " + topXrt.getName() + " has edges: " + edges);
-        if (edges == 0) return Strategy.Flow.PAR;
-        else return Strategy.Flow.SEQ;
+        return Strategy.Flow.SEQ;
     }
 
     /**
      * Actually rearrange the domains in the job according to the sorting
      *
      * @param topXrt
-     * @param sortedExertions
-     * @throws CycleDetectedException
-     * @throws ContextException
+     * @throws SortingException
      */
-    private void reorderJob(Routine topXrt, List<Mogram> sortedExertions) {
-        List<Contextion> sortedSubset = new ArrayList(sortedExertions);
-        sortedSubset.retainAll(topXrt.getMograms());
+    private void reorderJob(Routine topXrt) throws SortingException {
+        List<Contextion> mograms = topXrt.getMograms();
+        int n = mograms.size();
+        Map<Object, Integer> index = new HashMap<Object, Integer>(2 * n);
+        for (int i = 0; i < n; i++)
+            index.put(mograms.get(i).getId(), i);
+
+        // dependencies of the subtree of each component lifted to components
+        List<Set<Integer>> deps = new ArrayList<Set<Integer>>(n);
+        for (int i = 0; i < n; i++) {
+            Set<Integer> cDeps = new LinkedHashSet<Integer>();
+            addDependencies(topXrt, (Routine) mograms.get(i), index, i, cDeps);
+            deps.add(cDeps);
+        }
+
+        // depth-first post-order in the original order, with the layer of each
+        // component one above the highest layer of its dependencies
+        int[] layer = new int[n];
+        byte[] state = new byte[n];
+        List<Contextion> sortedSubset = new ArrayList<Contextion>(n);
+        int layerCount = n > 0 ? 1 : 0;
+        Deque<Integer> stack = new ArrayDeque<Integer>();
+        Deque<Iterator<Integer>> edges = new ArrayDeque<Iterator<Integer>>();
+        for (int i = 0; i < n; i++) {
+            if (state[i] != 0)
+                continue;
+            state[i] = 1;
+            stack.push(i);
+            edges.push(deps.get(i).iterator());
+            while (!stack.isEmpty()) {
+                Iterator<Integer> it = edges.peek();
+                if (it.hasNext()) {
+                    int d = it.next();
+                    if (state[d] == 1) {
+                        throw new SortingException("Cycle detected between '" + mograms.get(d).getName()
+                                + "' and '" + mograms.get(stack.peek()).getName() + "' in the job: '"
+                                + topXrt.getName() + "'");
+                    } else if (state[d] == 0) {
+                        state[d] = 1;
+                        stack.push(d);
+                        edges.push(deps.get(d).iterator());
+                    }
+                } else {
+                    int v = stack.pop();
+                    edges.pop();
+                    int l = 0;
+                    for (int d : deps.get(v))
+                        l = Math.max(l, layer[d] + 1);
+                    layer[v] = l;
+                    layerCount = Math.max(layerCount, l + 1);
+                    state[v] = 2;
+                    sortedSubset.add(mograms.get(v));
+                }
+            }
+        }
+        List<List<Contextion>> jobLayers = new ArrayList<List<Contextion>>(layerCount);
+        for (int i = 0; i < layerCount; i++)
+            jobLayers.add(new ArrayList<Contextion>());
+        for (Contextion xrt : sortedSubset)
+            jobLayers.get(layer[index.get(xrt.getId())]).add(xrt);
+        layers.put(topXrt.getId(), jobLayers);
 
         if (topXrt.getFlowType()!=null && topXrt.getFlowType().equals(Strategy.Flow.AUTO)) {
-            ((Subroutine) topXrt).setFlowType(setFlow(topXrt, sortedSubset));
+            ((Subroutine) topXrt).setFlowType(setFlow(topXrt, jobLayers));
             logger.info("FLOW for exertion: " + topXrt.getName() + " set to: " + topXrt.getFlowType());
         }
-        List<String> exertionsBefore = new ArrayList();
-        for (Contextion xrt : topXrt.getMograms())
-                exertionsBefore.add(xrt.getName());
 
-        List<String> exertionsAfter = new ArrayList<String>();
-        for (Mogram xrt : sortedExertions)
-            exertionsAfter.add(xrt.getName());
-        if (!topXrt.getMograms().equals(sortedSubset)) {
+        if (!mograms.equals(sortedSubset)) {
+            List<String> exertionsBefore = new ArrayList<String>();
+            for (Contextion xrt : mograms)
+                exertionsBefore.add(xrt.getName());
+            List<String> exertionsAfter = new ArrayList<String>();
+            for (Contextion xrt : sortedSubset)
+                exertionsAfter.add(xrt.getName());
             logger.info("Order of domains for " + topXrt.getName() + " will be changed: ");
             logger.info("From: " + exertionsBefore);
             logger.info("To: " + exertionsAfter);
-            topXrt.getMograms().removeAll(sortedSubset);
-            topXrt.getMograms().addAll(sortedSubset);
+            mograms.clear();
+            mograms.addAll(sortedSubset);
         }
 
-
-        for (Iterator i = topXrt.getMograms().iterator(); i.hasNext(); ) {
-            Routine xrt = (Routine) i.next();
+        for (Contextion xrt : mograms) {
             if (xrt instanceof Job) {
-                reorderJob(xrt, sortedExertions);
+                reorderJob((Routine) xrt);
+            }
+        }
+    }
+
+    /**
+     * Adds to <code>deps</code> the indexes of the components of the job the
+     * routine or its inner domains depend on, other than the component itself
+     */
+    private void addDependencies(Routine job, Routine xrt, Map<Object, Integer> index, int component,
+                                 Set<Integer> deps) {
+        Set<Object> xrtDeps = dependencies.get(xrt.getId());
+        if (xrtDeps != null) {
+            for (Object depId : xrtDeps) {
+                Integer dep = getComponent(job, depId, index);
+                if (dep != null && dep != component)
+                    deps.add(dep);
             }
         }
+        if (xrt instanceof Job) {
+            for (Contextion inner : xrt.getMograms())
+                addDependencies(job, (Routine) inner, index, component, deps);
+        }
+    }
+
+    /**
+     * Returns the index of the component of the job that is or contains the
+     * routine, or null if the routine is not in the job
+     */
+    private Integer getComponent(Routine job, Object id, Map<Object, Integer> index) {
+        Routine parent = parents.get(id);
+        while (parent != null && parent != job) {
+            id = parent.getId();
+            parent = parents.get(id);
+        }
+        return parent != null ? index.get(id) : null;
     }
 
     /**
@@ -165,25 +235,18 @@ public class ExertionSorter {
      */
     private void addVertex(Routine topXrt) throws ContextException, SortingException {
 
-        String id = topXrt.getId().toString();
-        dag.addVertex(id);
-        projectMap.put(id, topXrt);
-        contextIdsMap.put(id, topXrt.getDataContext().getId().toString());
-        revContextIdsMap.put(topXrt.getDataContext().getId().toString(), id);
-
         for (Iterator i = topXrt.getMograms().iterator(); i.hasNext(); ) {
             Routine project = (Routine) i.next();
 
-            id = project.getId().toString();
+            Object id = project.getId();
 
-            if (dag.getVertex(id) != null) {
+            if (routines.containsKey(id)) {
                 throw new SortingException("Routine '" + project.getName() +
                         "'(" + id + ") is duplicated in the job: '" + topXrt.getName() + "' (" + topXrt.getId() + ")");
             }
 
-            dag.addVertex(id);
-            projectMap.put(id, project);
-            contextIdsMap.put(id, project.getDataContext().getId().toString());
+            routines.put(id, project);
+            parents.put(id, topXrt);
             revContextIdsMap.put(project.getDataContext().getId().toString(), id);
 
             if (project instanceof Job) {
@@ -196,25 +259,27 @@ public class ExertionSorter {
      * Find the dependencies that result from the pipes specified between tasks
      *
      * @param topXrt
-     * @throws CycleDetectedException
      * @throws SortingException
      */
-    private void getMapping(Routine topXrt) throws CycleDetectedException, ContextException, SortingException {
+    private void getMapping(Routine topXrt) throws ContextException, SortingException {
         for (Iterator i = topXrt.getMograms().iterator(); i.hasNext(); ) {
             Routine project = (Routine) i.next();
-            String id = project.getId().toString();
-            String topId = topXrt.getId().toString();
-            dag.addEdge(id, topId);
+            Object id = project.getId();
 
             Map<String, Map<String, String>> metaCtx = project.getDataContext().getMetacontext();
             Map<String, String> ctxMapping = metaCtx.get("cid");
             if (ctxMapping != null) {
                 for (Map.Entry<String, String> mapping : ctxMapping.entrySet()) {
                     if (mapping.getValue() != null && mapping.getValue().length() > 0) {
-                        String dependencyId = revContextIdsMap.get(mapping.getValue());
+                        Object dependencyId = revContextIdsMap.get(mapping.getValue());
                         logger.debug("Map: " + mapping.getKey() + " to " + dependencyId);
-                        if (dag.getVertex(dependencyId) != null) {
-                            dag.addEdge(id, dependencyId);
+                        if (dependencyId != null && !dependencyId.equals(id)) {
+                            Set<Object> deps = dependencies.get(id);
+                            if (deps == null) {
+                                deps = new HashSet<Object>();
+                                dependencies.put(id, deps);
+                            }
+                            deps.add(dependencyId);
                         }
                     }
                 }
@@ -224,25 +289,4 @@ public class ExertionSorter {
             }
         }
     }
-
-    /**
-     * Check if there is an edge between the exertion and its parent
-     *
-     * @param topXrt
-     * @throws CycleDetectedException
-     * @throws SortingException
-     */
-    private void checkParentCycle(Routine topXrt) throws CycleDetectedException, ContextException, SortingException {
-        if (((ServiceMogram)topXrt.getDataContext()).getParentId() != null) {
-            String parentId = ((ServiceMogram)topXrt.getDataContext()).getParentId().toString();
-            if (dag.getVertex(parentId) != null) {
-                // Parent is added as an edge, but must not cause a cycle - so we remove any other edges it has in conflict
-                if (dag.hasEdge(parentId, topXrt.getId().toString())) {
-                    dag.removeEdge(parentId, topXrt.getId().toString());
-                }
-                dag.addEdge(topXrt.getId().toString(), parentId);
-            }
-        }
-    }
 }
-
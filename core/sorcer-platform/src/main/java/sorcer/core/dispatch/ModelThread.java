@@ -26,6 +26,11 @@ import sorcer.service.Exerter;
 import sorcer.core.provider.ServiceExerter;
 import sorcer.service.*;
 
+/**
+ * @deprecated use {@link ServiceExerter#exertAsync(Contextion, net.jini.core.transaction.Transaction, Arg...)}
+ * completed by the dispatcher instead of a thread per exertion
+ */
+@Deprecated
 public class ModelThread extends Thread {
 	private final static Logger logger = LoggerFactory.getLogger(ModelThread.class
 			.getName());
@@ -33,6 +33,7 @@ import sorcer.service.Exerter;
 import sorcer.core.signature.ServiceSignature;
 import sorcer.service.*;
 import sorcer.service.modeling.Model;
+import sorcer.util.ServiceAccessor;
 
 import java.rmi.RemoteException;
 import java.util.Collections;
@@ -67,6 +68,22 @@ public class MogramDispatcherFactory implements DispatcherFactory {
         return new MogramDispatcherFactory(loki);
     }
 
+    /*
+     * Starts lookups of the providers of a catalog job, so discovery overlaps
+     * with sorting the job and updating its inputs.
+     */
+    private static void prefetch(Job job) {
+        if (!Mograms.isCatalogParallel(job) && !Mograms.isCatalogSequential(job))
+            return;
+        try {
+            DynamicAccessor accessor = Accessor.get();
+            if (accessor instanceof ServiceAccessor)
+                ((ServiceAccessor) accessor).prefetch(job.getAllNetTaskSignatures());
+        } catch (IllegalStateException e) {
+            logger.debug("No accessor to prefetch providers of {}", job.getName());
+        }
+    }
+
     public Dispatcher createDispatcher(Mogram mogram,
                                        Set<Context> sharedContexts,
                                        boolean isSpawned,
@@ -80,8 +97,12 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                     || ((Routine)mogram).isProvisionable()))
                     provisionManager = new ProvisionManager((Routine)mogram);
             }
-            if(mogram instanceof Job)
-                mogram = new ExertionSorter((Job)mogram).getSortedJob();
+            ExertionSorter sorter = null;
+            if(mogram instanceof Job) {
+                prefetch((Job) mogram);
+                sorter = new ExertionSorter((Job)mogram);
+                mogram = sorter.getSortedJob();
+            }
 
             if ( mogram instanceof Block && Mograms.isCatalogBlock((Routine)mogram)) {
                 logger.info("Running Catalog Block Dispatch...");
@@ -116,6 +137,7 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                         isSpawned,
                         provider,
                         provisionManager);
+                    ((CatalogParallelDispatcher) dispatcher).setLayers(sorter.getLayers(job));
                 } else if (Mograms.isCatalogSequential(job)) {
                     logger.info("Running Catalog Sequential Dispatch...");
                     dispatcher = new CatalogSequentialDispatcher(job,
@@ -17,6 +17,8 @@
 package sorcer.core.dispatch;
 
 
+import net.jini.lookup.ServiceDiscoveryEvent;
+import net.jini.lookup.ServiceDiscoveryListener;
 import org.rioproject.deploy.DeployAdmin;
 import org.rioproject.impl.opstring.OpString;
 import org.rioproject.opstring.OperationalString;
@@ -32,17 +34,28 @@ import sorcer.service.DispatchException;
 import sorcer.service.Routine;
 import sorcer.service.Subroutine;
 import sorcer.service.Signature;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.Sorcer;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The {@code ProvisionManager} handles the dynamic creation of {@link OperationalString}s created
  * from {@link Routine}s.
+ * <p>
+ * Deployments are requested in parallel on an executor shared by all provision managers. Waiting
+ * for provisioned services and for undeployments is driven by service discovery events, with a
+ * periodic recheck in case an event is missed. Concurrent requests for the same non-unique
+ * deployment are served by a single deployment, and deployments found fully provisioned are
+ * remembered, so repeated provisioning skips them until a service is discarded or they are
+ * undeployed.
  *
  * @author Dennis Reedy
  * @author Mike Sobolewski
@@ -51,11 +64,22 @@ public class ProvisionManager {
 	private static final Logger logger = LoggerFactory.getLogger(ProvisionManager.class.getName());
 	private final Routine exertion;
     final List<Signature> signatures;
-    private final List<String> deploymentNames = new ArrayList<>();
+    private final CopyOnWriteArrayList<String> deploymentNames = new CopyOnWriteArrayList<>();
     private final ProvisionMonitorCache provisionMonitorCache;
 	private volatile DeployAdmin deployAdmin;
     private Map<ServiceDeployment.Unique, List<OperationalString>> deployments;
 
+    // interval of rechecks of awaited deployments in case of missed events
+    private static final long RECHECK_INTERVAL = 5000;
+    private static ExecutorService executor;
+    private static final Conditions conditions = new Conditions();
+    /* names of deployments found fully provisioned */
+    private static final Set<String> provisioned = ConcurrentHashMap.newKeySet();
+    /* deployment requests in progress by deployment name */
+    private static final ConcurrentMap<String, CompletableFuture<Void>> deploying = new ConcurrentHashMap<>();
+    /* awaited deployments by deployment name */
+    private static final ConcurrentMap<String, CompletableFuture<Boolean>> awaited = new ConcurrentHashMap<>();
+
 	public ProvisionManager(final Routine exertion) {
 		this.exertion = exertion;
 		this.signatures = null;
@@ -72,6 +96,28 @@ public class ProvisionManager {
         return deployAdmin;
     }
 
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setDaemon(true);
+            factory.setNameFormat("Provision-%2$d");
+            int threads = Math.max(1, Sorcer.getProvisionThreads());
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<Runnable>(), factory);
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            try {
+                ProvisionMonitorCache.getInstance().addServiceDiscoveryListener(conditions);
+            } catch (IllegalStateException e) {
+                logger.warn("Deployments are awaited by rechecks only", e);
+            }
+            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(factory);
+            timer.scheduleWithFixedDelay(conditions::recheck, RECHECK_INTERVAL, RECHECK_INTERVAL,
+                                         TimeUnit.MILLISECONDS);
+        }
+        return executor;
+    }
+
     private synchronized void doGetDeployAdmin() {
         if (deployAdmin == null) {
             logger.debug("Discover a DeployAdmin reference using {} ...", getDiscoveryInfo());
@@ -88,24 +134,23 @@ public class ProvisionManager {
         if (!deployServices()) {
             return false;
         }
-        List<Callable<Boolean>> tasks = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
         for (Map.Entry<ServiceDeployment.Unique, List<OperationalString>> entry : deployments.entrySet()) {
             for(OperationalString deployment : entry.getValue()) {
-                tasks.add(new DeploymentFutureTask(deployment));
+                futures.add(awaitDeployment(deployment));
             }
         }
-        final ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
-        final ExecutorCompletionService<Boolean> completionService = new ExecutorCompletionService<>(pool);
-        for(Callable<Boolean> task : tasks) {
-            completionService.submit(task);
-        }
         boolean deployed = true;
-        for(int i=0; i<tasks.size(); i++) {
+        for (CompletableFuture<Boolean> future : futures) {
             try {
-                if (!completionService.take().get()) {
+                if (!future.get()) {
                     deployed = false;
                 }
-            } catch (InterruptedException | ExecutionException e) {
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted waiting for deployments");
+                return false;
+            } catch (ExecutionException e) {
                 logger.warn("Might be an issue getting results", e);
             }
         }
@@ -120,34 +165,20 @@ public class ProvisionManager {
         try {
             doGetDeployAdmin();
             if (deployAdmin != null) {
+                List<CompletableFuture<Void>> requests = new ArrayList<>();
                 for (Map.Entry<ServiceDeployment.Unique, List<OperationalString>> entry : deployments.entrySet()) {
                     for (OperationalString deployment : entry.getValue()) {
-                        if (logger.isDebugEnabled())
-                            logger.debug("Processing deployment {}", deployment.getName());
-                        if (deployAdmin.hasDeployed(deployment.getName())) {
-                            if (entry.getKey() == ServiceDeployment.Unique.YES) {
-                                String newName = createDeploymentName(deployment.getName(),
-                                                                      deployAdmin.getOperationalStringManagers());
-                                if (logger.isDebugEnabled())
-                                    logger.debug("Deployment for {} already exists, created new key [{}], " +
-                                                          "proceed with autonomic deployment",
-                                                          deployment.getName(), newName);
-                                ((OpString)deployment).setName(newName);
-                            } else {
-                                if (logger.isDebugEnabled())
-                                    logger.debug("Deployment for {} already exists", deployment.getName());
-                                if (!deploymentNames.contains(deployment.getName()))
-                                    deploymentNames.add(deployment.getName());
-                                continue;
-                            }
-                        } else {
-                            if (logger.isDebugEnabled())
-                                logger.debug("Deployment for {} not found, request autonomic deployment",
-                                             deployment.getName());
-                        }
-                        deployAdmin.deploy(deployment);
-                        if (!deploymentNames.contains(deployment.getName()))
-                            deploymentNames.add(deployment.getName());
+                        final ServiceDeployment.Unique unique = entry.getKey();
+                        requests.add(CompletableFuture.runAsync(() -> deploy(unique, deployment), getExecutor()));
+                    }
+                }
+                for (CompletableFuture<Void> request : requests) {
+                    try {
+                        request.join();
+                    } catch (CompletionException e) {
+                        if (e.getCause() instanceof Exception)
+                            throw (Exception) e.getCause();
+                        throw e;
                     }
                 }
 
@@ -212,27 +243,163 @@ public class ProvisionManager {
         return true;
     }
 
+    /**
+     * Requests the deployment unless it is deployed already. Requests for the
+     * same non-unique deployment are performed once, concurrent ones wait for
+     * the request in progress.
+     */
+    private void deploy(ServiceDeployment.Unique unique, OperationalString deployment) {
+        try {
+            if (logger.isDebugEnabled())
+                logger.debug("Processing deployment {}", deployment.getName());
+            if (unique == ServiceDeployment.Unique.YES) {
+                // names of unique deployments are created one at a time
+                synchronized (ProvisionManager.class) {
+                    if (deployAdmin.hasDeployed(deployment.getName())) {
+                        String newName = createDeploymentName(deployment.getName(),
+                                                              deployAdmin.getOperationalStringManagers());
+                        if (logger.isDebugEnabled())
+                            logger.debug("Deployment for {} already exists, created new key [{}], " +
+                                                  "proceed with autonomic deployment",
+                                                  deployment.getName(), newName);
+                        ((OpString)deployment).setName(newName);
+                    }
+                    deployAdmin.deploy(deployment);
+                }
+                deploymentNames.addIfAbsent(deployment.getName());
+                return;
+            }
+            String name = deployment.getName();
+            if (provisioned.contains(name)) {
+                if (logger.isDebugEnabled())
+                    logger.debug("Deployment for {} is provisioned", name);
+                deploymentNames.addIfAbsent(name);
+                return;
+            }
+            CompletableFuture<Void> request = new CompletableFuture<>();
+            CompletableFuture<Void> inProgress = deploying.putIfAbsent(name, request);
+            if (inProgress != null) {
+                if (logger.isDebugEnabled())
+                    logger.debug("Deployment for {} is in progress", name);
+                inProgress.join();
+            } else {
+                try {
+                    if (deployAdmin.hasDeployed(name)) {
+                        if (logger.isDebugEnabled())
+                            logger.debug("Deployment for {} already exists", name);
+                    } else {
+                        if (logger.isDebugEnabled())
+                            logger.debug("Deployment for {} not found, request autonomic deployment", name);
+                        deployAdmin.deploy(deployment);
+                    }
+                    request.complete(null);
+                } catch (Exception e) {
+                    request.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    deploying.remove(name, request);
+                }
+            }
+            deploymentNames.addIfAbsent(name);
+        } catch (CompletionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Returns the future completed when all planned services of the
+     * deployment are provisioned. Concurrent requests for the same deployment
+     * share the future.
+     */
+    private CompletableFuture<Boolean> awaitDeployment(OperationalString deployment) {
+        final String name = deployment.getName();
+        if (provisioned.contains(name))
+            return CompletableFuture.completedFuture(true);
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = awaited.putIfAbsent(name, result);
+        if (existing != null)
+            return existing;
+        final DeployAdmin admin = deployAdmin;
+        conditions.await(() -> isProvisioned(admin, deployment)).whenComplete((deployed, e) -> {
+            awaited.remove(name, result);
+            if (e != null) {
+                logger.warn("Failed waiting for deployment [{}]", name, e);
+                result.complete(false);
+            } else {
+                if (deployed)
+                    provisioned.add(name);
+                result.complete(deployed);
+            }
+        });
+        return result;
+    }
+
+    private static boolean isProvisioned(DeployAdmin admin, OperationalString deployment) throws Exception {
+        OperationalStringManager mgr;
+        try {
+            mgr = admin.getOperationalStringManager(deployment.getName());
+        } catch (OperationalStringException notReady) {
+            return false;
+        }
+        for (ServiceElement elem : deployment.getServices()) {
+            int numDeployed;
+            try {
+                numDeployed = mgr.getServiceBeanInstances(elem).length;
+            } catch (OperationalStringException notReady) {
+                if (logger.isTraceEnabled())
+                    logger.trace(notReady.getMessage());
+                return false;
+            }
+            if (numDeployed < elem.getPlanned()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format(
+                        "Service %s/%-12s is pending. Planned [%s], deployed [%d]",
+                        elem.getOperationalStringName(),
+                        elem.getName(),
+                        elem.getPlanned(),
+                        numDeployed));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void undeploy() {
         if (deployAdmin == null) {
             logger.warn("Unable to undeploy, there is no known DeployAdmin ");
             return;
         }
-        List<String> removals = new ArrayList<>();
+        final DeployAdmin admin = deployAdmin;
+        Map<String, CompletableFuture<Boolean>> undeployments = new LinkedHashMap<>();
         for(String deploymentName : deploymentNames) {
-            try {
-                deployAdmin.undeploy(deploymentName);
-                while(deployAdmin.hasDeployed(deploymentName)) {
-                    Thread.sleep(1000);
+            provisioned.remove(deploymentName);
+            undeployments.put(deploymentName, CompletableFuture.supplyAsync(() -> {
+                try {
+                    admin.undeploy(deploymentName);
+                    return true;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
                 }
-                removals.add(deploymentName);
-            } catch (Exception e) {
-                logger.warn("Unable to undeploy "+deploymentName+", "+e.getMessage());
+            }, getExecutor()).thenCompose(v -> conditions.await(() -> !admin.hasDeployed(deploymentName))));
+        }
+        List<String> removals = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Boolean>> entry : undeployments.entrySet()) {
+            try {
+                entry.getValue().join();
+                removals.add(entry.getKey());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Unable to undeploy "+entry.getKey()+", "+cause.getMessage());
             }
         }
         for(String remove : removals) {
             deploymentNames.remove(remove);
         }
     }
+
     private Map<ServiceDeployment.Unique, List<OperationalString>> createDeployments() throws DispatchException {
         Map<ServiceDeployment.Unique, List<OperationalString>> deployments = null;
         try {
@@ -286,84 +453,75 @@ public class ProvisionManager {
         return signatures;
     }
 
-    private class DeploymentFutureTask implements Callable<Boolean> {
-        final OperationalString deployment;
+    /**
+     * Conditions awaited by provision managers, evaluated on the shared
+     * executor whenever services are discovered, discarded or changed and
+     * periodically in case an event is missed.
+     */
+    private static class Conditions implements ServiceDiscoveryListener {
 
-        DeploymentFutureTask(final OperationalString deployment) {
-            this.deployment = deployment;
+        interface Condition {
+            boolean isMet() throws Exception;
         }
 
-        boolean waitForDeployment()  {
-            try {
-                OperationalStringManager mgr = null;
-                while(mgr==null) {
-                    try {
-                        mgr = deployAdmin.getOperationalStringManager(deployment.getName());
-                    } catch (OperationalStringException ignore) {}
-                    Thread.sleep(500);
-                }
-                Map<ServiceElement, Integer> deploy = new HashMap<>();
-                int total = 0;
-                for (ServiceElement elem: deployment.getServices()) {
-                    deploy.put(elem, 0);
-                    total += elem.getPlanned();
-                }
-                int deployed = 0;
-                int counter = 0;
-                List<String> deployedServices = new ArrayList<>();
-                while (deployed < total) {
-                    counter++;
-                    deployed = 0;
-                    for (Map.Entry<ServiceElement, Integer> entry: deploy.entrySet()) {
-                        int numDeployed = entry.getValue();
-                        ServiceElement elem = entry.getKey();
-                        if (numDeployed < elem.getPlanned()) {
-                            try {
-                                numDeployed = mgr.getServiceBeanInstances(elem).length;
-                                deploy.put(elem, numDeployed);
-                                if (counter % 50 == 0) {
-                                    if (logger.isDebugEnabled()) {
-                                        logger.debug(String.format(
-                                            "Service %s/%-12s is pending. Planned [%s], deployed [%d]",
-                                            elem.getOperationalStringName(),
-                                            elem.getName(),
-                                            elem.getPlanned(),
-                                            numDeployed));
-                                    }
-                                }
-                            } catch (OperationalStringException notReady) {
-                                if (logger.isTraceEnabled())
-                                    logger.trace(notReady.getMessage());
-                            }
-                        } else {
-                            String name = String.format("%s/%s", elem.getOperationalStringName(), elem.getName());
-                            if (!deployedServices.contains(name)) {
-                                if (logger.isDebugEnabled()) {
-                                    logger.debug(String.format(
-                                        "Service %s/%-12s is deployed. Planned [%s], deployed [%d]",
-                                        elem.getOperationalStringName(),
-                                        elem.getName(),
-                                        elem.getPlanned(),
-                                        numDeployed));
-                                }
-                                deployedServices.add(name);
-                            }
-                            deployed += elem.getPlanned();
-                        }
-                    }
-                    if (deployed < total) {
-                        Thread.sleep(500);
+        private static class Pending {
+            final Condition condition;
+            final CompletableFuture<Boolean> future = new CompletableFuture<>();
+            final AtomicBoolean scheduled = new AtomicBoolean();
+
+            Pending(Condition condition) {
+                this.condition = condition;
+            }
+        }
+
+        private final Set<Pending> pending = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Returns the future completed with true when the condition is met,
+         * or exceptionally if its evaluation fails.
+         */
+        CompletableFuture<Boolean> await(Condition condition) {
+            Pending p = new Pending(condition);
+            pending.add(p);
+            evaluate(p);
+            return p.future;
+        }
+
+        void recheck() {
+            for (Pending p : pending)
+                evaluate(p);
+        }
+
+        private void evaluate(Pending p) {
+            // at most one evaluation of a condition is scheduled at a time
+            if (!p.scheduled.compareAndSet(false, true))
+                return;
+            getExecutor().execute(() -> {
+                p.scheduled.set(false);
+                try {
+                    if (p.condition.isMet()) {
+                        pending.remove(p);
+                        p.future.complete(true);
                     }
+                } catch (Exception e) {
+                    pending.remove(p);
+                    p.future.completeExceptionally(e);
                 }
-            } catch (Exception e) {
-                logger.warn("Failed waiting for deployment [{}]", deployment, e);
-                return false;
-            }
-            return true;
+            });
+        }
+
+        public void serviceAdded(ServiceDiscoveryEvent event) {
+            recheck();
+        }
+
+        public void serviceRemoved(ServiceDiscoveryEvent event) {
+            // a provisioned deployment may have lost its services
+            provisioned.clear();
+            recheck();
         }
 
-        public Boolean call() {
-            return waitForDeployment();
+        public void serviceChanged(ServiceDiscoveryEvent event) {
+            recheck();
         }
     }
 
@@ -158,7 +158,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                 count += results.size();
             } catch (UnusableEntriesException e) {
                 xrt.setStatus(FAILED);
-                state = FAILED;
+                setState(FAILED);
                 Collection<UnusableEntryException> exceptions = e.getUnusableEntryExceptions();
                 for (UnusableEntryException throwable : exceptions) {
                     logger.warn("UnusableEntryException! unusable fields = " + throwable.partialEntry, throwable);
@@ -168,7 +168,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                 throw new RoutineException(e);
             } catch (Exception e) {
                 xrt.setStatus(FAILED);
-                state = FAILED;
+                setState(FAILED);
                 throw new RoutineException("Taking exertion envelop failed", e);
             } finally {
                 synchronized (this) {
@@ -180,7 +180,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
 
         if(xrt.getStatus()!=FAILED) {
             executeMasterExertion();
-            state = DONE;
+            setState(DONE);
         }
         dispatchers.remove(xrt.getId());
     }
@@ -295,7 +295,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                     + ee.describe() + "\n to: " + space);
         } catch (Exception e) {
             logger.warn("writeEnvelop", e);
-            state = Exec.FAILED;
+            setState(Exec.FAILED);
         }
     }
 
@@ -54,7 +54,7 @@ public class SpaceTaskDispatcher extends SpaceParallelDispatcher {
         Task result = (Task) results.iterator().next().exertion;
         int status = result.getStatus();
         if (status == DONE) {
-            state = DONE;
+            setState(DONE);
             result.setStatus(DONE);
             xrt = result;
 
@@ -20,6 +20,7 @@ package sorcer.core.exertion;
 
 import net.jini.core.transaction.Transaction;
 import sorcer.core.context.ServiceContext;
+import sorcer.core.invoker.MethodDispatch;
 import sorcer.core.invoker.MethodInvoker;
 import sorcer.core.signature.LocalSignature;
 import sorcer.service.Exerter;
@@ -217,15 +218,16 @@ public class ObjectTask extends Task {
 	private Object invokeMethod(Method method, LocalSignature os)
 			throws IllegalAccessException, IllegalArgumentException,
 			InvocationTargetException {
+		MethodDispatch dispatch = MethodDispatch.of(method);
 		Object[] args = os.getArgs();
 		Class<?>[] argTypes = os.getParameterTypes();
 		Object result = null;
 		if (args != null) {
-			result = method.invoke(null, args);
+			result = dispatch.invoke(null, args);
 		} else if (argTypes != null && argTypes.length == 1 && args == null) {
-			result = method.invoke(null, new Object[] { null });
+			result = dispatch.invoke(null, new Object[] { null });
 		} else {
-			result = method.invoke(null, (Object[])null);
+			result = dispatch.invoke(null, (Object[])null);
 		}
 		return result;
 	}
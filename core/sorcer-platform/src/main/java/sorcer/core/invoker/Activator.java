@@ -87,6 +87,14 @@ public class Activator extends ServiceInvoker<Double> implements Activation {
         this.rectified = rectified;
     }
 
+    public double getBias() {
+        return bias;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
     public Context<Float> getWeights() {
         return weights;
     }
@@ -17,13 +17,15 @@
 
 package sorcer.core.invoker;
 
-import groovy.lang.GroovyShell;
+import groovy.lang.Binding;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.Pcr;
 import sorcer.eo.operator;
 import sorcer.service.*;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.Iterator;
 
@@ -49,11 +51,6 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	 */
 	protected String expression;
 
-	/**
-	 * The evaluator
-	 */
-	transient private GroovyShell shell;
-
 	private File scriptFile = null;
 
 	public GroovyInvoker() {
@@ -112,7 +109,8 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	@Override
 	public T evaluate(Arg... args) throws InvocationException {
 		Object result = null;
-		shell = new GroovyShell(Thread.currentThread().getContextClassLoader());
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		Binding binding = new Binding();
 		try {
 			if (args != null) {
 				ContextDomain inCxt = Arg.selectDomain(args);
@@ -124,20 +122,20 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 					setValid(false);
 				}
 			}
-			initBindings();
-			synchronized (shell) {
-				if (scriptFile != null) {
-					try {
-						result = shell.evaluate(scriptFile);
-					} catch (IOException e) {
-						throw new InvocationException(e);
-					}
-				} else {
-					StringBuilder sb = new StringBuilder(staticImports.toString());
-					sb.append(expression);
-					logger.debug(sb.toString());
-					result = shell.evaluate(sb.toString());
+			initBindings(binding);
+			// compiled scripts are cached, each evaluation has its own binding
+			if (scriptFile != null) {
+				try {
+					String source = new String(Files.readAllBytes(scriptFile.toPath()), StandardCharsets.UTF_8);
+					result = ScriptCache.getCache().evaluate(source, loader, binding);
+				} catch (IOException e) {
+					throw new InvocationException(e);
 				}
+			} else {
+				StringBuilder sb = new StringBuilder(staticImports.toString());
+				sb.append(expression);
+				logger.debug(sb.toString());
+				result = ScriptCache.getCache().evaluate(sb.toString(), loader, binding);
 			}
 		} catch (ContextException | RemoteException e) {
 			logger.error("Error Occurred in Groovy Shell: ", e);
@@ -145,7 +143,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 		return (T) result;
 	}
 
-	private void initBindings() throws ContextException, RemoteException {
+	private void initBindings(Binding binding) throws ContextException, RemoteException {
 		if ((invokeContext == null || invokeContext.size() == 0) && scope !=null){
 			invokeContext = scope;
 		}
@@ -173,7 +171,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 			if (val instanceof Evaluation) {
 				val = ((Evaluation) val).evaluate();
 			}
-			shell.setVariable(key, val);
+			binding.setVariable(key, val);
 		}
 	}
 
@@ -206,7 +204,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	}
 
 	public void clean() {
-		shell = null;
+		// compiled scripts are held by the script cache, bindings by evaluations only
 	}
 
 	@Override
@@ -0,0 +1,280 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A resolved method of a service bean class with a method handle bound to
+ * the generic <code>(Object target, Object[] args)</code> shape, used in
+ * place of {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Dispatches are cached per bean class, selector and parameter types. The
+ * cache is held by a {@link ClassValue}, so the dispatches of a class are
+ * dropped together with the class when its class loader is discarded, e.g.
+ * when a service bean is redeployed.
+ */
+public final class MethodDispatch {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	/* kinds of method lookups */
+	private static final int EXACT = 0, DECLARED = 1, ASSIGNABLE = 2, METHOD = 3;
+
+	private static final MethodType GENERIC_TYPE
+			= MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private static final ClassValue<ConcurrentHashMap<Key, MethodDispatch>> dispatches
+			= new ClassValue<ConcurrentHashMap<Key, MethodDispatch>>() {
+		@Override
+		protected ConcurrentHashMap<Key, MethodDispatch> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Key, MethodDispatch>();
+		}
+	};
+
+	private final Method method;
+
+	/* null if the method is not accessible by a public lookup */
+	private final MethodHandle handle;
+
+	private final Class<?>[] paramTypes;
+
+	/* parameter types with primitive types boxed */
+	private final Class<?>[] argTypes;
+
+	private final boolean isStatic;
+
+	private MethodDispatch(Method method) {
+		this.method = method;
+		this.handle = generic(method);
+		isStatic = Modifier.isStatic(method.getModifiers());
+		paramTypes = method.getParameterTypes();
+		argTypes = paramTypes.clone();
+		for (int i = 0; i < argTypes.length; i++) {
+			if (argTypes[i].isPrimitive())
+				argTypes[i] = MethodType.methodType(argTypes[i]).wrap().returnType();
+		}
+	}
+
+	/**
+	 * Returns the dispatch of the public method as found by
+	 * {@link Class#getMethod(String, Class[])}.
+	 */
+	public static MethodDispatch get(Class<?> type, String selector, Class<?>... paramTypes)
+			throws NoSuchMethodException {
+		Key key = new Key(selector, paramTypes, EXACT);
+		ConcurrentHashMap<Key, MethodDispatch> cache = dispatches.get(type);
+		MethodDispatch dispatch = cache.get(key);
+		if (dispatch == null) {
+			dispatch = new MethodDispatch(type.getMethod(selector, paramTypes));
+			// the caller owns the parameter types array
+			key = new Key(selector, paramTypes == null ? null : paramTypes.clone(), EXACT);
+			MethodDispatch previous = cache.putIfAbsent(key, dispatch);
+			if (previous != null)
+				dispatch = previous;
+		}
+		return dispatch;
+	}
+
+	/**
+	 * Returns the dispatch of the first method declared by the class with
+	 * the given name, or the only declared method if the selector is
+	 * <code>null</code>, or <code>null</code> if no such method exists.
+	 */
+	public static MethodDispatch getDeclared(Class<?> type, String selector) {
+		Key key = new Key(selector, null, DECLARED);
+		ConcurrentHashMap<Key, MethodDispatch> cache = dispatches.get(type);
+		MethodDispatch dispatch = cache.get(key);
+		if (dispatch == null) {
+			Method m = null;
+			Method[] mts = type.getDeclaredMethods();
+			if (selector == null) {
+				if (mts.length == 1)
+					m = mts[0];
+			} else {
+				for (Method mt : mts) {
+					if (mt.getName().equals(selector)) {
+						m = mt;
+						break;
+					}
+				}
+			}
+			if (m == null)
+				return null;
+			dispatch = new MethodDispatch(m);
+			MethodDispatch previous = cache.putIfAbsent(key, dispatch);
+			if (previous != null)
+				dispatch = previous;
+		}
+		return dispatch;
+	}
+
+	/**
+	 * Returns the dispatch of the first public method with a single
+	 * parameter assignable from <code>argType</code>, otherwise of the method
+	 * as found by {@link Class#getMethod(String, Class[])}.
+	 */
+	public static MethodDispatch getAssignable(Class<?> type, String selector, Class<?> argType)
+			throws NoSuchMethodException {
+		Key key = new Key(selector, new Class<?>[] { argType }, ASSIGNABLE);
+		ConcurrentHashMap<Key, MethodDispatch> cache = dispatches.get(type);
+		MethodDispatch dispatch = cache.get(key);
+		if (dispatch == null) {
+			Method m = null;
+			for (Method mt : type.getMethods()) {
+				if (mt.getName().equals(selector) && mt.getParameterCount() == 1
+						&& mt.getParameterTypes()[0].isAssignableFrom(argType)) {
+					m = mt;
+					break;
+				}
+			}
+			dispatch = m != null ? new MethodDispatch(m) : get(type, selector, argType);
+			MethodDispatch previous = cache.putIfAbsent(key, dispatch);
+			if (previous != null)
+				dispatch = previous;
+		}
+		return dispatch;
+	}
+
+	/**
+	 * Returns the dispatch of the given method.
+	 */
+	public static MethodDispatch of(Method method) {
+		Key key = new Key(method.getName(), method.getParameterTypes(), METHOD);
+		ConcurrentHashMap<Key, MethodDispatch> cache = dispatches.get(method.getDeclaringClass());
+		MethodDispatch dispatch = cache.get(key);
+		if (dispatch == null) {
+			dispatch = new MethodDispatch(method);
+			MethodDispatch previous = cache.putIfAbsent(key, dispatch);
+			if (previous != null)
+				dispatch = previous;
+		}
+		return dispatch;
+	}
+
+	/**
+	 * Drops the cached dispatches of the class.
+	 */
+	public static void invalidate(Class<?> type) {
+		dispatches.remove(type);
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * Invokes the method like {@link Method#invoke(Object, Object...)}. The
+	 * target is ignored for static methods. A null target, an argument
+	 * mismatch or an argument requiring a widening conversion is left to
+	 * {@link Method#invoke(Object, Object...)}, so it throws the same
+	 * exceptions and applies the same conversions.
+	 *
+	 * @throws InvocationTargetException
+	 *             if the invoked method throws an exception
+	 */
+	public Object invoke(Object target, Object... args) throws IllegalAccessException,
+			InvocationTargetException {
+		if (args == null)
+			args = NO_ARGS;
+		if (handle == null || !accepts(target, args))
+			return method.invoke(target, args);
+		try {
+			return (Object) handle.invokeExact(target, args);
+		} catch (Throwable t) {
+			// thrown by the method, the handle is invoked with checked arguments
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	/**
+	 * Returns true if the method handle can be invoked on the target with
+	 * the arguments as they are.
+	 */
+	private boolean accepts(Object target, Object[] args) {
+		if (!isStatic && !method.getDeclaringClass().isInstance(target))
+			return false;
+		if (args.length != argTypes.length)
+			return false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null) {
+				if (paramTypes[i].isPrimitive())
+					return false;
+			} else if (argTypes[i] != args[i].getClass() && !argTypes[i].isInstance(args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static MethodHandle generic(Method method) {
+		MethodHandle mh;
+		try {
+			mh = MethodHandles.publicLookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			// invoked reflectively with the access checks of Method#invoke
+			return null;
+		}
+		if (Modifier.isStatic(method.getModifiers()))
+			mh = MethodHandles.dropArguments(mh, 0, Object.class);
+		return mh.asFixedArity()
+				.asSpreader(Object[].class, method.getParameterCount())
+				.asType(GENERIC_TYPE);
+	}
+
+	@Override
+	public String toString() {
+		return method.toString();
+	}
+
+	private static final class Key {
+		private final String selector;
+		private final Class<?>[] paramTypes;
+		private final int kind;
+		private final int hash;
+
+		Key(String selector, Class<?>[] paramTypes, int kind) {
+			this.selector = selector;
+			this.paramTypes = paramTypes;
+			this.kind = kind;
+			hash = 31 * (31 * (selector == null ? 0 : selector.hashCode())
+					+ Arrays.hashCode(paramTypes)) + kind;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return kind == other.kind
+					&& (selector == null ? other.selector == null : selector.equals(other.selector))
+					&& Arrays.equals(paramTypes, other.paramTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -27,7 +27,6 @@ import sorcer.util.SorcerUtil;
 import sorcer.eo.operator.Args;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.security.AccessController;
@@ -57,7 +56,7 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 
 	private ContextDomain context;
 
-	transient private Method m;
+	transient private MethodDispatch m;
 
 	transient private URLClassLoader miLoader;
 
@@ -217,18 +216,10 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 			// if no paramTypes defined assume that the method key 'selector'
 			// is unique
 			if (paramTypes == null) {
-				Method[] mts = evalClass.getDeclaredMethods();
-				for (Method mt : mts) {
-					if (mt.getName().equals(selector)) {
-						m = mt;
-						break;
-					}
-				}
+				m = MethodDispatch.getDeclared(evalClass, selector);
 			} else {
 				if (selector == null && evalClass != null) {
-					Method[] mts = evalClass.getDeclaredMethods();
-					if (mts.length == 1)
-						m = mts[0];
+					m = MethodDispatch.getDeclared(evalClass, null);
 				} else {
 					// exception when Arg... is not specified for the invoke
 					if (target instanceof Invocation
@@ -266,18 +257,7 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 						paramTypes = null;
 						parameters = null;
 					}
-					m = evalClass.getMethod(selector, paramTypes);
-					if (m == null) {
-						Method[] mts = evalClass.getMethods();
-						if (Context.class.isAssignableFrom(paramTypes[0])) {
-							for (Method mt : mts) {
-								if (mt.getName()!=null && mt.getName().equals(selector)) {
-									m = mt;
-									break;
-								}
-							}
-						}
-					}
+					m = MethodDispatch.get(evalClass, selector, paramTypes);
 				}
 			}
 			if (context != null)
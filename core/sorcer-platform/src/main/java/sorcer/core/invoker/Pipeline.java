@@ -7,9 +7,18 @@ import sorcer.service.*;
 import sorcer.service.modeling.Functionality;
 import sorcer.service.modeling.cxtn;
 
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.io.IOException;
+import java.rmi.MarshalledObject;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Pipeline extends ServiceInvoker<Context> implements Contextion, cxtn {
 
@@ -25,6 +34,13 @@ public class Pipeline extends ServiceInvoker<Context> implements Contextion, cxt
 
     protected Contextion parent;
 
+    // capacity of hand-off queues of pipelined stages
+    private int queueCapacity = 16;
+
+    transient private volatile List<StageStats> stageStats;
+
+    private static ExecutorService stageExecutor;
+
     public Pipeline(Opservice... opservices) {
         this(null, opservices);
     }
@@ -57,100 +73,405 @@ public class Pipeline extends ServiceInvoker<Context> implements Contextion, cxt
 	 */
     @Override
     public Context evaluate(Arg... args) throws InvocationException {
+        Item item = newItem(invokeContext, Arg.selectContext(args), invokeContext, scope);
+        for (Opservice opsrv : opservices) {
+            execStage(opsrv, item, args);
+        }
+        newInvokeContext = item.newInput;
+        isNewInput = item.isNewInput;
+        scope = item.scope;
+        return item.out;
+    }
+
+    /**
+     * Evaluates this pipeline for each input context with its stages
+     * pipelined: each stage runs on its own worker taking items from a
+     * bounded hand-off queue, so a stage processes an item while the next
+     * stage processes the preceding one. Each input gets its own output
+     * context; the outputs are returned in the order of inputs. After a
+     * stage fails no more items are processed and the first failure is
+     * thrown.
+     * <p>
+     * Each stage worker unmarshals one copy of its stage from a snapshot
+     * taken once per evaluation and reuses it for all items, resetting the
+     * scope and invoke context of the copy before each item, so they are not
+     * shared by items; neither the stages of this pipeline nor the input
+     * contexts are modified. A stage that cannot be marshalled is used by its
+     * worker itself, and its scope and invoke context are restored when the
+     * worker completes.
+     *
+     * @param inputs
+     *            the input contexts, consumed as the first stage accepts them
+     * @return the output contexts of inputs
+     */
+    public List<Context> evaluate(Iterator<Context> inputs, Arg... args) throws InvocationException {
+        int n = opservices.size();
+        List<Context> outputs = Collections.synchronizedList(new ArrayList<>());
+        if (n == 0) {
+            while (inputs.hasNext()) {
+                outputs.add(newItem(inputs.next(), null, null, null).out);
+            }
+            return outputs;
+        }
+        List<MarshalledObject<Opservice>> snapshots = new ArrayList<>(n);
+        for (Opservice opsrv : opservices) {
+            try {
+                snapshots.add(new MarshalledObject<>(opsrv));
+            } catch (IOException e) {
+                logger.debug("Stage {} of {} is not copied: {}", getStageName(opsrv), name, e.toString());
+                snapshots.add(null);
+            }
+        }
+        List<StageStats> stats = new ArrayList<>(n);
+        List<BlockingQueue<Item>> queues = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BlockingQueue<Item> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            queues.add(queue);
+            stats.add(new StageStats(opservices.get(i), queue));
+        }
+        stageStats = stats;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> workers = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            workers.add(getStageExecutor().submit(
+                new StageWorker(i, opservices.get(i), snapshots.get(i), queues, outputs, stats.get(i), failure, args)));
+        }
+        try {
+            while (inputs.hasNext() && failure.get() == null) {
+                queues.get(0).put(newItem(inputs.next(), null, null, copyScope()));
+            }
+            queues.get(0).put(Item.END);
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } finally {
+            if (failure.get() != null) {
+                for (Future<?> worker : workers) {
+                    worker.cancel(true);
+                }
+            }
+        }
+        Throwable e = failure.get();
+        if (e instanceof InvocationException) {
+            throw (InvocationException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new InvocationException((Exception) e);
+        }
+        return outputs;
+    }
+
+    /**
+     * Returns the statistics of stages of the last pipelined evaluation, or
+     * an empty list if this pipeline has not been evaluated pipelined.
+     */
+    public List<StageStats> getStageStats() {
+        List<StageStats> stats = stageStats;
+        return stats != null ? Collections.unmodifiableList(stats) : Collections.<StageStats>emptyList();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
 
-        Context out = Arg.selectContext(args);
+    /*
+     * Returns a copy of the scope of this pipeline for an item of a pipelined
+     * evaluation, modified by appender stages of the item only.
+     */
+    private Context copyScope() {
+        return scope != null ? new ServiceContext(scope) : null;
+    }
+
+    private Item newItem(Context input, Context out, Context results, Context itemScope) throws InvocationException {
         if (out == null) {
             out = new PositionalContext(getClass().getSimpleName() + "-" + name);
         }
-
         Context returnContext = null;
-        if (contextReturn != null && contextReturn.getDataContext() != null) {
-            returnContext = contextReturn.getDataContext();
-            try {
+        try {
+            if (contextReturn != null && contextReturn.getDataContext() != null) {
+                returnContext = contextReturn.getDataContext();
                 out.append(returnContext);
-            } catch (ContextException e) {
-                throw new InvocationException(e);
-            }
-        } else {
-            try {
-                out.append(invokeContext);
-            } catch (ContextException e) {
-                throw new InvocationException(e);
-
+            } else {
+                out.append(input);
             }
+        } catch (ContextException e) {
+            throw new InvocationException(e);
         }
+        Item item = new Item(results, out, returnContext);
+        item.newInput = newInvokeContext;
+        item.isNewInput = isNewInput;
+        item.scope = itemScope;
+        return item;
+    }
 
+    private void execStage(Opservice opsrv, Item item, Arg... args) throws InvocationException {
+        Context out = item.out;
+        Context returnContext = item.returnContext;
         Object opout;
-        for (Opservice opsrv : opservices) {
-            try {
-                if (opsrv instanceof Scopable) {
-                    if (((Scopable) opsrv).getScope() == null) {
-                        ((Scopable) opsrv).setScope(out);
-                    } else {
-                        ((Scopable) opsrv).getScope().append(out);
+        try {
+            if (opsrv instanceof Scopable) {
+                if (((Scopable) opsrv).getScope() == null) {
+                    ((Scopable) opsrv).setScope(out);
+                } else {
+                    ((Scopable) opsrv).getScope().append(out);
 
-                    }
                 }
+            }
 
-                if (returnContext != null) {
-                    if (((Scopable) opsrv).getScope() == null) {
-                        ((Scopable) opsrv).setScope(returnContext);
-                    } else {
-                        ((Scopable) opsrv).getScope().append(returnContext);
-                    }
+            if (returnContext != null) {
+                if (((Scopable) opsrv).getScope() == null) {
+                    ((Scopable) opsrv).setScope(returnContext);
+                } else {
+                    ((Scopable) opsrv).getScope().append(returnContext);
                 }
+            }
 
-                if (opsrv instanceof Appender) {
-                    Context appendContext = (Context) opsrv.execute();
-                    if (((Appender) opsrv).isNew()) {
-                        if (((Appender) opsrv).getType().equals(Appender.ContextType.INPUT)) {
-                            newInvokeContext = appendContext;
-                            isNewInput = true;
-                        } else {
-                            scope = appendContext;
-                        }
+            if (opsrv instanceof Appender) {
+                Context appendContext = (Context) opsrv.execute();
+                if (((Appender) opsrv).isNew()) {
+                    if (((Appender) opsrv).getType().equals(Appender.ContextType.INPUT)) {
+                        item.newInput = appendContext;
+                        item.isNewInput = true;
                     } else {
-                        if (((Appender) opsrv).getType().equals(Appender.ContextType.INPUT)) {
-                            out.append(appendContext);
-                        } else {
-                            scope.append(appendContext);
-                        }
+                        item.scope = appendContext;
                     }
-                    continue;
-                }
-
-                if (opsrv instanceof Invocation) {
-                    if (isNewInput) {
-                        opout = ((Invocation) opsrv).invoke(newInvokeContext, args);
+                } else {
+                    if (((Appender) opsrv).getType().equals(Appender.ContextType.INPUT)) {
+                        out.append(appendContext);
                     } else {
-                        opout = ((Invocation) opsrv).invoke(out, args);
+                        item.scope.append(appendContext);
                     }
-                } else if (opsrv instanceof Evaluation) {
-                    opout = ((Evaluation) opsrv).evaluate(args);
+                }
+                return;
+            }
+
+            if (opsrv instanceof Invocation) {
+                if (item.isNewInput) {
+                    opout = ((Invocation) opsrv).invoke(item.newInput, args);
                 } else {
-                    if (opsrv instanceof Signature) {
-                        if (isNewInput) {
-                            opout = opsrv.execute(newInvokeContext);
-                        } else {
-                            opout = opsrv.execute(out);
-                        }
+                    opout = ((Invocation) opsrv).invoke(out, args);
+                }
+            } else if (opsrv instanceof Evaluation) {
+                opout = ((Evaluation) opsrv).evaluate(args);
+            } else {
+                if (opsrv instanceof Signature) {
+                    if (item.isNewInput) {
+                        opout = opsrv.execute(item.newInput);
                     } else {
-                        opout = opsrv.execute(args);
+                        opout = opsrv.execute(out);
                     }
+                } else {
+                    opout = opsrv.execute(args);
                 }
+            }
 
-                if (opout instanceof Context) {
-                    out.append((Context)opout);
-                    invokeContext.putValue(((Identifiable) opsrv).getName(), opout);
-                } else {
-                    ((ServiceContext) out).put(((Identifiable) opsrv).getName(), opout);
-                    invokeContext.putValue(((Identifiable) opsrv).getName(), opout);
+            if (opout instanceof Context) {
+                out.append((Context)opout);
+            } else {
+                ((ServiceContext) out).put(((Identifiable) opsrv).getName(), opout);
+            }
+            if (item.results != null) {
+                item.results.putValue(((Identifiable) opsrv).getName(), opout);
+            }
+        } catch (ServiceException | RemoteException e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /*
+     * Resets the scope and invoke context of a stage of a pipelined
+     * evaluation to copies of their values before the evaluation.
+     */
+    private static void resetStage(Opservice opsrv, Context stageScope, Context stageContext) {
+        if (opsrv instanceof Scopable) {
+            ((Scopable) opsrv).setScope(stageScope != null ? new ServiceContext(stageScope) : null);
+        }
+        if (opsrv instanceof ServiceInvoker) {
+            // an empty invoke context is replaced by the item's context on invocation
+            ((ServiceInvoker) opsrv).setInvokeContext(stageContext != null && stageContext.size() > 0
+                ? new ServiceContext(stageContext) : null);
+            ((ServiceInvoker) opsrv).setValid(false);
+        }
+    }
+
+    private static synchronized ExecutorService getStageExecutor() {
+        if (stageExecutor == null) {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setDaemon(true);
+            factory.setNameFormat("Pipeline-%2$d");
+            // stage workers wait on each other, so they are not bounded
+            stageExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), factory);
+        }
+        return stageExecutor;
+    }
+
+    private static String getStageName(Opservice opservice) {
+        return opservice instanceof Identifiable ? ((Identifiable) opservice).getName() : opservice.toString();
+    }
+
+    /**
+     * An evaluation of the pipeline passed from stage to stage.
+     */
+    private static class Item {
+        static final Item END = new Item(null, null, null);
+
+        // receives the values of stages, null in pipelined evaluations
+        final Context results;
+        final Context out;
+        final Context returnContext;
+        Context newInput;
+        boolean isNewInput;
+        Context scope;
+
+        Item(Context results, Context out, Context returnContext) {
+            this.results = results;
+            this.out = out;
+            this.returnContext = returnContext;
+        }
+    }
+
+    private class StageWorker implements Runnable {
+        private final int stage;
+        private final Opservice opservice;
+        // null if the stage cannot be marshalled
+        private final MarshalledObject<Opservice> snapshot;
+        private final List<BlockingQueue<Item>> queues;
+        private final List<Context> outputs;
+        private final StageStats stats;
+        private final AtomicReference<Throwable> failure;
+        private final Arg[] args;
+
+        StageWorker(int stage, Opservice opservice, MarshalledObject<Opservice> snapshot, List<BlockingQueue<Item>> queues,
+                    List<Context> outputs, StageStats stats, AtomicReference<Throwable> failure, Arg[] args) {
+            this.stage = stage;
+            this.opservice = opservice;
+            this.snapshot = snapshot;
+            this.queues = queues;
+            this.outputs = outputs;
+            this.stats = stats;
+            this.failure = failure;
+            this.args = args;
+        }
+
+        @Override
+        public void run() {
+            BlockingQueue<Item> in = queues.get(stage);
+            BlockingQueue<Item> next = stage + 1 < queues.size() ? queues.get(stage + 1) : null;
+            Opservice opsrv = opservice;
+            if (snapshot != null) {
+                try {
+                    opsrv = snapshot.get();
+                } catch (IOException | ClassNotFoundException e) {
+                    failure.compareAndSet(null, new InvocationException(
+                        "Cannot copy stage " + stats.getName() + " of " + name, e));
+                }
+            }
+            Context stageScope = opsrv instanceof Scopable ? ((Scopable) opsrv).getScope() : null;
+            Context stageContext = opsrv instanceof ServiceInvoker ? ((ServiceInvoker) opsrv).getInvokeContext() : null;
+            try {
+                while (true) {
+                    Item item = in.take();
+                    if (item == Item.END) {
+                        if (next != null)
+                            next.put(Item.END);
+                        return;
+                    }
+                    // after a failure items are drained to release the preceding stages
+                    if (failure.get() != null)
+                        continue;
+                    long start = System.nanoTime();
+                    try {
+                        resetStage(opsrv, stageScope, stageContext);
+                        execStage(opsrv, item, args);
+                    } catch (InvocationException | RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                        continue;
+                    } finally {
+                        stats.processed(System.nanoTime() - start);
+                    }
+                    if (next != null)
+                        next.put(item);
+                    else
+                        outputs.add(item.out);
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (opsrv == opservice) {
+                    if (opsrv instanceof Scopable)
+                        ((Scopable) opsrv).setScope(stageScope);
+                    if (opsrv instanceof ServiceInvoker)
+                        ((ServiceInvoker) opsrv).setInvokeContext(stageContext);
                 }
-            } catch (ServiceException | RemoteException e) {
-                throw new InvocationException(e);
             }
         }
-        return out;
+    }
+
+    /**
+     * Throughput and queue occupancy of a stage of a pipelined evaluation.
+     */
+    public static class StageStats {
+        private final String name;
+        private final BlockingQueue<?> queue;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        StageStats(Opservice opservice, BlockingQueue<?> queue) {
+            this.name = getStageName(opservice);
+            this.queue = queue;
+        }
+
+        void processed(long nanos) {
+            processed.increment();
+            busyNanos.add(nanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of items processed by the stage.
+         */
+        public long getProcessedCount() {
+            return processed.sum();
+        }
+
+        /**
+         * Returns the items processed per second of the stage's busy time.
+         */
+        public double getThroughput() {
+            long nanos = busyNanos.sum();
+            return nanos > 0 ? processed.sum() * 1e9 / nanos : 0;
+        }
+
+        /**
+         * Returns the number of items waiting for the stage.
+         */
+        public int getQueueSize() {
+            return queue.size();
+        }
+
+        public int getQueueCapacity() {
+            return queue.size() + queue.remainingCapacity();
+        }
+
+        @Override
+        public String toString() {
+            return name + "[processed: " + getProcessedCount() + ", throughput: "
+                + String.format("%.1f", getThroughput()) + "/s, queue: " + getQueueSize() + "]";
+        }
     }
 
     public List<Opservice> getEvaluators() {
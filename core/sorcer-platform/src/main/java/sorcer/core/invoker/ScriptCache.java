@@ -0,0 +1,190 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.invoker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import sorcer.util.Sorcer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of compiled Groovy script classes shared by
+ * {@link GroovyInvoker}s, textual closures of {@link sorcer.service.Condition}s
+ * and netlets. Scripts are keyed by the SHA-256 hash of their source, the
+ * class loader they are compiled against and the compiler configuration, so
+ * the same source is compiled once per class loader and then only
+ * instantiated with a fresh {@link Binding} for each evaluation.
+ * <p>
+ * Compiled classes are held softly and the number of cached classes is
+ * bounded, so classes of discarded class loaders, e.g. of netlets, can be
+ * unloaded. The bound is set with the
+ * {@link sorcer.core.SorcerConstants#SCRIPT_CACHE_SIZE} property.
+ */
+public class ScriptCache {
+
+	private static ScriptCache instance;
+
+	private final Cache<Key, Class<? extends Script>> cache;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	public ScriptCache(long maxSize) {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.softValues()
+				.build();
+	}
+
+	/**
+	 * Returns the shared cache configured by the SORCER environment.
+	 */
+	public static synchronized ScriptCache getCache() {
+		if (instance == null)
+			instance = new ScriptCache(Sorcer.getScriptCacheSize());
+		return instance;
+	}
+
+	/**
+	 * Returns the compiled class of the script source, compiling it with the
+	 * given configuration on a cache miss.
+	 *
+	 * @throws org.codehaus.groovy.control.CompilationFailedException
+	 *             if the source does not compile
+	 */
+	public Class<? extends Script> getScriptClass(final String source, ClassLoader loader,
+												  final CompilerConfiguration config) {
+		final ClassLoader cl = loader != null ? loader : ScriptCache.class.getClassLoader();
+		Key key = new Key(Hashing.sha256().hashString(source, StandardCharsets.UTF_8), cl, config);
+		Class<? extends Script> scriptClass = cache.getIfPresent(key);
+		if (scriptClass != null) {
+			hits.increment();
+			return scriptClass;
+		}
+		try {
+			return cache.get(key, () -> {
+				misses.increment();
+				return new GroovyShell(cl, new Binding(), config).parse(source).getClass();
+			});
+		} catch (UncheckedExecutionException | ExecutionError e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		} catch (ExecutionException e) {
+			// compilation does not throw checked exceptions
+			throw new UncheckedExecutionException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns a new instance of the script compiled with the default compiler
+	 * configuration and bound to the given binding.
+	 */
+	public Script createScript(String source, ClassLoader loader, Binding binding) {
+		return createScript(source, loader, CompilerConfiguration.DEFAULT, binding);
+	}
+
+	/**
+	 * Returns a new instance of the compiled script bound to the given
+	 * binding.
+	 */
+	public Script createScript(String source, ClassLoader loader,
+							   CompilerConfiguration config, Binding binding) {
+		return InvokerHelper.createScript(getScriptClass(source, loader, config),
+				binding != null ? binding : new Binding());
+	}
+
+	/**
+	 * Evaluates the script source with the given binding like
+	 * {@link GroovyShell#evaluate(String)}, compiling it only once per class
+	 * loader.
+	 */
+	public Object evaluate(String source, ClassLoader loader, Binding binding) {
+		return createScript(source, loader, binding).run();
+	}
+
+	/**
+	 * Drops the scripts compiled against the class loader.
+	 */
+	public void invalidate(ClassLoader loader) {
+		cache.asMap().keySet().removeIf(key -> key.loader == loader);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[size: " + size() + ", hits: " + getHitCount()
+				+ ", misses: " + getMissCount() + "]";
+	}
+
+	private static final class Key {
+		private final HashCode sourceHash;
+		private final ClassLoader loader;
+		private final CompilerConfiguration config;
+
+		Key(HashCode sourceHash, ClassLoader loader, CompilerConfiguration config) {
+			this.sourceHash = sourceHash;
+			this.loader = loader;
+			this.config = config;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return loader == other.loader && config == other.config
+					&& sourceHash.equals(other.sourceHash);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * sourceHash.hashCode() + System.identityHashCode(loader))
+					+ System.identityHashCode(config);
+		}
+	}
+}
@@ -51,6 +51,7 @@ import sorcer.core.context.Contexts;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.exertion.ExertionEnvelop;
 import sorcer.core.exertion.NetTask;
+import sorcer.core.invoker.MethodDispatch;
 import sorcer.core.loki.member.LokiMemberUtil;
 import sorcer.core.misc.MsgRef;
 import sorcer.core.monitor.MonitoringSession;
@@ -1135,30 +1136,30 @@ public class ProviderDelegate {
 				argTypes = cxt.getParameterTypes();
 				isContextual = false;
 			}
-			Method m = null;
+			MethodDispatch m = null;
 			try {
 				// select the proper method for the bean type
 				if (selector.equals("exert") && (bean instanceof ContextDomain
 					||  bean instanceof Contextion)) {
-					m = bean.getClass().getMethod(selector, Contextion.class, Transaction.class, Arg[].class);
+					m = MethodDispatch.get(bean.getClass(), selector, Contextion.class, Transaction.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("evaluate") && bean instanceof ContextDomain) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = MethodDispatch.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("invoke") && (bean instanceof Routine || bean instanceof Context)) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = MethodDispatch.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("exert") && bean instanceof ServiceShell) {
-					m = bean.getClass().getMethod(selector, Mogram.class, Arg[].class);
+					m = MethodDispatch.get(bean.getClass(), selector, Mogram.class, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("execute") && bean instanceof Service) {
-					m = bean.getClass().getMethod(selector, Arg[].class);
+					m = MethodDispatch.get(bean.getClass(), selector, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("explore") && bean instanceof Exploration) {
-					m = bean.getClass().getMethod(selector, Context.class);
+					m = MethodDispatch.get(bean.getClass(), selector, Context.class);
 					isContextual = true;
 				} else {
-					m = bean.getClass().getMethod(selector, argTypes);
+					m = MethodDispatch.get(bean.getClass(), selector, argTypes);
 				}
 				if(logger.isTraceEnabled())
 					logger.trace("Executing service bean method: {} by: {} isContextual: {}",
@@ -1193,7 +1194,7 @@ public class ProviderDelegate {
 		return task;
 	}
 
-	private Context execContextualBean(Method m, Task task, Object impl, Arg... args)
+	private Context execContextualBean(MethodDispatch m, Task task, Object impl, Arg... args)
 		throws ContextException, IllegalArgumentException,
 		IllegalAccessException, InvocationTargetException, RemoteException {
 		Context result = task.getContext();
@@ -1231,7 +1232,7 @@ public class ProviderDelegate {
 		return result;
 	}
 
-	private Context execParametricBean(Method m, Task task,
+	private Context execParametricBean(MethodDispatch m, Task task,
 									   Object impl, Arg... args) throws IllegalArgumentException,
 		IllegalAccessException, InvocationTargetException, ContextException, RemoteException {
 		Context result = task.getContext();
@@ -1427,7 +1428,7 @@ public class ProviderDelegate {
 		throws RoutineException {
 		Class[] argTypes = new Class[] { Mogram.class };
 		try {
-			Method m = provider.getClass().getMethod(selector, argTypes);
+			MethodDispatch m = MethodDispatch.get(provider.getClass(), selector, argTypes);
 			logger.info("Executing method: " + m + " by: "
 				+ config.getProviderName());
 
@@ -1450,17 +1451,11 @@ public class ProviderDelegate {
 				args = cxt.getArgs();
 				isContextual = false;
 			}
-			Method execMethod = null;
-			for(Method m : provider.getClass().getMethods()) {
-				if(m.getName().equals(selector) && m.getParameterCount()==1) {
-					if(m.getParameterTypes()[0].isAssignableFrom(argTypes[0])) {
-						execMethod = m;
-						break;
-					}
-				}
-			}
-			if(execMethod==null)
-				execMethod = provider.getClass().getMethod(selector, argTypes);
+			MethodDispatch execMethod;
+			if (argTypes.length == 1)
+				execMethod = MethodDispatch.getAssignable(provider.getClass(), selector, argTypes[0]);
+			else
+				execMethod = MethodDispatch.get(provider.getClass(), selector, argTypes);
 			Context result;
             /*boolean monitored = MonitorCheck.monitor(execMethod);
 			int id = 0;
@@ -1657,6 +1652,14 @@ public class ProviderDelegate {
 			serviceType.providerName = config.getProviderName();
 			serviceType.shortDescription = config.getProperty(P_DESCRIPTION);
 			serviceType.location = config.getProperty(P_LOCATION);
+			String weight = config.getProperty(P_WEIGHT);
+			if (weight != null) {
+				try {
+					serviceType.weight = Integer.valueOf(weight.trim());
+				} catch (NumberFormatException e) {
+					logger.warn("Invalid {}: {}", P_WEIGHT, weight);
+				}
+			}
 			serviceType.groups = SorcerUtil.arrayToCSV(groupsToDiscover);
 			serviceType.spaceGroup = spaceGroup;
 			if (spaceEnabled) {
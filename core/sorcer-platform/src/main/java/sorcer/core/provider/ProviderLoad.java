@@ -0,0 +1,159 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.lookup.ServiceID;
+import net.jini.id.ReferentUuid;
+import net.jini.id.Uuid;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The load of a provider as observed in this JVM: the number of requests in
+ * flight and exponentially weighted moving averages of their latency. Service
+ * shells calling the provider feed the latency observed by clients, including
+ * the network; the analytics recorder of a provider running in this JVM feeds
+ * the latency measured by the provider. The two are averaged separately, and
+ * {@link ProviderSelector}s read the client-observed latency when known. All
+ * updates are lock-free.
+ */
+public class ProviderLoad {
+
+	// smoothing factor of the latency average
+	private static final double ALPHA = 0.2;
+
+	private static final ConcurrentHashMap<ServiceID, ProviderLoad> loads = new ConcurrentHashMap<ServiceID, ProviderLoad>();
+
+	private final ServiceID serviceID;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	// bits of the average latencies in nanoseconds, negative if not measured
+	private final AtomicLong clientLatency = new AtomicLong(Double.doubleToLongBits(-1));
+
+	private final AtomicLong serviceLatency = new AtomicLong(Double.doubleToLongBits(-1));
+
+	private ProviderLoad(ServiceID serviceID) {
+		this.serviceID = serviceID;
+	}
+
+	/**
+	 * Returns the load of the provider, created if not known yet.
+	 */
+	public static ProviderLoad get(ServiceID serviceID) {
+		return loads.computeIfAbsent(serviceID, ProviderLoad::new);
+	}
+
+	/**
+	 * Returns the load of the provider of the proxy, or null if the proxy
+	 * does not identify its provider.
+	 */
+	public static ProviderLoad get(Object proxy) {
+		if (proxy instanceof ReferentUuid) {
+			Uuid uuid = ((ReferentUuid) proxy).getReferentUuid();
+			if (uuid != null)
+				return get(new ServiceID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the load of the provider or null if nothing is known about it.
+	 */
+	public static ProviderLoad peek(ServiceID serviceID) {
+		return serviceID != null ? loads.get(serviceID) : null;
+	}
+
+	public static void remove(ServiceID serviceID) {
+		loads.remove(serviceID);
+	}
+
+	public ServiceID getServiceID() {
+		return serviceID;
+	}
+
+	/**
+	 * Records a request sent to the provider.
+	 */
+	public void started() {
+		inFlight.incrementAndGet();
+	}
+
+	/**
+	 * Records a completed request and its latency observed by the client.
+	 */
+	public void completed(long nanos) {
+		inFlight.updateAndGet(n -> n > 0 ? n - 1 : 0);
+		average(clientLatency, nanos);
+	}
+
+	/**
+	 * Records the latency of a request measured by the provider itself.
+	 */
+	public void recordLatency(long nanos) {
+		average(serviceLatency, nanos);
+	}
+
+	private static void average(AtomicLong latency, long nanos) {
+		latency.updateAndGet(bits -> {
+			double avg = Double.longBitsToDouble(bits);
+			return Double.doubleToLongBits(avg < 0 ? nanos : avg + ALPHA * (nanos - avg));
+		});
+	}
+
+	/**
+	 * Returns the number of requests in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Returns the average latency in nanoseconds observed by clients, or
+	 * measured by the provider if no client request completed yet, or a
+	 * negative value if neither is known.
+	 */
+	public double getLatency() {
+		double latency = getClientLatency();
+		return latency < 0 ? getServiceLatency() : latency;
+	}
+
+	/**
+	 * Returns the average latency in nanoseconds of requests completed by
+	 * clients, or a negative value if none completed yet.
+	 */
+	public double getClientLatency() {
+		return Double.longBitsToDouble(clientLatency.get());
+	}
+
+	/**
+	 * Returns the average latency in nanoseconds measured by the provider,
+	 * or a negative value if not measured yet.
+	 */
+	public double getServiceLatency() {
+		return Double.longBitsToDouble(serviceLatency.get());
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + serviceID + ", in flight: " + getInFlight()
+				+ ", client latency: " + (long) getClientLatency() + " ns, service latency: "
+				+ (long) getServiceLatency() + " ns]";
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.lookup.ServiceItem;
+
+import java.util.List;
+
+/**
+ * Selects one of the service items of equivalent providers matching a
+ * request. Selectors are shared by concurrent lookups and must not block.
+ *
+ * @see ProviderSelectors
+ */
+public interface ProviderSelector {
+
+	/**
+	 * Returns one of the items, not modified by the selector.
+	 *
+	 * @param items
+	 *            the candidate items, not empty
+	 */
+	ServiceItem select(List<ServiceItem> items);
+
+}
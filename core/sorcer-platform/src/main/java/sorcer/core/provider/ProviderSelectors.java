@@ -0,0 +1,203 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.jini.lookup.entry.SorcerServiceInfo;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider selection strategies based on the {@link ProviderLoad}s observed
+ * in this JVM and the attributes of providers:
+ * <ul>
+ * <li><code>first</code>: the first item as found by a lookup
+ * <li><code>roundRobin</code>: round robin over the items weighted by the
+ * {@link SorcerServiceInfo#weight}s published by providers, configured with
+ * the <code>provider.weight</code> property of providers
+ * <li><code>powerOfTwo</code>: the less loaded of two random items by
+ * requests in flight, then by latency
+ * <li><code>leastLatency</code>: the item with the least average latency
+ * scaled by its requests in flight
+ * </ul>
+ * The strategy used by lookups is selected by the
+ * <code>sorcer.provider.selection</code> property.
+ * <p>
+ * Loads are fed by the service shells and analytics recorders of this JVM
+ * only. A JVM that does not call providers, such as the cataloger's, has no
+ * loads, so there <code>powerOfTwo</code> and <code>leastLatency</code>
+ * select items at random.
+ */
+public class ProviderSelectors {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProviderSelectors.class);
+
+	public static final String FIRST = "first";
+
+	public static final String ROUND_ROBIN = "roundRobin";
+
+	public static final String POWER_OF_TWO = "powerOfTwo";
+
+	public static final String LEAST_LATENCY = "leastLatency";
+
+	private ProviderSelectors() {
+	}
+
+	/**
+	 * Returns a new selector of the named strategy or null if the name is
+	 * null or unknown.
+	 */
+	public static ProviderSelector forName(String name) {
+		if (name == null || name.isEmpty())
+			return null;
+		if (FIRST.equalsIgnoreCase(name))
+			return first();
+		else if (ROUND_ROBIN.equalsIgnoreCase(name))
+			return roundRobin();
+		else if (POWER_OF_TWO.equalsIgnoreCase(name))
+			return powerOfTwo();
+		else if (LEAST_LATENCY.equalsIgnoreCase(name))
+			return leastLatency();
+		logger.warn("Unknown provider selection: {}", name);
+		return null;
+	}
+
+	public static ProviderSelector first() {
+		return items -> items.get(0);
+	}
+
+	public static ProviderSelector roundRobin() {
+		return new WeightedRoundRobin();
+	}
+
+	public static ProviderSelector powerOfTwo() {
+		return new PowerOfTwo();
+	}
+
+	public static ProviderSelector leastLatency() {
+		return new LeastLatency();
+	}
+
+	private static ProviderLoad load(ServiceItem item) {
+		return ProviderLoad.peek(item.serviceID);
+	}
+
+	/**
+	 * Returns the weight published by the provider of the item, at least 1,
+	 * or 1 if not published.
+	 */
+	static int weight(ServiceItem item) {
+		if (item.attributeSets != null) {
+			for (Entry attribute : item.attributeSets) {
+				if (attribute instanceof SorcerServiceInfo && ((SorcerServiceInfo) attribute).weight != null)
+					return Math.max(1, ((SorcerServiceInfo) attribute).weight);
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Cycles through the items, each as many times as its weight.
+	 */
+	static class WeightedRoundRobin implements ProviderSelector {
+		private final AtomicLong counter = new AtomicLong();
+
+		@Override
+		public ServiceItem select(List<ServiceItem> items) {
+			int n = items.size();
+			if (n == 1)
+				return items.get(0);
+			int[] weights = new int[n];
+			long total = 0;
+			for (int i = 0; i < n; i++) {
+				weights[i] = weight(items.get(i));
+				total += weights[i];
+			}
+			long position = Math.floorMod(counter.getAndIncrement(), total);
+			for (int i = 0; i < n; i++) {
+				position -= weights[i];
+				if (position < 0)
+					return items.get(i);
+			}
+			return items.get(n - 1);
+		}
+	}
+
+	/**
+	 * Picks two distinct random items and selects the one with fewer
+	 * requests in flight, or the lower latency on a tie.
+	 */
+	static class PowerOfTwo implements ProviderSelector {
+		@Override
+		public ServiceItem select(List<ServiceItem> items) {
+			int n = items.size();
+			if (n == 1)
+				return items.get(0);
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			int i = random.nextInt(n);
+			int j = random.nextInt(n - 1);
+			if (j >= i)
+				j++;
+			ProviderLoad li = load(items.get(i));
+			ProviderLoad lj = load(items.get(j));
+			int fi = li != null ? li.getInFlight() : 0;
+			int fj = lj != null ? lj.getInFlight() : 0;
+			if (fi != fj)
+				return fi < fj ? items.get(i) : items.get(j);
+			return latency(li) <= latency(lj) ? items.get(i) : items.get(j);
+		}
+	}
+
+	/**
+	 * Selects the item with the least average latency times requests in
+	 * flight plus one; providers not measured yet are preferred, so each is
+	 * tried. Ties are broken from a random start to avoid hot spots.
+	 */
+	static class LeastLatency implements ProviderSelector {
+		@Override
+		public ServiceItem select(List<ServiceItem> items) {
+			int n = items.size();
+			if (n == 1)
+				return items.get(0);
+			int start = ThreadLocalRandom.current().nextInt(n);
+			int best = start;
+			double bestScore = Double.MAX_VALUE;
+			for (int k = 0; k < n; k++) {
+				int i = (start + k) % n;
+				ProviderLoad load = load(items.get(i));
+				double score = load != null ? latency(load) * (load.getInFlight() + 1) : 0;
+				if (score < bestScore) {
+					best = i;
+					bestScore = score;
+				}
+			}
+			return items.get(best);
+		}
+	}
+
+	private static double latency(ProviderLoad load) {
+		if (load == null)
+			return 0;
+		double latency = load.getLatency();
+		return latency < 0 ? 0 : latency;
+	}
+}
@@ -78,6 +78,7 @@ import java.rmi.RemoteException;
 import java.security.*;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.jar.JarEntry;
@@ -218,6 +219,13 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 
 	protected ScheduledExecutorService scheduler;
 
+	// bounded executor of asynchronous exertions
+	private volatile ThreadPoolExecutor exertExecutor;
+
+	private int exertThreads = 10;
+
+	private long exertTimeout = 1000 * 15;
+
 	// a service bean used for local execution in this container
 	protected Object bean;
 
@@ -1501,6 +1509,47 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 		return task;
 	}
 
+	/**
+	 * Exerts the mogram asynchronously by the bounded executor of this
+	 * provider, so callers can compose concurrent exertions without holding
+	 * a thread per exertion.
+	 *
+	 * @return a future completed with the exerted mogram or exceptionally
+	 *         with the exception of the exertion
+	 */
+	public CompletableFuture<Mogram> exertAsync(Contextion mogram, Transaction txn, Arg... args) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return exert(mogram, txn, args);
+			} catch (ContextException | RemoteException e) {
+				throw new CompletionException(e);
+			}
+		}, getExertExecutor());
+	}
+
+	/**
+	 * Returns the executor of asynchronous exertions bounded by the
+	 * <code>maxThreads</code> entry of the provider configuration; idle
+	 * threads exit after the <code>timeout</code> entry.
+	 */
+	public Executor getExertExecutor() {
+		if (exertExecutor == null) {
+			synchronized (this) {
+				if (exertExecutor == null) {
+					ConfigurableThreadFactory tf = new ConfigurableThreadFactory();
+					tf.setDaemon(true);
+					tf.setNameFormat(tName(getName()) + "-exert-%2$s");
+					tf.setThreadGroup(ProviderDelegate.threadGroup);
+					ThreadPoolExecutor executor = new ThreadPoolExecutor(exertThreads, exertThreads,
+							exertTimeout, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), tf);
+					executor.allowCoreThreadTimeOut(true);
+					exertExecutor = executor;
+				}
+			}
+		}
+		return exertExecutor;
+	}
+
 	public Routine service(Mogram exertion) throws RemoteException,
 			RoutineException {
 		return doExertion((Routine)exertion, null);
@@ -1812,6 +1861,8 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 			logger.debug("destroyed provider: {} providers left: {}" + getProviderName(), tally);
 			//if (threadManager != null)
 			//	threadManager.terminate();
+			if (exertExecutor != null)
+				exertExecutor.shutdownNow();
 
 			unexport(true);
 			if(providerAdmin!=null)
@@ -1945,6 +1996,7 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 //					"setupThreadManger#maxThreads", e);
 		}
 		logger.info("maxThreads: " + maxThreads);
+		exertThreads = maxThreads;
 		try {
 			timeout = (Long) config.getEntry(ServiceExerter.COMPONENT,
 					MANAGER_TIMEOUT, long.class);
@@ -1953,6 +2005,7 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 //					"setupThreadManger#timeout", e);
 		}
 		logger.info("timeout: " + timeout);
+		exertTimeout = timeout;
 		try {
 			loadFactor = (Float) config.getEntry(ServiceExerter.COMPONENT,
 					LOAD_FACTOR, float.class);
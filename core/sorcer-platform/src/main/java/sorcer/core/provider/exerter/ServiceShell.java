@@ -49,6 +49,7 @@ import sorcer.service.Strategy.Access;
 import sorcer.service.modeling.Data;
 import sorcer.service.modeling.Model;
 import sorcer.service.txmgr.TransactionManagerAccessor;
+import sorcer.util.ConfigurableThreadFactory;
 import sorcer.util.Sorcer;
 
 import java.io.File;
@@ -57,6 +58,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static sorcer.eo.operator.*;
 
@@ -74,6 +82,8 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 	// a reference to a provider running this mogram
 	private Exertion provider;
 	private static final ProviderCache providerCache = ProviderCache.get();
+	// executor of asynchronous exertions outside of providers
+	private static ExecutorService asyncExecutor;
 
 	public ServiceShell() {
 	}
@@ -132,6 +142,45 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 		return (T) result;
 	}
 
+	/**
+	 * Exerts the mogram asynchronously with this shell, by the bounded
+	 * executor of the provider running this shell, if any, otherwise by a
+	 * shared executor bounded by {@link Sorcer#getExertAsyncThreads()}. The
+	 * shell holds the mogram it exerts, so concurrent asynchronous exertions
+	 * use a shell each.
+	 *
+	 * @return a future completed with the exerted mogram, or exceptionally
+	 *         with a {@link RoutineException} if the exertion is suspended
+	 */
+	public CompletableFuture<Mogram> exertAsync(Contextion mogram, Transaction txn, Arg... args) {
+		Executor executor = provider instanceof ServiceExerter
+			? ((ServiceExerter) provider).getExertExecutor() : getAsyncExecutor();
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Mogram out = (Mogram) exert(mogram, txn, args);
+				if (out instanceof Routine && ((ServiceMogram) out).getStatus() == Exec.SUSPENDED)
+					throw new RoutineException("exertion suspended", (Routine) out);
+				return out;
+			} catch (MogramException e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	private static synchronized ExecutorService getAsyncExecutor() {
+		if (asyncExecutor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Exert-%2$d");
+			int threads = Math.max(1, Sorcer.getExertAsyncThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			asyncExecutor = pool;
+		}
+		return asyncExecutor;
+	}
+
 	public <T extends Mogram> T exert(String providerName) throws ServiceException {
 		return exert(null, providerName);
 	}
@@ -462,6 +511,11 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 //			}
 
 		Routine result;
+		// feeds the load observed for provider selection
+		ProviderLoad load = ProviderLoad.get(provider);
+		long start = System.nanoTime();
+		if (load != null)
+			load.started();
 		try {
 			result = provider.exert(exertion, transaction, entries);
 			if (result != null && result.getExceptions().size() > 0) {
@@ -480,6 +534,9 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 			}
 		} catch (RemoteException | ServiceException e) {
 			throw new MogramException(e);
+		} finally {
+			if (load != null)
+				load.completed(System.nanoTime() - start);
 		}
 		return result;
 //		}
@@ -17,6 +17,7 @@
 package sorcer.core.provider.exerter.cache;
 
 import sorcer.core.provider.exerter.ProviderCache;
+import sorcer.core.signature.SignatureKey;
 import sorcer.service.Accessor;
 import sorcer.service.Exerter;
 import sorcer.service.Signature;
@@ -25,27 +26,33 @@ import sorcer.service.SignatureException;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Implementation of a ProviderCache.
+ * Implementation of a ProviderCache keyed by the {@link SignatureKey}s of
+ * signatures. Proxies not held by the cache are looked up on each call, so
+ * lookups go through the provider selection of the accessor.
  */
 public class ProviderProxyCache implements ProviderCache  {
-    private static final ConcurrentHashMap<Signature, Object> proxyCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<SignatureKey, Object> proxyCache = new ConcurrentHashMap<>();
 
     @Override
     public Object getProvider(Signature signature) {
-        Object provider = doProviderGet(signature);
+        SignatureKey key = SignatureKey.of(signature);
+        Object provider = doProviderGet(key, signature);
         if (provider != null) {
             if (!Accessor.isAlive(provider)) {
                 /* If we had a provider and now it's no longer there, retry */
-                proxyCache.remove(signature);
-                provider = doProviderGet(signature);
+                proxyCache.remove(key, provider);
+                provider = doProviderGet(key, signature);
             }
         }
         return provider;
     }
 
-    private Object doProviderGet(Signature signature) {
+    private Object doProviderGet(SignatureKey key, Signature signature) {
+        Object provider = proxyCache.get(key);
+        if (provider != null)
+            return provider;
         try {
-            return proxyCache.getOrDefault(signature, Accessor.get().getService(signature));
+            return Accessor.get().getService(signature);
         } catch (SignatureException e) {
             return null;
         }
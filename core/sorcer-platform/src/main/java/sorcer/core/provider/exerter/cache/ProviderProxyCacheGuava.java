@@ -16,13 +16,13 @@
  */
 package sorcer.core.provider.exerter.cache;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.provider.ServiceName;
 import sorcer.core.provider.exerter.ProviderCache;
+import sorcer.core.signature.SignatureKey;
 import sorcer.service.*;
 import sorcer.util.ProviderLocator;
 
@@ -30,23 +30,25 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Implementation of a ProviderCache using Guava's LocalCache.
+ * Implementation of a ProviderCache using Guava's LocalCache. Proxies are
+ * cached by the {@link SignatureKey}s of signatures.
  */
 public class ProviderProxyCacheGuava implements ProviderCache {
-    private static final LoadingCache<Signature, Object> proxyCache = setupProxyCache();
+    private static final Cache<SignatureKey, Object> proxyCache = setupProxyCache();
     protected final static Logger logger = LoggerFactory.getLogger(ProviderProxyCacheGuava.class);
 
     @Override
     public Object getProvider(Signature signature) {
         Object provider = null;
+        SignatureKey key = SignatureKey.of(signature);
         try {
-            provider = proxyCache.get(signature);
+            provider = proxyCache.get(key, () -> load(signature));
             // check if cached proxy is still alive
             ((Exerter)provider).getProviderName();
         } catch (Exception e) {
-            proxyCache.refresh(signature);
+            proxyCache.invalidate(key);
             try {
-                provider = proxyCache.get(signature);
+                provider = proxyCache.get(key, () -> load(signature));
             } catch (ExecutionException executionException) {
                 logger.warn("Problem with proxyCache.get", executionException);
             }
@@ -54,24 +56,24 @@ public class ProviderProxyCacheGuava implements ProviderCache {
         return provider;
     }
 
-    private static LoadingCache<Signature, Object> setupProxyCache() {
+    private static Object load(Signature signature) throws SignatureException {
+        if (signature.getProviderName() instanceof ServiceName) {
+            try {
+                return ProviderLocator.getProvider(signature);
+            } catch (SignatureException e) {
+                e.printStackTrace();
+            }
+            logger.warn("No available proxy for {}", signature);
+            return Context.none;
+        } else
+            return Accessor.get().getService(signature);
+    }
+
+    private static Cache<SignatureKey, Object> setupProxyCache() {
         return CacheBuilder.newBuilder()
                            .maximumSize(20)
                            .expireAfterWrite(30, TimeUnit.MINUTES)
-                           .build(new CacheLoader<Signature, Object>() {
-                               public Object load(Signature signature) throws SignatureException {
-                                   if (signature.getProviderName() instanceof ServiceName) {
-                                       try {
-                                           return ProviderLocator.getProvider(signature);
-                                       } catch (SignatureException e) {
-                                           e.printStackTrace();
-                                       }
-                                       logger.warn("No available proxy for {}", signature);
-                                       return Context.none;
-                                   } else
-                                       return Accessor.get().getService(signature);
-                               }
-                           });
+                           .build();
     }
 
 }
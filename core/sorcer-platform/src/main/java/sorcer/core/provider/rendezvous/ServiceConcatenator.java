@@ -49,7 +49,7 @@ public class ServiceConcatenator extends SorcerExerterBean implements Concatenat
 			if (((Subroutine)exertion).getControlContext().isMonitorable()
 					&& !(((Subroutine)exertion).getControlContext()).isWaitable()) {
 				replaceNullExertionIDs(exertion);
-				new BlockThread((Block) exertion, provider).start();
+				provider.getExertExecutor().execute(new BlockThread((Block) exertion, provider));
 				return exertion;
 			} else {
 				BlockThread blockThread = new BlockThread((Block) exertion, provider, args);
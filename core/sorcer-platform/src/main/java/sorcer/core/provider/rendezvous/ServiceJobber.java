@@ -51,7 +51,7 @@ public class ServiceJobber extends SorcerExerterBean implements Jobber {
                         && !((Routine)mogram).getControlContext().isWaitable()) {
                     replaceNullExertionIDs((Routine)mogram);
                     notifyViaEmail((Routine)mogram);
-                    new Thread(mogramThread, ((Job)mogram).getContextName()).start();
+                    provider.getExertExecutor().execute(mogramThread);
                     return mogram;
                 } else {
                     mogramThread.run();
@@ -71,7 +71,7 @@ public class ServiceSpacer extends SorcerExerterBean implements Spacer {
                     && !((Routine)mogram).getControlContext().isWaitable()) {
                 replaceNullExertionIDs((Routine)mogram);
                 notifyViaEmail((Routine)mogram);
-                new Thread(mogramThread, ((Job)mogram).getContextName()).start();
+                provider.getExertExecutor().execute(mogramThread);
                 return mogram;
             } else {
                 mogramThread.run();
@@ -29,9 +29,17 @@ import sorcer.core.plexus.FidelityManager;
 import sorcer.service.*;
 import sorcer.service.Node;
 import sorcer.service.modeling.*;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.Sorcer;
 
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static sorcer.mo.operator.getDomainContext;
 import static sorcer.mo.operator.in;
@@ -104,6 +112,12 @@ public class Collaboration extends ServiceDiscipline implements Region, Dependen
 
 	private Supervision supervisor;
 
+	// evaluates disciplines of parallel collaborations
+	private static ExecutorService executor;
+
+	// set while a discipline is evaluated by the executor
+	private static final ThreadLocal<Boolean> inDiscipline = new ThreadLocal<Boolean>();
+
 	protected boolean isExec = true;
 
 	public Collaboration() {
@@ -466,85 +480,19 @@ public class Collaboration extends ServiceDiscipline implements Region, Dependen
 				collabOut = new ServiceContext(getName());
 			}
 		}
-		Discipline domain = null;
 		try {
-			for (Path path : domainPaths) {
-				domain = children.get(path.path);
-				if (domain instanceof SignatureDomain) {
-					domain = ((SignatureDomain) domain).getDomain();
-					children.put(domain.getDomainName(), domain);
-				}
-				Context domainCxt = getDomainContext(context, domain.getDomainName());
-				if (domainCxt == null) {
-					domainCxt = getDomainContext(context, domain.getName());
-					if (domainCxt != null) {
-						(( ServiceContext ) domainCxt).setDomainName(domain.getDomainName());
-					}
-				}
-				Dispatcher dispatcher = sorcer.mo.operator.getDomainDispatcher(context, domain.getDomainName());
-				Context cxt = null;
-				if (domainCxt != null) {
-					if (domain instanceof Dispatcher) {
-						cxt = (( Dispatcher ) domain).dispatch(domainCxt);
-						collabOut.append(cxt);
-					} else if (dispatcher != null && dispatcher instanceof ModelTask) {
-						((ModelTask) dispatcher).setContext(domainCxt);
-						((ModelTask) dispatcher).setModel((Model) domain);
-						Object response = exec((ModelTask) dispatcher);
-						if (response instanceof Context) {
-							cxt = (Context) response;
-						} else  if (response instanceof Response) {
-							cxt = ((Response)response).toContext();
-						} else if (response instanceof OptimizerState) {
-							cxt = ((OptimizerState)response).getDesignContext();
-						} else {
-							throw new ContextException("response not Context");
-						}
-						collabOut.append(cxt);
-					} else if (domain.isExec()) {
-						if (domain instanceof Transdomain) {
-							cxt = domain.evaluate(domainCxt);
-						} else {
-							cxt = evaluateDomain(domain, domainCxt);
-						}
-						collabOut.append(cxt);
-					} else {
-						collabOut = input;
-					}
-					if (cxt != null) {
-						outputs.add(cxt);
-					}
-				} else if (domain.isExec()) {
-					if (domain instanceof Context && ((ServiceContext) domain).getType() == Functionality.Type.MADO) {
-						if (domainCxt == null) {
-							domainCxt = input;
-						}
-						cxt = domain.evaluate(domainCxt);
-					} else if (domain instanceof ResponseModeling){
-						cxt = response((Mogram)domain);
-					} else {
-						cxt = (Context) domain.execute();
-					}
-					// collabOut serves as the shared blackboard for the analysis and exploration
-					// if data overwritten then it represents the most recent shared state
-					collabOut.append(cxt.getDomainData());
-					if (cxt != null) {
-						outputs.add(cxt);
-					}
-				} else {
-					collabOut = input;
-				}
-
-				if (analyzerFi != null) {
-					Analysis analyzer = analyzerFi.getSelect();
-					collabOut.putValue(Functionality.Type.DOMAIN.toString(), domain.getDomainName());
-					analyzer.analyze(domain, collabOut);
+			if (isParallel() && domainPaths.size() > 1 && inDiscipline.get() == null) {
+				collabOut = analyzeConcurrently(context, collabOut);
+			} else {
+				for (Path path : domainPaths) {
+					Discipline domain = getDiscipline(path);
+					collabOut = mergeDiscipline(evaluateDiscipline(domain, context), collabOut);
 				}
 			}
 			collabOut.setSubject((String) key, this);
 			((ServiceContext) collabOut).put(Context.DOMAIN_OUTPUTS_PATH, outputs);
 			output = collabOut;
-		} catch (SignatureException | RemoteException | DispatchException | ServiceException | AnalysisException e) {
+		} catch (RemoteException | ServiceException | AnalysisException e) {
 			throw new EvaluationException(e);
 		}
 		if (intent != null) {
@@ -556,6 +504,210 @@ public class Collaboration extends ServiceDiscipline implements Region, Dependen
 		}
 	}
 
+	/**
+	 * Returns true if disciplines without data dependencies are evaluated
+	 * concurrently, i.e., the flow type of this collaboration is
+	 * {@link Strategy.Flow#PAR}.
+	 */
+	public boolean isParallel() {
+		return serviceStrategy instanceof ModelStrategy
+			&& ((ModelStrategy) serviceStrategy).getFlowType() == Strategy.Flow.PAR;
+	}
+
+	private Discipline getDiscipline(Path path) throws RemoteException {
+		Discipline domain = children.get(path.path);
+		if (domain instanceof SignatureDomain) {
+			domain = ((SignatureDomain) domain).getDomain();
+			children.put(domain.getDomainName(), domain);
+		}
+		return domain;
+	}
+
+	/**
+	 * Evaluates the disciplines of domain paths concurrently, each after the
+	 * preceding disciplines it depends on are merged, see
+	 * {@link DisciplineLayering}. Outcomes are merged into the blackboard
+	 * context and analyzed in the order of domain paths, so the blackboard
+	 * is updated by the calling thread only.
+	 */
+	private Context analyzeConcurrently(Context context, Context collabOut)
+		throws ServiceException, RemoteException, AnalysisException {
+		List<Discipline> domains = new ArrayList<>(domainPaths.size());
+		for (Path path : domainPaths) {
+			domains.add(getDiscipline(path));
+		}
+		List<Set<Integer>> predecessors = DisciplineLayering.getPredecessors(domainPaths, couplings);
+		int n = domains.size();
+		List<CompletableFuture<Void>> merged = new ArrayList<>(n);
+		List<CompletableFuture<DisciplineOutcome>> outcomes = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			merged.add(new CompletableFuture<Void>());
+			List<CompletableFuture<Void>> preceding = new ArrayList<>();
+			for (int d : predecessors.get(i)) {
+				preceding.add(merged.get(d));
+			}
+			Discipline domain = domains.get(i);
+			outcomes.add(CompletableFuture.allOf(preceding.toArray(new CompletableFuture[preceding.size()]))
+				.thenApplyAsync(v -> evaluateConcurrently(domain, context), getExecutor()));
+		}
+		try {
+			for (int i = 0; i < n; i++) {
+				DisciplineOutcome outcome;
+				try {
+					outcome = outcomes.get(i).join();
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof ServiceException)
+						throw (ServiceException) cause;
+					if (cause instanceof RemoteException)
+						throw (RemoteException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new EvaluationException((Exception) cause);
+				}
+				collabOut = mergeDiscipline(outcome, collabOut);
+				merged.get(i).complete(null);
+			}
+		} finally {
+			// disciplines waiting for a failed one are not evaluated
+			for (CompletableFuture<Void> m : merged) {
+				m.cancel(false);
+			}
+		}
+		return collabOut;
+	}
+
+	private DisciplineOutcome evaluateConcurrently(Discipline domain, Context context) {
+		inDiscipline.set(Boolean.TRUE);
+		try {
+			return evaluateDiscipline(domain, context);
+		} catch (ServiceException | RemoteException e) {
+			throw new CompletionException(e);
+		} finally {
+			inDiscipline.remove();
+		}
+	}
+
+	/**
+	 * Evaluates the discipline with its domain context; the outcome is merged
+	 * into the blackboard context by {@link #mergeDiscipline}.
+	 */
+	private DisciplineOutcome evaluateDiscipline(Discipline domain, Context context)
+		throws ServiceException, RemoteException {
+		DisciplineOutcome outcome = new DisciplineOutcome(domain);
+		Context domainCxt = getDomainContext(context, domain.getDomainName());
+		if (domainCxt == null) {
+			domainCxt = getDomainContext(context, domain.getName());
+			if (domainCxt != null) {
+				(( ServiceContext ) domainCxt).setDomainName(domain.getDomainName());
+			}
+		}
+		Dispatcher dispatcher = sorcer.mo.operator.getDomainDispatcher(context, domain.getDomainName());
+		Context cxt = null;
+		if (domainCxt != null) {
+			if (domain instanceof Dispatcher) {
+				cxt = (( Dispatcher ) domain).dispatch(domainCxt);
+				outcome.data = cxt;
+			} else if (dispatcher != null && dispatcher instanceof ModelTask) {
+				((ModelTask) dispatcher).setContext(domainCxt);
+				((ModelTask) dispatcher).setModel((Model) domain);
+				Object response = exec((ModelTask) dispatcher);
+				if (response instanceof Context) {
+					cxt = (Context) response;
+				} else  if (response instanceof Response) {
+					cxt = ((Response)response).toContext();
+				} else if (response instanceof OptimizerState) {
+					cxt = ((OptimizerState)response).getDesignContext();
+				} else {
+					throw new ContextException("response not Context");
+				}
+				outcome.data = cxt;
+			} else if (domain.isExec()) {
+				if (domain instanceof Transdomain) {
+					cxt = domain.evaluate(domainCxt);
+				} else {
+					cxt = evaluateDomain(domain, domainCxt);
+				}
+				outcome.data = cxt;
+			} else {
+				outcome.isInput = true;
+			}
+		} else if (domain.isExec()) {
+			if (domain instanceof Context && ((ServiceContext) domain).getType() == Functionality.Type.MADO) {
+				if (domainCxt == null) {
+					domainCxt = input;
+				}
+				cxt = domain.evaluate(domainCxt);
+			} else if (domain instanceof ResponseModeling){
+				cxt = response((Mogram)domain);
+			} else {
+				cxt = (Context) domain.execute();
+			}
+			// collabOut serves as the shared blackboard for the analysis and exploration
+			// if data overwritten then it represents the most recent shared state
+			outcome.data = cxt.getDomainData();
+		} else {
+			outcome.isInput = true;
+		}
+		outcome.cxt = cxt;
+		return outcome;
+	}
+
+	/**
+	 * Merges the outcome of a discipline into the blackboard context and
+	 * analyzes it with the selected analyzer.
+	 *
+	 * @return the blackboard context
+	 */
+	private Context mergeDiscipline(DisciplineOutcome outcome, Context collabOut)
+		throws ContextException, RemoteException, AnalysisException {
+		if (outcome.isInput) {
+			collabOut = input;
+		} else {
+			collabOut.append(outcome.data);
+		}
+		if (outcome.cxt != null) {
+			outputs.add(outcome.cxt);
+		}
+		if (analyzerFi != null) {
+			Analysis analyzer = analyzerFi.getSelect();
+			collabOut.putValue(Functionality.Type.DOMAIN.toString(), outcome.domain.getDomainName());
+			analyzer.analyze(outcome.domain, collabOut);
+		}
+		return collabOut;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Discipline-%2$d");
+			int threads = Math.max(1, Sorcer.getCollabDisciplineThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * The outcome of a discipline evaluation merged into the blackboard.
+	 */
+	private static class DisciplineOutcome {
+		final Discipline domain;
+		// domain output
+		Context cxt;
+		// data appended to the blackboard
+		Context data;
+		// the blackboard is the input of this collaboration
+		boolean isInput;
+
+		DisciplineOutcome(Discipline domain) {
+			this.domain = domain;
+		}
+	}
+
 	public void initializeDomains() throws SignatureException {
 		// initialize domains specified by builder signatures
 		try {
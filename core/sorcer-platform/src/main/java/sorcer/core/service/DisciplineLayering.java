@@ -0,0 +1,103 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.service;
+
+import sorcer.core.context.model.ent.Coupling;
+import sorcer.service.Path;
+
+import java.util.*;
+
+/**
+ * Determines the data dependencies among the domain paths of a
+ * {@link Collaboration}. Two disciplines are dependent if a coupling connects
+ * them, in either direction, or one is a pre path of the other. Dependent
+ * disciplines are evaluated in the declared order of domain paths and the
+ * others may be evaluated concurrently.
+ */
+public class DisciplineLayering {
+
+	private DisciplineLayering() {
+	}
+
+	/**
+	 * Returns for each domain path the indexes of the preceding domain paths
+	 * it depends on.
+	 */
+	public static List<Set<Integer>> getPredecessors(List<Path> domainPaths, List<Coupling> couplings) {
+		int n = domainPaths.size();
+		Map<String, Integer> index = new HashMap<String, Integer>(2 * n);
+		for (int i = 0; i < n; i++) {
+			index.putIfAbsent(domainPaths.get(i).path, i);
+		}
+		List<Set<Integer>> predecessors = new ArrayList<Set<Integer>>(n);
+		for (int i = 0; i < n; i++) {
+			predecessors.add(new TreeSet<Integer>());
+		}
+		if (couplings != null) {
+			for (Coupling coupling : couplings) {
+				if (coupling.from() != null && coupling.to() != null)
+					connect(index.get(coupling.from().domain()), index.get(coupling.to().domain()), predecessors);
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			List<Path> prePaths = domainPaths.get(i).prePaths;
+			if (prePaths != null) {
+				for (Path pre : prePaths)
+					connect(index.get(pre.path), i, predecessors);
+			}
+		}
+		return predecessors;
+	}
+
+	/**
+	 * Groups the domain paths into layers of mutually independent
+	 * disciplines. A discipline is placed in the layer after the last layer
+	 * holding a preceding discipline it depends on; the paths of each layer
+	 * are in the declared order.
+	 */
+	public static List<List<Path>> getLayers(List<Path> domainPaths, List<Coupling> couplings) {
+		List<Set<Integer>> predecessors = getPredecessors(domainPaths, couplings);
+		int n = domainPaths.size();
+		int[] layer = new int[n];
+		int layerCount = 0;
+		for (int i = 0; i < n; i++) {
+			int l = 0;
+			for (int d : predecessors.get(i)) {
+				l = Math.max(l, layer[d] + 1);
+			}
+			layer[i] = l;
+			layerCount = Math.max(layerCount, l + 1);
+		}
+		List<List<Path>> layers = new ArrayList<List<Path>>(layerCount);
+		for (int i = 0; i < layerCount; i++) {
+			layers.add(new ArrayList<Path>());
+		}
+		for (int i = 0; i < n; i++) {
+			layers.get(layer[i]).add(domainPaths.get(i));
+		}
+		return layers;
+	}
+
+	private static void connect(Integer from, Integer to, List<Set<Integer>> predecessors) {
+		if (from != null && to != null && !from.equals(to)) {
+			if (from < to)
+				predecessors.get(to).add(from);
+			else
+				predecessors.get(from).add(to);
+		}
+	}
+}
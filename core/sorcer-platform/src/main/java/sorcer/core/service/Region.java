@@ -32,4 +32,6 @@ public interface Region extends Transdiscipline {
 
     public Context evaluate(Context context, Arg... args) throws ServiceException;
 
+    public boolean isParallel();
+
 }
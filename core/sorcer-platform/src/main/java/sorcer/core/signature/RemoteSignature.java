@@ -265,10 +265,6 @@ public class RemoteSignature extends LocalSignature implements sig {
 		return method != null && toString().equals(method.toString());
 	}
 
-	public int hashCode() {
-		return toString().hashCode();
-	}
-
 	public String getCodebase() {
 		return codebase;
 	}
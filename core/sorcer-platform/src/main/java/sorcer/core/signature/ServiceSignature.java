@@ -134,6 +134,9 @@ public class ServiceSignature implements Signature, Scopable, SorcerConstants, s
 
 	protected ServiceDeployment deployment;
 
+	/** the key of this signature, derived again when its identity changes */
+	private transient volatile SignatureKey key;
+
 	public ServiceSignature() {
 		signatureId = UuidFactory.generate();
 		providerName = new ServiceName(ANY);
@@ -437,16 +440,25 @@ public class ServiceSignature implements Signature, Scopable, SorcerConstants, s
 			return false;
 		else if (!(signature.getClass() == this.getClass()))
 			return false;
-		ServiceSignature sig = (ServiceSignature) signature;
-		return ("" + sig.multitype).equals("" + multitype)
-				&& ("" + sig.operation.selector).equals("" + operation.selector)
-				&& ("" + sig.providerName).equals("" + providerName);
+		return getKey().equals(((ServiceSignature) signature).getKey());
 	}
 
 	@Override
 	public int hashCode() {
-		return 31 * ("" + multitype).hashCode() + ("" + operation.selector).hashCode()
-				+ ("" + providerName).hashCode();
+		return getKey().hashCode();
+	}
+
+	/**
+	 * Returns the immutable key of this signature derived from its service
+	 * types, selector and provider name.
+	 */
+	public SignatureKey getKey() {
+		SignatureKey k = key;
+		if (k == null || !k.matches(multitype, operation.selector, providerName)) {
+			k = SignatureKey.of(multitype, operation.selector, providerName);
+			key = k;
+		}
+		return k;
 	}
 
 	public String getCodebase() {
@@ -0,0 +1,194 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.signature;
+
+import sorcer.core.provider.ProviderName;
+import sorcer.core.provider.ServiceName;
+import sorcer.service.Signature;
+import sorcer.service.Signature.Multitype;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The immutable identity of a {@link Signature}: its service type, match
+ * types, selector and provider name. Keys are derived once from the fields
+ * of a signature with a precomputed hash, so maps keyed by signatures do not
+ * build strings on each access. Keys are interned, equal keys obtained with
+ * {@link #of} are usually the same instance.
+ */
+public final class SignatureKey implements Serializable {
+
+	static final long serialVersionUID = 1L;
+
+	// limits the number of interned keys
+	private static final int MAX_INTERNED = 4096;
+
+	private static final ConcurrentHashMap<SignatureKey, SignatureKey> interned
+			= new ConcurrentHashMap<SignatureKey, SignatureKey>();
+
+	private final String typeName;
+
+	private final String[] matchTypeNames;
+
+	private final String selector;
+
+	private final String providerName;
+
+	// groups of a ServiceName, null for other provider names
+	private final String[] groups;
+
+	private final int hash;
+
+	private SignatureKey(String typeName, String[] matchTypeNames, String selector,
+						 String providerName, String[] groups) {
+		this.typeName = typeName;
+		this.matchTypeNames = matchTypeNames;
+		this.selector = selector;
+		this.providerName = providerName;
+		this.groups = groups;
+		int h = typeName != null ? typeName.hashCode() : 0;
+		h = 31 * h + Arrays.hashCode(matchTypeNames);
+		h = 31 * h + (selector != null ? selector.hashCode() : 0);
+		h = 31 * h + (providerName != null ? providerName.hashCode() : 0);
+		hash = 31 * h + Arrays.hashCode(groups);
+	}
+
+	/**
+	 * Returns the key of the signature.
+	 */
+	public static SignatureKey of(Signature signature) {
+		if (signature instanceof ServiceSignature)
+			return ((ServiceSignature) signature).getKey();
+		Class<?> type = signature.getServiceType();
+		return intern(new SignatureKey(type != null ? type.getName() : null,
+				getNames(signature.getMatchTypes()), signature.getSelector(),
+				getName(signature.getProviderName()), getGroups(signature.getProviderName())));
+	}
+
+	/**
+	 * Returns the key of a signature with the given fields.
+	 */
+	public static SignatureKey of(Multitype multitype, String selector, ProviderName providerName) {
+		return intern(new SignatureKey(getTypeName(multitype),
+				multitype != null ? getNames(multitype.matchTypes) : null, selector,
+				getName(providerName), getGroups(providerName)));
+	}
+
+	private static SignatureKey intern(SignatureKey key) {
+		SignatureKey existing = interned.get(key);
+		if (existing != null)
+			return existing;
+		if (interned.size() >= MAX_INTERNED)
+			return key;
+		existing = interned.putIfAbsent(key, key);
+		return existing != null ? existing : key;
+	}
+
+	/**
+	 * Returns true if this key is the key of a signature with the given
+	 * fields; the check does not allocate.
+	 */
+	public boolean matches(Multitype multitype, String selector, ProviderName providerName) {
+		if (!equal(this.selector, selector) || !equal(typeName, getTypeName(multitype)))
+			return false;
+		Class[] matchTypes = multitype != null ? multitype.matchTypes : null;
+		if (matchTypes == null || matchTypeNames == null) {
+			if (matchTypes != null || matchTypeNames != null)
+				return false;
+		} else {
+			if (matchTypes.length != matchTypeNames.length)
+				return false;
+			for (int i = 0; i < matchTypes.length; i++) {
+				if (!equal(matchTypeNames[i], matchTypes[i] != null ? matchTypes[i].getName() : null))
+					return false;
+			}
+		}
+		return equal(this.providerName, getName(providerName))
+				&& Arrays.equals(groups, getGroups(providerName));
+	}
+
+	private static String getTypeName(Multitype multitype) {
+		if (multitype == null)
+			return null;
+		return multitype.providerType != null ? multitype.providerType.getName() : multitype.typeName;
+	}
+
+	private static String[] getNames(Class[] types) {
+		if (types == null)
+			return null;
+		String[] names = new String[types.length];
+		for (int i = 0; i < types.length; i++)
+			names[i] = types[i] != null ? types[i].getName() : null;
+		return names;
+	}
+
+	private static String getName(ProviderName providerName) {
+		return providerName != null ? providerName.getName() : null;
+	}
+
+	private static String[] getGroups(ProviderName providerName) {
+		if (providerName instanceof ServiceName) {
+			String[] groups = ((ServiceName) providerName).getGroups();
+			return groups != null ? groups : new String[0];
+		}
+		return null;
+	}
+
+	private static boolean equal(String s1, String s2) {
+		return s1 == s2 || (s1 != null && s1.equals(s2));
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	public String getSelector() {
+		return selector;
+	}
+
+	public String getProviderName() {
+		return providerName;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof SignatureKey))
+			return false;
+		SignatureKey key = (SignatureKey) obj;
+		return hash == key.hash && equal(typeName, key.typeName)
+				&& equal(selector, key.selector)
+				&& equal(providerName, key.providerName)
+				&& Arrays.equals(matchTypeNames, key.matchTypeNames)
+				&& Arrays.equals(groups, key.groups);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return typeName + (matchTypeNames != null ? ":" + Arrays.toString(matchTypeNames) : "")
+				+ "#" + selector + "@" + providerName
+				+ (groups != null ? ":" + Arrays.toString(groups) : "");
+	}
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.GenericUtil;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads a URL to a local file. If the server accepts byte ranges, as the
+ * {@link DataService} does, the file is fetched in chunks by parallel range
+ * requests written in place through a {@link FileChannel}, otherwise with a
+ * single stream.
+ * <p>
+ * The content is written to a "<i>file</i>.part" file. Completed chunks are
+ * recorded in a "<i>file</i>.part.state" file, so a failed or interrupted
+ * download of the same content resumes with the missing chunks. The
+ * content is verified with the SHA-256 digest sent by the server, or the
+ * checksum given to the download, and then renamed atomically to the file.
+ */
+public class ChunkedDownload {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedDownload.class.getName());
+    private static final int RETRIES = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CONNECT_TIMEOUT = 30 * 1000;
+    private static final int READ_TIMEOUT = 60 * 1000;
+    private static ExecutorService executor;
+    private final URL url;
+    private final File to;
+    private final File part;
+    private final File state;
+    private int threads = Integer.parseInt(System.getProperty(DataService.DATA_DOWNLOAD_THREADS, "4"));
+    private long chunkSize = Long.parseLong(System.getProperty(DataService.DATA_CHUNK_SIZE,
+                                                               Long.toString(8 * 1024 * 1024)));
+    private String checksum;
+
+    /**
+     * Create a download of a URL.
+     *
+     * @param url The URL to download
+     * @param to The file to download to
+     */
+    public ChunkedDownload(final URL url, final File to) {
+        this.url = url;
+        this.to = to;
+        part = new File(to.getPath() + ".part");
+        state = new File(to.getPath() + ".part.state");
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setDaemon(true);
+            factory.setNameFormat("Download-%2$d");
+            int threads = Math.max(1, Integer.parseInt(System.getProperty(DataService.DATA_DOWNLOAD_THREADS, "4")));
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<Runnable>(), factory);
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of chunks fetched at the same time, bounded by the threads
+     * of the {@link DataService#DATA_DOWNLOAD_THREADS} download executor.
+     */
+    public ChunkedDownload setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public ChunkedDownload setChunkSize(long chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Set the expected SHA-256 checksum of the content, in base64 or hex. If
+     * set, it takes precedence over the digest sent by the server.
+     */
+    public ChunkedDownload setChecksum(String checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    /**
+     * Download the URL, resuming a previous partial download of the same content.
+     *
+     * @throws IOException If the download fails or the content does not match its checksum
+     */
+    public void download() throws IOException {
+        if (!url.getProtocol().startsWith("http")) {
+            Files.deleteIfExists(part.toPath());
+            GenericUtil.download(url, part);
+            complete(checksum);
+            return;
+        }
+        HttpURLConnection head = open();
+        long length;
+        long modified;
+        boolean ranges;
+        String digest;
+        try {
+            head.setRequestMethod("HEAD");
+            head.setRequestProperty("Want-Digest", "sha-256");
+            int code = head.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK)
+                throw new IOException("Unable to download " + url + ", response: " + code);
+            length = head.getContentLengthLong();
+            modified = head.getLastModified();
+            ranges = "bytes".equalsIgnoreCase(head.getHeaderField("Accept-Ranges"));
+            digest = getDigest(head.getHeaderField("Digest"));
+        } finally {
+            head.disconnect();
+        }
+        String expected = checksum != null ? checksum : digest;
+        if (!ranges || length <= chunkSize) {
+            Files.deleteIfExists(state.toPath());
+            fetch();
+        } else {
+            fetch(length, length + " " + modified + " " + (digest == null ? "-" : digest));
+        }
+        complete(expected);
+    }
+
+    private HttpURLConnection open() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        return connection;
+    }
+
+    private static String getDigest(String header) {
+        if (header == null)
+            return null;
+        for (String value : header.split(",")) {
+            value = value.trim();
+            if (value.regionMatches(true, 0, "SHA-256=", 0, 8))
+                return value.substring(8);
+        }
+        return null;
+    }
+
+    /*
+     * Fetch the content with a single stream.
+     */
+    private void fetch() throws IOException {
+        IOException failure = null;
+        for (int attempt = 1; attempt <= RETRIES; attempt++) {
+            HttpURLConnection connection = open();
+            try (InputStream in = connection.getInputStream();
+                 FileChannel channel = FileChannel.open(part.toPath(), StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                byte[] bytes = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                int n;
+                while ((n = in.read(bytes)) != -1) {
+                    buffer.clear();
+                    buffer.limit(n);
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                }
+                channel.force(false);
+                return;
+            } catch (IOException e) {
+                failure = e;
+                logger.warn("Download of {} failed, attempt {} of {}: {}", url, attempt, RETRIES, e.toString());
+            } finally {
+                connection.disconnect();
+            }
+        }
+        throw failure;
+    }
+
+    /*
+     * Fetch the missing chunks of the content with parallel range requests.
+     */
+    private void fetch(long length, String identity) throws IOException {
+        int chunks = (int) ((length + chunkSize - 1) / chunkSize);
+        Set<Integer> completed = getCompletedChunks(length, identity);
+        if (!completed.isEmpty())
+            logger.info("Resume download of {}, {} of {} chunks completed", url, completed.size(), chunks);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            if (!completed.contains(i))
+                pending.add(i);
+        }
+        try (FileChannel channel = FileChannel.open(part.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE);
+             Writer record = new OutputStreamWriter(new FileOutputStream(state, true), StandardCharsets.UTF_8)) {
+            if (completed.isEmpty()) {
+                record.write(identity + "\n");
+                record.flush();
+            }
+            AtomicInteger next = new AtomicInteger();
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int w = 0; w < Math.min(Math.max(1, threads), pending.size()); w++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    int n;
+                    while ((n = next.getAndIncrement()) < pending.size()) {
+                        int chunk = pending.get(n);
+                        try {
+                            fetch(channel, chunk, length);
+                            synchronized (record) {
+                                record.write(chunk + "\n");
+                                record.flush();
+                            }
+                        } catch (IOException e) {
+                            // the remaining chunks are left for a resumed download
+                            next.set(pending.size());
+                            throw new CompletionException(e);
+                        }
+                    }
+                }, getExecutor()));
+            }
+            try {
+                CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private Set<Integer> getCompletedChunks(long length, String identity) throws IOException {
+        Set<Integer> completed = new HashSet<>();
+        if (state.exists() && part.exists()) {
+            List<String> lines = Files.readAllLines(state.toPath(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(identity)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    try {
+                        completed.add(Integer.parseInt(line.trim()));
+                    } catch (NumberFormatException e) {
+                        // the line of a chunk being recorded when interrupted
+                    }
+                }
+            }
+        }
+        if (completed.isEmpty()) {
+            Files.deleteIfExists(state.toPath());
+            Files.deleteIfExists(part.toPath());
+        }
+        try (RandomAccessFile file = new RandomAccessFile(part, "rw")) {
+            file.setLength(length);
+        }
+        return completed;
+    }
+
+    private void fetch(FileChannel channel, int chunk, long length) throws IOException {
+        long start = chunk * chunkSize;
+        long end = Math.min(start + chunkSize, length) - 1;
+        IOException failure = null;
+        for (int attempt = 1; attempt <= RETRIES; attempt++) {
+            HttpURLConnection connection = open();
+            try {
+                connection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+                int code = connection.getResponseCode();
+                if (code != HttpURLConnection.HTTP_PARTIAL)
+                    throw new IOException("Unable to get range " + start + "-" + end + " of " + url
+                                          + ", response: " + code);
+                long position = start;
+                try (InputStream in = connection.getInputStream()) {
+                    byte[] bytes = new byte[BUFFER_SIZE];
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    int n;
+                    while (position <= end
+                           && (n = in.read(bytes, 0, (int) Math.min(bytes.length, end - position + 1))) != -1) {
+                        buffer.clear();
+                        buffer.limit(n);
+                        while (buffer.hasRemaining())
+                            position += channel.write(buffer, position);
+                    }
+                }
+                if (position != end + 1)
+                    throw new IOException("Incomplete range " + start + "-" + end + " of " + url
+                                          + ", got " + (position - start) + " bytes");
+                channel.force(false);
+                return;
+            } catch (IOException e) {
+                failure = e;
+                logger.warn("Download of chunk {} of {} failed, attempt {} of {}: {}",
+                            chunk, url, attempt, RETRIES, e.toString());
+            } finally {
+                connection.disconnect();
+            }
+        }
+        throw failure;
+    }
+
+    /*
+     * Verify the downloaded content and rename it to the file.
+     */
+    private void complete(String expected) throws IOException {
+        if (expected != null) {
+            byte[] sha = digest(part);
+            String base64 = Base64.getEncoder().encodeToString(sha);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha)
+                hex.append(String.format("%02x", b));
+            if (!expected.equals(base64) && !expected.equalsIgnoreCase(hex.toString())) {
+                Files.deleteIfExists(part.toPath());
+                Files.deleteIfExists(state.toPath());
+                throw new IOException("Checksum of " + url + " does not match, expected: " + expected
+                                      + ", got: " + base64);
+            }
+        }
+        try {
+            Files.move(part.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(state.toPath());
+    }
+
+    private static byte[] digest(File file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                md.update(buffer);
+                buffer.clear();
+            }
+        }
+        return md.digest();
+    }
+}
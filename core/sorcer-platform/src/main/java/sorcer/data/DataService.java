@@ -23,7 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.tools.webster.Webster;
 import sorcer.util.FileURLHandler;
-import sorcer.util.GenericUtil;
 import sorcer.util.JavaSystemProperties;
 import sorcer.util.SorcerEnv;
 
@@ -35,6 +34,8 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -52,6 +53,9 @@ public class DataService implements FileURLHandler {
     public static final String DATA_DIR = "sorcer.data.dir";
     public static final String DATA_URL = "sorcer.data.url";
     public static final String DATA_PORT = "sorcer.data.port";
+    public static final String DATA_DOWNLOAD_THREADS = "sorcer.data.download.threads";
+    public static final String DATA_CHUNK_SIZE = "sorcer.data.chunk.size";
+    private final Map<String, File> dataFiles = new ConcurrentHashMap<>();
 
     /**
      * Get the DataService that is bound to the platform code server.
@@ -164,8 +168,10 @@ public class DataService implements FileURLHandler {
                 }
                 if (!websterRoots.toString().equals(getDefaultDataDir())) {
                     String derivedRoots = getRoots(port);
-                    if (derivedRoots!=null)
+                    if (derivedRoots!=null) {
                         roots = derivedRoots.split(";");
+                        dataFiles.clear();
+                    }
                 }
                 String dataUrl = System.getProperty(DATA_URL, System.getProperty(Constants.WEBSTER));
                 if (dataUrl != null) {
@@ -271,7 +277,8 @@ public class DataService implements FileURLHandler {
     }
 
     /**
-     * Download the contents of a URL to a local file
+     * Download the contents of a URL to a local file. Files served with range requests are
+     * downloaded in parallel chunks, see {@link ChunkedDownload}.
      *
      * @param url The URL to download
      * @param to The file to download to
@@ -279,7 +286,21 @@ public class DataService implements FileURLHandler {
      * @throws IOException If download fails
      */
     public void download(final URL url, final File to) throws IOException {
-        GenericUtil.download(url, to);
+        download(url, to, null);
+    }
+
+    /**
+     * Download the contents of a URL to a local file and verify its SHA-256 checksum.
+     *
+     * @param url The URL to download
+     * @param to The file to download to
+     * @param checksum The expected SHA-256 checksum in base64 or hex, if null the digest sent
+     * by the server if any is verified
+     *
+     * @throws IOException If download fails or the downloaded file does not match the checksum
+     */
+    public void download(final URL url, final File to, final String checksum) throws IOException {
+        new ChunkedDownload(url, to).setChecksum(checksum).download();
     }
 
     /**
@@ -292,7 +313,10 @@ public class DataService implements FileURLHandler {
      * @throws FileNotFoundException If the URL cannot be accessed from one of the roots provided.
      */
     public File getDataFile(final URL url) throws IOException {
-        File file = null;
+        File file = dataFiles.get(url.toExternalForm());
+        if (file != null && file.exists())
+            return file;
+        file = null;
         if (url.getProtocol().startsWith("file")) {
             try {
                 File f = new File(url.toURI());
@@ -326,6 +350,7 @@ public class DataService implements FileURLHandler {
         if (file==null || !file.exists())
             throw new FileNotFoundException("The "+url.toExternalForm()+" " +
                                             "is not accessible from existing roots "+ Arrays.toString(roots));
+        dataFiles.put(url.toExternalForm(), file);
         return file;
     }
 
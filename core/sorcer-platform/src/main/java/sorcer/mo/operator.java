@@ -1002,7 +1002,7 @@ public class operator {
         Object[] dest = new Object[items.length + 1];
         System.arraycopy(items, 0, dest, 1, items.length);
         dest[0] = snrMdel;
-        return reqModel(items);
+        return reqModel(dest);
     }
 
     public static Model reqModel(Object... items) throws ContextException, RemoteException {
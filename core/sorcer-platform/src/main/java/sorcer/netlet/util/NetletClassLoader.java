@@ -18,6 +18,7 @@ package sorcer.netlet.util;
 
 import edu.emory.mathcs.util.classloader.URIClassLoader;
 import net.jini.loader.ClassAnnotation;
+import org.codehaus.groovy.control.CompilerConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +49,11 @@ public class NetletClassLoader extends URIClassLoader implements ClassAnnotation
 
     protected URL[] codebase;
 
+    /**
+     * The configuration netlets are compiled with against this classloader
+     */
+    private CompilerConfiguration compilerConfiguration;
+
     /**
      * Constructs a new ServiceClassLoader for the specified URLs having the
      * given parent. The constructor takes two sets of URLs. The first setValue is
@@ -149,6 +155,14 @@ public class NetletClassLoader extends URIClassLoader implements ClassAnnotation
             super.addURI(uri);
     }
 
+    public CompilerConfiguration getCompilerConfiguration() {
+        return compilerConfiguration;
+    }
+
+    public void setCompilerConfiguration(CompilerConfiguration compilerConfiguration) {
+        this.compilerConfiguration = compilerConfiguration;
+    }
+
     public void setCodebase(URL[] codebase) {
         this.codebase = codebase;
         annotator.setAnnotationURLs();
@@ -18,7 +18,6 @@
 package sorcer.netlet.util;
 
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
@@ -28,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.Entry;
 import sorcer.core.context.model.ent.Function;
+import sorcer.core.invoker.ScriptCache;
 import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 
@@ -42,7 +42,7 @@ public class ScripterThread extends Thread {
     private Object result;
     private Object target = null;
     private boolean isExerted = true;
-    final private GroovyShell gShell;
+    final private CompilerConfiguration compilerConfig;
     private NetletClassLoader classLoader;
     private ServiceShell serviceShell;
 
@@ -58,12 +58,19 @@ public class ScripterThread extends Thread {
         this.classLoader = classLoader;
         this.isExerted = isExerted;
 
-        CompilerConfiguration compilerConfig = new CompilerConfiguration();
-        compilerConfig.setPluginFactory(new ShebangPreprocessorFactory());
-        compilerConfig.addCompilationCustomizers(getImports());
-        compilerConfig.addCompilationCustomizers(new ASTTransformationCustomizer(new GroovyCodebaseSupport(classLoader)));
+        // the configuration is shared by all scripts of the classloader, so are their compiled classes
+        synchronized (classLoader) {
+            CompilerConfiguration config = classLoader.getCompilerConfiguration();
+            if (config == null) {
+                config = new CompilerConfiguration();
+                config.setPluginFactory(new ShebangPreprocessorFactory());
+                config.addCompilationCustomizers(getImports());
+                config.addCompilationCustomizers(new ASTTransformationCustomizer(new GroovyCodebaseSupport(classLoader)));
+                classLoader.setCompilerConfiguration(config);
+            }
+            compilerConfig = config;
+        }
 
-        gShell = new GroovyShell(classLoader, new Binding(), compilerConfig);
         this.script = script;
     }
 
@@ -71,9 +78,9 @@ public class ScripterThread extends Thread {
         ClassLoader currentCL = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(classLoader);
-            synchronized (gShell) {
-                target = gShell.evaluate(script);
-            }
+            // compiled once per netlet class loader, codebases are resolved at compile time
+            target = ScriptCache.getCache()
+                    .createScript(script, classLoader, compilerConfig, new Binding()).run();
         } finally {
             Thread.currentThread().setContextClassLoader(currentCL);
         }
@@ -16,10 +16,14 @@
 
 package sorcer.river;
 
+import net.jini.core.entry.Entry;
 import net.jini.core.lookup.ServiceID;
 import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
 import net.jini.lookup.ServiceItemFilter;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -100,6 +104,15 @@ public class Filters {
         return new ServiceClassFilter(type);
     }
 
+    /**
+     * @return filter that matches a {@link ServiceTemplate} on the client side the way lookup
+     * services do, e.g. to select services from a {@link net.jini.lookup.LookupCache}
+     */
+    public static ServiceItemFilter template(ServiceTemplate template) {
+        assert template != null;
+        return new TemplateFilter(template);
+    }
+
     static class ServiceClassFilter implements ServiceItemFilter {
         final private Class type;
 
@@ -179,3 +192,62 @@ class ServiceIDFilter implements ServiceItemFilter {
         return serviceID == null || item.serviceID.equals(serviceID);
     }
 }
+
+class TemplateFilter implements ServiceItemFilter {
+    private ServiceTemplate template;
+
+    TemplateFilter(ServiceTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public boolean check(ServiceItem item) {
+        if (item.service == null)
+            return false;
+        if (template.serviceID != null && !template.serviceID.equals(item.serviceID))
+            return false;
+        if (template.serviceTypes != null) {
+            for (Class<?> type : template.serviceTypes) {
+                if (type != null && !type.isInstance(item.service))
+                    return false;
+            }
+        }
+        if (template.attributeSetTemplates != null) {
+            ATTRIBUTES:
+            for (Entry tmpl : template.attributeSetTemplates) {
+                if (tmpl == null)
+                    continue;
+                if (item.attributeSets != null) {
+                    for (Entry attr : item.attributeSets) {
+                        if (matches(tmpl, attr))
+                            continue ATTRIBUTES;
+                    }
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * An attribute matches a template of its class or a superclass if the public entry fields
+     * that are not null in the template are equal.
+     */
+    static boolean matches(Entry tmpl, Entry attr) {
+        if (attr == null || !tmpl.getClass().isInstance(attr))
+            return false;
+        try {
+            for (Field field : tmpl.getClass().getFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers))
+                    continue;
+                Object value = field.get(tmpl);
+                if (value != null && !value.equals(field.get(attr)))
+                    return false;
+            }
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A streaming reader of delimited text tables. The input channel is read and
+ * decoded in fixed size chunks, so rows can be consumed one at a time or in
+ * bounded batches of {@link ColumnarTable}s without holding the whole input
+ * in memory.
+ * <p>
+ * Column types are inferred from the first <code>sampleSize</code> rows: a
+ * column whose sampled cells all parse as longs is read as <code>Long</code>,
+ * one whose cells all parse as doubles as <code>Double</code>, otherwise as
+ * <code>String</code>. Empty cells are read as <code>null</code>. Like
+ * {@link CSVStringTokenizer}, each character of the delimiter string is a
+ * cell delimiter and cells may be quoted with <code>"</code>.
+ */
+public class CSVTableReader implements Closeable {
+
+	public enum ColumnType {
+		LONG, DOUBLE, STRING
+	}
+
+	private final ReadableByteChannel channel;
+
+	private final String delimiters;
+
+	private boolean header = true;
+
+	private int sampleSize = 100;
+
+	private final ByteBuffer bytes;
+
+	private final CharBuffer chars;
+
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	private boolean endOfInput = false;
+
+	/* parser state carried over chunk boundaries */
+	private final StringBuilder cell = new StringBuilder();
+	private List<String> row = new ArrayList<String>();
+	private boolean inQuote = false;
+	private boolean quoted = false;
+	private char previous;
+
+	private List<String> columnNames;
+
+	private ColumnType[] columnTypes;
+
+	/* rows read ahead for type inference */
+	private final LinkedList<List<String>> sample = new LinkedList<List<String>>();
+
+	private long rowCount = 0;
+
+	public CSVTableReader(ReadableByteChannel channel, String delimiters) {
+		this(channel, delimiters, 64 * 1024);
+	}
+
+	public CSVTableReader(ReadableByteChannel channel, String delimiters, int chunkSize) {
+		this.channel = channel;
+		this.delimiters = delimiters;
+		bytes = ByteBuffer.allocate(chunkSize);
+		chars = CharBuffer.allocate(chunkSize);
+		chars.flip();
+	}
+
+	public static CSVTableReader open(Path path, String delimiters) throws IOException {
+		return new CSVTableReader(FileChannel.open(path, StandardOpenOption.READ), delimiters);
+	}
+
+	/**
+	 * Sets whether the first row holds column names, true by default.
+	 */
+	public CSVTableReader setHeader(boolean header) {
+		this.header = header;
+		return this;
+	}
+
+	/**
+	 * Sets the number of rows used for column type inference.
+	 */
+	public CSVTableReader setSampleSize(int sampleSize) {
+		this.sampleSize = Math.max(1, sampleSize);
+		return this;
+	}
+
+	public List<String> getColumnNames() throws IOException {
+		init();
+		return columnNames;
+	}
+
+	public ColumnType[] getColumnTypes() throws IOException {
+		init();
+		return columnTypes;
+	}
+
+	/**
+	 * Returns the number of data rows read so far.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Reads the next data row with typed cells, or <code>null</code> at the
+	 * end of input.
+	 */
+	public List<Object> readRow() throws IOException {
+		init();
+		List<String> cells = sample.isEmpty() ? nextRecord() : sample.removeFirst();
+		if (cells == null)
+			return null;
+		rowCount++;
+		List<Object> values = new ArrayList<Object>(cells.size());
+		for (int j = 0; j < cells.size(); j++) {
+			values.add(convert(cells.get(j), j < columnTypes.length ? columnTypes[j] : ColumnType.STRING));
+		}
+		return values;
+	}
+
+	/**
+	 * Passes each remaining row to the consumer.
+	 *
+	 * @return the number of rows consumed
+	 */
+	public long forEachRow(Consumer<List<Object>> consumer) throws IOException {
+		long count = 0;
+		List<Object> values;
+		while ((values = readRow()) != null) {
+			consumer.accept(values);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Reads up to <code>maxRows</code> rows into a new columnar table.
+	 *
+	 * @return a table of the next rows or <code>null</code> at the end of
+	 *         input
+	 */
+	public ColumnarTable readChunk(int maxRows) throws IOException {
+		init();
+		ColumnarTable table = new ColumnarTable(new ArrayList<Object>(columnNames), 0);
+		List<Object> values;
+		while (table.getRowCount() < maxRows && (values = readRow()) != null) {
+			table.addRow(values);
+		}
+		return table.getRowCount() == 0 ? null : table;
+	}
+
+	/**
+	 * Reads all remaining rows into a single columnar table.
+	 */
+	public ColumnarTable read() throws IOException {
+		ColumnarTable table = readChunk(Integer.MAX_VALUE);
+		if (table == null)
+			table = new ColumnarTable(new ArrayList<Object>(columnNames), 0);
+		return table;
+	}
+
+	/**
+	 * Streams all remaining rows into a file table keyed by the row index.
+	 *
+	 * @return the number of rows stored
+	 */
+	public long read(FileTable<Long, ArrayList<Object>> table) throws IOException {
+		init();
+		if (table.getColumnIdentifiers() == null)
+			table.setColumnIdentifiers(new ArrayList<String>(columnNames));
+		long count = 0;
+		List<Object> values;
+		while ((values = readRow()) != null) {
+			table.put(rowCount - 1, (ArrayList<Object>) values);
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void init() throws IOException {
+		if (columnTypes != null)
+			return;
+		List<String> first = nextRecord();
+		if (header) {
+			columnNames = first != null ? first : new ArrayList<String>();
+		} else if (first != null) {
+			sample.add(first);
+		}
+		while (sample.size() < sampleSize) {
+			List<String> cells = nextRecord();
+			if (cells == null)
+				break;
+			sample.add(cells);
+		}
+		int width = columnNames != null ? columnNames.size() : 0;
+		for (List<String> cells : sample) {
+			width = Math.max(width, cells.size());
+		}
+		if (columnNames == null)
+			columnNames = new ArrayList<String>();
+		for (int j = columnNames.size(); j < width; j++) {
+			columnNames.add("c" + j);
+		}
+		columnTypes = new ColumnType[width];
+		for (int j = 0; j < width; j++) {
+			columnTypes[j] = inferType(j);
+		}
+	}
+
+	private ColumnType inferType(int column) {
+		ColumnType type = ColumnType.LONG;
+		for (List<String> cells : sample) {
+			String s = column < cells.size() ? cells.get(column) : null;
+			if (s == null || s.isEmpty())
+				continue;
+			if (type == ColumnType.LONG && !isLong(s))
+				type = ColumnType.DOUBLE;
+			if (type == ColumnType.DOUBLE && !isDouble(s))
+				return ColumnType.STRING;
+		}
+		return type;
+	}
+
+	private static boolean isLong(String s) {
+		try {
+			Long.parseLong(s.trim());
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static boolean isDouble(String s) {
+		try {
+			Double.parseDouble(s.trim());
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static Object convert(String s, ColumnType type) {
+		if (s == null || s.isEmpty())
+			return null;
+		try {
+			switch (type) {
+				case LONG:
+					return Long.parseLong(s.trim());
+				case DOUBLE:
+					return Double.parseDouble(s.trim());
+				default:
+					return s;
+			}
+		} catch (NumberFormatException e) {
+			// a cell beyond the sample that does not fit the inferred type
+			return s;
+		}
+	}
+
+	/*
+	 * Returns the cells of the next record, or null at the end of input.
+	 */
+	private List<String> nextRecord() throws IOException {
+		while (true) {
+			while (chars.hasRemaining()) {
+				char c = chars.get();
+				if (inQuote) {
+					if (c == '"') {
+						inQuote = false;
+					} else {
+						cell.append(c);
+					}
+				} else if (c == '"') {
+					// a doubled quote within a quoted cell is a literal quote
+					if (quoted && previous == '"')
+						cell.append(c);
+					inQuote = true;
+					quoted = true;
+				} else if (delimiters.indexOf(c) >= 0) {
+					endCell();
+				} else if (c == '\n') {
+					List<String> record = endRecord();
+					previous = c;
+					if (record != null)
+						return record;
+					continue;
+				} else if (c != '\r') {
+					cell.append(c);
+				}
+				previous = c;
+			}
+			if (endOfInput) {
+				return endRecord();
+			}
+			fill();
+		}
+	}
+
+	private void endCell() {
+		row.add(cell.toString());
+		cell.setLength(0);
+		quoted = false;
+	}
+
+	private List<String> endRecord() {
+		if (row.isEmpty() && cell.length() == 0 && !quoted)
+			return null;
+		endCell();
+		List<String> record = row;
+		row = new ArrayList<String>(record.size());
+		return record;
+	}
+
+	private void fill() throws IOException {
+		chars.compact();
+		int n = channel.read(bytes);
+		bytes.flip();
+		CoderResult result = decoder.decode(bytes, chars, n < 0);
+		if (result.isError())
+			result.throwException();
+		if (n < 0) {
+			decoder.flush(chars);
+			endOfInput = true;
+		}
+		bytes.compact();
+		chars.flip();
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A streaming writer of delimited text tables. Rows are encoded into a
+ * fixed size buffer and written to the channel as the buffer fills, so data
+ * tables can be written out incrementally while they are being produced.
+ * <p>
+ * A typical parametric run appends its responses to a {@link DataTable} and
+ * calls {@link #drain(DataTable)} every few rows, which writes the new rows
+ * and clears them from the table.
+ */
+public class CSVTableWriter implements Closeable, Flushable {
+
+	private final WritableByteChannel channel;
+
+	private final String delimiter;
+
+	private final ByteBuffer bytes;
+
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+	private final StringBuilder line = new StringBuilder();
+
+	private boolean headerWritten = false;
+
+	/* rows of the last written data table already written */
+	private DataTable lastTable;
+	private int lastTableRows;
+
+	private long rowCount = 0;
+
+	public CSVTableWriter(WritableByteChannel channel, String delimiter) {
+		this(channel, delimiter, 64 * 1024);
+	}
+
+	public CSVTableWriter(WritableByteChannel channel, String delimiter, int bufferSize) {
+		this.channel = channel;
+		this.delimiter = delimiter;
+		bytes = ByteBuffer.allocate(bufferSize);
+	}
+
+	public static CSVTableWriter open(Path path, String delimiter) throws IOException {
+		return new CSVTableWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), delimiter);
+	}
+
+	/**
+	 * Returns the number of data rows written so far.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public boolean isHeaderWritten() {
+		return headerWritten;
+	}
+
+	public void writeHeader(List<?> columnNames) throws IOException {
+		writeCells(columnNames);
+		headerWritten = true;
+	}
+
+	public void writeRow(List<?> row) throws IOException {
+		writeCells(row);
+		rowCount++;
+	}
+
+	/**
+	 * Writes a row of doubles without boxing its values.
+	 */
+	public void writeRow(double[] row) throws IOException {
+		line.setLength(0);
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0)
+				line.append(delimiter);
+			line.append(row[i]);
+		}
+		line.append('\n');
+		encode();
+		rowCount++;
+	}
+
+	/**
+	 * Writes the rows of <code>table</code> not written yet by this writer,
+	 * preceded by the column names when no header was written.
+	 *
+	 * @return the number of rows written
+	 */
+	public synchronized int write(DataTable table) throws IOException {
+		if (!headerWritten && table.getColumnNames() != null && !table.getColumnNames().isEmpty())
+			writeHeader(table.getColumnNames());
+		int from = table == lastTable ? Math.min(lastTableRows, table.getRowCount()) : 0;
+		int to = table.getRowCount();
+		if (table instanceof ColumnarTable) {
+			ColumnarTable columnar = (ColumnarTable) table;
+			for (int i = from; i < to; i++) {
+				writeRow(columnar.copyRow(i));
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				writeRow(table.getRow(i));
+			}
+		}
+		lastTable = table;
+		lastTableRows = to;
+		return to - from;
+	}
+
+	/**
+	 * Writes the pending rows of <code>table</code> and removes all rows from
+	 * the table, so the table only buffers rows produced since the last drain.
+	 *
+	 * @return the number of rows written
+	 */
+	public synchronized int drain(DataTable table) throws IOException {
+		int count = write(table);
+		table.clearData();
+		if (table.getRowIdentifiers() != null)
+			table.getRowIdentifiers().clear();
+		lastTableRows = 0;
+		return count;
+	}
+
+	/**
+	 * Writes all rows of a file table, each preceded by its key. Rows held as
+	 * collections are written cell by cell.
+	 *
+	 * @return the number of rows written
+	 */
+	public synchronized <K, V> int write(FileTable<K, V> table) throws IOException {
+		if (!headerWritten && table.getColumnIdentifiers() != null) {
+			List<Object> names = new ArrayList<Object>();
+			names.add("key");
+			names.addAll(table.getColumnIdentifiers());
+			writeHeader(names);
+		}
+		int count = 0;
+		List<Object> cells = new ArrayList<Object>();
+		for (K key : table.keySet()) {
+			V value = table.get(key);
+			cells.clear();
+			cells.add(key);
+			if (value instanceof Collection)
+				cells.addAll((Collection<?>) value);
+			else
+				cells.add(value);
+			writeRow(cells);
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void writeCells(List<?> cells) throws IOException {
+		line.setLength(0);
+		for (int i = 0; i < cells.size(); i++) {
+			if (i > 0)
+				line.append(delimiter);
+			Object cell = cells.get(i);
+			if (cell != null)
+				appendCell(cell.toString());
+		}
+		line.append('\n');
+		encode();
+	}
+
+	private void appendCell(String cell) {
+		boolean quote = cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0;
+		for (int i = 0; !quote && i < delimiter.length(); i++) {
+			quote = cell.indexOf(delimiter.charAt(i)) >= 0;
+		}
+		if (quote) {
+			line.append('"').append(cell.replace("\"", "\"\"")).append('"');
+		} else {
+			line.append(cell);
+		}
+	}
+
+	private void encode() throws IOException {
+		CharBuffer chars = CharBuffer.wrap(line);
+		while (true) {
+			CoderResult result = encoder.encode(chars, bytes, false);
+			if (result.isOverflow()) {
+				flush();
+			} else if (result.isError()) {
+				result.throwException();
+			} else {
+				break;
+			}
+		}
+	}
+}
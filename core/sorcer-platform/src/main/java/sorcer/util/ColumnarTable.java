@@ -0,0 +1,997 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import sorcer.service.EvaluationException;
+
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.*;
+
+/**
+ * A {@link DataTable} that keeps its cells in columns backed by primitive
+ * arrays instead of a <code>List</code> of boxed row <code>Lists</code>.
+ * Columns of <code>Double</code> values are stored as <code>double[]</code>,
+ * <code>Integer</code>/<code>Long</code> columns as <code>long[]</code> and
+ * <code>String</code> columns are dictionary encoded. Missing cells are
+ * tracked in a null bitmap per column.
+ * <p>
+ * A column takes its storage multitype from the first non-null eval written
+ * to it; a later eval of a different multitype turns the column into a column
+ * of objects, so no data is ever lost.
+ * <p>
+ * The row-oriented API of {@link DataTable} is kept as a compatibility view:
+ * {@link #getDataList()} returns a list of live row views over the columns.
+ *
+ * @see DataTable
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ColumnarTable extends DataTable {
+
+	static final long serialVersionUID = 3526094826352718473L;
+
+	/* columns of this table, created lazily since DataTable constructors
+	 * call setDataList before the fields of this class are initialized */
+	protected List<Column> columns;
+
+	/* number of rows held by all columns */
+	protected int rowCount;
+
+	/**
+	 * Constructs an empty <code>ColumnarTable</code>.
+	 */
+	public ColumnarTable() {
+		super();
+	}
+
+	public ColumnarTable(List<?> columnNames, int rowCount) {
+		super(columnNames, rowCount);
+	}
+
+	public ColumnarTable(Object[] columnNames, int rowCount) {
+		super(columnNames, rowCount);
+	}
+
+	public ColumnarTable(List<List<?>> data, List<?> columnNames) {
+		super(data, columnNames);
+	}
+
+	public ColumnarTable(Object[][] data, Object[] columnNames) {
+		super(data, columnNames);
+	}
+
+	/**
+	 * Creates a columnar copy of the given row-oriented table.
+	 *
+	 * @param table
+	 *            the source data table
+	 */
+	public ColumnarTable(DataTable table) {
+		super(table.getDataList(), new ArrayList(table.getColumnNames()));
+		id = table.getId();
+		name = table.getName();
+		cellType = table.getCellType();
+		if (table.getRowIdentifiers() != null)
+			rowIdentifiers = new ArrayList<Object>(table.getRowIdentifiers());
+		inputFileName = table.inputFileName;
+		inputTableURL = table.inputTableURL;
+		inputTableDelimiter = table.inputTableDelimiter;
+		outputFileName = table.outputFileName;
+		outputTableURL = table.outputTableURL;
+		outputTableDelimiter = table.outputTableDelimiter;
+	}
+
+	@Override
+	public synchronized void setDataList(List dataList) {
+		setDataList(dataList, columnIdentifiers);
+	}
+
+	@Override
+	public synchronized void setDataList(List dataList, List columnIdentifiers) {
+		this.columnIdentifiers = nonNullList(columnIdentifiers);
+		List<List<?>> rows = nonNullList(dataList);
+		columns = new ArrayList<Column>(this.columnIdentifiers.size());
+		rowCount = 0;
+		padColumns(this.columnIdentifiers.size());
+		this.dataList = new RowList();
+		for (List<?> row : rows) {
+			insertRow(rowCount, row);
+		}
+	}
+
+	@Override
+	public synchronized void setColumnIdentifiers(List columnIdentifiers) {
+		this.columnIdentifiers = nonNullList(columnIdentifiers);
+		if (columns != null)
+			padColumns(this.columnIdentifiers.size());
+	}
+
+	/**
+	 * Adds a row of doubles to the end of this table without boxing its
+	 * values.
+	 *
+	 * @param rowData
+	 *            the data of the row being added
+	 */
+	@Override
+	public synchronized void addRow(double[] rowData) {
+		padColumns(rowData.length);
+		for (int j = 0; j < columns.size(); j++) {
+			Column column = columns.get(j);
+			if (j < rowData.length) {
+				if (!(column instanceof DoubleColumn)) {
+					column = columnFor(j, rowData[j]);
+				}
+				if (column instanceof DoubleColumn) {
+					((DoubleColumn) column).appendDouble(rowData[j]);
+				} else {
+					column.insert(rowCount, rowData[j]);
+				}
+			} else {
+				column.insert(rowCount, null);
+			}
+		}
+		rowCount++;
+	}
+
+	@Override
+	public synchronized void insertRow(int row, List rowData) {
+		if (row < 0 || row > rowCount)
+			throw new IndexOutOfBoundsException("row: " + row + ", size: " + rowCount);
+		int width = rowData != null ? rowData.size() : 0;
+		padColumns(width);
+		for (int j = 0; j < columns.size(); j++) {
+			Object value = j < width ? rowData.get(j) : null;
+			columnFor(j, value).insert(row, value);
+		}
+		rowCount++;
+	}
+
+	@Override
+	public synchronized void removeRow(int row) {
+		for (Column column : columns) {
+			column.remove(row);
+		}
+		rowCount--;
+		if (rowIdentifiers != null) rowIdentifiers.remove(row);
+	}
+
+	@Override
+	public synchronized void moveRow(int start, int end, int to) {
+		int first = Math.min(start, to);
+		int last = Math.max(end, to + end - start);
+		List<List<?>> range = new ArrayList<List<?>>(last - first + 1);
+		for (int i = first; i <= last; i++) {
+			range.add(copyRow(i));
+		}
+		java.util.Collections.rotate(range, to - start);
+		for (int i = first; i <= last; i++) {
+			dataList.set(i, range.get(i - first));
+		}
+	}
+
+	@Override
+	public synchronized void addColumn(String columnName, List columnData, int colID) {
+		columnIdentifiers.add(colID, columnName);
+		columns.add(colID, new ObjectColumn(rowCount));
+		fillColumn(colID, columnData);
+	}
+
+	@Override
+	public synchronized void addColumn(String columnName, List columnData) {
+		columnIdentifiers.add(columnName);
+		int colID = columnIdentifiers.size() - 1;
+		if (colID < columns.size())
+			columns.add(colID, new ObjectColumn(rowCount));
+		else
+			padColumns(colID + 1);
+		fillColumn(colID, columnData);
+	}
+
+	@Override
+	public synchronized void removeColumn(int colID) throws EvaluationException {
+		columns.remove(colID);
+		columnIdentifiers.remove(colID);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public List getColumn(int colIndex) {
+		if (colIndex < 0)
+			return null;
+		if (colIndex >= columns.size())
+			return new ArrayList(java.util.Collections.nCopies(rowCount, null));
+		return new ArrayList(columns.get(colIndex).asList());
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+		return columns.get(column).get(row);
+	}
+
+	@Override
+	public Object getValueAt(int row, String colName) {
+		return getValueAt(row, columnIndexOf(colName));
+	}
+
+	@Override
+	public Object getValue(int row, String columnName) {
+		return getValueAt(row, columnIndexOf(columnName));
+	}
+
+	@Override
+	public Object getValue(String rowName, String columnName) {
+		return getValueAt(rowIndexOf(rowName), columnIndexOf(columnName));
+	}
+
+	@Override
+	public synchronized void setValueAt(Object aValue, int row, int column) {
+		columnFor(column, aValue).set(row, aValue);
+	}
+
+	@Override
+	public Double getValueAtAsDouble(int row, int column) {
+		return getDouble(row, column);
+	}
+
+	/**
+	 * Returns the cell at <code>row</code> and <code>column</code> as a
+	 * primitive double, <code>NaN</code> for a null cell.
+	 */
+	public double getDouble(int row, int column) {
+		return columns.get(column).getDouble(row);
+	}
+
+	public double getDouble(int row, String columnName) {
+		return getDouble(row, columnIndexOf(columnName));
+	}
+
+	@Override
+	public Double[] getMinMaxValuesAsDouble(int colIndex) {
+		Column column = columns.get(colIndex);
+		return new Double[] { column.min(), column.max() };
+	}
+
+	/**
+	 * Returns the column storage at <code>index</code>. The returned column
+	 * is a zero-copy view of this table's data and must not be modified.
+	 */
+	public Column column(int index) {
+		return columns.get(index);
+	}
+
+	public Column column(String columnName) {
+		int index = columnIndexOf(columnName);
+		if (index < 0)
+			throw new IllegalArgumentException("no column: " + columnName + " in table: " + name);
+		return columns.get(index);
+	}
+
+	public double min(String columnName) {
+		return column(columnName).min();
+	}
+
+	public double max(String columnName) {
+		return column(columnName).max();
+	}
+
+	public double sum(String columnName) {
+		return column(columnName).sum();
+	}
+
+	public double mean(String columnName) {
+		return column(columnName).mean();
+	}
+
+	/**
+	 * Returns a read-only, zero-copy buffer over a column of doubles.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the column is not stored as doubles
+	 */
+	public DoubleBuffer getDoubleBuffer(String columnName) {
+		Column column = column(columnName);
+		if (column instanceof DoubleColumn)
+			return ((DoubleColumn) column).asDoubleBuffer();
+		throw new IllegalArgumentException("not a double column: " + columnName);
+	}
+
+	/**
+	 * Returns a read-only, zero-copy buffer over a column of integral values.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the column is not stored as longs
+	 */
+	public LongBuffer getLongBuffer(String columnName) {
+		Column column = column(columnName);
+		if (column instanceof LongColumn)
+			return ((LongColumn) column).asLongBuffer();
+		throw new IllegalArgumentException("not a long column: " + columnName);
+	}
+
+	/**
+	 * Returns a detached copy of the row at <code>rowIndex</code>.
+	 */
+	public List<Object> copyRow(int rowIndex) {
+		List<Object> row = new ArrayList<Object>(columns.size());
+		for (Column column : columns) {
+			row.add(column.get(rowIndex));
+		}
+		return row;
+	}
+
+	@Override
+	public synchronized void clearData() {
+		for (Column column : columns) {
+			column.clear();
+		}
+		rowCount = 0;
+	}
+
+	/**
+	 * Returns a row-oriented copy of this table.
+	 */
+	public DataTable toDataTable() {
+		List<List<?>> rows = new ArrayList<List<?>>(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			rows.add(copyRow(i));
+		}
+		DataTable table = new DataTable(rows, new ArrayList(columnIdentifiers));
+		table.setName(name);
+		table.setId(id);
+		table.setCellType(cellType);
+		if (rowIdentifiers != null)
+			table.setRowIdentifiers(new ArrayList(rowIdentifiers));
+		return table;
+	}
+
+	private void padColumns(int count) {
+		while (columns.size() < count) {
+			columns.add(new ObjectColumn(rowCount));
+		}
+	}
+
+	private void fillColumn(int colID, List columnData) {
+		if (columnData == null)
+			return;
+		for (int i = 0; i < columnData.size(); i++) {
+			if (i >= rowCount)
+				insertRow(rowCount, (List) null);
+			setValueAt(columnData.get(i), i, colID);
+		}
+	}
+
+	/*
+	 * Returns the column at index that can hold the value, replacing
+	 * an all-null column by a typed one, or a typed column by a column
+	 * of objects when the value does not fit its multitype.
+	 */
+	private Column columnFor(int index, Object value) {
+		Column column = columns.get(index);
+		if (value == null)
+			return column;
+		if (column.nullCount() == column.size()) {
+			if (column.getClass() == ObjectColumn.class || !column.accepts(value)) {
+				column = newColumn(value, column.size());
+				columns.set(index, column);
+			}
+		} else if (!column.accepts(value)) {
+			column = new ObjectColumn(column);
+			columns.set(index, column);
+		}
+		return column;
+	}
+
+	private static Column newColumn(Object value, int size) {
+		Column column;
+		if (value instanceof Double)
+			column = new DoubleColumn();
+		else if (value instanceof Long || value instanceof Integer)
+			column = new LongColumn(value.getClass());
+		else if (value instanceof String)
+			column = new StringColumn();
+		else
+			column = new ObjectColumn();
+		column.ensureCapacity(size);
+		column.size = size;
+		column.nulls.set(0, size);
+		return column;
+	}
+
+	/*
+	 * Live, positional views of the table rows backing the DataTable API.
+	 */
+	private class RowList extends AbstractList<List<?>> implements Serializable {
+
+		static final long serialVersionUID = -4215316429761384957L;
+
+		@Override
+		public List<?> get(int index) {
+			if (index < 0 || index >= rowCount)
+				throw new IndexOutOfBoundsException("row: " + index + ", size: " + rowCount);
+			return new RowView(index);
+		}
+
+		@Override
+		public int size() {
+			return rowCount;
+		}
+
+		@Override
+		public List<?> set(int index, List<?> row) {
+			synchronized (ColumnarTable.this) {
+				List<?> previous = copyRow(index);
+				int width = row != null ? row.size() : 0;
+				padColumns(width);
+				for (int j = 0; j < columns.size(); j++) {
+					Object value = j < width ? row.get(j) : null;
+					columnFor(j, value).set(index, value);
+				}
+				return previous;
+			}
+		}
+
+		@Override
+		public void add(int index, List<?> row) {
+			insertRow(index, row);
+		}
+
+		@Override
+		public List<?> remove(int index) {
+			synchronized (ColumnarTable.this) {
+				List<?> previous = copyRow(index);
+				for (Column column : columns) {
+					column.remove(index);
+				}
+				rowCount--;
+				return previous;
+			}
+		}
+
+		@Override
+		public void clear() {
+			clearData();
+		}
+	}
+
+	private class RowView extends AbstractList<Object> implements Serializable {
+
+		static final long serialVersionUID = 6931406254843591765L;
+
+		private final int row;
+
+		RowView(int row) {
+			this.row = row;
+		}
+
+		@Override
+		public Object get(int index) {
+			return columns.get(index).get(row);
+		}
+
+		@Override
+		public Object set(int index, Object value) {
+			Object previous = get(index);
+			setValueAt(value, row, index);
+			return previous;
+		}
+
+		@Override
+		public int size() {
+			return columns.size();
+		}
+	}
+
+	/**
+	 * Storage of a single table column with a null bitmap.
+	 */
+	public abstract static class Column implements Serializable {
+
+		static final long serialVersionUID = 1L;
+
+		protected BitSet nulls = new BitSet();
+
+		protected int size;
+
+		public int size() {
+			return size;
+		}
+
+		public int nullCount() {
+			return nulls.cardinality();
+		}
+
+		public boolean isNull(int row) {
+			checkIndex(row);
+			return nulls.get(row);
+		}
+
+		public Object get(int row) {
+			checkIndex(row);
+			return nulls.get(row) ? null : valueAt(row);
+		}
+
+		/**
+		 * Returns the cell at <code>row</code> as a double,
+		 * <code>NaN</code> for a null cell.
+		 */
+		public double getDouble(int row) {
+			Object value = get(row);
+			if (value == null)
+				return Double.NaN;
+			else if (value instanceof Number)
+				return ((Number) value).doubleValue();
+			else
+				return Double.parseDouble(value.toString());
+		}
+
+		public void set(int row, Object value) {
+			checkIndex(row);
+			if (value == null) {
+				nulls.set(row);
+			} else {
+				nulls.clear(row);
+				store(row, value);
+			}
+		}
+
+		public void insert(int row, Object value) {
+			if (row < 0 || row > size)
+				throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+			ensureCapacity(size + 1);
+			if (row < size) {
+				move(row, row + 1, size - row);
+				for (int i = size - 1; i >= row; i--) {
+					nulls.set(i + 1, nulls.get(i));
+				}
+			}
+			size++;
+			set(row, value);
+		}
+
+		public void remove(int row) {
+			checkIndex(row);
+			move(row + 1, row, size - row - 1);
+			for (int i = row; i < size - 1; i++) {
+				nulls.set(i, nulls.get(i + 1));
+			}
+			size--;
+			nulls.clear(size);
+		}
+
+		public void clear() {
+			size = 0;
+			nulls.clear();
+		}
+
+		public double min() {
+			double min = Double.NaN;
+			for (int i = 0; i < size; i++) {
+				if (!nulls.get(i)) {
+					double d = getDouble(i);
+					if (Double.isNaN(min) || d < min) min = d;
+				}
+			}
+			return min;
+		}
+
+		public double max() {
+			double max = Double.NaN;
+			for (int i = 0; i < size; i++) {
+				if (!nulls.get(i)) {
+					double d = getDouble(i);
+					if (Double.isNaN(max) || d > max) max = d;
+				}
+			}
+			return max;
+		}
+
+		public double sum() {
+			double sum = 0;
+			for (int i = 0; i < size; i++) {
+				if (!nulls.get(i)) sum += getDouble(i);
+			}
+			return sum;
+		}
+
+		/**
+		 * Returns the mean of the non-null cells, <code>NaN</code> if all
+		 * cells are null.
+		 */
+		public double mean() {
+			int count = size - nullCount();
+			return count == 0 ? Double.NaN : sum() / count;
+		}
+
+		/**
+		 * Returns a read-only list view of this column.
+		 */
+		public List<Object> asList() {
+			return new AbstractList<Object>() {
+				@Override
+				public Object get(int index) {
+					return Column.this.get(index);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+
+		public abstract Class<?> getValueType();
+
+		public abstract boolean accepts(Object value);
+
+		protected abstract Object valueAt(int row);
+
+		protected abstract void store(int row, Object value);
+
+		protected abstract void move(int from, int to, int length);
+
+		protected abstract void ensureCapacity(int capacity);
+
+		protected void checkIndex(int row) {
+			if (row < 0 || row >= size)
+				throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+		}
+
+		protected static int grow(int length, int capacity) {
+			return Math.max(capacity, Math.max(16, length + (length >> 1)));
+		}
+	}
+
+	public static class DoubleColumn extends Column {
+
+		static final long serialVersionUID = 1L;
+
+		private double[] values = new double[0];
+
+		@Override
+		public Class<?> getValueType() {
+			return Double.class;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return value instanceof Double;
+		}
+
+		@Override
+		public double getDouble(int row) {
+			checkIndex(row);
+			return nulls.get(row) ? Double.NaN : values[row];
+		}
+
+		public void appendDouble(double value) {
+			ensureCapacity(size + 1);
+			values[size++] = value;
+		}
+
+		/**
+		 * Returns a read-only buffer sharing this column's array.
+		 */
+		public DoubleBuffer asDoubleBuffer() {
+			return DoubleBuffer.wrap(values, 0, size).asReadOnlyBuffer();
+		}
+
+		@Override
+		public double min() {
+			if (!nulls.isEmpty())
+				return super.min();
+			if (size == 0)
+				return Double.NaN;
+			double min = values[0];
+			for (int i = 1; i < size; i++) {
+				if (values[i] < min) min = values[i];
+			}
+			return min;
+		}
+
+		@Override
+		public double max() {
+			if (!nulls.isEmpty())
+				return super.max();
+			if (size == 0)
+				return Double.NaN;
+			double max = values[0];
+			for (int i = 1; i < size; i++) {
+				if (values[i] > max) max = values[i];
+			}
+			return max;
+		}
+
+		@Override
+		public double sum() {
+			if (!nulls.isEmpty())
+				return super.sum();
+			double sum = 0;
+			for (int i = 0; i < size; i++) {
+				sum += values[i];
+			}
+			return sum;
+		}
+
+		@Override
+		protected Object valueAt(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected void store(int row, Object value) {
+			values[row] = (Double) value;
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+
+		@Override
+		protected void ensureCapacity(int capacity) {
+			if (capacity > values.length)
+				values = Arrays.copyOf(values, grow(values.length, capacity));
+		}
+	}
+
+	public static class LongColumn extends Column {
+
+		static final long serialVersionUID = 1L;
+
+		private long[] values = new long[0];
+
+		/* Integer or Long, the multitype values are boxed back to */
+		private final Class<?> valueType;
+
+		public LongColumn(Class<?> valueType) {
+			this.valueType = valueType;
+		}
+
+		@Override
+		public Class<?> getValueType() {
+			return valueType;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return value != null && value.getClass() == valueType;
+		}
+
+		public long getLong(int row) {
+			checkIndex(row);
+			if (nulls.get(row))
+				throw new NullPointerException("null cell at row: " + row);
+			return values[row];
+		}
+
+		@Override
+		public double getDouble(int row) {
+			checkIndex(row);
+			return nulls.get(row) ? Double.NaN : values[row];
+		}
+
+		/**
+		 * Returns a read-only buffer sharing this column's array.
+		 */
+		public LongBuffer asLongBuffer() {
+			return LongBuffer.wrap(values, 0, size).asReadOnlyBuffer();
+		}
+
+		@Override
+		public double min() {
+			if (!nulls.isEmpty())
+				return super.min();
+			if (size == 0)
+				return Double.NaN;
+			long min = values[0];
+			for (int i = 1; i < size; i++) {
+				if (values[i] < min) min = values[i];
+			}
+			return min;
+		}
+
+		@Override
+		public double max() {
+			if (!nulls.isEmpty())
+				return super.max();
+			if (size == 0)
+				return Double.NaN;
+			long max = values[0];
+			for (int i = 1; i < size; i++) {
+				if (values[i] > max) max = values[i];
+			}
+			return max;
+		}
+
+		@Override
+		public double sum() {
+			if (!nulls.isEmpty())
+				return super.sum();
+			double sum = 0;
+			for (int i = 0; i < size; i++) {
+				sum += values[i];
+			}
+			return sum;
+		}
+
+		@Override
+		protected Object valueAt(int row) {
+			if (valueType == Integer.class)
+				return (int) values[row];
+			else
+				return values[row];
+		}
+
+		@Override
+		protected void store(int row, Object value) {
+			values[row] = ((Number) value).longValue();
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+
+		@Override
+		protected void ensureCapacity(int capacity) {
+			if (capacity > values.length)
+				values = Arrays.copyOf(values, grow(values.length, capacity));
+		}
+	}
+
+	/**
+	 * A dictionary-encoded column of strings.
+	 */
+	public static class StringColumn extends Column {
+
+		static final long serialVersionUID = 1L;
+
+		private int[] codes = new int[0];
+
+		private List<String> dictionary = new ArrayList<String>();
+
+		private Map<String, Integer> codesByValue = new HashMap<String, Integer>();
+
+		@Override
+		public Class<?> getValueType() {
+			return String.class;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return value instanceof String;
+		}
+
+		/**
+		 * Returns the number of distinct strings in this column.
+		 */
+		public int getCardinality() {
+			return dictionary.size();
+		}
+
+		@Override
+		protected Object valueAt(int row) {
+			return dictionary.get(codes[row]);
+		}
+
+		@Override
+		protected void store(int row, Object value) {
+			Integer code = codesByValue.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.add((String) value);
+				codesByValue.put((String) value, code);
+			}
+			codes[row] = code;
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			System.arraycopy(codes, from, codes, to, length);
+		}
+
+		@Override
+		protected void ensureCapacity(int capacity) {
+			if (capacity > codes.length)
+				codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+		}
+	}
+
+	/**
+	 * A column of boxed values used for mixed or non-primitive data.
+	 */
+	public static class ObjectColumn extends Column {
+
+		static final long serialVersionUID = 1L;
+
+		private Object[] values = new Object[0];
+
+		public ObjectColumn() {
+		}
+
+		ObjectColumn(int nullCount) {
+			ensureCapacity(nullCount);
+			size = nullCount;
+			nulls.set(0, nullCount);
+		}
+
+		ObjectColumn(Column column) {
+			ensureCapacity(column.size());
+			for (int i = 0; i < column.size(); i++) {
+				values[i] = column.get(i);
+			}
+			size = column.size();
+			nulls = (BitSet) column.nulls.clone();
+		}
+
+		@Override
+		public Class<?> getValueType() {
+			return Object.class;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return true;
+		}
+
+		@Override
+		public void set(int row, Object value) {
+			super.set(row, value);
+			if (value == null)
+				values[row] = null;
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			values[size] = null;
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(values, 0, size, null);
+			super.clear();
+		}
+
+		@Override
+		protected Object valueAt(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected void store(int row, Object value) {
+			values[row] = value;
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+
+		@Override
+		protected void ensureCapacity(int capacity) {
+			if (capacity > values.length)
+				values = Arrays.copyOf(values, grow(values.length, capacity));
+		}
+	}
+}
@@ -34,7 +34,12 @@ import net.jini.lookup.entry.Name;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.SorcerConstants;
+import sorcer.core.provider.ProviderSelector;
+import sorcer.core.provider.ProviderSelectors;
+import sorcer.core.provider.ServiceName;
+import sorcer.core.signature.SignatureKey;
 import sorcer.jini.lookup.entry.SorcerServiceInfo;
+import sorcer.river.Filters;
 import sorcer.service.DynamicAccessor;
 import sorcer.service.Signature;
 
@@ -42,6 +47,7 @@ import java.io.IOException;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.Collections;
+import java.util.concurrent.*;
 
 import static sorcer.core.SorcerConstants.ANY;
 
@@ -63,6 +69,12 @@ import static sorcer.core.SorcerConstants.ANY;
  * for frequently used SORCER infrastructure services. ProviderAccessor normally
  * uses Cataloger if available, otherwise uses Jini lookup services as
  * implemented by the ServiceAccessor.
+ * <p>
+ * Lookups may also be requested asynchronously with futures, and the
+ * lookups of the signatures of a job can be prefetched while the job is
+ * prepared for dispatching. Prefetching also opens lookup caches for the
+ * service types of signatures, so later lookups of the same types are
+ * answered locally without waiting for lookup services.
  *
  * @see sorcer.util.ProviderAccessor
  *
@@ -80,8 +92,17 @@ public class ServiceAccessor implements DynamicAccessor {
 	private static LeaseRenewalManager lrm = null;
 	private static ServiceDiscoveryManager sdManager = null;
 	private static LookupCache lookupCache = null;
+	// lookup caches by the service types of prefetched signatures
+	private static final int MAX_TYPE_CACHES = 64;
+	private static final Map<String, LookupCache> typeCaches = new ConcurrentHashMap<>();
+	// prefetched lookups by signature, taken by the first lookup of a signature
+	private static final int MAX_PREFETCHED = 256;
+	private static final Map<SignatureKey, Prefetch> prefetched = new ConcurrentHashMap<>();
+	private static ExecutorService executor;
 	private static final int MIN_MATCHES = Sorcer.getLookupMinMatches();
 	private static final int MAX_MATCHES = Sorcer.getLookupMaxMatches();
+	// selects among matching providers, the first found if null
+	private static final ProviderSelector SELECTOR = ProviderSelectors.forName(Sorcer.getProviderSelection());
     protected ProviderNameUtil providerNameUtil = new SorcerProviderNameUtil();
 
     public ServiceAccessor(Configuration config) {
@@ -92,6 +113,20 @@ public class ServiceAccessor implements DynamicAccessor {
 		return sdManager;
 	}
 
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setDaemon(true);
+			factory.setNameFormat("Lookup-%2$d");
+			int threads = Math.max(1, Sorcer.getLookupThreads());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
 	/**
 	 * Returns a service impl containing a service matching providerName and
 	 * serviceInfo using Jini lookup service.
@@ -134,12 +169,14 @@ public class ServiceAccessor implements DynamicAccessor {
 	 */
     public ServiceItem getServiceItem(ServiceTemplate template, ServiceItemFilter filter) {
         checkNullName(template);
-		ServiceItem si = null;
+		ServiceItem si = lookupCached(template, filter);
+		if (si != null)
+			return si;
         logger.info("Lookup {}, timeout: {}, filter: {}", formatServiceTemplate(template), WAIT_FOR, filter);
 		try {
             int tryNo = 0;
             while (tryNo < LUS_REPEAT) {
-                si = sdManager.lookup(template, filter, WAIT_FOR);
+                si = lookup(template, filter);
 				logger.info("Found [{}] instances of {} {}",
 							si == null ? "0" : "1",
 							formatServiceTemplate(template),
@@ -154,6 +191,146 @@ public class ServiceAccessor implements DynamicAccessor {
 		return si;
 	}
 
+	private ServiceItem lookup(ServiceTemplate template, ServiceItemFilter filter)
+		throws IOException, InterruptedException {
+		if (SELECTOR == null || template.serviceID != null)
+			return sdManager.lookup(template, filter, WAIT_FOR);
+		ServiceItem[] items = sdManager.lookup(template, 1, MAX_MATCHES, filter, WAIT_FOR);
+		if (items == null || items.length == 0)
+			return null;
+		return SELECTOR.select(Arrays.asList(items));
+	}
+
+	/*
+	 * Returns a matching service item of a lookup cache for the service types
+	 * of the template, or of the shared lookup cache, without waiting for
+	 * lookup services.
+	 */
+	private ServiceItem lookupCached(ServiceTemplate template, ServiceItemFilter filter) {
+		LookupCache cache = template.serviceTypes != null
+				? typeCaches.get(getTypes(template.serviceTypes)) : null;
+		if (cache == null)
+			cache = lookupCache;
+		if (cache == null)
+			return null;
+		ServiceItemFilter matching = filter == null ? Filters.template(template)
+				: Filters.and(Filters.template(template), filter);
+		if (SELECTOR == null || template.serviceID != null)
+			return cache.lookup(matching);
+		ServiceItem[] items = cache.lookup(matching, MAX_MATCHES);
+		if (items == null || items.length == 0)
+			return null;
+		return SELECTOR.select(Arrays.asList(items));
+	}
+
+	/**
+	 * Returns a future of a service item matching a service template and
+	 * passing a filter. The future completes at once with an item of a lookup
+	 * cache, otherwise the lookup runs on a lookup thread, so the caller is
+	 * not blocked while lookup services are queried. The future completes
+	 * with null if no service is found.
+	 *
+	 * @param template
+	 *            template to match remotely.
+	 * @param filter
+	 *            filer to use or null.
+	 * @return a future of the matching ServiceItem
+	 */
+	public CompletableFuture<ServiceItem> getServiceItemAsync(ServiceTemplate template, ServiceItemFilter filter) {
+		checkNullName(template);
+		ServiceItem si = lookupCached(template, filter);
+		if (si != null)
+			return CompletableFuture.completedFuture(si);
+		return CompletableFuture.supplyAsync(() -> getServiceItem(template, filter), getExecutor());
+	}
+
+	/**
+	 * Returns a future of a service item matching a signature, the prefetched
+	 * lookup of the signature if any and still current.
+	 *
+	 * @param signature the signature of a requested service
+	 * @return a future of the matching ServiceItem
+	 */
+	public CompletableFuture<ServiceItem> getServiceItemAsync(Signature signature) {
+		Prefetch prefetch = prefetched.remove(SignatureKey.of(signature));
+		ServiceTemplate template = getServiceTemplate(signature);
+		if (prefetch == null)
+			return getServiceItemAsync(template, null);
+		return prefetch.future.thenCompose(si -> si != null && isCurrent(prefetch, si, template)
+				? CompletableFuture.completedFuture(si) : getServiceItemAsync(template, null));
+	}
+
+	/*
+	 * A prefetched lookup is current if it was done within the lookup wait
+	 * time, otherwise if the lookup cache of its service types still holds
+	 * the service.
+	 */
+	private boolean isCurrent(Prefetch prefetch, ServiceItem si, ServiceTemplate template) {
+		long done = prefetch.done;
+		if (done == 0 || System.currentTimeMillis() - done <= WAIT_FOR)
+			return true;
+		LookupCache cache = template.serviceTypes != null
+				? typeCaches.get(getTypes(template.serviceTypes)) : null;
+		return cache != null && cache.lookup(Filters.serviceId(si.serviceID)) != null;
+	}
+
+	/**
+	 * Starts lookups of services matching the signatures and opens lookup
+	 * caches for their service types, e.g. while a job is sorted and its
+	 * inputs are updated. The next lookup of each signature takes its
+	 * prefetched lookup. Signatures with groups, looked up by the
+	 * {@link sorcer.core.provider.ProviderLocator}, are not prefetched.
+	 *
+	 * @param signatures signatures of services to look up
+	 */
+	public void prefetch(Collection<? extends Signature> signatures) {
+		if (sdManager == null)
+			return;
+		for (Signature signature : signatures) {
+			if (signature.getProviderName() instanceof ServiceName)
+				continue;
+			ServiceTemplate template = getServiceTemplate(signature);
+			openTypeCache(template.serviceTypes);
+			SignatureKey key = SignatureKey.of(signature);
+			if (prefetched.containsKey(key))
+				continue;
+			if (prefetched.size() >= MAX_PREFETCHED)
+				prefetched.values().removeIf(p -> p.future.isDone());
+			if (prefetched.size() >= MAX_PREFETCHED)
+				return;
+			Prefetch prefetch = new Prefetch(getServiceItemAsync(template, null));
+			if (prefetched.putIfAbsent(key, prefetch) == null) {
+				// a failed lookup is not kept, the next lookup retries
+				prefetch.future.whenComplete((si, e) -> {
+					if (si == null)
+						prefetched.remove(key, prefetch);
+					else
+						prefetch.done = System.currentTimeMillis();
+				});
+			}
+		}
+	}
+
+	private void openTypeCache(Class<?>[] serviceTypes) {
+		String types = getTypes(serviceTypes);
+		if (typeCaches.containsKey(types) || typeCaches.size() >= MAX_TYPE_CACHES)
+			return;
+		try {
+			LookupCache cache = sdManager.createLookupCache(new ServiceTemplate(null, serviceTypes, null), null, null);
+			if (typeCaches.putIfAbsent(types, cache) != null)
+				cache.terminate();
+		} catch (RemoteException e) {
+			logger.warn("Unable to create a lookup cache for {}", types, e);
+		}
+	}
+
+	static private void closeTypeCaches() {
+		for (LookupCache cache : typeCaches.values())
+			cache.terminate();
+		typeCaches.clear();
+		prefetched.clear();
+	}
+
 	/**
 	 * Creates a service lookup and discovery manager with a provided service
 	 * template, lookup cache filter, and list of jini groups.
@@ -315,18 +492,34 @@ public class ServiceAccessor implements DynamicAccessor {
 
     static public void terminateDiscovery() {
 		closeLookupCache();
+		closeTypeCaches();
 		sdManager.terminate();
 		sdManager = null;
 	}
 
     public ServiceItem getServiceItem(Signature signature) {
-		if (signature.getMatchTypes() != null) {
-			return getServiceItem(signature.getProviderName().getName(), signature.getMatchTypes());
-		} else {
-			return getServiceItem(signature.getProviderName().getName(), signature.getServiceType());
+		Prefetch prefetch = prefetched.remove(SignatureKey.of(signature));
+		ServiceTemplate template = getServiceTemplate(signature);
+		if (prefetch != null) {
+			try {
+				ServiceItem si = prefetch.future.join();
+				if (si != null && isCurrent(prefetch, si, template))
+					return si;
+				logger.debug("Prefetched lookup of {} is stale", signature);
+			} catch (CompletionException | CancellationException e) {
+				logger.warn("Prefetched lookup of {} failed", signature, e);
+			}
 		}
+		return getServiceItem(template, null);
     }
 
+	private ServiceTemplate getServiceTemplate(Signature signature) {
+		Class<?>[] serviceTypes = signature.getMatchTypes() != null
+				? signature.getMatchTypes() : new Class[] { signature.getServiceType() };
+		String name = overrideName(signature.getProviderName().getName(), serviceTypes[serviceTypes.length - 1]);
+		return new ServiceTemplate(null, serviceTypes, new Entry[] { new Name(name) });
+	}
+
     public  Object getService(Signature signature) {
         ServiceItem serviceItem = getServiceItem(signature);
         return serviceItem == null ? null : serviceItem.service;
@@ -432,4 +625,14 @@ public class ServiceAccessor implements DynamicAccessor {
             }
         }
     }
+
+	// a prefetched lookup with the time it was done
+	private static final class Prefetch {
+		final CompletableFuture<ServiceItem> future;
+		volatile long done;
+
+		Prefetch(CompletableFuture<ServiceItem> future) {
+			this.future = future;
+		}
+	}
 }
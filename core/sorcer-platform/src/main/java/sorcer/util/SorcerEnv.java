@@ -665,6 +665,125 @@ public class SorcerEnv extends SOS {
 		return Integer.parseInt(getProperty(LOOKUP_MAX_MATCHES, "99"));
 	}
 
+	/**
+	 * Returns the name of the strategy selecting among matching providers,
+	 * see {@link sorcer.core.provider.ProviderSelectors}.
+	 *
+	 * @return provider selection or null if not defined
+	 */
+	public static String getProviderSelection() {
+		return getProperty(PROVIDER_SELECTION);
+	}
+
+	/**
+	 * Are objects retrieved from database storers cached by clients?
+	 *
+	 * @return true if retrieved sos:// objects are cached, default is false.
+	 */
+	public static boolean isSdbCacheEnabled() {
+		return props.getProperty(SDB_CACHE_ENABLED, "false").equals("true");
+	}
+
+	/**
+	 * Returns the max number of objects cached by the client cache of
+	 * database storers.
+	 *
+	 * @return max number of cached objects
+	 */
+	public static long getSdbCacheSize() {
+		return Long.parseLong(getProperty(SDB_CACHE_SIZE, "1000"));
+	}
+
+	/**
+	 * Returns the time in milliseconds objects are held by the client cache
+	 * of database storers.
+	 *
+	 * @return time to live of cached objects
+	 */
+	public static long getSdbCacheTtl() {
+		return Long.parseLong(getProperty(SDB_CACHE_TTL, "300000"));
+	}
+
+	/**
+	 * Returns the max number of compiled Groovy scripts cached per class
+	 * loader by invokers, conditions and netlets.
+	 *
+	 * @return max number of cached scripts
+	 */
+	public static long getScriptCacheSize() {
+		return Long.parseLong(getProperty(SCRIPT_CACHE_SIZE, "256"));
+	}
+
+	/**
+	 * Returns the max number of threads evaluating independent response
+	 * paths of models with the parallel flow type.
+	 *
+	 * @return max number of response threads
+	 */
+	public static int getModelResponseThreads() {
+		return Integer.parseInt(getProperty(MODEL_RESPONSE_THREADS, "16"));
+	}
+
+	/**
+	 * Returns the max number of threads of asynchronous exertions by
+	 * service shells not running in a provider.
+	 *
+	 * @return max number of asynchronous exertion threads
+	 */
+	public static int getExertAsyncThreads() {
+		return Integer.parseInt(getProperty(EXERT_ASYNC_THREADS, "16"));
+	}
+
+	/**
+	 * Returns the max number of threads evaluating independent disciplines
+	 * of collaborations with the parallel flow type.
+	 *
+	 * @return max number of discipline threads
+	 */
+	public static int getCollabDisciplineThreads() {
+		return Integer.parseInt(getProperty(COLLAB_DISCIPLINE_THREADS, "16"));
+	}
+
+	/**
+	 * Returns the max number of threads deploying and undeploying services
+	 * provisioned for exertions.
+	 *
+	 * @return max number of provisioning threads
+	 */
+	public static int getProvisionThreads() {
+		return Integer.parseInt(getProperty(PROVISION_THREADS, "8"));
+	}
+
+	/**
+	 * Returns the max number of threads evaluating perturbed models of finite
+	 * difference gradients.
+	 *
+	 * @return max number of gradient threads
+	 */
+	public static int getGradientThreads() {
+		return Integer.parseInt(getProperty(GRADIENT_THREADS, "16"));
+	}
+
+	/**
+	 * Returns the max number of threads evaluating input points of parametric
+	 * studies.
+	 *
+	 * @return max number of parametric threads
+	 */
+	public static int getParametricThreads() {
+		return Integer.parseInt(getProperty(PARAMETRIC_THREADS, "16"));
+	}
+
+	/**
+	 * Returns the max number of threads of asynchronous and prefetched
+	 * service lookups.
+	 *
+	 * @return max number of lookup threads
+	 */
+	public static int getLookupThreads() {
+		return Integer.parseInt(getProperty(LOOKUP_THREADS, "8"));
+	}
+
 	/**
 	 * Returns the properties. Implementers can use this method instead of the
 	 * access methods to cache the environment and optimize performance. Tag of
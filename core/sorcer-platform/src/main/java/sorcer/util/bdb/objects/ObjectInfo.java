@@ -17,6 +17,7 @@
 
 package sorcer.util.bdb.objects;
 
+import java.io.Serializable;
 import java.net.URL;
 import java.security.Principal;
 import java.util.Date;
@@ -30,18 +31,24 @@ import sorcer.core.provider.DatabaseStorer.Store;
  * 
  * @author Mike Sobolewski
  */
-public class ObjectInfo {
-	
+public class ObjectInfo implements Serializable {
+
+	static final long serialVersionUID = 5184739517290371187L;
+
 	public Store type;
 	public Uuid uuid;
+	public String name;
+	public String owner;
 	public Principal principal;
+	/** class name of the stored object */
 	public String info;
 	public Date dateCreated;
 	public URL url;
 	
 	public String describe() {
 		StringBuilder sb = new StringBuilder();
-		sb.append(uuid).append(" ").append(principal.getName()).append(" ").append(dateCreated);
+		sb.append(uuid).append(" ").append(name).append(" ")
+			.append(principal != null ? principal.getName() : owner).append(" ").append(dateCreated);
 		sb.append("\n").append(info).append("\n").append(url);
 		return sb.toString();
 	}
@@ -18,24 +18,44 @@
 package sorcer.util.bdb.objects;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
+import net.jini.id.Uuid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.DatabaseStorer.Index;
+import sorcer.core.provider.DatabaseStorer.Store;
 import sorcer.core.provider.ProviderRuntime;
 import sorcer.service.Subroutine;
 
 import com.sleepycat.bind.serial.ClassCatalog;
+import com.sleepycat.bind.serial.SerialBinding;
 import com.sleepycat.bind.serial.StoredClassCatalog;
 import com.sleepycat.bind.serial.TupleSerialKeyCreator;
 import com.sleepycat.bind.tuple.TupleInput;
 import com.sleepycat.bind.tuple.TupleOutput;
+import com.sleepycat.je.Cursor;
+import com.sleepycat.je.CursorConfig;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.DatabaseException;
 import com.sleepycat.je.Environment;
 import com.sleepycat.je.EnvironmentConfig;
 import com.sleepycat.je.ForeignKeyDeleteAction;
+import com.sleepycat.je.LockMode;
+import com.sleepycat.je.OperationStatus;
 import com.sleepycat.je.SecondaryConfig;
+import com.sleepycat.je.SecondaryCursor;
 import com.sleepycat.je.SecondaryDatabase;
+import com.sleepycat.je.SecondaryKeyCreator;
 
 /**
  * SorcerDatabase defines the storage containers, indices and foreign keys for
@@ -45,15 +65,25 @@ import com.sleepycat.je.SecondaryDatabase;
  */
 public class SorcerDatabase {
 
+    private static final Logger logger = LoggerFactory.getLogger(SorcerDatabase.class);
+
     private static final long LOCK_TIMEOUT = 1000L;
     private static final String CLASS_CATALOG = "java_class_catalog";
     private static final String RUNTIME_STORE = "runtime_store";
-    private static final String EXERTION_STORE = "exertion_store";
-    private static final String CONTEXT_STORE = "context_store";
-    private static final String TABLE_STORE = "table_store";
+    // stores of tuple records, see StoredRecordBinding
+    private static final String EXERTION_STORE = "exertion_records";
+    private static final String CONTEXT_STORE = "context_records";
+    private static final String TABLE_STORE = "table_records";
     private static final String VAR_STORE = "var_store";
     private static final String VAR_MODEL_STORE = "var_model_store";
-    private static final String OBJECT_STORE = "uuid_object_store";
+    private static final String OBJECT_STORE = "uuid_object_records";
+    // former stores of serial records, migrated to the stores above
+    private static final String FORMER_EXERTION_STORE = "exertion_store";
+    private static final String FORMER_CONTEXT_STORE = "context_store";
+    private static final String FORMER_TABLE_STORE = "table_store";
+    private static final String FORMER_OBJECT_STORE = "uuid_object_store";
+    // suffix of stores of former entries that could not be migrated
+    private static final String UNREADABLE_SUFFIX = "_unreadable";
 
     private static final String RUNTIME_PROVIDER_NAME_INDEX =
         "runtime_provider_name_index";
@@ -68,6 +98,7 @@ public class SorcerDatabase {
     private Database uuidObjectDb;
 
     private SecondaryDatabase runtimeByProviderNameDb;
+    private Map<Store, Map<Index, SecondaryDatabase>> indexDbs = new EnumMap<Store, Map<Index, SecondaryDatabase>>(Store.class);
     private StoredClassCatalog javaCatalog;
 
     /**
@@ -133,6 +164,100 @@ public class SorcerDatabase {
         secConfig.setForeignKeyDeleteAction(ForeignKeyDeleteAction.CASCADE);
         secConfig.setKeyCreator(new ExertionByRuntimeKeyCreator(javaCatalog,
                                                              Subroutine.class));
+
+        // Open the name, owner, type and creation time indices of the
+        // stored records, keyed by the record headers.
+        openIndices(Store.exertion, exertionDb);
+        openIndices(Store.context, contextDb);
+        openIndices(Store.table, tableDb);
+        openIndices(Store.object, uuidObjectDb);
+    }
+
+    private void openIndices(Store storeType, Database primaryDb) {
+        Map<Index, SecondaryDatabase> indices = new EnumMap<Index, SecondaryDatabase>(Index.class);
+        for (Index index : Index.values()) {
+            SecondaryConfig config = new SecondaryConfig();
+            config.setTransactional(true);
+            config.setAllowCreate(true);
+            config.setSortedDuplicates(true);
+            config.setAllowPopulate(true);
+            config.setKeyCreator(new RecordIndexKeyCreator(index));
+            indices.put(index, env.openSecondaryDatabase(null,
+                    primaryDb.getDatabaseName() + "_" + index + "_index", primaryDb, config));
+        }
+        indexDbs.put(storeType, indices);
+    }
+
+    /**
+     * Passes the entries of the former serial store of the store type, if
+     * any, to <code>records</code> as Uuids and objects, and then removes the
+     * former store. An entry that cannot be read or passed is logged and
+     * moved as is to a store named after the former store with the suffix
+     * <code>_unreadable</code>, so it neither aborts the migration nor is
+     * lost.
+     */
+    public void migrate(Store storeType, BiConsumer<Uuid, Object> records)
+        throws DatabaseException {
+        String former;
+        switch (storeType) {
+            case exertion:
+                former = FORMER_EXERTION_STORE;
+                break;
+            case context:
+                former = FORMER_CONTEXT_STORE;
+                break;
+            case table:
+                former = FORMER_TABLE_STORE;
+                break;
+            case object:
+                former = FORMER_OBJECT_STORE;
+                break;
+            default:
+                return;
+        }
+        if (!env.getDatabaseNames().contains(former))
+            return;
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setTransactional(true);
+        Database formerDb = env.openDatabase(null, former, dbConfig);
+        // exertions were stored as is, other entities as MarshalledData
+        SerialBinding keyBinding = new SerialBinding(javaCatalog, UuidKey.class);
+        SerialBinding dataBinding = new SerialBinding(javaCatalog, null);
+        Database unreadableDb = null;
+        int unreadable = 0;
+        try {
+            Cursor cursor = formerDb.openCursor(null, null);
+            try {
+                DatabaseEntry key = new DatabaseEntry();
+                DatabaseEntry data = new DatabaseEntry();
+                while (cursor.getNext(key, data, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                    try {
+                        Uuid id = ((UuidKey) keyBinding.entryToObject(key)).getId();
+                        Object object = dataBinding.entryToObject(data);
+                        if (object instanceof MarshalledData)
+                            object = ((MarshalledData) object).get();
+                        records.accept(id, object);
+                    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                        logger.warn("Unable to migrate an entry of store: {}", former, e);
+                        if (unreadableDb == null) {
+                            dbConfig.setAllowCreate(true);
+                            unreadableDb = env.openDatabase(null, former + UNREADABLE_SUFFIX, dbConfig);
+                        }
+                        unreadableDb.put(null, key, data);
+                        unreadable++;
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            formerDb.close();
+            if (unreadableDb != null)
+                unreadableDb.close();
+        }
+        if (unreadable > 0)
+            logger.warn("{} entries of store {} moved to store {}", unreadable, former, former + UNREADABLE_SUFFIX);
+        env.removeDatabase(null, former);
     }
 
     /**
@@ -204,6 +329,112 @@ public class SorcerDatabase {
     public final SecondaryDatabase getRuntimeByProviderNameDatabase() {
         return runtimeByProviderNameDb;
     }
+
+    /**
+     * Return the storage container of the store type.
+     */
+    public final Database getDatabase(Store storeType) {
+        switch (storeType) {
+            case context:
+                return contextDb;
+            case exertion:
+                return exertionDb;
+            case table:
+                return tableDb;
+            case var:
+                return varDb;
+            case varmodel:
+                return varModelDb;
+            default:
+                return uuidObjectDb;
+        }
+    }
+
+    /**
+     * Return the index of stored records of the store type, or
+     * <code>null</code> if the store is not indexed.
+     */
+    public final SecondaryDatabase getIndexDatabase(Store storeType, Index index) {
+        Map<Index, SecondaryDatabase> indices = indexDbs.get(storeType);
+        return indices != null ? indices.get(index) : null;
+    }
+
+    /**
+     * Return the number of records in the store without reading them.
+     */
+    public long count(Store storeType) {
+        return getDatabase(storeType).count();
+    }
+
+    /**
+     * Returns a page of record headers of the store in the order of the
+     * index, with index keys in the range from <code>from</code> to
+     * <code>to</code> inclusive. Stored objects are not unmarshalled and the
+     * skipped records are not read.
+     *
+     * @param from
+     *            the first index key or <code>null</code>
+     * @param to
+     *            the last index key or <code>null</code>
+     * @param offset
+     *            number of matching records to skip
+     * @param limit
+     *            max number of records returned
+     */
+    public List<ObjectInfo> query(Store storeType, Index index, Object from,
+                                  Object to, int offset, int limit) {
+        SecondaryDatabase indexDb = getIndexDatabase(storeType, index);
+        if (indexDb == null)
+            throw new IllegalArgumentException("No " + index + " index for: " + storeType);
+        List<ObjectInfo> records = new ArrayList<ObjectInfo>();
+        DatabaseEntry last = null;
+        if (to != null) {
+            last = new DatabaseEntry();
+            StoredRecordBinding.writeIndexKey(index, to, last);
+        }
+        DatabaseEntry key = new DatabaseEntry();
+        DatabaseEntry pKey = new DatabaseEntry();
+        DatabaseEntry data = new DatabaseEntry();
+        DatabaseEntry noData = new DatabaseEntry();
+        noData.setPartial(0, 0, true);
+        SecondaryCursor cursor = indexDb.openSecondaryCursor(null, CursorConfig.READ_COMMITTED);
+        try {
+            OperationStatus status;
+            if (from != null) {
+                StoredRecordBinding.writeIndexKey(index, from, key);
+                status = cursor.getSearchKeyRange(key, pKey, noData, null);
+            } else {
+                status = cursor.getFirst(key, pKey, noData, null);
+            }
+            for (int i = 0; i < offset && inRange(status, key, last); i++) {
+                status = cursor.getNext(key, pKey, noData, null);
+            }
+            while (records.size() < limit && inRange(status, key, last)) {
+                cursor.getCurrent(key, pKey, data, null);
+                records.add(StoredRecordBinding.readInfo(storeType, pKey, data));
+                status = cursor.getNext(key, pKey, noData, null);
+            }
+        } finally {
+            cursor.close();
+        }
+        return records;
+    }
+
+    private static boolean inRange(OperationStatus status, DatabaseEntry key, DatabaseEntry last) {
+        if (status != OperationStatus.SUCCESS)
+            return false;
+        if (last == null)
+            return true;
+        // index keys are sorted by the default unsigned byte comparison
+        byte[] a = key.getData(), b = last.getData();
+        int n = Math.min(key.getSize(), last.getSize());
+        for (int i = 0; i < n; i++) {
+            int c = (a[key.getOffset() + i] & 0xff) - (b[last.getOffset() + i] & 0xff);
+            if (c != 0)
+                return c < 0;
+        }
+        return key.getSize() <= last.getSize();
+    }
     
     /**
      * Close all stores (closing a store automatically closes its indices).
@@ -211,6 +442,11 @@ public class SorcerDatabase {
     public void close()
         throws DatabaseException {
         // Close secondary databases, then primary databases.
+        for (Map<Index, SecondaryDatabase> indices : indexDbs.values()) {
+            for (SecondaryDatabase indexDb : indices.values()) {
+                indexDb.close();
+            }
+        }
         exertionDb.close();
         runtimeDb.close();
         runtimeByProviderNameDb.close();
@@ -265,6 +501,24 @@ public class SorcerDatabase {
 		}
 	}
 
+    /**
+     * The SecondaryKeyCreator for the record indices, reading the index key
+     * from the header of a stored record.
+     */
+    private static class RecordIndexKeyCreator implements SecondaryKeyCreator {
+
+        private final Index index;
+
+        private RecordIndexKeyCreator(Index index) {
+            this.index = index;
+        }
+
+        public boolean createSecondaryKey(SecondaryDatabase secondary,
+                DatabaseEntry key, DatabaseEntry data, DatabaseEntry result) {
+            return StoredRecordBinding.readIndexKey(index, data, result);
+        }
+    }
+
     /**
      * The SecondaryKeyCreator for the ExertionByRuntime index.  This is an
      * extension of the abstract class TupleSerialKeyCreator, which implements
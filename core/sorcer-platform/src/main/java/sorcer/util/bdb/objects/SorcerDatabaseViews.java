@@ -72,34 +72,36 @@ public class SorcerDatabaseViews {
 				db.getRuntimeByProviderNameDatabase(), providerNameKeyBinding,
 				runtimeDataBinding, true);
 		
-		SerialBinding exertiontKeyBinding = new SerialBinding(catalog, UuidKey.class);
-		EntityBinding exertionDataBinding = new ExertionBinding(catalog,
-				UuidKey.class, Subroutine.class);
-	
+		// The hot stores use tuple keys and stored record headers, see
+		// StoredRecordBinding
+		EntryBinding uuidKeyBinding = new UuidKeyBinding();
+
+		StoredRecordBinding exertionBinding = new ExertionBinding();
 		routineMap = new StoredSortedMap(db.getExertionDatabase(),
-				exertiontKeyBinding, exertionDataBinding, true);
-		
-		SerialBinding contextKeyBinding = new SerialBinding(catalog, UuidKey.class);
-		EntityBinding contextDataBinding = new ContextBinding(catalog,
-				UuidKey.class, MarshalledData.class);
-		
+				uuidKeyBinding, exertionBinding, true);
+
+		StoredRecordBinding contextBinding = new ContextBinding();
 		contextMap = new StoredMap(db.getContextDatabase(),
-				contextKeyBinding, contextDataBinding, true);
-		
-		SerialBinding tableKeyBinding = new SerialBinding(catalog, UuidKey.class);
-		EntityBinding tableDataBinding = new TableBinding(catalog,
-				UuidKey.class, MarshalledData.class);
-		
+				uuidKeyBinding, contextBinding, true);
+
+		StoredRecordBinding tableBinding = new TableBinding();
 		tableMap = new StoredMap(db.getTableDatabase(),
-				tableKeyBinding, tableDataBinding, true);
-	
-			
-		SerialBinding objectKeyBinding = new SerialBinding(catalog, UuidKey.class);
-		EntityBinding objectDataBinding = new UuidObjectBinding(catalog,
-				UuidKey.class, MarshalledData.class);
-		
+				uuidKeyBinding, tableBinding, true);
+
+		StoredRecordBinding objectBinding = new UuidObjectBinding();
 		uuidObjectMap = new StoredMap(db.getUuidObjectDatabase(),
-				objectKeyBinding, objectDataBinding, true);
+				uuidKeyBinding, objectBinding, true);
+
+		// Move the entries of former serial stores to the record stores
+		migrate(db, Store.exertion, routineMap, exertionBinding);
+		migrate(db, Store.context, contextMap, contextBinding);
+		migrate(db, Store.table, tableMap, tableBinding);
+		migrate(db, Store.object, uuidObjectMap, objectBinding);
+	}
+
+	private static void migrate(SorcerDatabase db, Store storeType, StoredMap map,
+								StoredRecordBinding binding) {
+		db.migrate(storeType, (id, object) -> map.put(new UuidKey(id), binding.toEntity(id, object)));
 	}
 
 	// The views returned below can be accessed using the java.util.Map or
@@ -182,36 +184,16 @@ public class SorcerDatabaseViews {
 	 * ExertionBinding is used to bind the stored key/data entry pair to a
 	 * combined data object (entity - Routine).
 	 */
-	private static class ExertionBinding extends SerialSerialBinding {
+	private static class ExertionBinding extends StoredRecordBinding {
 
-		/**
-		 * Construct the binding object.
-		 */
-		private ExertionBinding(ClassCatalog classCatalog, Class keyClass, Class dataClass) {
-			super(classCatalog, keyClass, dataClass);
-		}
-
-		/**
-		 * Create the entity by combining the stored key and data. 
-		 */
-		public Object entryToObject(Object keyInput, Object object) {
-			((Subroutine)object).setId(((UuidKey)keyInput).getId());
-			return object;
-		}
-
-		/**
-		 * Create the stored key from the entity.
-		 */
-		public Object objectToKey(Object object) {
-			UuidKey key = new UuidKey(((ServiceMogram)object).getId());
-			return key;
+		@Override
+		protected Uuid getId(Object object) {
+			return (Uuid) ((ServiceMogram) object).getId();
 		}
 
-		/**
-		 * Return the entity as the stored data. There is nothing to do here
-		 * since the entity's key fields are transient.
-		 */
-		public Object objectToData(Object object) {
+		@Override
+		protected Object toEntity(Uuid id, Object object) {
+			((Subroutine) object).setId(id);
 			return object;
 		}
 	}
@@ -281,175 +263,56 @@ public class SorcerDatabaseViews {
 	 * ContextBinding is used to bind the stored key/data entry pair to a
 	 * combined data object (entity).
 	 */
-	public static class ContextBinding extends SerialSerialBinding {
+	public static class ContextBinding extends StoredRecordBinding {
 
-		/**
-		 * Construct the binding object.
-		 */
-		private ContextBinding(ClassCatalog classCatalog, Class keyClass, Class dataClass) {
-			super(classCatalog, keyClass, dataClass);
-		}
-		
-		/**
-		 * Return the entity as the stored data. 
-		 */
-		public Object objectToData(Object object) {
-			MarshalledData mContext = null;
-			try {
-				mContext = new MarshalledData(object);
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			return mContext;
-		}
-
-		/* (non-Javadoc)
-		 * @see com.sleepycat.bind.serial.SerialSerialBinding#entryToObject(java.lang.Object, java.lang.Object)
-		 */
 		@Override
-		public Object entryToObject(Object keyInput, Object object) {
-			Context context = null;
-			MarshalledData md = (MarshalledData)object;
-			try {
-				context = (Context)md.get();
-				((ServiceContext)context).setId(((UuidKey)keyInput).getId());
-			} catch (IOException e) {
-				e.printStackTrace();
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
-			}
-			return context;
+		protected Uuid getId(Object object) {
+			return (Uuid) ((ServiceMogram) object).getId();
 		}
 
-		/* (non-Javadoc)
-		 * @see com.sleepycat.bind.serial.SerialSerialBinding#objectToKey(java.lang.Object)
-		 */
 		@Override
-		public Object objectToKey(Object object) {
-			return new UuidKey(((ServiceMogram)object).getId());
+		protected Object toEntity(Uuid id, Object object) {
+			((ServiceContext) object).setId(id);
+			return object;
 		}
 	}
-	
+
 	/**
 	 * TableBinding is used to bind the stored key/data entry pair to a
 	 * combined data object (entity).
 	 */
-	public static class TableBinding extends SerialSerialBinding {
+	public static class TableBinding extends StoredRecordBinding {
 
-		/**
-		 * Construct the binding object.
-		 */
-		private TableBinding(ClassCatalog classCatalog, Class keyClass, Class dataClass) {
-			super(classCatalog, keyClass, dataClass);
-		}
-		
-		/**
-		 * Return the entity as the stored data. 
-		 */
-		public Object objectToData(Object object) {
-			MarshalledData mTable = null;
-			try {
-				mTable = new MarshalledData(object);
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			return mTable;
-		}
-
-		/* (non-Javadoc)
-		 * @see com.sleepycat.bind.serial.SerialSerialBinding#entryToObject(java.lang.Object, java.lang.Object)
-		 */
 		@Override
-		public Object entryToObject(Object keyInput, Object object) {
-			DataTable table = null;
-			MarshalledData md = (MarshalledData)object;
-			try {
-				table = (DataTable)md.get();
-				table.setId(((UuidKey)keyInput).getId());
-			} catch (IOException e) {
-				e.printStackTrace();
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
-			}
-			return table;
+		protected Uuid getId(Object object) {
+			return ((DataTable) object).getId();
 		}
 
-		/* (non-Javadoc)
-		 * @see com.sleepycat.bind.serial.SerialSerialBinding#objectToKey(java.lang.Object)
-		 */
 		@Override
-		public Object objectToKey(Object object) {
-			return new UuidKey(((DataTable)object).getId());
+		protected Object toEntity(Uuid id, Object object) {
+			((DataTable) object).setId(id);
+			return object;
 		}
 	}
-		
+
 	/**
-	 * ObjectBinding is used to bind the stored key/data entry pair to a
+	 * UuidObjectBinding is used to bind the stored key/data entry pair to a
 	 * combined data object (entity).
 	 */
-	public static class UuidObjectBinding extends SerialSerialBinding {
+	public static class UuidObjectBinding extends StoredRecordBinding {
 
-		/**
-		 * Construct the binding object.
-		 */
-		private UuidObjectBinding(ClassCatalog classCatalog, Class keyClass,
-				Class dataClass) {
-			super(classCatalog, keyClass, dataClass);
-		}
-
-		/**
-		 * Return the entity as the stored data.
-		 */
-		public Object objectToData(Object object) {
-			MarshalledData mObject = null;
-			try {
-				if (object instanceof MarshalledData)
-					mObject = (MarshalledData)object;
-				else {
-					mObject = new MarshalledData(object);
-					
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			return mObject;
-		}
-
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see
-		 * com.sleepycat.bind.serial.SerialSerialBinding#entryToObject(java.
-		 * lang.Object, java.lang.Object)
-		 */
 		@Override
-		public Object entryToObject(Object keyInput, Object object) {
-			UuidObject obj = null;
-			MarshalledData md = (MarshalledData) object;
-			try {
-				obj = (UuidObject) md.get();
-				obj.setId(((UuidKey) keyInput).getId());
-			} catch (IOException e) {
-				e.printStackTrace();
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
-			}
-			return obj;
+		protected Uuid getId(Object object) {
+			return ((UuidObject) object).getId();
 		}
 
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see
-		 * com.sleepycat.bind.serial.SerialSerialBinding#objectToKey(java.lang
-		 * .Object)
-		 */
 		@Override
-		public Object objectToKey(Object object) {
-			return new UuidKey(((UuidObject) object).getId());
+		protected Object toEntity(Uuid id, Object object) {
+			((UuidObject) object).setId(id);
+			return object;
 		}
 	}
-	
+
 	public static Store getStoreType(String storeName) {
 		for (Store s : Store.values()) {
 			if (storeName.equals(""+s))
@@ -0,0 +1,203 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.bdb.objects;
+
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import com.sleepycat.bind.tuple.TupleTupleBinding;
+import com.sleepycat.je.DatabaseEntry;
+import net.jini.id.Uuid;
+import net.jini.io.MarshalledInstance;
+import sorcer.core.provider.DatabaseStorer.Index;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.service.Identifiable;
+import sorcer.service.SecureIdentifiable;
+import sorcer.service.ServiceMogram;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.Principal;
+import java.util.Date;
+
+/**
+ * StoredRecordBinding binds a stored record to an entity identified by a
+ * Uuid. The key is written with the {@link UuidKeyBinding}, the data as a
+ * tuple header followed by the marshalled entity:
+ *
+ * <pre>
+ * byte format | String name | String owner | String type | long created | MarshalledInstance
+ * </pre>
+ *
+ * The header is indexed by the secondary databases of the
+ * {@link SorcerDatabase} and read by record queries without unmarshalling
+ * the entity.
+ */
+@SuppressWarnings("rawtypes")
+public abstract class StoredRecordBinding extends TupleTupleBinding {
+
+	public static final byte FORMAT = 2;
+
+	/**
+	 * Returns the Uuid of the entity.
+	 */
+	protected abstract Uuid getId(Object entity);
+
+	/**
+	 * Completes the unmarshalled entity with its stored Uuid.
+	 */
+	protected Object toEntity(Uuid id, Object entity) {
+		return entity;
+	}
+
+	@Override
+	public Object entryToObject(TupleInput keyInput, TupleInput dataInput) {
+		Uuid id = UuidKeyBinding.readUuid(keyInput);
+		skipHeader(dataInput);
+		try {
+			MarshalledInstance mi = (MarshalledInstance) new ObjectInputStream(dataInput).readObject();
+			return toEntity(id, mi.get(false));
+		} catch (IOException | ClassNotFoundException e) {
+			throw new IllegalStateException("Unable to read stored record: " + id, e);
+		}
+	}
+
+	@Override
+	public void objectToKey(Object entity, TupleOutput output) {
+		UuidKeyBinding.writeUuid(getId(entity), output);
+	}
+
+	@Override
+	public void objectToData(Object entity, TupleOutput output) {
+		output.writeByte(FORMAT);
+		output.writeString(nameOf(entity));
+		output.writeString(ownerOf(entity));
+		output.writeString(typeOf(entity));
+		output.writeLong(createdOf(entity));
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(output);
+			oos.writeObject(new MarshalledInstance(entity));
+			oos.flush();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to store record: " + getId(entity), e);
+		}
+	}
+
+	/**
+	 * Reads the header of a stored record into a new {@link ObjectInfo}.
+	 */
+	public static ObjectInfo readInfo(Store storeType, DatabaseEntry key, DatabaseEntry data) {
+		ObjectInfo info = new ObjectInfo();
+		info.type = storeType;
+		info.uuid = UuidKeyBinding.readUuid(entryToInput(key));
+		TupleInput in = entryToInput(data);
+		in.readByte();
+		info.name = in.readString();
+		info.owner = in.readString();
+		info.info = in.readString();
+		info.dateCreated = new Date(in.readLong());
+		return info;
+	}
+
+	/**
+	 * Writes the indexed header field of the record <code>data</code> to
+	 * <code>indexKey</code>.
+	 *
+	 * @return false if the record has no eval of the indexed field
+	 */
+	public static boolean readIndexKey(Index index, DatabaseEntry data, DatabaseEntry indexKey) {
+		TupleInput in = entryToInput(data);
+		in.readByte();
+		String name = in.readString();
+		String owner = in.readString();
+		String type = in.readString();
+		long created = in.readLong();
+		TupleOutput out = new TupleOutput();
+		switch (index) {
+			case name:
+				if (name == null)
+					return false;
+				out.writeString(name);
+				break;
+			case owner:
+				if (owner == null)
+					return false;
+				out.writeString(owner);
+				break;
+			case type:
+				out.writeString(type);
+				break;
+			default:
+				out.writeLong(created);
+		}
+		outputToEntry(out, indexKey);
+		return true;
+	}
+
+	/**
+	 * Writes an index key of a record query to the entry.
+	 */
+	public static void writeIndexKey(Index index, Object value, DatabaseEntry indexKey) {
+		TupleOutput out = new TupleOutput();
+		if (index == Index.created) {
+			out.writeLong(value instanceof Date ? ((Date) value).getTime() : ((Number) value).longValue());
+		} else {
+			out.writeString(value instanceof Class ? ((Class) value).getName() : value.toString());
+		}
+		outputToEntry(out, indexKey);
+	}
+
+	private static void skipHeader(TupleInput in) {
+		byte format = in.readByte();
+		if (format != FORMAT)
+			throw new IllegalStateException("Unknown stored record format: " + format);
+		in.readString();
+		in.readString();
+		in.readString();
+		in.readLong();
+	}
+
+	static String nameOf(Object entity) {
+		return entity instanceof Identifiable ? ((Identifiable) entity).getName() : null;
+	}
+
+	static String ownerOf(Object entity) {
+		if (entity instanceof ServiceMogram && ((ServiceMogram) entity).getOwnerId() != null)
+			return ((ServiceMogram) entity).getOwnerId();
+		Principal principal = null;
+		if (entity instanceof ServiceMogram)
+			principal = ((ServiceMogram) entity).getPrincipal();
+		else if (entity instanceof SecureIdentifiable)
+			principal = ((SecureIdentifiable) entity).getPrincipal();
+		return principal != null ? principal.getName() : null;
+	}
+
+	static String typeOf(Object entity) {
+		if (entity instanceof UuidObject && ((UuidObject) entity).getObject() != null)
+			return ((UuidObject) entity).getObject().getClass().getName();
+		return entity.getClass().getName();
+	}
+
+	static long createdOf(Object entity) {
+		Date date = null;
+		if (entity instanceof ServiceMogram)
+			date = ((ServiceMogram) entity).getCreationDate();
+		else if (entity instanceof UuidObject)
+			date = ((UuidObject) entity).getDateCreated();
+		return date != null ? date.getTime() : System.currentTimeMillis();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.bdb.objects;
+
+import com.sleepycat.bind.tuple.TupleBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+
+/**
+ * A tuple binding storing a {@link UuidKey} as its two 64-bit halves, 16
+ * bytes in total, instead of a serialized object.
+ */
+public class UuidKeyBinding extends TupleBinding<UuidKey> {
+
+	@Override
+	public UuidKey entryToObject(TupleInput input) {
+		return new UuidKey(readUuid(input));
+	}
+
+	@Override
+	public void objectToEntry(UuidKey key, TupleOutput output) {
+		writeUuid(key.getId(), output);
+	}
+
+	public static Uuid readUuid(TupleInput input) {
+		long bits0 = input.readLong();
+		long bits1 = input.readLong();
+		return UuidFactory.create(bits0, bits1);
+	}
+
+	public static void writeUuid(Uuid uuid, TupleOutput output) {
+		output.writeLong(uuid.getMostSignificantBits());
+		output.writeLong(uuid.getLeastSignificantBits());
+	}
+}
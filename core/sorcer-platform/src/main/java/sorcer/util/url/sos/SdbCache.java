@@ -0,0 +1,239 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.url.sos;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.rmi.MarshalledObject;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A client side read-through cache of objects retrieved from database
+ * storers with sos:// URLs, keyed by the store type and Uuid of the stored
+ * object. Cached objects are held in their marshalled form, so every hit
+ * returns a fresh copy as a remote retrieval would, but without the remote
+ * call. Entries are evicted by size and time to live, and invalidated by
+ * {@link sorcer.core.provider.StoreEvent}s published by database storers
+ * after updates and deletions.
+ * <p>
+ * Objects known to be immutable, e.g. contexts stored once as inputs of
+ * many requests, can be pinned; pinned objects are shared without copying
+ * and are only released by invalidation.
+ * <p>
+ * The cache is enabled with the {@link sorcer.core.SorcerConstants#SDB_CACHE_ENABLED}
+ * property.
+ */
+public class SdbCache {
+	private static final Logger logger = LoggerFactory.getLogger(SdbCache.class);
+
+	private static SdbCache instance;
+
+	private final Cache<Key, MarshalledObject<Object>> cache;
+
+	private final ConcurrentHashMap<Key, Object> pinned = new ConcurrentHashMap<Key, Object>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder invalidations = new LongAdder();
+
+	private SdbCacheListener listener;
+
+	public SdbCache(long maxSize, long ttl) {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * Returns the shared cache configured by the SORCER environment, or
+	 * <code>null</code> if caching of sos:// objects is disabled.
+	 */
+	public static synchronized SdbCache getCache() {
+		if (instance == null && Sorcer.isSdbCacheEnabled()) {
+			instance = new SdbCache(Sorcer.getSdbCacheSize(), Sorcer.getSdbCacheTtl());
+			try {
+				instance.listener = new SdbCacheListener(instance);
+			} catch (Exception e) {
+				logger.warn("Cached sos:// objects will expire without invalidation", e);
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns a copy of the cached object, the pinned object itself, or
+	 * <code>null</code> if no object is cached.
+	 */
+	public Object get(Store storeType, Uuid uuid) {
+		Key key = new Key(storeType, uuid);
+		Object obj = pinned.get(key);
+		if (obj != null) {
+			hits.increment();
+			return obj;
+		}
+		MarshalledObject<Object> mo = cache.getIfPresent(key);
+		if (mo != null) {
+			try {
+				obj = mo.get();
+				hits.increment();
+				return obj;
+			} catch (IOException | ClassNotFoundException e) {
+				logger.warn("Dropping cached object: " + key, e);
+				cache.invalidate(key);
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Caches a copy of a retrieved object; objects that are not
+	 * serializable are not cached.
+	 */
+	public void put(Store storeType, Uuid uuid, Object object) {
+		if (object == null)
+			return;
+		try {
+			cache.put(new Key(storeType, uuid), new MarshalledObject<Object>(object));
+		} catch (IOException e) {
+			logger.debug("Not caching object: " + uuid, e);
+		}
+	}
+
+	/**
+	 * Caches an immutable object that is shared by all readers until
+	 * invalidated.
+	 */
+	public void pin(Store storeType, Uuid uuid, Object object) {
+		Key key = new Key(storeType, uuid);
+		cache.invalidate(key);
+		pinned.put(key, object);
+	}
+
+	public void invalidate(Store storeType, Uuid uuid) {
+		Key key = new Key(storeType, uuid);
+		cache.invalidate(key);
+		pinned.remove(key);
+		invalidations.increment();
+	}
+
+	/**
+	 * Invalidates the object with the given Uuid cached for any store type.
+	 */
+	public void invalidate(Uuid uuid) {
+		for (Store type : Store.values()) {
+			Key key = new Key(type, uuid);
+			cache.invalidate(key);
+			pinned.remove(key);
+		}
+		invalidations.increment();
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+		pinned.clear();
+		invalidations.increment();
+	}
+
+	public long size() {
+		return cache.size() + pinned.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of remote retrievals avoided by this cache.
+	 */
+	public long getSavedRemoteCalls() {
+		return hits.sum();
+	}
+
+	public long getInvalidationCount() {
+		return invalidations.sum();
+	}
+
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 1.0 : (double) h / total;
+	}
+
+	public synchronized void destroy() {
+		if (listener != null) {
+			listener.destroy();
+			listener = null;
+		}
+		invalidateAll();
+	}
+
+	@Override
+	public String toString() {
+		return "SdbCache size: " + size() + ", hits: " + getHitCount()
+				+ ", misses: " + getMissCount() + ", hit rate: " + getHitRate()
+				+ ", invalidations: " + getInvalidationCount();
+	}
+
+	private static final class Key {
+		private final Store storeType;
+		private final Uuid uuid;
+		private final int hash;
+
+		Key(Store storeType, Uuid uuid) {
+			this.storeType = storeType;
+			this.uuid = uuid;
+			hash = 31 * storeType.hashCode() + uuid.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return storeType == other.storeType && uuid.equals(other.uuid);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return storeType + "=" + uuid;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.url.sos;
+
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.event.UnknownEventException;
+import net.jini.core.lease.Lease;
+import net.jini.core.lease.LeaseDeniedException;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.export.Exporter;
+import net.jini.jeri.BasicILFactory;
+import net.jini.jeri.BasicJeriExporter;
+import net.jini.jeri.tcp.TcpServerEndpoint;
+import net.jini.lease.LeaseRenewalManager;
+import net.jini.lookup.LookupCache;
+import net.jini.lookup.ServiceDiscoveryEvent;
+import org.rioproject.impl.client.ServiceDiscoveryAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.DatabaseStorer;
+import sorcer.core.provider.StoreEvent;
+import sorcer.service.Accessor;
+import sorcer.util.ServiceAccessor;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers a {@link SdbCache} for store events with all discovered
+ * database storers and invalidates the cached objects updated or deleted by
+ * them. When a database storer goes away all its objects might be stale,
+ * so the whole cache is invalidated.
+ */
+public class SdbCacheListener implements RemoteEventListener {
+	private static final Logger logger = LoggerFactory.getLogger(SdbCacheListener.class);
+
+	private static final int MIN_LEASE = 30000;
+
+	private final SdbCache cache;
+
+	private final Map<DatabaseStorer, EventRegistration> eventRegistrations = new ConcurrentHashMap<>();
+
+	private final LeaseRenewalManager lrm = new LeaseRenewalManager();
+
+	private Exporter exporter;
+
+	private RemoteEventListener proxy;
+
+	private LookupCache lookupCache;
+
+	public SdbCacheListener(SdbCache cache) throws IOException {
+		this.cache = cache;
+		exporter = new BasicJeriExporter(TcpServerEndpoint.getInstance(Sorcer.getHostAddress(), 0),
+				new BasicILFactory());
+		proxy = (RemoteEventListener) exporter.export(this);
+		ServiceTemplate serviceTemplate = new ServiceTemplate(null, new Class[] { DatabaseStorer.class }, null);
+		lookupCache = ((ServiceAccessor) Accessor.get()).getServiceDiscoveryManager()
+				.createLookupCache(serviceTemplate, null, new StorerDiscoveryListener());
+	}
+
+	class StorerDiscoveryListener extends ServiceDiscoveryAdapter {
+
+		@Override public void serviceAdded(ServiceDiscoveryEvent sdEvent) {
+			register((DatabaseStorer) sdEvent.getPostEventServiceItem().service);
+		}
+
+		@Override public void serviceRemoved(ServiceDiscoveryEvent sdEvent) {
+			ServiceItem item = sdEvent.getPreEventServiceItem();
+			if (eventRegistrations.remove((DatabaseStorer) item.service) != null) {
+				logger.debug("Removed {}", item.service);
+				cache.invalidateAll();
+			}
+		}
+	}
+
+	void register(DatabaseStorer storer) {
+		try {
+			EventRegistration registration = storer.registerStoreListener(proxy, null, Lease.FOREVER);
+			lrm.renewUntil(registration.getLease(), Lease.FOREVER, MIN_LEASE, null);
+			eventRegistrations.put(storer, registration);
+			logger.debug("Registered cache listener with {}", storer);
+		} catch (LeaseDeniedException | RemoteException e) {
+			logger.warn("Unable to register cache listener with {}", storer, e);
+		}
+	}
+
+	public void destroy() {
+		for (Map.Entry<DatabaseStorer, EventRegistration> entry : eventRegistrations.entrySet()) {
+			try {
+				lrm.remove(entry.getValue().getLease());
+				entry.getKey().unregisterStoreListener(entry.getValue());
+			} catch (Exception e) {
+				logger.warn("Error unregistering from {}", entry.getKey(), e);
+			}
+		}
+		eventRegistrations.clear();
+		if (lookupCache != null)
+			lookupCache.terminate();
+		if (exporter != null)
+			exporter.unexport(true);
+	}
+
+	@Override
+	public void notify(RemoteEvent remoteEvent) throws UnknownEventException, RemoteException {
+		if (!(remoteEvent instanceof StoreEvent))
+			throw new UnknownEventException("Not a store event: " + remoteEvent);
+		StoreEvent event = (StoreEvent) remoteEvent;
+		logger.debug("Invalidating cached object on {}", event);
+		// retrievals are not bound to a store type, so drop all cached copies
+		cache.invalidate(event.getUuid());
+	}
+}
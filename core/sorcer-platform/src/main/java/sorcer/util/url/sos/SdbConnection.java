@@ -16,6 +16,8 @@
  */
 package sorcer.util.url.sos;
 
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.provider.DatabaseStorer.Store;
 import sorcer.service.Exerter;
@@ -77,6 +79,14 @@ public class SdbConnection extends URLConnection {
 	@Override
 	public Object getContent() throws IOException {
 		Context outContext;
+		SdbCache cache = SdbCache.getCache();
+		Uuid id = null;
+		if (cache != null) {
+			id = UuidFactory.create(uuid);
+			Object obj = cache.get(storeType, id);
+			if (obj != null)
+				return obj;
+		}
 		if (!connected)
 			connect();
 		if (store == null)
@@ -93,9 +103,10 @@ public class SdbConnection extends URLConnection {
 			}
 			Object obj =  outContext.getValue(StorageManagement.object_retrieved);
 			if (obj instanceof UuidObject)
-				return ((UuidObject)obj).getObject();
-			else
-				return obj;
+				obj = ((UuidObject)obj).getObject();
+			if (cache != null)
+				cache.put(storeType, id, obj);
+			return obj;
 		} catch (Exception e) {
 			throw new IOException(e);
 		}
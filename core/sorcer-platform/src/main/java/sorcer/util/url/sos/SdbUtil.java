@@ -22,12 +22,14 @@ import net.jini.id.UuidFactory;
 import sorcer.co.operator;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.provider.DatabaseStorer;
+import sorcer.core.provider.DatabaseStorer.Index;
 import sorcer.core.provider.DatabaseStorer.Store;
 import sorcer.core.provider.DataspaceStorer;
 import sorcer.core.provider.ProviderName;
 import sorcer.core.provider.StorageManagement;
 import sorcer.service.*;
 import sorcer.util.Sorcer;
+import sorcer.util.bdb.objects.ObjectInfo;
 import sorcer.util.bdb.objects.SorcerDatabaseViews;
 
 import java.net.URL;
@@ -173,6 +175,7 @@ public class SdbUtil {
 
 	static public URL update(Uuid storeUuid, Object value)
 		throws ServiceException, SignatureException, RemoteException {
+		invalidate(storeUuid);
 		Task objectUpdateTask = task(
 				"update",
 				sig("contextUpdate", DatabaseStorer.class,
@@ -215,6 +218,8 @@ public class SdbUtil {
 	}
 
 	public static URL deleteObject(Object object) throws ServiceException, SignatureException, RemoteException {
+		if (object instanceof Identifiable && ((Identifiable) object).getId() instanceof Uuid)
+			invalidate((Uuid) ((Identifiable) object).getId());
 		String storageName = Sorcer.getActualName(Sorcer
 				.getDatabaseStorerName());
 		Task objectStoreTask = task(
@@ -226,6 +231,7 @@ public class SdbUtil {
 	}
 
 	public static URL deleteURL(URL url) throws ServiceException {
+		invalidate(getUuid(url));
 		String serviceTypeName = getServiceType(url);
 		String storageName = getProviderName(url);
 		Task objectStoreTask = null;
@@ -274,18 +280,47 @@ public class SdbUtil {
 
 	static public Object retrieve(Uuid storeUuid, Store storeType)
 			throws ServiceException, SignatureException {
+		SdbCache cache = SdbCache.getCache();
+		if (cache != null) {
+			Object obj = cache.get(storeType, storeUuid);
+			if (obj != null)
+				return obj;
+		}
 		Task objectRetrieveTask = task(
 				"retrieve",
 				sig("contextRetrieve", DatabaseStorer.class,
 						prvName(Sorcer.getActualDatabaseStorerName())),
 				SdbUtil.getRetrieveContext(storeUuid, storeType));
 		try {
-			return get((Context) exec(objectRetrieveTask));
+			Object obj = get((Context) exec(objectRetrieveTask));
+			if (cache != null)
+				cache.put(storeType, storeUuid, obj);
+			return obj;
 		} catch (RemoteException e) {
 			throw new RoutineException(e);
 		}
 	}
 
+	/**
+	 * Pins an immutable stored object in the client cache, so the object is
+	 * retrieved once and shared until updated or deleted.
+	 *
+	 * @return the pinned object
+	 */
+	static public Object pin(URL url) throws ServiceException, SignatureException {
+		Object obj = retrieve(url);
+		SdbCache cache = SdbCache.getCache();
+		if (cache != null && obj != null)
+			cache.pin(getStoreType(url), getUuid(url), obj);
+		return obj;
+	}
+
+	private static void invalidate(Uuid uuid) {
+		SdbCache cache = SdbCache.getCache();
+		if (cache != null)
+			cache.invalidate(uuid);
+	}
+
 	static public List<String> list(URL url) throws ServiceException, SignatureException {
 		return list(url, null);
 
@@ -311,6 +346,33 @@ public class SdbUtil {
 		return (List<String>) exec(listTask);
 	}
 
+	/**
+	 * Returns a page of descriptions of records stored in the database
+	 * storer, ordered by the given index. Stored objects are not transferred.
+	 *
+	 * @param from
+	 *            first index key or <code>null</code>
+	 * @param to
+	 *            last index key or <code>null</code>
+	 */
+	static public List<ObjectInfo> records(Store storeType, Index index, Object from, Object to,
+										   int offset, int limit) throws ServiceException, SignatureException {
+		ServiceContext cxt = new ServiceContext("storage records context");
+		cxt.putInValue(StorageManagement.store_type, storeType);
+		cxt.putInValue(StorageManagement.store_index, index);
+		if (from != null)
+			cxt.putInValue(StorageManagement.store_from, from);
+		if (to != null)
+			cxt.putInValue(StorageManagement.store_to, to);
+		cxt.putInValue(StorageManagement.store_offset, offset);
+		cxt.putInValue(StorageManagement.store_limit, limit);
+		cxt.setContextReturn(StorageManagement.store_records);
+		Task recordsTask = task("records",
+				sig("contextRecords", DatabaseStorer.class,
+						prvName(Sorcer.getActualDatabaseStorerName())), cxt);
+		return (List<ObjectInfo>) exec(recordsTask);
+	}
+
 	static public List<String> list(Store storeType) throws ServiceException, SignatureException {
 		String storageName = Sorcer.getActualName(Sorcer
 				.getDatabaseStorerName());
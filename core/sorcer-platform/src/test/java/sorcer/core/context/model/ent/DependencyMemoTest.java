@@ -0,0 +1,97 @@
+package sorcer.core.context.model.ent;
+
+import org.junit.Test;
+import sorcer.service.ContextException;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DependencyMemoTest {
+
+    @Test
+    public void executesOncePerResponse() throws Exception {
+        DependencyMemo memo = new DependencyMemo();
+        AtomicInteger count = new AtomicInteger();
+        memo.begin();
+        for (int i = 0; i < 3; i++) {
+            memo.execute("y", count::incrementAndGet);
+        }
+        memo.end();
+        assertEquals(1, count.get());
+        assertEquals(2, memo.getAvoidedCount());
+
+        // a new response executes again
+        memo.begin();
+        memo.execute("y", count::incrementAndGet);
+        memo.end();
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void executesEachTimeOutsideResponse() throws Exception {
+        DependencyMemo memo = new DependencyMemo();
+        AtomicInteger count = new AtomicInteger();
+        memo.execute("y", count::incrementAndGet);
+        memo.execute("y", count::incrementAndGet);
+        assertEquals(2, count.get());
+        assertEquals(0, memo.getAvoidedCount());
+    }
+
+    @Test
+    public void invalidatedAndFailedExecutionsAreRepeated() throws Exception {
+        DependencyMemo memo = new DependencyMemo();
+        AtomicInteger count = new AtomicInteger();
+        memo.begin();
+        memo.execute("y", count::incrementAndGet);
+        memo.invalidate("y");
+        memo.execute("y", count::incrementAndGet);
+        assertEquals(2, count.get());
+        try {
+            memo.execute("z", () -> {
+                throw new ContextException("failed");
+            });
+            fail();
+        } catch (ContextException e) {
+            // expected
+        }
+        memo.execute("z", count::incrementAndGet);
+        memo.end();
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void changesOfReadPathsInvalidateExecutions() throws Exception {
+        DependencyMemo memo = new DependencyMemo();
+        AtomicInteger count = new AtomicInteger();
+        memo.begin();
+        memo.execute("y", () -> {
+            count.incrementAndGet();
+            memo.setReads("y", Collections.singleton("x"));
+        });
+        memo.invalidate("w");
+        memo.execute("y", count::incrementAndGet);
+        assertEquals(1, count.get());
+        memo.invalidate("x");
+        memo.execute("y", count::incrementAndGet);
+        memo.end();
+        assertEquals(2, count.get());
+        assertEquals(1, memo.getAvoidedCount());
+    }
+
+    @Test
+    public void changesMadeByExecutionDoNotInvalidateIt() throws Exception {
+        DependencyMemo memo = new DependencyMemo();
+        AtomicInteger count = new AtomicInteger();
+        memo.begin();
+        memo.execute("y", () -> {
+            count.incrementAndGet();
+            memo.invalidate("y");
+        });
+        memo.execute("y", count::incrementAndGet);
+        memo.end();
+        assertEquals(1, count.get());
+        assertEquals(1, memo.getAvoidedCount());
+    }
+}
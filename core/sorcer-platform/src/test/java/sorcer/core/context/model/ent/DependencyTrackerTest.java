@@ -0,0 +1,88 @@
+package sorcer.core.context.model.ent;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DependencyTrackerTest {
+
+    @Test
+    public void recordsReadsOfNestedEvaluations() {
+        DependencyTracker tracker = new DependencyTracker();
+        // z = f(y), y = g(x1, x2)
+        tracker.begin("z");
+        tracker.begin("y");
+        tracker.read("x1", 1.0);
+        tracker.read("x2", 2.0);
+        Map<String, Object> yReads = tracker.end();
+        tracker.store("y", yReads, 3.0);
+        tracker.read("y", 3.0);
+        tracker.store("z", tracker.end(), 6.0);
+
+        assertEquals(2, yReads.size());
+        assertEquals(1, tracker.getRecord("z").getReads().size());
+        assertTrue(tracker.getDependents("x1").contains("y"));
+        assertTrue(tracker.getDependents("y").contains("z"));
+    }
+
+    @Test
+    public void changesDropTransitiveDependentsOnly() {
+        DependencyTracker tracker = new DependencyTracker();
+        store(tracker, "y", "x1");
+        store(tracker, "z", "y");
+        store(tracker, "w", "x2");
+
+        assertEquals(2, tracker.changed("x1"));
+        assertNull(tracker.getRecord("y"));
+        assertNull(tracker.getRecord("z"));
+        assertNotNull(tracker.getRecord("w"));
+        assertEquals(2, tracker.getInvalidationCount());
+    }
+
+    @Test
+    public void changesDropRecordOfChangedPath() {
+        DependencyTracker tracker = new DependencyTracker();
+        store(tracker, "y", "x1");
+        store(tracker, "z", "y");
+
+        // y itself replaced, e.g. by a new invoker
+        Set<String> affected = new HashSet<>();
+        assertEquals(2, tracker.changed("y", affected));
+        assertNull(tracker.getRecord("y"));
+        assertNull(tracker.getRecord("z"));
+        assertEquals(Collections.singleton("z"), affected);
+    }
+
+    @Test
+    public void suspendedReadsAreNotRecorded() {
+        DependencyTracker tracker = new DependencyTracker();
+        tracker.begin("y");
+        tracker.suspend();
+        tracker.read("x1", 1.0);
+        tracker.resume();
+        tracker.read("y", 0.0);
+        assertTrue(tracker.end().isEmpty());
+    }
+
+    @Test
+    public void newEpochRequiresRevalidation() {
+        DependencyTracker tracker = new DependencyTracker();
+        DependencyTracker.Record record = store(tracker, "y", "x1");
+        assertTrue(tracker.isCurrent(record));
+        tracker.changedAll();
+        assertFalse(tracker.isCurrent(record));
+        tracker.validated(record);
+        assertTrue(tracker.isCurrent(record));
+    }
+
+    private DependencyTracker.Record store(DependencyTracker tracker, String path, String read) {
+        tracker.begin(path);
+        tracker.read(read, 1.0);
+        return tracker.store(path, tracker.end(), 1.0);
+    }
+}
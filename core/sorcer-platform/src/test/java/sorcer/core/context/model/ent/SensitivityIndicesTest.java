@@ -0,0 +1,72 @@
+package sorcer.core.context.model.ent;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SensitivityIndicesTest {
+
+    private static final String[] names = { "x1", "x2" };
+
+    // y = x1 + 2 x2, z = x1 x2
+    private static double[] responses(double[] x) {
+        return new double[] { x[0] + 2.0 * x[1], x[0] * x[1] };
+    }
+
+    private static SensitivityIndices analyze(SamplingPlan plan) {
+        SensitivityIndices indices = new SensitivityIndices(plan, 2);
+        for (long i = 0; i < plan.getRowCount(); i++)
+            indices.add(responses(plan.getRow(i)));
+        return indices;
+    }
+
+    @Test
+    public void latinHypercubeHasPointInEachStratum() {
+        double[][] points = SamplingPlan.latinHypercube(10, 3, new Random(7));
+        for (int i = 0; i < 3; i++) {
+            boolean[] strata = new boolean[10];
+            for (double[] p : points)
+                strata[(int) (p[i] * 10)] = true;
+            for (boolean s : strata)
+                assertTrue(s);
+        }
+    }
+
+    @Test
+    public void plansAreReproducible() {
+        SamplingPlan p1 = SamplingPlan.sobol(names, new double[] { 0, 0 }, new double[] { 1, 1 }, 16, 3L);
+        SamplingPlan p2 = SamplingPlan.sobol(names, new double[] { 0, 0 }, new double[] { 1, 1 }, 16, 3L);
+        assertEquals(16 * 4, p1.getRowCount());
+        for (long i = 0; i < p1.getRowCount(); i++)
+            assertArrayEquals(p1.getRow(i), p2.getRow(i), 0.0);
+    }
+
+    @Test
+    public void morrisEffectsOfLinearResponse() {
+        SamplingPlan plan = SamplingPlan.morris(names, new double[] { 0, 0 }, new double[] { 1, 1 }, 20, 4, 5L);
+        SensitivityIndices indices = analyze(plan);
+        assertEquals(20, indices.getBlockCount());
+        assertArrayEquals(new double[] { 1.0, 2.0 }, indices.getMeans(0), 1.0e-9);
+        assertArrayEquals(new double[] { 1.0, 2.0 }, indices.getAbsoluteMeans(0), 1.0e-9);
+        assertArrayEquals(new double[] { 0.0, 0.0 }, indices.getDeviations(0), 1.0e-9);
+        // effects of x1 x2 vary with the other variable
+        assertTrue(indices.getDeviations(1)[0] > 0.0);
+    }
+
+    @Test
+    public void sobolIndicesOfAdditiveResponse() {
+        SamplingPlan plan = SamplingPlan.sobol(names, new double[] { 0, 0 }, new double[] { 1, 1 }, 20000, 11L);
+        SensitivityIndices indices = analyze(plan);
+        // V(x1) = 1/12, V(2 x2) = 4/12
+        assertArrayEquals(new double[] { 0.2, 0.8 }, indices.getFirstOrder(0), 0.03);
+        assertArrayEquals(new double[] { 0.2, 0.8 }, indices.getTotal(0), 0.03);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsIndicesOfOtherMethod() {
+        SamplingPlan plan = SamplingPlan.morris(names, new double[] { 0, 0 }, new double[] { 1, 1 }, 2, 4, 5L);
+        analyze(plan).getFirstOrder(0);
+    }
+}
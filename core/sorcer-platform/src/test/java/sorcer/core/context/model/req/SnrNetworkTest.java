@@ -0,0 +1,58 @@
+package sorcer.core.context.model.req;
+
+import org.junit.Test;
+import sorcer.core.context.model.req.SnrNetwork.Neuron;
+import sorcer.service.ContextException;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SnrNetworkTest {
+
+    // x1, x2 -> n1 (linear), n2 (rectified) -> n3 (step)
+    private static SnrNetwork network() throws ContextException {
+        return new SnrNetwork(Arrays.asList("x1", "x2"), Arrays.asList(
+                new Neuron("n3", new String[] { "n1", "n2" }, new double[] { 1.0, -1.0 }, 0.0, 0.5, false),
+                new Neuron("n1", new String[] { "x1", "x2" }, new double[] { 2.0, 3.0 }, 1.0, 0.0, false),
+                new Neuron("n2", new String[] { "x2" }, new double[] { -4.0 }, 2.0, 0.0, true)));
+    }
+
+    @Test
+    public void neuronsAreLayeredBySignals() throws ContextException {
+        SnrNetwork network = network();
+        assertEquals(2, network.getLayerCount());
+        assertArrayEquals(new String[] { "n1", "n2", "n3" }, network.getOutputNames());
+    }
+
+    @Test
+    public void evaluatesActivations() throws ContextException {
+        SnrNetwork network = network();
+        // n1 = 2 + 3 + 1 = 6, n2 = max(0, -4 + 2) = 0, n3 = 6 - 0 > 0.5
+        assertArrayEquals(new double[] { 6.0, 0.0, 1.0 }, network.evaluate(new double[] { 1.0, 1.0 }), 0.0);
+        // n1 = -2 + 0 + 1 = -1, n2 = 2, n3 = -3 <= 0.5
+        assertArrayEquals(new double[] { -1.0, 2.0, -1.0 }, network.evaluate(new double[] { -1.0, 0.0 }), 0.0);
+    }
+
+    @Test
+    public void batchMatchesSingleEvaluations() throws ContextException {
+        SnrNetwork network = network();
+        double[][] batch = { { 1.0, 1.0 }, { -1.0, 0.0 }, { 0.25, -3.0 } };
+        double[][] outputs = network.evaluate(batch);
+        for (int i = 0; i < batch.length; i++)
+            assertArrayEquals(network.evaluate(batch[i]), outputs[i], 0.0);
+    }
+
+    @Test(expected = ContextException.class)
+    public void rejectsCycles() throws ContextException {
+        new SnrNetwork(Arrays.asList("x1"), Arrays.asList(
+                new Neuron("n1", new String[] { "x1", "n2" }, new double[] { 1.0, 1.0 }, 0.0, 0.0, false),
+                new Neuron("n2", new String[] { "n1" }, new double[] { 1.0 }, 0.0, 0.0, false)));
+    }
+
+    @Test(expected = ContextException.class)
+    public void rejectsUnknownSignals() throws ContextException {
+        new SnrNetwork(Arrays.asList("x1"), Arrays.asList(
+                new Neuron("n1", new String[] { "x2" }, new double[] { 1.0 }, 0.0, 0.0, false)));
+    }
+}
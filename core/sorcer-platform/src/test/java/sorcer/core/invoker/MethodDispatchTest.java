@@ -0,0 +1,102 @@
+package sorcer.core.invoker;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class MethodDispatchTest {
+
+    public static class Adder {
+        public double add(double x, double y) {
+            return x + y;
+        }
+
+        public String add(String x, String y) {
+            return x + y;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public static int twice(int x) {
+            return 2 * x;
+        }
+    }
+
+    static class Hidden {
+        public int one() {
+            return 1;
+        }
+    }
+
+    @Test
+    public void dispatchByArgShape() throws Exception {
+        MethodDispatch d = MethodDispatch.get(Adder.class, "add", double.class, double.class);
+        assertSame(d, MethodDispatch.get(Adder.class, "add", new Class[] { double.class, double.class }));
+        assertEquals(3.0, d.invoke(new Adder(), 1.0, 2.0));
+        MethodDispatch s = MethodDispatch.get(Adder.class, "add", String.class, String.class);
+        assertNotSame(d, s);
+        assertEquals("ab", s.invoke(new Adder(), new Object[] { "a", "b" }));
+    }
+
+    @Test
+    public void staticVoidAndDeclaredMethods() throws Exception {
+        assertEquals(8, MethodDispatch.get(Adder.class, "twice", int.class).invoke(null, 4));
+        assertEquals(6, MethodDispatch.getDeclared(Adder.class, "twice").invoke(new Adder(), 3));
+        assertNull(MethodDispatch.getDeclared(Adder.class, "none"));
+        assertEquals(1, MethodDispatch.get(Hidden.class, "one").invoke(new Hidden()));
+    }
+
+    @Test
+    public void targetExceptionsAreWrapped() throws Exception {
+        MethodDispatch d = MethodDispatch.get(Adder.class, "fail", String.class);
+        try {
+            d.invoke(new Adder(), "boom");
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals("boom", e.getCause().getMessage());
+        }
+        MethodDispatch.invalidate(Adder.class);
+        assertNotSame(d, MethodDispatch.get(Adder.class, "fail", String.class));
+    }
+
+    @Test
+    public void badArgsAndTargetsFailAsMethodInvoke() throws Exception {
+        MethodDispatch d = MethodDispatch.get(Adder.class, "add", double.class, double.class);
+        // widening conversions as by Method#invoke
+        assertEquals(3.0, d.invoke(new Adder(), 1, 2.0f));
+        try {
+            d.invoke(new Adder(), "1", 2.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            d.invoke(new Adder(), null, 2.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            d.invoke(new Adder(), 1.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            d.invoke(null, 1.0, 2.0);
+            fail();
+        } catch (NullPointerException e) {
+            // expected
+        }
+        try {
+            d.invoke("adder", 1.0, 2.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
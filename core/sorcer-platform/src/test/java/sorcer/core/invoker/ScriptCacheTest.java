@@ -0,0 +1,58 @@
+package sorcer.core.invoker;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.*;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void compilesOncePerSource() throws Exception {
+        ScriptCache cache = new ScriptCache(10);
+        ClassLoader loader = getClass().getClassLoader();
+        for (int i = 0; i < 5; i++) {
+            Binding binding = new Binding();
+            binding.setVariable("x", i);
+            assertEquals(i * 2, cache.evaluate("x * 2", loader, binding));
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void evaluationsHaveOwnBindings() throws Exception {
+        ScriptCache cache = new ScriptCache(10);
+        ClassLoader loader = getClass().getClassLoader();
+        Binding b1 = new Binding();
+        b1.setVariable("x", 1);
+        Binding b2 = new Binding();
+        b2.setVariable("x", 2);
+        Script s1 = cache.createScript("y = x + 1", loader, b1);
+        Script s2 = cache.createScript("y = x + 1", loader, b2);
+        assertSame(s1.getClass(), s2.getClass());
+        s1.run();
+        s2.run();
+        assertEquals(2, b1.getVariable("y"));
+        assertEquals(3, b2.getVariable("y"));
+    }
+
+    @Test
+    public void scriptsAreCachedPerClassLoader() throws Exception {
+        ScriptCache cache = new ScriptCache(10);
+        ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        Class<?> c1 = cache.getScriptClass("1 + 1", getClass().getClassLoader(), CompilerConfiguration.DEFAULT);
+        Class<?> c2 = cache.getScriptClass("1 + 1", loader, CompilerConfiguration.DEFAULT);
+        assertNotSame(c1, c2);
+        assertEquals(2, cache.size());
+        cache.invalidate(loader);
+        assertEquals(1, cache.size());
+        assertSame(c1, cache.getScriptClass("1 + 1", getClass().getClassLoader(), CompilerConfiguration.DEFAULT));
+    }
+}
@@ -0,0 +1,111 @@
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import org.junit.Test;
+import sorcer.jini.lookup.entry.SorcerServiceInfo;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ProviderSelectorsTest {
+
+    private static List<ServiceItem> items(int n, long base) {
+        List<ServiceItem> items = new ArrayList<ServiceItem>();
+        for (int i = 0; i < n; i++)
+            items.add(new ServiceItem(new ServiceID(base, i), "provider-" + i, new Entry[0]));
+        return items;
+    }
+
+    private static Map<ServiceItem, Integer> count(ProviderSelector selector, List<ServiceItem> items, int n) {
+        Map<ServiceItem, Integer> counts = new HashMap<ServiceItem, Integer>();
+        for (int i = 0; i < n; i++)
+            counts.merge(selector.select(items), 1, Integer::sum);
+        return counts;
+    }
+
+    @Test
+    public void roundRobinFollowsWeights() {
+        List<ServiceItem> items = items(3, 1);
+        SorcerServiceInfo info = new SorcerServiceInfo();
+        info.weight = 2;
+        items.get(2).attributeSets = new Entry[] { info };
+        Map<ServiceItem, Integer> counts = count(ProviderSelectors.roundRobin(), items, 400);
+        assertEquals(100, (int) counts.get(items.get(0)));
+        assertEquals(100, (int) counts.get(items.get(1)));
+        assertEquals(200, (int) counts.get(items.get(2)));
+    }
+
+    @Test
+    public void weightsDefaultToOne() {
+        List<ServiceItem> items = items(1, 6);
+        assertEquals(1, ProviderSelectors.weight(items.get(0)));
+        SorcerServiceInfo info = new SorcerServiceInfo();
+        items.get(0).attributeSets = new Entry[] { info };
+        assertEquals(1, ProviderSelectors.weight(items.get(0)));
+        info.weight = 0;
+        assertEquals(1, ProviderSelectors.weight(items.get(0)));
+        info.weight = 3;
+        assertEquals(3, ProviderSelectors.weight(items.get(0)));
+    }
+
+    @Test
+    public void powerOfTwoAvoidsBusyProviders() {
+        List<ServiceItem> items = items(2, 2);
+        ProviderLoad busy = ProviderLoad.get(items.get(0).serviceID);
+        busy.started();
+        busy.started();
+        Map<ServiceItem, Integer> counts = count(ProviderSelectors.powerOfTwo(), items, 100);
+        assertEquals(100, (int) counts.get(items.get(1)));
+        busy.completed(1000);
+        busy.completed(1000);
+        assertEquals(0, busy.getInFlight());
+    }
+
+    @Test
+    public void leastLatencyPrefersFastProviders() {
+        List<ServiceItem> items = items(3, 3);
+        ProviderLoad.get(items.get(0).serviceID).completed(5000000);
+        ProviderLoad.get(items.get(1).serviceID).completed(1000000);
+        ProviderLoad.get(items.get(2).serviceID).completed(9000000);
+        Map<ServiceItem, Integer> counts = count(ProviderSelectors.leastLatency(), items, 50);
+        assertEquals(50, (int) counts.get(items.get(1)));
+    }
+
+    @Test
+    public void latencyIsAveraged() {
+        ProviderLoad load = ProviderLoad.get(new ServiceID(4, 0));
+        assertTrue(load.getLatency() < 0);
+        load.recordLatency(1000);
+        assertEquals(1000, load.getLatency(), 0);
+        load.recordLatency(2000);
+        assertEquals(1200, load.getLatency(), 1e-9);
+    }
+
+    @Test
+    public void clientAndServiceLatenciesAreSeparate() {
+        ProviderLoad load = ProviderLoad.get(new ServiceID(5, 0));
+        load.recordLatency(1000);
+        assertEquals(1000, load.getServiceLatency(), 0);
+        assertTrue(load.getClientLatency() < 0);
+        // the latency observed by clients takes precedence once known
+        load.started();
+        load.completed(6000);
+        assertEquals(6000, load.getClientLatency(), 0);
+        assertEquals(6000, load.getLatency(), 0);
+        load.recordLatency(2000);
+        assertEquals(1200, load.getServiceLatency(), 1e-9);
+        assertEquals(6000, load.getLatency(), 0);
+    }
+
+    @Test
+    public void selectionByName() {
+        assertNull(ProviderSelectors.forName(null));
+        assertNull(ProviderSelectors.forName("unknown"));
+        assertNotNull(ProviderSelectors.forName("powerOfTwo"));
+        List<ServiceItem> items = items(2, 5);
+        assertSame(items.get(0), ProviderSelectors.forName("first").select(items));
+    }
+}
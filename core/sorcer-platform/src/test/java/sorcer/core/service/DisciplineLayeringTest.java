@@ -0,0 +1,60 @@
+package sorcer.core.service;
+
+import org.junit.Test;
+import sorcer.core.context.model.ent.Coupling;
+import sorcer.core.context.model.ent.Tie;
+import sorcer.service.Path;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DisciplineLayeringTest {
+
+    private static List<Path> paths(String... names) {
+        List<Path> paths = new ArrayList<Path>();
+        for (String name : names)
+            paths.add(new Path(name));
+        return paths;
+    }
+
+    private static Coupling coupling(String from, String to) {
+        return new Coupling(new Tie(from, "x"), new Tie(to, "x"));
+    }
+
+    private static List<List<String>> names(List<List<Path>> layers) {
+        List<List<String>> names = new ArrayList<List<String>>();
+        for (List<Path> layer : layers)
+            names.add(Path.getNameList(layer));
+        return names;
+    }
+
+    @Test
+    public void independentDisciplinesShareLayer() {
+        List<List<Path>> layers = DisciplineLayering.getLayers(paths("a", "b", "c", "d"), null);
+        assertEquals(1, layers.size());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), names(layers).get(0));
+    }
+
+    @Test
+    public void couplingsOrderDisciplines() {
+        List<Coupling> couplings = Arrays.asList(coupling("a", "b"), coupling("d", "a"));
+        List<Set<Integer>> predecessors = DisciplineLayering.getPredecessors(paths("a", "b", "c", "d"), couplings);
+        assertEquals(Collections.emptySet(), predecessors.get(0));
+        assertEquals(Collections.singleton(0), predecessors.get(1));
+        assertEquals(Collections.emptySet(), predecessors.get(2));
+        // feedback couplings keep the declared order
+        assertEquals(Collections.singleton(0), predecessors.get(3));
+        assertEquals(Arrays.asList(Arrays.asList("a", "c"), Arrays.asList("b", "d")),
+                names(DisciplineLayering.getLayers(paths("a", "b", "c", "d"), couplings)));
+    }
+
+    @Test
+    public void prePathsOrderDisciplines() {
+        List<Path> paths = paths("a", "b", "c");
+        paths.get(2).prePaths = Arrays.asList(new Path("b"));
+        paths.get(1).prePaths = Arrays.asList(new Path("unknown"));
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")),
+                names(DisciplineLayering.getLayers(paths, null)));
+    }
+}
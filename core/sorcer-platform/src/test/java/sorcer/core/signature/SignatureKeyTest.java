@@ -0,0 +1,47 @@
+package sorcer.core.signature;
+
+import org.junit.Test;
+import sorcer.core.provider.ProviderName;
+import sorcer.core.provider.ServiceName;
+import sorcer.service.Signature.Multitype;
+
+import java.io.Serializable;
+
+import static org.junit.Assert.*;
+
+public class SignatureKeyTest {
+
+    @Test
+    public void equalFieldsGiveInternedKey() {
+        SignatureKey k1 = SignatureKey.of(new Multitype(Runnable.class), "run", new ProviderName("Adder"));
+        SignatureKey k2 = SignatureKey.of(new Multitype(Runnable.class), "run", new ProviderName("Adder"));
+        assertSame(k1, k2);
+        assertEquals(k1.hashCode(), k2.hashCode());
+    }
+
+    @Test
+    public void differentFieldsGiveDifferentKeys() {
+        SignatureKey key = SignatureKey.of(new Multitype(Runnable.class), "run", new ProviderName("Adder"));
+        assertNotEquals(key, SignatureKey.of(new Multitype(Serializable.class), "run", new ProviderName("Adder")));
+        assertNotEquals(key, SignatureKey.of(new Multitype(Runnable.class), "call", new ProviderName("Adder")));
+        assertNotEquals(key, SignatureKey.of(new Multitype(Runnable.class), "run", new ProviderName("Multiplier")));
+        assertNotEquals(key, SignatureKey.of(new Multitype(Runnable.class), "run", new ServiceName("Adder")));
+    }
+
+    @Test
+    public void matchesDetectsChangedFields() {
+        Multitype multitype = new Multitype(Runnable.class);
+        ServiceName name = new ServiceName("Adder", "public");
+        SignatureKey key = SignatureKey.of(multitype, "run", name);
+        assertTrue(key.matches(multitype, "run", name));
+        assertFalse(key.matches(multitype, "call", name));
+
+        multitype.matchTypes = new Class[] { Serializable.class };
+        assertFalse(key.matches(multitype, "run", name));
+        key = SignatureKey.of(multitype, "run", name);
+        assertTrue(key.matches(multitype, "run", name));
+
+        name.setGroups(new String[] { "private" });
+        assertFalse(key.matches(multitype, "run", name));
+    }
+}
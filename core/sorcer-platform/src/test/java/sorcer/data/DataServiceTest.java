@@ -28,13 +28,17 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static sorcer.data.DataService.DATA_DIR;
 import static sorcer.data.DataService.DATA_PORT;
 
@@ -168,6 +172,47 @@ public class DataServiceTest {
         assertEquals(orig, copy);
     }
 
+    @Test
+    public void testChunkedDownloadFromURL() throws IOException {
+        File root = new File(System.getProperty("java.io.tmpdir"), "mstc-eng-test");
+        root.mkdirs();
+        DataService dataService = new DataService(root.getPath());
+        dataService.start();
+        File f1 = new File(root, "chunked.bar");
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(49).nextBytes(data);
+        Files.write(f1.toPath(), data);
+        f1.deleteOnExit();
+        URL url = dataService.getDataURL(f1);
+        File f2 = new File(root, "chunked.baz");
+        f2.deleteOnExit();
+        new ChunkedDownload(url, f2).setChunkSize(256 * 1024).setThreads(4).download();
+        assertArrayEquals(data, Files.readAllBytes(f2.toPath()));
+        assertFalse(new File(f2.getPath() + ".part").exists());
+        assertFalse(new File(f2.getPath() + ".part.state").exists());
+    }
+
+    @Test
+    public void testDownloadChecksumMismatch() throws IOException {
+        File root = new File(System.getProperty("java.io.tmpdir"), "mstc-eng-test");
+        root.mkdirs();
+        DataService dataService = new DataService(root.getPath());
+        dataService.start();
+        File f1 = new File(root, "checked.bar");
+        Files.write(f1.toPath(), "POTATO".getBytes());
+        f1.deleteOnExit();
+        URL url = dataService.getDataURL(f1);
+        File f2 = new File(root, "checked.baz");
+        f2.delete();
+        try {
+            dataService.download(url, f2, "bogus");
+            fail("Expected a checksum mismatch");
+        } catch (IOException e) {
+            assertFalse(f2.exists());
+            assertFalse(new File(f2.getPath() + ".part").exists());
+        }
+    }
+
     @Test(expected=FileNotFoundException.class)
     public void testGetFileFromURLExpectedFailure() throws IOException {
         File root = new File(System.getProperty("java.io.tmpdir"), "mstc-eng-test");
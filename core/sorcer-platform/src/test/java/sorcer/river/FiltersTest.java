@@ -0,0 +1,76 @@
+package sorcer.river;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.lookup.ServiceItemFilter;
+import net.jini.lookup.entry.Name;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FiltersTest {
+
+    public static class OwnedName extends Name {
+        public String owner;
+
+        public OwnedName() {
+        }
+
+        public OwnedName(String name, String owner) {
+            super(name);
+            this.owner = owner;
+        }
+    }
+
+    private static final ServiceID ID = new ServiceID(1, 2);
+
+    private static ServiceItem item(Entry... attributes) {
+        return new ServiceItem(ID, "service", attributes);
+    }
+
+    private static ServiceItemFilter template(ServiceID id, Class<?>[] types, Entry... attributes) {
+        return Filters.template(new ServiceTemplate(id, types, attributes));
+    }
+
+    @Test
+    public void serviceTypes() {
+        ServiceItem item = item(new Name("Adder"));
+        assertTrue(template(null, new Class[] { String.class, CharSequence.class }).check(item));
+        assertFalse(template(null, new Class[] { Integer.class }).check(item));
+        assertFalse(template(null, new Class[] { CharSequence.class, Integer.class }).check(item));
+        assertFalse(template(null, null).check(new ServiceItem(ID, null, null)));
+    }
+
+    @Test
+    public void serviceID() {
+        ServiceItem item = item(new Name("Adder"));
+        assertTrue(template(new ServiceID(1, 2), null).check(item));
+        assertFalse(template(new ServiceID(1, 3), null).check(item));
+    }
+
+    @Test
+    public void nameAttributes() {
+        ServiceItem item = item(new Name("Adder"));
+        assertTrue(template(null, null, new Name("Adder")).check(item));
+        assertFalse(template(null, null, new Name("Multiplier")).check(item));
+        // null fields of templates match any value
+        assertTrue(template(null, null, new Name(null)).check(item));
+        assertTrue(template(null, null, new Name(null), new Name("Adder")).check(item));
+        assertFalse(template(null, null, new Name(null)).check(item()));
+        assertFalse(template(null, null, new Name("Adder")).check(new ServiceItem(ID, "service", null)));
+    }
+
+    @Test
+    public void superclassTemplates() {
+        ServiceItem item = item(new OwnedName("Adder", "sorcer"));
+        assertTrue(template(null, null, new Name("Adder")).check(item));
+        assertTrue(template(null, null, new OwnedName(null, "sorcer")).check(item));
+        assertFalse(template(null, null, new OwnedName("Adder", "other")).check(item));
+        // attributes match templates of their class or a superclass only
+        assertFalse(template(null, null, new OwnedName("Adder", null)).check(item(new Name("Adder"))));
+        assertTrue(TemplateFilter.matches(new Name("Adder"), new OwnedName("Adder", null)));
+        assertFalse(TemplateFilter.matches(new OwnedName("Adder", null), new Name("Adder")));
+    }
+}
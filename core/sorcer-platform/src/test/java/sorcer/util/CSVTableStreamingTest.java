@@ -0,0 +1,70 @@
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CSVTableStreamingTest {
+
+    @Test
+    public void drainAndReadBackInChunks() throws Exception {
+        File file = File.createTempFile("table", ".csv");
+        file.deleteOnExit();
+        ColumnarTable results = new ColumnarTable(new ArrayList<>(Arrays.asList("i", "x", "label")), 0);
+        try (CSVTableWriter writer = new CSVTableWriter(FileChannel.open(file.toPath(),
+                StandardOpenOption.WRITE), ",", 128)) {
+            for (int i = 0; i < 1000; i++) {
+                results.addRow(Arrays.asList((long) i, i * 0.5, i % 100 == 0 ? "a, \"b\"" : "c"));
+                if (results.getRowCount() == 64)
+                    writer.drain(results);
+            }
+            writer.drain(results);
+            assertEquals(1000, writer.getRowCount());
+            assertEquals(0, results.getRowCount());
+        }
+
+        try (CSVTableReader reader = new CSVTableReader(FileChannel.open(file.toPath()), ",", 37)) {
+            assertEquals(Arrays.asList("i", "x", "label"), reader.getColumnNames());
+            assertArrayEquals(new Object[] { CSVTableReader.ColumnType.LONG,
+                    CSVTableReader.ColumnType.DOUBLE, CSVTableReader.ColumnType.STRING },
+                    reader.getColumnTypes());
+            int rows = 0;
+            ColumnarTable chunk;
+            while ((chunk = reader.readChunk(300)) != null) {
+                assertTrue(chunk.column("x") instanceof ColumnarTable.DoubleColumn);
+                for (int i = 0; i < chunk.getRowCount(); i++, rows++) {
+                    assertEquals((long) rows, chunk.getValueAt(i, 0));
+                    assertEquals(rows * 0.5, chunk.getDouble(i, 1), 0.0);
+                    assertEquals(rows % 100 == 0 ? "a, \"b\"" : "c", chunk.getValueAt(i, 2));
+                }
+            }
+            assertEquals(1000, rows);
+        }
+    }
+
+    @Test
+    public void readWithoutHeaderInfersLateValues() throws Exception {
+        File file = File.createTempFile("table", ".csv");
+        file.deleteOnExit();
+        try (CSVTableWriter writer = CSVTableWriter.open(file.toPath(), " ")) {
+            writer.writeRow(new double[] { 1.0, 2.0 });
+            writer.writeRow(Arrays.asList(3, null));
+            writer.writeRow(Arrays.asList("x", 4.5));
+        }
+        try (CSVTableReader reader = CSVTableReader.open(file.toPath(), " ").setHeader(false).setSampleSize(2)) {
+            List<List<Object>> rows = new ArrayList<>();
+            reader.forEachRow(rows::add);
+            assertEquals(Arrays.asList("c0", "c1"), reader.getColumnNames());
+            assertEquals(Arrays.asList(1.0, 2.0), rows.get(0));
+            assertEquals(Arrays.asList(3.0, null), rows.get(1));
+            assertEquals(Arrays.asList("x", 4.5), rows.get(2));
+        }
+    }
+}
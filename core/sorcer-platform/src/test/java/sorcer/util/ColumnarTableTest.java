@@ -0,0 +1,88 @@
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnarTableTest {
+
+    private ColumnarTable newTable() {
+        List<List<?>> rows = new ArrayList<>();
+        rows.add(Arrays.asList(1.0, 10, "a"));
+        rows.add(Arrays.asList(3.0, 20, "b"));
+        rows.add(Arrays.asList(2.0, null, "a"));
+        return new ColumnarTable(rows, new ArrayList<>(Arrays.asList("x", "n", "s")));
+    }
+
+    @Test
+    public void rowViewMatchesDataTable() {
+        ColumnarTable table = newTable();
+        DataTable rowTable = table.toDataTable();
+        assertEquals(3, table.getRowCount());
+        assertEquals(rowTable.getDataList(), table.getDataList());
+        assertEquals(Arrays.asList(3.0, 20, "b"), table.getRow(1));
+        assertEquals(Arrays.asList(10, 20, null), table.getColumn("n"));
+        assertTrue(table.getValueAt(0, 1) instanceof Integer);
+        assertTrue(table.equals(rowTable));
+    }
+
+    @Test
+    public void typedColumnsAndAggregates() {
+        ColumnarTable table = newTable();
+        assertTrue(table.column("x") instanceof ColumnarTable.DoubleColumn);
+        assertTrue(table.column("n") instanceof ColumnarTable.LongColumn);
+        assertTrue(table.column("s") instanceof ColumnarTable.StringColumn);
+        assertEquals(2, ((ColumnarTable.StringColumn) table.column("s")).getCardinality());
+
+        assertEquals(1.0, table.min("x"), 0.0);
+        assertEquals(3.0, table.max("x"), 0.0);
+        assertEquals(6.0, table.sum("x"), 0.0);
+        assertEquals(2.0, table.mean("x"), 0.0);
+        assertEquals(15.0, table.mean("n"), 0.0);
+        assertArrayEquals(new Double[] { 1.0, 3.0 }, table.getMinMaxValuesAsDouble("x"));
+    }
+
+    @Test
+    public void primitiveRowsAndZeroCopyViews() {
+        ColumnarTable table = new ColumnarTable(Arrays.asList("a", "b"), 0);
+        for (int i = 0; i < 1000; i++) {
+            table.addRow(new double[] { i, 2.0 * i });
+        }
+        DoubleBuffer b = table.getDoubleBuffer("b");
+        assertEquals(1000, b.remaining());
+        assertEquals(1998.0, b.get(999), 0.0);
+        assertTrue(b.isReadOnly());
+        assertEquals(499.5, table.mean("a"), 0.0);
+        assertEquals(4.0, table.getDouble(2, "b"), 0.0);
+    }
+
+    @Test
+    public void mixedValuesFallBackToObjects() {
+        ColumnarTable table = newTable();
+        table.setValueAt("high", 1, 0);
+        assertTrue(table.column("x") instanceof ColumnarTable.ObjectColumn);
+        assertEquals(Arrays.asList(1.0, "high", 2.0), table.getColumn("x"));
+    }
+
+    @Test
+    public void rowEditing() throws Exception {
+        ColumnarTable table = newTable();
+        table.insertRow(0, Arrays.asList(0.0, 0, "z"));
+        table.removeRow(2);
+        assertEquals(Arrays.asList(0.0, 1.0, 2.0), table.getColumn("x"));
+        table.moveRow(0, 0, 2);
+        assertEquals(Arrays.asList(1.0, 2.0, 0.0), table.getColumn("x"));
+        table.getRow(0).set(2, "c");
+        assertEquals("c", table.getValueAt(0, "s"));
+        table.addColumn("y", Arrays.asList(7L, 8L, 9L));
+        assertEquals(9L, table.getValueAt(2, 3));
+        table.removeColumn(1);
+        assertEquals(Arrays.asList("x", "s", "y"), table.getColumnNames());
+        assertEquals(Arrays.asList(2.0, "a", 8L), table.getRow(1));
+    }
+}
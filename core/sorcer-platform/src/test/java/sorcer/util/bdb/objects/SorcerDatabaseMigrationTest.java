@@ -0,0 +1,97 @@
+package sorcer.util.bdb.objects;
+
+import com.sleepycat.bind.serial.SerialBinding;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sorcer.core.provider.DatabaseStorer.Store;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SorcerDatabaseMigrationTest {
+
+    private static final String FORMER_STORE = "context_store";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SorcerDatabase db;
+
+    @Before
+    public void open() throws Exception {
+        db = new SorcerDatabase(folder.getRoot().getPath());
+    }
+
+    @After
+    public void close() throws Exception {
+        db.close();
+    }
+
+    private void putFormer(Uuid id, Object value, byte[] corrupt) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setTransactional(true);
+        config.setAllowCreate(true);
+        Database formerDb = db.getEnvironment().openDatabase(null, FORMER_STORE, config);
+        try {
+            DatabaseEntry key = new DatabaseEntry();
+            new SerialBinding(db.getClassCatalog(), UuidKey.class).objectToEntry(new UuidKey(id), key);
+            DatabaseEntry data = new DatabaseEntry();
+            if (corrupt != null)
+                data.setData(corrupt);
+            else
+                new SerialBinding(db.getClassCatalog(), null).objectToEntry(value, data);
+            formerDb.put(null, key, data);
+        } finally {
+            formerDb.close();
+        }
+    }
+
+    private long count(String store) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setTransactional(true);
+        Database storeDb = db.getEnvironment().openDatabase(null, store, config);
+        try {
+            return storeDb.count();
+        } finally {
+            storeDb.close();
+        }
+    }
+
+    @Test
+    public void unreadableEntriesAreMoved() throws Exception {
+        Uuid valid = UuidFactory.generate();
+        putFormer(valid, "value", null);
+        putFormer(UuidFactory.generate(), null, new byte[] { 1, 2, 3, 4 });
+
+        Map<Uuid, Object> records = new HashMap<>();
+        db.migrate(Store.context, records::put);
+
+        assertEquals(1, records.size());
+        assertEquals("value", records.get(valid));
+        List<String> names = db.getEnvironment().getDatabaseNames();
+        assertFalse(names.contains(FORMER_STORE));
+        assertEquals(1, count(FORMER_STORE + "_unreadable"));
+    }
+
+    @Test
+    public void viewsOpenWithUnreadableEntries() throws Exception {
+        putFormer(UuidFactory.generate(), null, new byte[] { 1, 2, 3, 4 });
+
+        SorcerDatabaseViews views = new SorcerDatabaseViews(db);
+
+        assertTrue(views.getContextMap().isEmpty());
+        assertFalse(db.getEnvironment().getDatabaseNames().contains(FORMER_STORE));
+        assertEquals(1, count(FORMER_STORE + "_unreadable"));
+    }
+}
@@ -0,0 +1,65 @@
+package sorcer.util.url.sos;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.Test;
+import sorcer.core.provider.DatabaseStorer.Store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SdbCacheTest {
+
+    @Test
+    public void hitsReturnCopies() {
+        SdbCache cache = new SdbCache(10, 60000);
+        Uuid id = UuidFactory.generate();
+        assertNull(cache.get(Store.object, id));
+        List<String> stored = new ArrayList<>(Arrays.asList("a", "b"));
+        cache.put(Store.object, id, stored);
+
+        List<String> first = (List<String>) cache.get(Store.object, id);
+        assertEquals(stored, first);
+        assertNotSame(stored, first);
+        first.add("c");
+        assertEquals(stored, cache.get(Store.object, id));
+        assertNull(cache.get(Store.context, id));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getSavedRemoteCalls());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void pinnedObjectsAreSharedUntilInvalidated() {
+        SdbCache cache = new SdbCache(1, 60000);
+        Uuid id = UuidFactory.generate();
+        Object context = new Object();
+        cache.pin(Store.context, id, context);
+        for (int i = 0; i < 5; i++) {
+            cache.put(Store.object, UuidFactory.generate(), "v" + i);
+        }
+        assertSame(context, cache.get(Store.context, id));
+        cache.invalidate(id);
+        assertNull(cache.get(Store.context, id));
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void sizeAndTimeBoundedEviction() throws Exception {
+        SdbCache cache = new SdbCache(2, 50);
+        Uuid id = UuidFactory.generate();
+        cache.put(Store.object, id, "x");
+        assertEquals("x", cache.get(Store.object, id));
+        Thread.sleep(100);
+        assertNull(cache.get(Store.object, id));
+        for (int i = 0; i < 10; i++) {
+            cache.put(Store.object, UuidFactory.generate(), i);
+        }
+        assertTrue(cache.size() <= 2);
+    }
+}
@@ -10,7 +10,15 @@ import sorcer.arithmetic.provider.impl.MultiplierImpl;
 import sorcer.core.invoker.*;
 import sorcer.service.*;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static sorcer.co.operator.*;
 import static sorcer.co.operator.setValue;
@@ -99,4 +107,100 @@ public class Pipelines {
 		assertEquals(6500.0, value(out, "z"));
 	}
 
+	@Test
+	public void pipelinedItemsAreIsolated() throws Exception {
+
+		Opservice sum = invoker("sum", "x + y", args("x", "y"));
+		Opservice scaled = invoker("scaled", "sum * 2", args("sum"));
+		Pipeline pp = pl("isolated", sum, scaled);
+		pp.setQueueCapacity(2);
+
+		List<Context> inputs = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			inputs.add(context("item-" + i, inVal("x", (double) i), inVal("y", 10.0 * i)));
+		}
+		List<Context> outputs = pp.evaluate(inputs.iterator());
+
+		assertEquals(inputs.size(), outputs.size());
+		for (int i = 0; i < inputs.size(); i++) {
+			// each output depends only on its own input
+			Context out = outputs.get(i);
+			assertEquals((double) i, value(out, "x"));
+			assertEquals(11.0 * i, value(out, "sum"));
+			assertEquals(22.0 * i, value(out, "scaled"));
+			// inputs are not modified
+			assertFalse(inputs.get(i).containsPath("sum"));
+			assertFalse(inputs.get(i).containsPath("scaled"));
+		}
+	}
+
+	@Test
+	public void pipelinedStagesAreCopiedOncePerWorker() throws Exception {
+
+		CopyCountingInvoker sum = new CopyCountingInvoker("sum", "x + y", args("x", "y").argSet());
+		Opservice scaled = invoker("scaled", "sum * 2", args("sum"));
+		Pipeline pp = pl("copied", sum, scaled);
+		pp.setQueueCapacity(2);
+
+		List<Context> inputs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			inputs.add(context("item-" + i, inVal("x", (double) i), inVal("y", 10.0 * i)));
+		}
+		CopyCountingInvoker.copies.set(0);
+		List<Context> outputs = pp.evaluate(inputs.iterator());
+
+		// one copy of the stage evaluates all items
+		assertEquals(1, CopyCountingInvoker.copies.get());
+		assertEquals(inputs.size(), outputs.size());
+		for (int i = 0; i < inputs.size(); i++) {
+			assertEquals(11.0 * i, value(outputs.get(i), "sum"));
+			assertEquals(22.0 * i, value(outputs.get(i), "scaled"));
+		}
+	}
+
+	@Test
+	public void pipelinedStagesNotSerializable() throws Exception {
+
+		LocalInvoker sum = new LocalInvoker("sum", "x + y", args("x", "y").argSet());
+		sum.setInvokeContext(null);
+		Pipeline pp = pl("local", sum, invoker("scaled", "sum * 2", args("sum")));
+
+		List<Context> inputs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			inputs.add(context("item-" + i, inVal("x", (double) i), inVal("y", 10.0 * i)));
+		}
+		List<Context> outputs = pp.evaluate(inputs.iterator());
+
+		assertEquals(inputs.size(), outputs.size());
+		for (int i = 0; i < inputs.size(); i++) {
+			assertEquals(11.0 * i, value(outputs.get(i), "sum"));
+			assertEquals(22.0 * i, value(outputs.get(i), "scaled"));
+		}
+		// the stage itself is evaluated and its contexts are restored
+		assertNull(sum.getInvokeContext());
+		assertNull(sum.getScope());
+	}
+
+	public static class CopyCountingInvoker extends GroovyInvoker {
+		static final AtomicInteger copies = new AtomicInteger();
+
+		public CopyCountingInvoker(String name, String expression, ArgSet args) {
+			super(name, expression, args);
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			copies.incrementAndGet();
+		}
+	}
+
+	public static class LocalInvoker extends GroovyInvoker {
+		// not serializable
+		private final Object lock = new Object();
+
+		public LocalInvoker(String name, String expression, ArgSet args) {
+			super(name, expression, args);
+		}
+	}
+
 }
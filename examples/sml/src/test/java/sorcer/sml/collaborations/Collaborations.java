@@ -91,4 +91,48 @@ public class Collaborations {
         assertEquals(0.5, value(out, "ratio"));
     }
 
+    private static Context ratioContext() throws Exception {
+        return context(explFi("explorer",
+            expl("explorer1",
+                (Context cxt) -> {
+                    double z1 = (double)value(cxt, "z1");
+                    double z2 = (double)value(cxt, "z2");
+                    setValue(cxt, "ratio", z2/z1);
+                    return cxt;
+                })),
+            mdaFi("analyzer",
+                (mda("analyzer1",
+                    (Request collab, Context cxt) -> {
+                        String dmnName = dmnName(cxt);
+                        if (dmnName.equals("srvBlock")) {
+                            setValue(cxt, "z1", (double)value(cxt, "arg/t5")
+                                * (double)value(cxt, "arg/x2") / (double)value(cxt, "arg/x1"));
+                        } else if (dmnName.equals("entModel")) {
+                            setValue(cxt, "z2", ((double)value(cxt, "y1") + (double)value(cxt, "y2")) / 2.4);
+                        }
+                    }))));
+    }
+
+    private static Context evalCollab(Strategy.Flow flow) throws Exception {
+        Collaboration collab = (Collaboration) instance(
+            sig("getArithmeticColab1", CollabBuilder.class));
+        collab.getDomainStrategy().setFlowType(flow);
+        assertEquals(flow == Strategy.Flow.PAR, collab.isParallel());
+        return eval(collab, ratioContext());
+    }
+
+    @Test
+    public void parallelDisciplines() throws Exception {
+        // srvBlock and entModel are not coupled, under PAR they are evaluated concurrently
+        Context seqOut = evalCollab(Strategy.Flow.SEQ);
+        Context parOut = evalCollab(Strategy.Flow.PAR);
+        logger.info("SEQ out: " + seqOut);
+        logger.info("PAR out: " + parOut);
+
+        for (String path : new String[] { "z1", "z2", "ratio", "y1", "y2", "arg/t5" }) {
+            assertEquals(path, value(seqOut, path), value(parOut, path));
+        }
+        assertEquals(0.5, value(parOut, "ratio"));
+    }
+
 }
@@ -0,0 +1,81 @@
+package sorcer.sml.contexts;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sorcer.test.ProjectContext;
+import org.sorcer.test.SorcerTestRunner;
+import sorcer.core.context.model.ent.EntryModel;
+import sorcer.core.context.model.ent.FdDifferentiator;
+import sorcer.core.context.model.ent.FdDifferentiator.Scheme;
+import sorcer.service.modeling.Wrt;
+
+import static org.junit.Assert.assertEquals;
+import static sorcer.co.operator.inVal;
+import static sorcer.ent.operator.invoker;
+import static sorcer.eo.operator.args;
+import static sorcer.mo.operator.entModel;
+
+@RunWith(SorcerTestRunner.class)
+@ProjectContext("examples/sml")
+public class DifferentiatedModels {
+	private final static Logger logger = LoggerFactory.getLogger(DifferentiatedModels.class);
+
+	// y = x1^2 * x2 + 3 * x2, defined for x1 <= 2 only
+	private static EntryModel model() throws Exception {
+		EntryModel mdl = entModel("fd", inVal("x1", 2.0), inVal("x2", 5.0));
+		mdl.putValue("y", invoker("y",
+				"if (x1 > 2.0) throw new IllegalArgumentException('x1 out of bounds'); x1 * x1 * x2 + 3 * x2",
+				args("x1", "x2")));
+		return mdl;
+	}
+
+	private static double[] gradient(Scheme scheme, double x1) throws Exception {
+		FdDifferentiator fd = new FdDifferentiator(model(), new Wrt("x1", "x2"), "y");
+		fd.setScheme(scheme);
+		fd.differentiate(inVal("x1", x1));
+		double[] gradient = fd.getGradient("y");
+		logger.info(scheme + " gradient at x1 = " + x1 + ": " + gradient[0] + ", " + gradient[1]);
+		return gradient;
+	}
+
+	@Test
+	public void schemesMatchAnalyticGradient() throws Exception {
+		// dy/dx1 = 2 * x1 * x2, dy/dx2 = x1^2 + 3
+		double x1 = 1.5, x2 = 5.0;
+		double[] forward = gradient(Scheme.FORWARD, x1);
+		double[] backward = gradient(Scheme.BACKWARD, x1);
+		double[] central = gradient(Scheme.CENTRAL, x1);
+
+		assertEquals(2 * x1 * x2, forward[0], 1e-4);
+		assertEquals(x1 * x1 + 3, forward[1], 1e-4);
+		assertEquals(2 * x1 * x2, backward[0], 1e-4);
+		assertEquals(x1 * x1 + 3, backward[1], 1e-4);
+		// central differences are exact for quadratics up to rounding
+		assertEquals(2 * x1 * x2, central[0], 1e-6);
+		assertEquals(x1 * x1 + 3, central[1], 1e-6);
+	}
+
+	@Test
+	public void stepsStayWithinBounds() throws Exception {
+		// forward and central differences at the upper bound of x1
+		for (Scheme scheme : new Scheme[] { Scheme.FORWARD, Scheme.CENTRAL }) {
+			FdDifferentiator fd = new FdDifferentiator(model(), new Wrt("x1", "x2"), "y");
+			fd.setScheme(scheme);
+			fd.setBounds("x1", 0.0, 2.0);
+			fd.differentiate();
+			double[] gradient = fd.getGradient("y");
+			assertEquals(20.0, gradient[0], 1e-4);
+			assertEquals(7.0, gradient[1], 1e-4);
+		}
+
+		// bounds of x2 narrower than the step
+		FdDifferentiator fd = new FdDifferentiator(model(), new Wrt("x1", "x2"), "y");
+		fd.setScheme(Scheme.CENTRAL);
+		fd.setBounds("x1", 0.0, 2.0);
+		fd.setBounds("x2", 5.0 - 1e-8, 5.0 + 1e-7);
+		fd.differentiate();
+		assertEquals(7.0, fd.getGradient("y")[1], 1e-4);
+	}
+}
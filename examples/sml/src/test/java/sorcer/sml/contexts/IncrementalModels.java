@@ -0,0 +1,88 @@
+package sorcer.sml.contexts;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sorcer.test.ProjectContext;
+import org.sorcer.test.SorcerTestRunner;
+import sorcer.core.context.model.ent.DependencyTracker;
+import sorcer.core.context.model.ent.EntryModel;
+import sorcer.core.context.model.req.RequestModel;
+import sorcer.service.Context;
+
+import static org.junit.Assert.assertEquals;
+import static sorcer.co.operator.*;
+import static sorcer.ent.operator.invoker;
+import static sorcer.ent.operator.srv;
+import static sorcer.eo.operator.args;
+import static sorcer.mo.operator.*;
+import static sorcer.so.operator.response;
+
+@RunWith(SorcerTestRunner.class)
+@ProjectContext("examples/sml")
+public class IncrementalModels {
+	private final static Logger logger = LoggerFactory.getLogger(IncrementalModels.class);
+
+	@Test
+	public void replacedInvokerWithPutValue() throws Exception {
+
+		EntryModel mdl = entModel(inVal("x", 20.0));
+		mdl.setIncremental(true);
+		mdl.putValue("y", invoker("y", "x + 1", args("x")));
+		mdl.putValue("z", invoker("z", "y * 2", args("y")));
+
+		assertEquals(21.0, mdl.getValue("y"));
+		assertEquals(42.0, mdl.getValue("z"));
+
+		// the reads of y are unchanged but y itself is a new invoker
+		mdl.putValue("y", invoker("y", "x * 3", args("x")));
+		assertEquals(60.0, mdl.getValue("y"));
+		assertEquals(120.0, mdl.getValue("z"));
+
+		DependencyTracker tracker = mdl.getDependencyTracker();
+		logger.info("evaluations: " + tracker.getEvaluationCount());
+		assertEquals(4, tracker.getEvaluationCount());
+	}
+
+	@Test
+	public void replacedInvokerWithPut() throws Exception {
+
+		EntryModel mdl = entModel(inVal("x", 20.0));
+		mdl.setIncremental(true);
+		mdl.put("y", invoker("y", "x + 1", mdl, args("x")));
+
+		assertEquals(21.0, mdl.getValue("y"));
+		assertEquals(21.0, mdl.getValue("y"));
+		assertEquals(1, mdl.getDependencyTracker().getReuseCount());
+
+		mdl.put("y", invoker("y", "x * 3", mdl, args("x")));
+		assertEquals(60.0, mdl.getValue("y"));
+	}
+
+	@Test
+	public void dependencyInputChangedWithinResponse() throws Exception {
+
+		// b requires copyY executed again after setX has changed x
+		RequestModel mdl = (RequestModel) model(inVal("x", 1.0),
+				srv("setX", (Context<Double> cxt) -> putValue(cxt, "x", 2.0)),
+				srv("copyY", (Context<Double> cxt) -> putValue(cxt, "yCopy", v(cxt, "x") * 10.0)),
+				srv("a", (Context<Double> cxt) -> v(cxt, "yCopy")),
+				srv("b", (Context<Double> cxt) -> v(cxt, "yCopy")),
+				srv("c", (Context<Double> cxt) -> v(cxt, "yCopy")),
+				response("a", "b", "c"));
+
+		dependsOn(mdl, dep("a", paths("copyY")),
+				dep("b", paths("setX", "copyY")),
+				dep("c", paths("copyY")));
+		mdl.setIncremental(true);
+
+		Context out = response(mdl);
+		logger.info("model response: " + out);
+		assertEquals(10.0, get(out, "a"));
+		assertEquals(20.0, get(out, "b"));
+		assertEquals(20.0, get(out, "c"));
+		// copyY of c is not changed since b
+		assertEquals(1, mdl.getDependencyMemo().getAvoidedCount());
+	}
+}
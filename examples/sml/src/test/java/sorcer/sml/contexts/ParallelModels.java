@@ -0,0 +1,60 @@
+package sorcer.sml.contexts;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sorcer.test.ProjectContext;
+import org.sorcer.test.SorcerTestRunner;
+import sorcer.core.context.model.ent.EntryModel;
+import sorcer.service.Context;
+import sorcer.service.Strategy.Flow;
+
+import static org.junit.Assert.assertEquals;
+import static sorcer.co.operator.inVal;
+import static sorcer.ent.operator.invoker;
+import static sorcer.eo.operator.args;
+import static sorcer.mo.operator.*;
+import static sorcer.so.operator.response;
+
+@RunWith(SorcerTestRunner.class)
+@ProjectContext("examples/sml")
+public class ParallelModels {
+	private final static Logger logger = LoggerFactory.getLogger(ParallelModels.class);
+
+	// a and b share the evaluated entry "shared", c and d are independent
+	private static EntryModel model(Flow flow) throws Exception {
+		EntryModel mdl = entModel("responses", inVal("x1", 2.0), inVal("x2", 3.0));
+		mdl.putValue("shared", invoker("shared", "x1 * x2", args("x1", "x2")));
+		mdl.putValue("a", invoker("a", "shared + 1", args("shared")));
+		mdl.putValue("b", invoker("b", "shared * 2", args("shared")));
+		mdl.putValue("c", invoker("c", "x1 + x2", args("x1", "x2")));
+		mdl.putValue("d", invoker("d", "x1 - x2", args("x1", "x2")));
+		responseUp(mdl, "a", "b", "c", "d");
+		mdl.getDomainStrategy().setFlowType(flow);
+		return mdl;
+	}
+
+	@Test
+	public void parallelAndSequentialResponses() throws Exception {
+		EntryModel seqMdl = model(Flow.SEQ);
+		EntryModel parMdl = model(Flow.PAR);
+		assertEquals(false, seqMdl.isParallel());
+		assertEquals(true, parMdl.isParallel());
+
+		Context seq = response(seqMdl);
+		logger.info("sequential response: " + seq);
+		assertEquals(7.0, get(seq, "a"));
+		assertEquals(12.0, get(seq, "b"));
+		assertEquals(5.0, get(seq, "c"));
+		assertEquals(-1.0, get(seq, "d"));
+
+		// repeated to expose interference of concurrent evaluations
+		for (int i = 0; i < 20; i++) {
+			Context par = response(parMdl);
+			for (String path : new String[] { "a", "b", "c", "d" }) {
+				assertEquals(get(seq, path), get(par, path));
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package sorcer.sml.contexts;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sorcer.test.ProjectContext;
+import org.sorcer.test.SorcerTestRunner;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.context.model.ent.EntryModel;
+import sorcer.core.context.model.ent.ParametricRunner;
+import sorcer.service.Context;
+import sorcer.service.EvaluationException;
+import sorcer.service.modeling.Modeling;
+import sorcer.util.DataTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static sorcer.co.operator.inVal;
+import static sorcer.ent.operator.invoker;
+import static sorcer.eo.operator.args;
+import static sorcer.mo.operator.entModel;
+import static sorcer.mo.operator.responseUp;
+
+@RunWith(SorcerTestRunner.class)
+@ProjectContext("examples/sml")
+public class ParametricModels {
+	private final static Logger logger = LoggerFactory.getLogger(ParametricModels.class);
+
+	private static EntryModel studyModel() throws Exception {
+		EntryModel mdl = entModel("study", inVal("x1", 0.0), inVal("x2", 0.0));
+		mdl.putValue("y", invoker("y", "x1 * x2 + x1", args("x1", "x2")));
+		responseUp(mdl, "y");
+		return mdl;
+	}
+
+	private static List<List<?>> rows(int count) {
+		List<List<?>> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(Arrays.asList((double) i, 2.0));
+		}
+		return rows;
+	}
+
+	@Test
+	public void responseStreamInInputOrder() throws Exception {
+		EntryModel mdl = studyModel();
+		DataTable table = new DataTable(rows(50), Arrays.asList("x1", "x2"));
+		StringWriter out = new StringWriter();
+
+		Context cxt = new ServiceContext("stream");
+		cxt.putValue(Modeling.IN_STREAM, table);
+		cxt.putValue(Modeling.OUT_STREAM, out);
+		mdl.evaluateResponseStream(cxt);
+
+		assertEquals(50L, cxt.getValue(Modeling.OUT_STREAM_ROWS));
+		String[] lines = out.toString().trim().split("\\R");
+		assertEquals(50, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			// x1, x2, y = x1 * x2 + x1
+			assertEquals(i + ".0,2.0," + (3.0 * i), lines[i]);
+		}
+	}
+
+	@Test
+	public void rowsAreReadWithinWindow() throws Exception {
+		ParametricRunner runner = new ParametricRunner(studyModel());
+		runner.setWindow(4);
+		AtomicLong read = new AtomicLong();
+		Iterator<List<?>> source = rows(100).iterator();
+		Iterator<List<?>> rows = new Iterator<List<?>>() {
+			@Override
+			public boolean hasNext() {
+				return source.hasNext();
+			}
+
+			@Override
+			public List<?> next() {
+				read.incrementAndGet();
+				return source.next();
+			}
+		};
+		List<Long> lead = new ArrayList<>();
+		long written = runner.run(Arrays.asList("x1", "x2"), rows,
+				(index, row) -> lead.add(read.get() - index));
+
+		assertEquals(100, written);
+		for (long l : lead) {
+			// at most a window of rows evaluated or waiting to be written
+			assertTrue(l <= runner.getWindow());
+		}
+	}
+
+	@Test
+	public void resumeFromCheckpoint() throws Exception {
+		File checkpoint = File.createTempFile("study", ".checkpoint");
+		assertTrue(checkpoint.delete());
+		try {
+			List<Object[]> out = new ArrayList<>();
+			ParametricRunner runner = new ParametricRunner(studyModel());
+			runner.setCheckpoint(checkpoint);
+			runner.setCheckpointInterval(10);
+			try {
+				runner.run(Arrays.asList("x1", "x2"), rows(50).iterator(), (index, row) -> {
+					if (index == 25)
+						throw new IOException("disk full");
+					out.add(row);
+				});
+				fail();
+			} catch (EvaluationException e) {
+				logger.info("interrupted study: " + e.getMessage());
+			}
+			assertEquals("25", new String(Files.readAllBytes(checkpoint.toPath()), StandardCharsets.UTF_8).trim());
+
+			// the rerun appends the rows not written before
+			long written = runner.run(Arrays.asList("x1", "x2"), rows(50).iterator(),
+					(index, row) -> out.add(row));
+			assertEquals(50, written);
+			assertEquals(50, out.size());
+			for (int i = 0; i < out.size(); i++) {
+				assertEquals((double) i, out.get(i)[0]);
+				assertEquals(3.0 * i, out.get(i)[2]);
+			}
+		} finally {
+			Files.deleteIfExists(checkpoint.toPath());
+		}
+	}
+}
@@ -7,17 +7,24 @@ import org.slf4j.LoggerFactory;
 import org.sorcer.test.ProjectContext;
 import org.sorcer.test.SorcerTestRunner;
 import sorcer.arithmetic.provider.Adder;
+import sorcer.arithmetic.provider.Multiplier;
 import sorcer.arithmetic.provider.impl.AdderImpl;
 import sorcer.arithmetic.provider.impl.AveragerImpl;
 import sorcer.arithmetic.provider.impl.MultiplierImpl;
 import sorcer.arithmetic.provider.impl.SubtractorImpl;
 import sorcer.core.context.Connector;
+import sorcer.core.context.model.req.RequestModel;
 import sorcer.core.provider.rendezvous.ServiceJobber;
 import sorcer.service.*;
 import sorcer.service.Strategy.Flow;
 import sorcer.service.modeling.Model;
 import sorcer.service.ContextDomain;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static sorcer.co.operator.*;
@@ -355,4 +362,49 @@ public class RequestModels {
         assertTrue(value(result, "y3").equals(4420.0));
     }
 
+    // records the batches of remote requests
+    private static class BatchingModel extends RequestModel {
+        private final List<List<String>> batches = new ArrayList<>();
+
+        BatchingModel(String name) {
+            super(name);
+        }
+
+        @Override
+        protected List<String> execBatch(List<String> batch, Map<String, Signature> requests, Arg... args) {
+            batches.add(new ArrayList<>(batch));
+            return super.execBatch(batch, requests, args);
+        }
+    }
+
+    @Test
+    public void batchedRemoteRequests() throws Exception {
+
+        BatchingModel mdl = new BatchingModel("batches");
+        add(mdl, inVal("x1", 10.0), inVal("x2", 20.0), inVal("x3", 30.0), inVal("x4", 40.0),
+                ent(sig("a", "add", Adder.class, result("a/y", inPaths("x1", "x2")))),
+                ent(sig("b", "add", Adder.class, result("b/y", inPaths("x3", "x4")))),
+                ent(sig("c", "multiply", Multiplier.class, result("c/y", inPaths("x1", "x2")))),
+                // dependent requests
+                ent(sig("d", "add", Adder.class, result("d/y", inPaths("a/y", "b/y")))),
+                ent(sig("e", "multiply", Multiplier.class, result("e/y", inPaths("a/y", "c/y")))),
+                ent(sig("f", "add", Adder.class, result("f/y", inPaths("b/y", "c/y")))));
+        responseUp(mdl, "a", "b", "c", "d", "e", "f");
+        mdl.setRequestBatching(true);
+
+        Context out = response(mdl);
+        logger.info("batched response: " + out);
+        assertEquals(30.0, get(out, "a"));
+        assertEquals(70.0, get(out, "b"));
+        assertEquals(200.0, get(out, "c"));
+        assertEquals(100.0, get(out, "d"));
+        assertEquals(6000.0, get(out, "e"));
+        assertEquals(270.0, get(out, "f"));
+
+        // c is exerted ahead of d, e, and f that are not ready before a, b, and c
+        logger.info("batches: " + mdl.batches);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"),
+                Arrays.asList("d", "f")), mdl.batches);
+    }
+
 }
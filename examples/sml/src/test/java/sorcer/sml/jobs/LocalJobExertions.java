@@ -9,12 +9,16 @@ import sorcer.arithmetic.provider.impl.ArithmeticUtil;
 import sorcer.arithmetic.provider.impl.MultiplierImpl;
 import sorcer.arithmetic.provider.impl.SubtractorImpl;
 import sorcer.core.SorcerConstants;
+import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.core.provider.rendezvous.ServiceJobber;
 import sorcer.service.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.*;
@@ -424,4 +428,44 @@ public class LocalJobExertions implements SorcerConstants {
 		logger.info("j1/t3/result/y: " + out);
 		assertEquals(value(out, "j1/t3/result/y"), 400.0);
 	}
+
+	private static Job pipelineJob() throws Exception {
+		Task t3 = task("t3", sig("subtract", SubtractorImpl.class),
+				context("subtract", inVal("arg/x1"), inVal("arg/x2"), outVal("result/y")));
+		Task t4 = task("t4", sig("multiply", MultiplierImpl.class),
+				context("multiply", inVal("arg/x1", 10.0), inVal("arg/x2", 50.0), outVal("result/y")));
+		Task t5 = task("t5", sig("add", AdderImpl.class),
+				context("add", inVal("arg/x1", 20.0), inVal("arg/x2", 80.0), outVal("result/y")));
+
+		return job(sig("exert", ServiceJobber.class),
+				"j1", t4, t5, t3,
+				pipe(outPoint(t4, "result/y"), inPoint(t3, "arg/x1")),
+				pipe(outPoint(t5, "result/y"), inPoint(t3, "arg/x2")));
+	}
+
+	@Test
+	public void exertJobAsync() throws Exception {
+
+		Mogram out = new ServiceShell().exertAsync(pipelineJob(), null).get(30, TimeUnit.SECONDS);
+		Context context = upcontext(out);
+		logger.info("job upcontext: " + context);
+		assertTrue(value(context, "j1/t3/result/y").equals(400.0));
+	}
+
+	@Test
+	public void suspendedJobAsync() throws Exception {
+
+		Job job = pipelineJob();
+		// the job is suspended for review of t4
+		job.getControlContext().setReview((Routine) job.getMogram("t4"), true);
+		try {
+			new ServiceShell().exertAsync(job, null).get(30, TimeUnit.SECONDS);
+			fail("suspended job completed");
+		} catch (ExecutionException e) {
+			logger.info("suspended job: " + e.getCause());
+			assertTrue(e.getCause() instanceof RoutineException);
+			Routine suspended = ((RoutineException) e.getCause()).getRoutne();
+			assertEquals(Exec.SUSPENDED, ((Subroutine) suspended).getStatus());
+		}
+	}
 }
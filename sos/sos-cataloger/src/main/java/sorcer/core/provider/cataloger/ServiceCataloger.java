@@ -25,7 +25,6 @@ import net.jini.core.lookup.ServiceItem;
 import net.jini.core.lookup.ServiceMatches;
 import net.jini.core.lookup.ServiceTemplate;
 import net.jini.discovery.LookupDiscoveryManager;
-import net.jini.id.ReferentUuid;
 import net.jini.lookup.LookupCache;
 import net.jini.lookup.ServiceDiscoveryEvent;
 import net.jini.lookup.ServiceDiscoveryListener;
@@ -39,6 +38,9 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.provider.Cataloger;
+import sorcer.core.provider.ProviderLoad;
+import sorcer.core.provider.ProviderSelector;
+import sorcer.core.provider.ProviderSelectors;
 import sorcer.core.signature.RemoteSignature;
 import sorcer.service.Exerter;
 import sorcer.core.provider.ServiceExerter;
@@ -66,6 +68,7 @@ import java.rmi.server.RMIClassLoader;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The facility for maintaining a cache of all SORCER providers {@link Service}s
@@ -74,33 +77,24 @@ import java.util.concurrent.ConcurrentMap;
  * <p>
  * <ul>
  * <li>It uses <code>ServiceDiscoveryManager</code> with lookup cache.<br>
- * <li>It uses an internal map for storing services called {@link CatalogerInfo}
- * <li>The key of the map is an {@link InterfaceList}, the eval is the list of
- * service proxies (<code>ServiceItem<code>s)
- * <li>{@link InterfaceList} is a list of interfaces with <code>equals</code>
- * overridden such that for <code>(interfaceList1.equals(interfaceList2)</code>
- * returns <code>true</code> if all elements contained in
- * <code>interfaceList2</code> are contained in <code>interfaceList1</code>.
- * <li><code>getValue</code> and <code>put</code> method of {@link CatalogerInfo} are
- * overridden to do nothing.
+ * <li>It uses an internal registry for storing services called {@link CatalogerInfo}
+ * <li>Services are registered by their service IDs and indexed by the
+ * interfaces they implement; a lookup for a list of interfaces intersects
+ * the services implementing each interface of the list
  * </ul>
  * <p>
  * Only access to {@link CatalogerInfo} is via a setValue of "service-aware" methods.
  * They include
  * <ol>
- * <li><code>addServiceItem(SeviceItem)</code>: adds an entry to this hash map
- * such that the key is the <code>InterfaceList</code> describing the service.
- * eval is the serviceItem itself. Value is added always to the first to
- * improve load balancing heuristics (assuming that the latest served service is
- * always removed and added to the end
+ * <li><code>addServiceItem(SeviceItem)</code>: registers the service item
+ * with its interfaces and methods computed once
  * 
  * <li> <code>getServiceItem(String[] interfaces), String providerName))</code>:
- * not only returns the serviceItem with the following specs, but also removes
- * and adds the sericeItem to the end of the list to provide load-balancing
+ * returns the serviceItem with the following specs selected among matching
+ * ones to provide load-balancing
  * 
- * <li>synchronized <code>getServiceItem(ServiceID serviceID)</code> returns a
- * service with a serviceID, with the same load-balancing feature mentioned
- * above
+ * <li><code>getServiceItem(ServiceID serviceID)</code> returns a
+ * service with a serviceID
  * 
  * <li> <code>getServiceMethods())</code> returns a hash map with the key as a
  * service interface (those interfaces package key starting with
@@ -393,26 +387,29 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 	}
 
 	/**
-	 * A customized &quot;sorcer provider&quot; aware a map of the cataloger
+	 * A customized &quot;sorcer provider&quot; aware registry of the cataloger
 	 * info.
 	 * <p>
-	 * The key of the cataloger info is the <code>InterfaceList</code>. This
-	 * inner <code>InterfaceList</code> is an array list of interface names with
-	 * overridden <code>equals</code> such that it follows the following
-	 * semantics: <code>arrayList1.equals(arrayList2</code> iff all interfaces
-	 * of arrayList2 are contained in arrayList1.<br>
-	 * The key eval in <code>InterfaceList</code> is the list of service items
-	 * implementing its key interfaces. Methods <code>getValue</code> and
-	 * <code>put</code> are overridden to do nothing.
+	 * Service items are registered by their service IDs together with a
+	 * {@link ServiceEntry} computed once when the service is added: its names,
+	 * proxy interfaces, and methods of these interfaces. An inverted index maps
+	 * each interface implemented by a proxy, including the superinterfaces of
+	 * proxy interfaces, to the IDs of services implementing it, so a query for
+	 * a list of interfaces is the intersection of the ID sets of its
+	 * interfaces, evaluated from the smallest set. The cost of a lookup depends
+	 * on the number of matching services, not on the number of registered
+	 * services.
 	 * <p>
-	 * The method <code>addServiceItem(SeviceItem)</code> adds an entry to this
-	 * map such that the key is the <code>InterfaceList</code> describing this
-	 * service, the eval is the serviceItem itself.
+	 * The method <code>addServiceItem(SeviceItem)</code> registers the service
+	 * item, replacing the previous registration of the same service ID.
 	 * <p>
 	 * The method
-	 * <code>getServiceItem(String[] interfaces, String providerName)</code> not
-	 * only returns the serviceItem with the following specs, but also removes
-	 * and adds the sericeItem to the end of the list to provide load-balancing
+	 * <code>getServiceItem(String[] interfaces, String providerName)</code>
+	 * returns the serviceItem with the following specs as selected by the
+	 * {@link ProviderSelector} configured with the
+	 * <code>sorcer.provider.selection</code> property, weighted round robin
+	 * by default, to provide load-balancing. No provider loads are observed
+	 * in the cataloger, so load-aware selectors choose at random here
 	 * <p>
 	 * The method <code>getServiceItem(ServiceID serviceID)</code> returns a
 	 * service with a given serviceID
@@ -422,11 +419,12 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 	 */
 	protected static class CatalogerInfo {
 		Cataloger cataloger = null;
-		final ConcurrentMap<InterfaceList, List<ServiceItem>> interfaceListMap = new ConcurrentHashMap<CatalogerInfo.InterfaceList, List<ServiceItem>>();
-
-        public ConcurrentMap<InterfaceList, List<ServiceItem>> getInterfaceListMap() {
-            return interfaceListMap;
-        }
+		// registered services by service ID
+		final ConcurrentMap<ServiceID, ServiceEntry> entries = new ConcurrentHashMap<ServiceID, ServiceEntry>();
+		// IDs of services by implemented interface
+		final ConcurrentMap<String, Set<ServiceID>> interfaceIndex = new ConcurrentHashMap<String, Set<ServiceID>>();
+		// IDs of services by service name
+		final ConcurrentMap<String, Set<ServiceID>> nameIndex = new ConcurrentHashMap<String, Set<ServiceID>>();
 
 		private class CatalogObservable extends Observable {
 			public void tellOfAction(String action) {
@@ -439,6 +437,10 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 
 		private String[] interfaceIgnoreList;
 		private CatalogObservable observable;
+		// selects among matching providers
+		private final ProviderSelector selector;
+		// start of items returned by getServiceItems
+		private final AtomicInteger rotation = new AtomicInteger();
 
 		public CatalogerInfo() {
 			super();
@@ -452,50 +454,93 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			interfaceIgnoreList[6] = "sorcer.service.RemoteTasker";
 			interfaceIgnoreList[7] = "org.rioproject.admin.ServiceActivityProvider";
 			observable = new CatalogObservable();
+			ProviderSelector configured = ProviderSelectors.forName(Sorcer.getProviderSelection());
+			selector = configured != null ? configured : ProviderSelectors.roundRobin();
 		}
 
 		public void setCataloger(Cataloger cataloger) {
 			this.cataloger = cataloger;
 		}
 
-		public void remove(CatalogerInfo.InterfaceList key) {
-			interfaceListMap.remove(key);
+		/**
+		 * The metadata of a registered service computed when the service is
+		 * added.
+		 */
+		class ServiceEntry {
+			final ServiceItem item;
+			// the Name attribute of the service
+			final String name;
+			// the provider name for proxies, otherwise the class name
+			final String serviceName;
+			final Class[] interfaces;
+			// interfaces and their superinterfaces as matched by InterfaceList
+			final Set<String> interfaceKeys;
+			// interface names not on the ignore list
+			final String[] publishedInterfaces;
+			// method names by interface
+			final Map<String, String[]> methods;
+
+			ServiceEntry(ServiceItem item) {
+				this.item = item;
+				name = getName(item.attributeSets);
+				serviceName = item.service instanceof Proxy ? name : item.service.getClass().getName();
+				interfaces = item.service.getClass().getInterfaces();
+				interfaceKeys = new HashSet<String>();
+				List<String> published = new ArrayList<String>();
+				methods = new HashMap<String, String[]>();
+				for (Class c : interfaces) {
+					interfaceKeys.add("" + c);
+					for (Class s : c.getInterfaces())
+						interfaceKeys.add("" + s);
+					if (!Arrays.asList(interfaceIgnoreList).contains(c.getName()))
+						published.add(c.getName());
+					Set<String> names = new HashSet<String>();
+					for (Method m : c.getMethods())
+						names.add(m.getName());
+					methods.put(c.toString(), names.toArray(new String[names.size()]));
+				}
+				publishedInterfaces = published.toArray(new String[published.size()]);
+			}
 		}
 
+		/**
+		 * Removes the registration of the service with the ID of the given
+		 * service item.
+		 */
 		public void remove(ServiceItem value) {
-            InterfaceList found = null;
-            ServiceItem itemFound = null;
-            for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-                    .entrySet()) {
-                for (ServiceItem item : entry.getValue()) {
-                    if (item.serviceID.equals(value.serviceID)) {
-                        found = entry.getKey();
-                        itemFound = item;
-                        break;
-                    }
-                }
-            }
-        }
-
+			unregister(value.serviceID);
+		}
 
 		public void removeServiceItem(ServiceItem sItem) {
-			InterfaceList searchInterfaceList = new InterfaceList(sItem.service
-					.getClass().getInterfaces());
-			List<ServiceItem> value;
             logger.info("Removing ServiceItem from Cataloger: " + sItem.toString());
+			ProviderLoad.remove(sItem.serviceID);
+			aliveChecks.remove(sItem.serviceID);
+			unregister(sItem.serviceID);
+			observable.tellOfAction("UPDATEDPLEASE");
+		}
 
-			for (InterfaceList key : interfaceListMap.keySet()) {
-                if (key.containsAllInterfaces(searchInterfaceList)) {
-					value = interfaceListMap.get(key);
-                    if (value != null) {
-						if (value.size() == 1)
-							remove(key);
-						else
-							removeFrom(value, sItem);
-					}
-				}
+		private synchronized ServiceEntry unregister(ServiceID serviceID) {
+			ServiceEntry entry = entries.remove(serviceID);
+			if (entry != null) {
+				for (String key : entry.interfaceKeys)
+					unindex(interfaceIndex, key, serviceID);
+				if (entry.serviceName != null)
+					unindex(nameIndex, entry.serviceName, serviceID);
 			}
-			observable.tellOfAction("UPDATEDPLEASE");
+			return entry;
+		}
+
+		private static void unindex(ConcurrentMap<String, Set<ServiceID>> index, String key, ServiceID serviceID) {
+			Set<ServiceID> ids = index.get(key);
+			if (ids != null) {
+				ids.remove(serviceID);
+				if (ids.isEmpty())
+					index.remove(key, ids);
+			}
+		}
+
+		private static void index(ConcurrentMap<String, Set<ServiceID>> index, String key, ServiceID serviceID) {
+			index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(serviceID);
 		}
 
 		public void addObserver(Observer observer) {
@@ -503,69 +548,78 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			observable.addObserver(observer);
 		}
 
+		/**
+		 * Returns the service items implementing all interfaces of the list.
+		 */
 		public List<ServiceItem> getAll(InterfaceList interfaceList) {
 			List<ServiceItem> sItems = new ArrayList<ServiceItem>();
-			for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap.entrySet()) {
-                if(logger.isDebugEnabled())
-				logger.debug("list = " + entry.getValue());
-				if (entry.getKey().containsAllInterfaces(interfaceList)) {
-					logger.info("Cataloger found matching interface list: "+ entry.getValue());
-					sItems.addAll(interfaceListMap.get(entry.getKey()));
+			for (ServiceEntry entry : getEntries(interfaceList))
+				sItems.add(entry.item);
+			if (logger.isDebugEnabled())
+				logger.debug("Cataloger found matching services: " + sItems);
+			return sItems;
+		}
+
+		private List<ServiceEntry> getEntries(Collection<Class> interfaces) {
+			if (interfaces == null || interfaces.isEmpty())
+				return new ArrayList<ServiceEntry>(entries.values());
+			List<Set<ServiceID>> sets = new ArrayList<Set<ServiceID>>(interfaces.size());
+			for (Class c : interfaces) {
+				Set<ServiceID> ids = interfaceIndex.get("" + c);
+				if (ids == null)
+					return new ArrayList<ServiceEntry>();
+				sets.add(ids);
+			}
+			Set<ServiceID> smallest = sets.get(0);
+			for (Set<ServiceID> ids : sets) {
+				if (ids.size() < smallest.size())
+					smallest = ids;
+			}
+			List<ServiceEntry> matches = new ArrayList<ServiceEntry>();
+			CANDIDATE:
+			for (ServiceID id : smallest) {
+				for (Set<ServiceID> ids : sets) {
+					if (ids != smallest && !ids.contains(id))
+						continue CANDIDATE;
 				}
+				ServiceEntry entry = entries.get(id);
+				if (entry != null)
+					matches.add(entry);
 			}
-			return sItems;
+			return matches;
 		}
 
-		private boolean alreadyHas(ServiceItem item, List<ServiceItem> list) {
-			boolean has = false;
-			for(ServiceItem si : list) {
-				if(si.serviceID.equals(item.serviceID)) {
-					has = true;
-					break;
+		private List<ServiceEntry> getEntries(String serviceName) {
+			List<ServiceEntry> matches = new ArrayList<ServiceEntry>();
+			Set<ServiceID> ids = serviceName != null ? nameIndex.get(serviceName) : null;
+			if (ids != null) {
+				for (ServiceID id : ids) {
+					ServiceEntry entry = entries.get(id);
+					if (entry != null)
+						matches.add(entry);
 				}
 			}
-			return has;
+			return matches;
 		}
 
 		public void addServiceItem(ServiceItem sItem) {
-			InterfaceList keyList = new InterfaceList(sItem.service.getClass().getInterfaces());
-			List<ServiceItem> sItems = interfaceListMap.get(keyList);
-			if(sItems!=null) {
-				List<ServiceItem> workingList = new ArrayList<>();
-				workingList.addAll(sItems);
-				boolean added = false;
-				for (ServiceItem si : sItems) {
-					if(!alreadyHas(si, workingList)) {
-						workingList.add(0, sItem);
-						added = true;
-					}
-				}
-				interfaceListMap.put(keyList, workingList);
-				if(added) {
-					StringBuilder sb = new StringBuilder();
-					for (ServiceItem i : workingList) {
-						if (sb.length() > 0)
-							sb.append("\n");
-						sb.append("\t")
-						  .append(getName(i.attributeSets))
-						  .append(" sid: ").append(i.serviceID)
-						  .append(" rid: ").append(((ReferentUuid) i.service).getReferentUuid());
-					}
-					logger.info("ServiceItem list for {} was {} now {}\n{}",
-								getName(sItem.attributeSets),
-								sItems.size(),
-								workingList.size(),
-								sb.toString());
-				} else {
-					logger.info("ServiceItem list unchanged for {}",
-								getName(sItem.attributeSets));
-				}
-			} else {
-				sItems = new ArrayList<>();
-				sItems.add(0, sItem);
-				interfaceListMap.put(keyList, sItems);
-				logger.info("ServiceItem list created for {}",
-							getName(sItem.attributeSets));
+			if (sItem == null || sItem.service == null) {
+				logger.warn("ServiceItem without a proxy is not cataloged: {}", sItem);
+				return;
+			}
+			ServiceEntry entry = new ServiceEntry(sItem);
+			synchronized (this) {
+				ServiceEntry previous = unregister(sItem.serviceID);
+				entries.put(sItem.serviceID, entry);
+				for (String key : entry.interfaceKeys)
+					index(interfaceIndex, key, sItem.serviceID);
+				if (entry.serviceName != null)
+					index(nameIndex, entry.serviceName, sItem.serviceID);
+				if (previous != null)
+					logger.info("ServiceItem updated for {} sid: {}", entry.name, sItem.serviceID);
+				else
+					logger.info("ServiceItem added for {} sid: {}, services: {}",
+								entry.name, sItem.serviceID, entries.size());
 			}
 			logger.debug("Added new service, calling notify");
 			observable.tellOfAction("UPDATEDPLEASE");
@@ -573,6 +627,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 
 		private String getName(Entry[] entries) {
 			String name = null;
+			if (entries == null)
+				return name;
 			for(Entry e : entries) {
 				if(e instanceof Name) {
 					name = ((Name)e).name;
@@ -582,38 +638,13 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			return name;
 		}
 
-        private void removeFrom(List<ServiceItem> sis, ServiceItem si) {
-			if (si.service == null)
-				return;
-			for (int i = 0; i < sis.size(); i++)
-				if (si.service.equals(sis.get(i).service)) {
-					sis.remove(i);
-					return;
-				}
-		}
-
 		public String toString() {
 			StringBuilder sb = new StringBuilder();
-			List<ServiceItem> sItems;
-			for(Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap.entrySet()){
-				sItems = entry.getValue();
+			for (ServiceEntry entry : entries.values()) {
 				sb.append("\n");
-				if (sItems != null && sItems.size() > 0
-						&& sItems.get(0) != null) {
-					if (sItems.get(0).attributeSets[0] instanceof Name)
-						sb.append(((Name) (sItems.get(0).attributeSets[0])).name);
-					else
-						sb.append(sItems.get(0).attributeSets[0]);
-
-					for (int i = 1; i < sItems.size(); i++) {
-						if (sItems.get(i).attributeSets[0] instanceof Name)
-							sb.append(",").append(((Name) (sItems.get(i).attributeSets[0])).name);
-						else
-							sb.append(",").append(sItems.get(i).attributeSets[0]);
-					}
-					sb.append("==>\n");
-					sb.append(entry.getKey());
-				}
+				sb.append(entry.name != null ? entry.name : entry.serviceName);
+				sb.append("==>\n");
+				sb.append(Arrays.toString(entry.interfaces));
 			}
 			return sb.toString();
 		}
@@ -624,9 +655,9 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		 * first parameter = String[] of interfaces<br>
 		 * second parameter = providerName if any
 		 * <p>
-		 * This method provides automatic load balancing by providing the
-		 * serviceItem from the beginning and by removing it and adding to the
-		 * end upon each request.
+		 * This method provides automatic load balancing by selecting the
+		 * serviceItem among matching ones with the selector of this cataloger;
+		 * selected providers not alive anymore are removed.
 		 */
 		public ServiceItem getServiceItem(Class[] interfaces,
 				String providerName) {
@@ -634,83 +665,36 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			logger.info("providerName = " + providerName + "\ninterfaces: "
 					+ GenericUtil.arrayToString(interfaces));
 
-			List<ServiceItem> list = getAll(new InterfaceList(interfaces));
-			logger.info("Cinfo getServiceItem, got: " + list);
 			if (providerName != null && providerName.equals(ANY))
 				providerName = null;
-			if (list == null)
-				return null;
-
-			ServiceItem sItem;
+			boolean named = providerName != null && providerName.length() > 0;
+			List<ServiceItem> list = new ArrayList<ServiceItem>();
+			for (ServiceEntry entry : getEntries(new InterfaceList(interfaces))) {
+				if (!named || providerName.equals(entry.name))
+					list.add(entry.item);
+			}
+			logger.info("Cinfo getServiceItem, got: " + list);
 			// provide load balancing and check if still alive
-			if (providerName == null || providerName.length() == 0) {
-				do {
-					if (list.size() == 0)
-						return null;
-					sItem = list.remove(0);
-					if (sItem != null) {
-						if (isAlive(sItem)) {
-							list.add(sItem);
-							return sItem;
-						} else {
-							// not Alive anymore removing from cataloger
-							removeServiceItem(sItem);
-						}
-					}
-				} while (sItem != null);
-			} else {
-				net.jini.core.entry.Entry[] attrs;
-				for (int i = 0; i < list.size(); i++) {
-					attrs = list.get(i).attributeSets;
-					for (net.jini.core.entry.Entry et : attrs) {
-						if (et instanceof Name
-								&& providerName.equals(((Name) et).name)) {
-							sItem = list.remove(i);
-                            if (sItem != null) {
-                                if (isAlive(sItem)) {
-                                    list.add(sItem);
-                                    return sItem;
-                                } else {
-                                    // not Alive anymore removing from cataloger
-                                    removeServiceItem(sItem);
-                                }
-                            }
-						}
-					}
-				}
+			while (!list.isEmpty()) {
+				ServiceItem sItem = selector.select(list);
+				if (isAlive(sItem))
+					return sItem;
+				// not Alive anymore removing from cataloger
+				removeServiceItem(sItem);
+				list.remove(sItem);
 			}
 			return null;
 		}
 
-		// there's no other better way of doing this because of the structure we
-		// maintain.
-		// we need to iterate through each and every one of the list and getValue the
-		// service
 		public ServiceItem getServiceItem(ServiceID serviceID) {
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null)
-				return null;
-			List<ServiceItem> sItems;
-			ServiceItem sItem;
-			for (Iterator<List<ServiceItem>> it = c.iterator(); it.hasNext();) {
-				sItems = it.next();
-				for (int i = 0; i < sItems.size(); i++) {
-					if (serviceID.equals((sItems.get(i)).serviceID)) {
-						sItem = sItems.remove(i);
-						sItems.add(sItem);
-						return sItem;
-					}
-				}
-			}
-			return null;
+			ServiceEntry entry = entries.get(serviceID);
+			return entry != null ? entry.item : null;
 		}
 
 		public List<ServiceItem> getAllServiceItems() {
-			List<ServiceItem> items = new ArrayList<ServiceItem>();
-			for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-					.entrySet()) {
-				items.addAll(entry.getValue());
-			}
+			List<ServiceItem> items = new ArrayList<ServiceItem>(entries.size());
+			for (ServiceEntry entry : entries.values())
+				items.add(entry.item);
 			return items;
 		}
 
@@ -721,89 +705,77 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 				maxItems = Integer.MAX_VALUE;
 			if (providerName != null && providerName.equals(ANY))
 				providerName = null;
-			// logger.debug("Looking for interfaces: " + interfaces);
-			List<ServiceItem> list = interfaceListMap.get(new InterfaceList(
-					interfaces));
-			// logger.debug("Got list: " + list.toString());
-			if (list == null)
+			List<ServiceEntry> list = getEntries(new InterfaceList(interfaces));
+			if (list.isEmpty())
 				return null;
 
-			ServiceItem sItem;
 			// provide load balancing
 			if (providerName == null || "".equals(providerName)) {
-				sItem = list.remove(0);
-				list.add(sItem);
 				ArrayList<ServiceItem> arItems = new ArrayList<ServiceItem>();
-				Iterator<ServiceItem> it = list.iterator();
-				while (it.hasNext() && arItems.size() < maxItems) {
+				int size = list.size();
+				int start = Math.floorMod(rotation.getAndIncrement(), size);
+				for (int i = 0; i < size && arItems.size() < maxItems; i++) {
 					// Check if provider is still alive
-					ServiceItem si = it.next();
-					if (isAlive(si) && (!arItems.contains(si)))
+					ServiceItem si = list.get((start + i) % size).item;
+					if (isAlive(si))
 						arItems.add(si);
 				}
-				ServiceItem[] sitems = new ServiceItem[arItems.size()];
-				for (int i = 0; i < arItems.size(); i++) {
-					sitems[i] = arItems.get(i);
-				}
-				return sitems;
+				return arItems.toArray(new ServiceItem[arItems.size()]);
 			} else {
 				net.jini.core.entry.Entry[] attrs;
 				List<ServiceItem> slist = new ArrayList<ServiceItem>();
-				Iterator<ServiceItem> it = list.iterator();
+				Iterator<ServiceEntry> it = list.iterator();
 				ServiceItem si = null;
 				while (it.hasNext() && slist.size() < maxItems) {
-					si = it.next();
+					si = it.next().item;
 					attrs = si.attributeSets;
 					if (attrs != null && attrs.length > 0
 							&& (attrs[0] instanceof Name)
 							&& providerName.equals(((Name) attrs[0]).name)) {
-						if (isAlive(si) && (!slist.contains(si))) {
+						if (isAlive(si)) {
 							slist.add(si);
 						}
 					}
 				}
-				ServiceItem[] sitems = new ServiceItem[slist.size()];
-				for (int i = 0; i < slist.size(); i++) {
-					sitems[i] = slist.get(i);
-				}
-				return sitems;
+				return slist.toArray(new ServiceItem[slist.size()]);
 			}
 		}
 
+		/**
+		 * Returns the service items matching the template.
+		 */
+		public List<ServiceItem> getServiceItems(ServiceTemplate tmpl) {
+			List<ServiceItem> sItems = new ArrayList<ServiceItem>();
+			if (tmpl.serviceID != null) {
+				ServiceItem sItem = getServiceItem(tmpl.serviceID);
+				if (sItem != null)
+					sItems.add(sItem);
+				return sItems;
+			}
+			SRVITEM:
+			for (ServiceEntry entry : getEntries(new InterfaceList(tmpl.serviceTypes))) {
+				if (tmpl.attributeSetTemplates != null) {
+					List<Entry> sItemEntryList = Arrays.asList(entry.item.attributeSets);
+					for (Entry attr : tmpl.attributeSetTemplates) {
+						if (!sItemEntryList.contains(attr))
+							continue SRVITEM;
+					}
+				}
+				sItems.add(entry.item);
+			}
+			return sItems;
+		}
 
 		public Map<String, String> getProviderMethods() throws RemoteException {
 			logger.info("Inside GetProviderMethods");
 			observable.tellOfAction("UPDATEDPLEASEPM");
 			Map<String, String> map = new HashMap<String, String>();
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null) {
-				return map;
-			}
-			Type[] clazz;
-			Object service;
-			String serviceName = null;
-			net.jini.core.entry.Entry[] attributes;
-			for (List<ServiceItem> sItems : c) {
-				// getValue the first service proxy
-				service = sItems.get(0).service;
-				// getValue proxy interfaces
-				clazz = service.getClass().getInterfaces();
-				attributes = sItems.get(0).attributeSets;
-				for (int i = 0; i < attributes.length; i++) {
-					if (service instanceof Proxy) {
-						if (attributes[i] instanceof Name) {
-							serviceName = ((Name) attributes[i]).name;
-							break;
-						}
-					} else
-						serviceName = service.getClass().getName();
-				}
+			for (ServiceEntry entry : entries.values()) {
 				// list only interfaces of the Service multitype in package key
-				if (service instanceof Service) {
-					if (map.get(serviceName) == null) {
-						map.put(serviceName, SorcerUtil.arrayToString(clazz)
-								+ ";;" + SorcerUtil.arrayToString(attributes));
-					}
+				if (entry.item.service instanceof Service && entry.serviceName != null
+						&& map.get(entry.serviceName) == null) {
+					map.put(entry.serviceName, SorcerUtil.arrayToString(entry.interfaces)
+							+ ";;" + SorcerUtil.arrayToString(entry.item.attributeSets));
 				}
 			}
 			logger.info("getProviderMethods>>map:\n" + map);
@@ -814,31 +786,11 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			logger.info("Inside GetProviderMethods");
 			observable.tellOfAction("UPDATEDPLEASEPM");
 			Map<String, URL[]> map = new HashMap<String, URL[]>();
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null) {
-				return map;
-			}
-			Type[] clazz;
-			Object service;
-			String serviceName = null;
-			net.jini.core.entry.Entry[] attributes;
-			for (List<ServiceItem> sItems : c) {
-				// getValue the first service proxy
-				service = sItems.get(0).service;
-				// getValue proxy interfaces
-
-				attributes = sItems.get(0).attributeSets;
-				for (int i = 0; i < attributes.length; i++) {
-					if (service instanceof Proxy) {
-						if (attributes[i] instanceof Name) {
-							serviceName = ((Name) attributes[i]).name;
-							break;
-						}
-					} else
-						serviceName = service.getClass().getName();
-				}
+			for (ServiceEntry entry : entries.values()) {
+				Object service = entry.item.service;
+				String serviceName = entry.serviceName;
 				// list only interfaces of the Service multitype in package key
-				if (service instanceof Service) {
+				if (service instanceof Service && serviceName != null && map.get(serviceName) == null) {
 					String annotation = RMIClassLoader.getClassAnnotation(service.getClass());
 					if(annotation!=null && annotation.length()>0) {
 						StringTokenizer tok = new StringTokenizer(annotation, " ");
@@ -853,9 +805,7 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 							}
 							i++;
 						}
-						if (map.get(serviceName) == null) {
-							map.put(serviceName, urls);
-						}
+						map.put(serviceName, urls);
 					}
 				}
 			}
@@ -864,144 +814,32 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		}
 
 		/**
-		 * Returns the list of providers for a given provider key.
+		 * Returns the list of interfaces of a given provider.
 		 * 
 		 * @return
 		 * @throws RemoteException
 		 */
 		public String[] getInterfaceList(String providerName) {
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null) {
-				return new String[0];
-			}
-			Type[] interfaceList;
-			Object service;
-			String serviceName = null;
-			net.jini.core.entry.Entry[] attributes;
-			Set set = interfaceListMap.keySet();
-			InterfaceList key;
-			for (Iterator<InterfaceList> it = set.iterator(); it.hasNext();) {
-				key = it.next();
-				List<ServiceItem> sItems = interfaceListMap.get(key);
-				for (int k = 0; k < sItems.size(); k++) {
-					service = sItems.get(k).service;
-					// logger.info(".........  attributes: "+ service);
-					attributes = sItems.get(k).attributeSets;
-					for (int i = 0; i < attributes.length; i++) {
-						if (service instanceof Proxy) {
-							if (attributes[i] instanceof Name) {
-								serviceName = ((Name) attributes[i]).name;
-								break;
-							}
-						} else
-							serviceName = service.getClass().getName();
-					}
-					if (serviceName.equals(providerName)) {
-
-						interfaceList = service.getClass().getInterfaces();
-
-						int count = 0;
-						for (int i = 0; i < interfaceList.length; i++) {
-							// logger.info("interface "+interfaceList[i].toString());
-							String currentInterface = interfaceList[i]
-									.toString().substring(10); // remove the
-							// interface
-							// part!
-							boolean onList = false;
-							for (int j = 0; j < interfaceIgnoreList.length; j++) {
-								if (currentInterface
-										.equals(interfaceIgnoreList[j])) {
-									onList = true;
-									break;
-								}
-							}
-							if (!onList)
-								count++;
-
-						}
-						String[] toReturn = new String[count];
-						count = 0;
-						for (int i = 0; i < interfaceList.length; i++) {
-							// logger.info("interface "+interfaceList[i].toString());
-							String currentInterface = interfaceList[i]
-									.toString().substring(10); // remove the
-							// interface part!
-							boolean onList = false;
-							for (int j = 0; j < interfaceIgnoreList.length; j++) {
-								if (currentInterface
-										.equals(interfaceIgnoreList[j])) {
-									onList = true;
-									break;
-								}
-							}
-							if (!onList) {
-								toReturn[count] = currentInterface;
-								count++;
-							}
-
-						}
-						return toReturn;
-					}
-				}
-			}
+			for (ServiceEntry entry : getEntries(providerName))
+				return entry.publishedInterfaces.clone();
 			return new String[0];
 		}
 
 		/**
-		 * Get provider list is a method to getValue a hashmap with the list of
-		 * providers and their service id.
+		 * Returns the list of method names of a given provider interface.
 		 * 
 		 * @return
 		 * @throws RemoteException
 		 */
 		public String[] getMethodsList(String providerName, String interfaceName)
 				throws RemoteException {
-			logger.info("Inside Get Methods List");
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null) {
-				return new String[0];
-			}
-
-			Class[] interfaceList;
-			Object service;
-			String serviceName = null;
-			net.jini.core.entry.Entry[] attributes;
 			logger.info("Provider Tag " + providerName + " interface key "
 					+ interfaceName);
-			for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-					.entrySet()) {
-				for (ServiceItem item : entry.getValue()) {
-					service = item.service;
-					attributes = item.attributeSets;
-					for (int i = 0; i < attributes.length; i++) {
-						if (service instanceof Proxy) {
-							if (attributes[i] instanceof Name) {
-								serviceName = ((Name) attributes[i]).name;
-								break;
-							}
-						} else
-							serviceName = service.getClass().getName();
-					}
-					if (serviceName.equals(providerName)) {
-						interfaceList = service.getClass().getInterfaces();
-						for (int i = 0; i < interfaceList.length; i++) {
-							if (interfaceList[i].toString().equals(
-									interfaceName)) {
-								logger.info("Found interface" + interfaceName);
-								Method methods[] = interfaceList[i]
-										.getMethods();
-								logger.info("Methods Found" + methods.length);
-								String meths[] = new String[methods.length];
-								for (int j = 0; j < methods.length; j++) {
-									meths[j] = methods[j].getName();
-								}
-                                Set<String> setTemp = new HashSet(Arrays.asList(meths));
-                                return setTemp.toArray(new String[setTemp.size()]);
-							}
-
-						}
-
-					}
+			for (ServiceEntry entry : getEntries(providerName)) {
+				String[] meths = entry.methods.get(interfaceName);
+				if (meths != null) {
+					logger.info("Found interface" + interfaceName);
+					return meths.clone();
 				}
 			}
 			return new String[0];
@@ -1009,45 +847,22 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 
 		public Context exertService(String providerName, Class serviceType,
 				String methodName, Context theContext)  {
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null) {
-				return null;
-			}
-			List<ServiceItem> sItems;
-			Object service;
-			String serviceName = null;
-			net.jini.core.entry.Entry[] attributes;
-			InterfaceList key;
-			for(Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap.entrySet()) {
-				for(ServiceItem item : entry.getValue()) {
-					service = item.service;
-					attributes = item.attributeSets;
-					for (int i = 0; i < attributes.length; i++) {
-						if (service instanceof Proxy) {
-							if (attributes[i] instanceof Name) {
-								serviceName = ((Name) attributes[i]).name;
-								break;
-							}
-						} else
-							serviceName = service.getClass().getName();
-					}
-					if (serviceName.equals(providerName)) {
-						if (service instanceof Exerter) {
-							logger.info("service is a provider!");
-							try {
-								Exerter temp = (Exerter) service;
-								RemoteSignature method = new RemoteSignature(
-										methodName, serviceType);
-								Task task = new NetTask(serviceType
-										+ methodName, method);
-								task.setContext(theContext);
-								NetTask task2 = (NetTask) temp.exert(task, null);
-								return task2.getContext();
-							} catch (Exception e) {
-								logger.info("error converting to provider"
-										+ e.getMessage());
-							}
-						}
+			for (ServiceEntry entry : getEntries(providerName)) {
+				Object service = entry.item.service;
+				if (service instanceof Exerter) {
+					logger.info("service is a provider!");
+					try {
+						Exerter temp = (Exerter) service;
+						RemoteSignature method = new RemoteSignature(
+								methodName, serviceType);
+						Task task = new NetTask(serviceType
+								+ methodName, method);
+						task.setContext(theContext);
+						NetTask task2 = (NetTask) temp.exert(task, null);
+						return task2.getContext();
+					} catch (Exception e) {
+						logger.info("error converting to provider"
+								+ e.getMessage());
 					}
 				}
 			}
@@ -1121,7 +936,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		}
 
 		/**
-		 * See above CatalogerInfo for comments.
+		 * A list of interfaces matched by services implementing all of them,
+		 * directly or as superinterfaces of their proxy interfaces.
 		 */
 		public static class InterfaceList extends ArrayList<Class> {
 			private static final long serialVersionUID = 1L;
@@ -1224,6 +1040,11 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 	}
 
 
+    // providers found alive recently are not pinged again
+    private static final long ALIVE_CHECK_INTERVAL = 5000;
+
+    private static final Map<ServiceID, Long> aliveChecks = new ConcurrentHashMap<ServiceID, Long>();
+
     /**
      * Tests if provider is still alive.
      *
@@ -1233,14 +1054,20 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
     private static boolean isAlive(ServiceItem si) {
         if (si == null)
             return false;
+        Long checked = aliveChecks.get(si.serviceID);
+        long now = System.currentTimeMillis();
+        if (checked != null && now - checked < ALIVE_CHECK_INTERVAL)
+            return true;
         try {
             if (si.service instanceof ServiceActivityProvider) {
                 boolean result = ((ServiceActivityProvider)si.service).isActive();
             } else if (si.service instanceof Exerter) {
                 String name = ((Exerter) si.service).getProviderName();
             }
+            aliveChecks.put(si.serviceID, now);
             return true;
         } catch (Exception e) {
+            aliveChecks.remove(si.serviceID);
             logger.warn("Service ID: " + si.serviceID
 					+ " is not Alive anymore");
             // throw e;
@@ -1271,45 +1098,20 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
         List<ServiceItem> result = new LinkedList<ServiceItem>();
         if(cinfo==null){
             logger.warn("Cataloger not initialized");
-        } else
-        for (Map.Entry<InterfaceList, List<ServiceItem>> entry : cinfo.getInterfaceListMap().entrySet()) {
-            List<ServiceItem> serviceItems;
+        } else {
             List<ServiceItem> down = new LinkedList<ServiceItem>();
-            synchronized (entry) {
-                serviceItems = new LinkedList<ServiceItem>(entry.getValue());
-            }
-            SRVITEM:
-
-            for (ServiceItem serviceItem : serviceItems) {
-                if (tmpl.serviceID != null && tmpl.serviceID.equals(serviceItem.serviceID)) {
+            for (ServiceItem serviceItem : cinfo.getServiceItems(tmpl)) {
+                if (result.size() >= maxMatches) break;
+                if (isAlive(serviceItem)) {
+                    logger.info("Service " + serviceItem.serviceID + " is adding to results for: " + tmpl.toString());
                     result.add(serviceItem);
-                    //serviceID is unique, stop on first matching service
-                    break;
+                } else {
+                    // not Alive anymore removing from cataloger
+                    down.add(serviceItem);
                 }
-
-                CatalogerInfo.InterfaceList interfaceList = entry.getKey();
-                if (interfaceList.containsAll(Arrays.asList(tmpl.serviceTypes))) {
-                    List<Entry> sItemEntryList = Arrays.asList(serviceItem.attributeSets);
-                    for (Entry attr : tmpl.attributeSetTemplates) {
-                        if (!sItemEntryList.contains(attr)) {
-                            continue SRVITEM;
-                        }
-                    }
-                    if (isAlive(serviceItem)) {
-                        logger.info("Service " + serviceItem.serviceID + " is adding to results for: " + tmpl.toString());
-                        result.add(serviceItem);
-                    } else {
-                        // not Alive anymore removing from cataloger
-                        down.add(serviceItem);
-                    }
-                    if (result.size() >= maxMatches) break;
-                }
-            }
-            synchronized (cinfo){
-                for(ServiceItem serviceItem: down)
-                        cinfo.removeServiceItem(serviceItem);
             }
-
+            for (ServiceItem serviceItem : down)
+                cinfo.removeServiceItem(serviceItem);
         }
         return new ServiceMatches(result.toArray(new ServiceItem[result.size()]), result.size());
     }
@@ -0,0 +1,171 @@
+package sorcer.core.provider.cataloger;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.lookup.entry.Name;
+import org.junit.Before;
+import org.junit.Test;
+import sorcer.core.provider.cataloger.ServiceCataloger.CatalogerInfo;
+import sorcer.core.provider.cataloger.ServiceCataloger.CatalogerInfo.InterfaceList;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CatalogerInfoTest {
+
+    public interface Adder {
+        double add(double x, double y);
+    }
+
+    public interface Multiplier {
+        double multiply(double x, double y);
+    }
+
+    public interface Arithmetic extends Adder, Multiplier {
+    }
+
+    private CatalogerInfo info;
+
+    @Before
+    public void setUp() {
+        info = new CatalogerInfo();
+    }
+
+    private static ServiceItem item(long id, String name, Class... interfaces) {
+        Object service = Proxy.newProxyInstance(CatalogerInfoTest.class.getClassLoader(), interfaces,
+            (proxy, method, args) -> null);
+        return new ServiceItem(new ServiceID(id, 0), service, new Entry[] { new Name(name) });
+    }
+
+    private List<ServiceItem> all(Class... interfaces) {
+        return info.getAll(new InterfaceList(interfaces));
+    }
+
+    private static String key(Class type) {
+        return "" + type;
+    }
+
+    /*
+     * Checks that the indices hold exactly the registered entries.
+     */
+    private void assertIndexed() {
+        for (Map.Entry<String, Set<ServiceID>> e : info.interfaceIndex.entrySet()) {
+            assertFalse(e.getValue().isEmpty());
+            for (ServiceID id : e.getValue())
+                assertTrue(info.entries.get(id).interfaceKeys.contains(e.getKey()));
+        }
+        for (Map.Entry<String, Set<ServiceID>> e : info.nameIndex.entrySet()) {
+            assertFalse(e.getValue().isEmpty());
+            for (ServiceID id : e.getValue())
+                assertEquals(e.getKey(), info.entries.get(id).serviceName);
+        }
+        for (Map.Entry<ServiceID, CatalogerInfo.ServiceEntry> e : info.entries.entrySet()) {
+            for (String key : e.getValue().interfaceKeys)
+                assertTrue(info.interfaceIndex.get(key).contains(e.getKey()));
+            assertTrue(info.nameIndex.get(e.getValue().serviceName).contains(e.getKey()));
+        }
+    }
+
+    @Test
+    public void add() {
+        ServiceItem adder = item(1, "Adder", Adder.class);
+        info.addServiceItem(adder);
+
+        assertEquals(1, info.entries.size());
+        assertSame(adder, info.getServiceItem(adder.serviceID));
+        assertEquals(Collections.singleton(adder.serviceID), info.interfaceIndex.get(key(Adder.class)));
+        assertEquals(Collections.singleton(adder.serviceID), info.nameIndex.get("Adder"));
+        assertEquals(Collections.singletonList(adder), info.getAllServiceItems());
+        assertIndexed();
+    }
+
+    @Test
+    public void lookupByInterface() {
+        ServiceItem adder = item(1, "Adder", Adder.class);
+        ServiceItem arithmetic = item(2, "Arithmetic", Arithmetic.class);
+        info.addServiceItem(adder);
+        info.addServiceItem(arithmetic);
+
+        assertEquals(new HashSet<>(Arrays.asList(adder, arithmetic)), new HashSet<>(all(Adder.class)));
+        // superinterfaces of service interfaces are matched
+        assertEquals(Collections.singletonList(arithmetic), all(Multiplier.class));
+        assertEquals(Collections.singletonList(arithmetic), all(Adder.class, Multiplier.class));
+        assertEquals(Collections.singletonList(arithmetic), all(Arithmetic.class));
+        assertTrue(all(Runnable.class).isEmpty());
+        assertEquals(2, all().size());
+        assertIndexed();
+    }
+
+    @Test
+    public void lookupByName() {
+        info.addServiceItem(item(1, "Adder", Adder.class));
+        info.addServiceItem(item(2, "Arithmetic", Arithmetic.class));
+
+        assertArrayEquals(new String[] { Adder.class.getName() }, info.getInterfaceList("Adder"));
+        assertArrayEquals(new String[] { Arithmetic.class.getName() }, info.getInterfaceList("Arithmetic"));
+        assertEquals(0, info.getInterfaceList("Multiplier").length);
+    }
+
+    @Test
+    public void lookupByInterfaceAndName() {
+        ServiceItem adder = item(1, "Adder", Adder.class);
+        ServiceItem arithmetic = item(2, "Arithmetic", Arithmetic.class);
+        info.addServiceItem(adder);
+        info.addServiceItem(arithmetic);
+
+        assertSame(adder, info.getServiceItem(new Class[] { Adder.class }, "Adder"));
+        assertSame(arithmetic, info.getServiceItem(new Class[] { Adder.class }, "Arithmetic"));
+        assertNull(info.getServiceItem(new Class[] { Multiplier.class }, "Adder"));
+        assertNull(info.getServiceItem(new Class[] { Adder.class }, "Subtractor"));
+    }
+
+    @Test
+    public void remove() {
+        ServiceItem adder = item(1, "Adder", Adder.class);
+        ServiceItem arithmetic = item(2, "Arithmetic", Arithmetic.class);
+        info.addServiceItem(adder);
+        info.addServiceItem(arithmetic);
+
+        info.removeServiceItem(adder);
+
+        assertNull(info.getServiceItem(adder.serviceID));
+        assertEquals(Collections.singletonList(arithmetic), all(Adder.class));
+        assertNull(info.nameIndex.get("Adder"));
+        assertEquals(0, info.getInterfaceList("Adder").length);
+        assertNull(info.getServiceItem(new Class[] { Adder.class }, "Adder"));
+        assertSame(arithmetic, info.getServiceItem(new Class[] { Adder.class }, "Arithmetic"));
+        assertIndexed();
+
+        info.remove(arithmetic);
+
+        assertTrue(info.entries.isEmpty());
+        assertTrue(info.interfaceIndex.isEmpty());
+        assertTrue(info.nameIndex.isEmpty());
+        assertTrue(all(Adder.class).isEmpty());
+        assertNull(info.getServiceItem(new Class[] { Adder.class }, null));
+    }
+
+    @Test
+    public void replace() {
+        ServiceItem adder = item(1, "Adder", Adder.class);
+        info.addServiceItem(adder);
+        // the same service registered again with other interfaces and name
+        ServiceItem multiplier = item(1, "Multiplier", Multiplier.class);
+        info.addServiceItem(multiplier);
+
+        assertEquals(1, info.entries.size());
+        assertSame(multiplier, info.getServiceItem(adder.serviceID));
+        assertTrue(all(Adder.class).isEmpty());
+        assertEquals(Collections.singletonList(multiplier), all(Multiplier.class));
+        assertNull(info.interfaceIndex.get(key(Adder.class)));
+        assertNull(info.nameIndex.get("Adder"));
+        assertEquals(0, info.getInterfaceList("Adder").length);
+        assertArrayEquals(new String[] { Multiplier.class.getName() }, info.getInterfaceList("Multiplier"));
+        assertSame(multiplier, info.getServiceItem(new Class[] { Multiplier.class }, "Multiplier"));
+        assertNull(info.getServiceItem(new Class[] { Adder.class }, "Adder"));
+        assertIndexed();
+    }
+}
@@ -22,18 +22,28 @@ import com.sleepycat.collections.StoredValueSet;
 import com.sleepycat.je.DatabaseException;
 import com.sun.jini.start.LifeCycle;
 import net.jini.config.Configuration;
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.lease.LeaseDeniedException;
 import net.jini.id.Uuid;
 import net.jini.id.UuidFactory;
+import org.rioproject.event.EventDescriptor;
+import org.rioproject.event.EventHandler;
+import org.rioproject.event.NoEventConsumerException;
+import org.rioproject.impl.event.DispatchEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.provider.DatabaseStorer;
 import sorcer.core.provider.ServiceExerter;
 import sorcer.core.provider.StorageManagement;
+import sorcer.core.provider.StoreEvent;
 import sorcer.service.*;
 import sorcer.service.modeling.Functionality;
 import sorcer.service.modeling.Variability;
+import sorcer.util.ConfigurableThreadFactory;
 import sorcer.util.ModelTable;
+import sorcer.util.bdb.objects.ObjectInfo;
 import sorcer.util.bdb.objects.SorcerDatabase;
 import sorcer.util.bdb.objects.SorcerDatabaseViews;
 import sorcer.util.bdb.objects.UuidKey;
@@ -42,11 +52,15 @@ import sorcer.util.url.sos.Handler;
 import sorcer.util.url.sos.SdbUtil;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.rmi.MarshalledObject;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Mike Sobolewski
@@ -62,6 +76,24 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 
 	private SorcerDatabaseViews views;
 
+	private PersistenceQueue persister;
+
+	/* publishes store events to registered listeners, e.g. client caches */
+	private EventHandler storeEventHandler;
+
+	private ExecutorService storeEventDispatcher;
+
+	/** Number of threads writing to the provider's database */
+	public final static String PERSISTENCE_WRITERS = "persistenceWriters";
+
+	/** Capacity of each writer's queue */
+	public final static String PERSISTENCE_QUEUE_SIZE = "persistenceQueueSize";
+
+	/** Maximum number of writes committed in a single transaction */
+	public final static String PERSISTENCE_BATCH_SIZE = "persistenceBatchSize";
+
+	private final static long SHUTDOWN_TIMEOUT = 4000;
+
 	public DatabaseProvider() throws RemoteException {
 		super();
 	}
@@ -80,17 +112,11 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		setupDatabase();
 	}
 
-    private Set<Uuid> objectsQueue = Collections.synchronizedSet(new HashSet<Uuid>());
-
 	public Uuid store(Object object) {
-		Object obj = object;
-//		if (!(object instanceof Identifiable)) {
-			obj = new UuidObject(object);
-//		}
-        PersistThread pt = new PersistThread(obj);
-		Uuid id = pt.getUuid();
-        pt.start();
-        return id;
+		final UuidObject uuidObject = new UuidObject(object);
+		Uuid id = uuidObject.getId();
+		persister.submit(id, () -> views.getUuidObjectSet().add(uuidObject));
+		return id;
 	}
 
 	public Uuid update(Uuid uuid, Object object) throws InvalidObjectException {
@@ -99,227 +125,121 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		if (!(object instanceof Identifiable)) {
 			uuidObject = new UuidObject(uuid, object);
 		}
-		UpdateThread ut = new UpdateThread(uuid, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-        return id;
+		submitUpdate(uuid, uuidObject);
+		return uuid;
 	}
 
 	public Uuid updateObject(URL url, Object object) throws InvalidObjectException {
 //		logger.info("Updating url object: " + url);
+		Uuid uuid = SdbUtil.getUuid(url);
 		Object uuidObject = object;
 		if (!(object instanceof Identifiable)) {
-			uuidObject = new UuidObject(SdbUtil.getUuid(url), object);
+			uuidObject = new UuidObject(uuid, object);
 		}
-		UpdateThread ut = new UpdateThread(url, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-		return id;
+		submitUpdate(uuid, uuidObject);
+		return uuid;
+	}
+
+	private void submitUpdate(final Uuid uuid, final Object object) {
+		Object updated = object instanceof UuidObject ? ((UuidObject) object).getObject() : object;
+		final Store storeType = getStoreType(updated);
+		persister.submit(uuid, () -> {
+			UuidKey key = new UuidKey(uuid);
+			StoredMap storedMap;
+			if (object instanceof Context) {
+				storedMap = views.getContextMap();
+			} else if (object instanceof Routine) {
+				storedMap = views.getRoutineMap();
+			} else if (object instanceof ModelTable) {
+				storedMap = views.getTableMap();
+			} else {
+				storedMap = views.getUuidObjectMap();
+			}
+			try {
+				storedMap.replace(key, object);
+			} catch (IllegalArgumentException ie) {
+				logger.warn("Problem updating object with key: " + key.toString()
+						+ "\n" + storedMap.get(key));
+				throw (ie);
+			}
+		}).thenRunAsync(() -> fireStoreEvent(storeType, uuid, StoreEvent.Action.updated),
+				storeEventDispatcher);
 	}
 
-    private void append(Uuid id, Object object) {
-        waitIfBusy(id);
-        objectsQueue.add(id);
-//		logger.info("new waiting: " + object + " id: " + id + " size: " + objectsQueue.size());
+	private Uuid submitDelete(final Uuid uuid, Store storeType) {
+		final StoredMap storedMap = storedMap(storeType);
+		if (storedMap == null) {
+			logger.warn("No store for: " + storeType + " to delete: " + uuid);
+			return uuid;
+		}
+		persister.submit(uuid, () -> storedMap.remove(new UuidKey(uuid)))
+				.thenRunAsync(() -> fireStoreEvent(storeType, uuid, StoreEvent.Action.deleted),
+						storeEventDispatcher);
+		return uuid;
 	}
 
-    private void waitIfBusy(Uuid uuid) {
-        while (objectsQueue.contains(uuid)) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while waiting for retrieved object: " + uuid);
-            }
-        }
-    }
+	private void fireStoreEvent(Store storeType, Uuid uuid, StoreEvent.Action action) {
+		if (storeEventHandler == null)
+			return;
+		try {
+			storeEventHandler.fire(new StoreEvent(getProxy(), storeType, uuid, action));
+		} catch (NoEventConsumerException e) {
+			// no listener is registered
+		} catch (RemoteException e) {
+			logger.warn("Problem publishing store event for: " + uuid, e);
+		}
+	}
 
-    private synchronized Set<Uuid> getCurrentBusy(){
-        return new HashSet<Uuid>(objectsQueue);
-    }
+	public EventRegistration registerStoreListener(RemoteEventListener listener,
+			MarshalledObject handback, long duration) throws LeaseDeniedException, RemoteException {
+		if (storeEventHandler == null)
+			throw new LeaseDeniedException("No provider's database created");
+		logger.debug("Registering store listener: " + listener);
+		return storeEventHandler.register(getProxy(), listener, handback, duration);
+	}
 
-    public void waitIfBusy() {
-        Set<Uuid> currentlyBusy = getCurrentBusy();
-        while (!currentlyBusy.isEmpty()) {
-            try {
-                currentlyBusy.retainAll(objectsQueue);
-//                logger.info("currentlyBusy size: " + currentlyBusy.size());
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while busy :" + currentlyBusy.size());
-            }
-        }
-    }
+	public void unregisterStoreListener(EventRegistration evReg) throws RemoteException {
+		logger.debug("Unregistering store listener: " + evReg.getID());
+		try {
+			evReg.getLease().cancel();
+		} catch (Exception e) {
+			logger.warn("Problem unregistering store listener: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Waits until all objects submitted for persistence so far are stored.
+	 */
+	public void waitIfBusy() {
+		persister.awaitAll();
+	}
 
 	public Object getObject(Uuid uuid) {
 //		logger.info("Getting object: " + uuid);
-		waitIfBusy(uuid);
+		persister.await(uuid);
 		StoredMap<UuidKey, UuidObject> uuidObjectMap = views.getUuidObjectMap();
-
-		int tries = 0;
-		while (uuidObjectMap == null && tries < 100) {
-			logger.info("Didn't getValue UuidObjectMap, trying: " + tries);
-			try {
-				Thread.sleep(50);
-			} catch (InterruptedException ie) {
-			}
-			views.getUuidObjectMap();
-			tries++;
-		}
-
 		UuidObject uuidObj = uuidObjectMap.get(new UuidKey(uuid));
 		return uuidObj != null ? uuidObj.getObject() : null;
 	}
 
 	public Context getContext(Uuid uuid) {
-        try {
-            append(uuid, "context");
-            StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
-            return cxtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+		persister.await(uuid);
+		StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
+		return cxtMap.get(new UuidKey(uuid));
 	}
 
 	public Routine getExertion(Uuid uuid) {
-        try {
-            append(uuid, "exertion");
-            StoredMap<UuidKey, Routine> xrtMap = views.getRoutineMap();
-		    return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+		persister.await(uuid);
+		StoredMap<UuidKey, Routine> xrtMap = views.getRoutineMap();
+		return xrtMap.get(new UuidKey(uuid));
 	}
 
     public ModelTable getTable(Uuid uuid) {
-        try {
-            append(uuid, "dataTable");
-            StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
-            return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+		persister.await(uuid);
+		StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
+		return xrtMap.get(new UuidKey(uuid));
     }
 
-	protected class PersistThread extends Thread {
-
-		Object object;
-		Uuid uuid;
-
-		public PersistThread(Object object) {
-            super("PersistThread-" + ((Identifiable)object).getId());
-			this.object = object;
-			this.uuid = ((UuidObject)object).getId();
-			append(uuid, object);
-		}
-
-		@SuppressWarnings("unchecked")
-		public void run() {
-			try {
-//				logger.info("persisting: " + object);
-				StoredValueSet storedSet = views.getUuidObjectSet();
-				storedSet.add(object);
-//				TODO
-//				Object inner = ((UuidObject)object).getObject();
-//				if (inner instanceof Context) {
-//					storedSet = views.getContextSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof Routine) {
-//					storedSet = views.getRoutineSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof ModelTable) {
-//					storedSet = views.getTableSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof UuidObject) {
-//					storedSet = views.getUuidObjectSet();
-//					storedSet.add(object);
-//				}
-			} finally {
-				objectsQueue.remove(this.uuid);
-			}
-		}
-
-		public Uuid getUuid() {
-			return uuid;
-		}
-	}
-
-	protected class UpdateThread extends Thread {
-
-		Object object;
-		Uuid uuid;
-
-		public UpdateThread(Uuid uuid, Object object) throws InvalidObjectException {
-			this.uuid = uuid;
-			this.object = object;
-		}
-
-		public UpdateThread(URL url, Object object) throws InvalidObjectException {
-            super("UpdateThread-" + url);
-			this.object = object;
-			this.uuid = SdbUtil.getUuid(url);
-            append(uuid, object);
-		}
-
-		public void run() {
-            StoredMap storedMap = null;
-            UuidKey key = null;
-			try {
-                key = new UuidKey(uuid);
-                if (object instanceof Context) {
-                    storedMap = views.getContextMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof Routine) {
-                    storedMap = views.getRoutineMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof ModelTable) {
-                    storedMap = views.getTableMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof Object) {
-                    storedMap = views.getUuidObjectMap();
-                    storedMap.replace(key, object);
-                }
-            } catch (IllegalArgumentException ie) {
-                logger.warn("Problem updating object with key: " + key.toString()
-						+ "\n" + storedMap.get(key).toString());
-                objectsQueue.remove(this.uuid);
-                throw (ie);
-            } finally {
-                objectsQueue.remove(this.uuid);
-            }
-		}
-
-		public Uuid getUuid() {
-			return uuid;
-		}
-	}
-
-	protected class DeleteThread extends Thread {
-
-		Uuid uuid;
-		Store storeType;
-        StoredMap storedMap;
-
-        public DeleteThread(Uuid uuid, Store storeType) {
-            super("DeleteThread-" + uuid);
-            this.uuid = uuid;
-			this.storeType = storeType;
-            storedMap = getStoredMap(storeType);
-            append(uuid, "deleteThread");
-		}
-
-		public void run() {
-            try {
-                storedMap.remove(new UuidKey(uuid));
-            } finally {
-                objectsQueue.remove(this.uuid);
-            }
-		}
-
-		public Uuid getUuid() {
-			return uuid;
-		}
-	}
-
 	public Context contextStore(Context context) throws RemoteException,
 			ContextException, MalformedURLException {
 		Object object = context.asis(object_stored);
@@ -355,17 +275,12 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	}
 
 	public int size(Store storeType) {
-		StoredValueSet storedSet = getStoredSet(storeType);
-		return storedSet.size();
+		return getStoreSize(storeType);
 	}
 
 	public Uuid deleteObject(URL url) {
 		Store storeType = SdbUtil.getStoreType(url);
-		Uuid id = SdbUtil.getUuid(url);
-		DeleteThread dt = new DeleteThread(id, storeType);
-		dt.start();
-		id = dt.getUuid();
-		return id;
+		return submitDelete(SdbUtil.getUuid(url), storeType);
 	}
 
 	public Object retrieve(URL url) {
@@ -528,6 +443,29 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		logger.info("Opening provider's BDBJE in: " + dbHomeFile.getAbsolutePath());
 		db = new SorcerDatabase(dbHome);
 		views = new SorcerDatabaseViews(db);
+		int writers = 2, queueSize = 1024, batchSize = 64;
+		try {
+			writers = (Integer) config.getEntry(ServiceExerter.COMPONENT,
+					PERSISTENCE_WRITERS, int.class, writers);
+			queueSize = (Integer) config.getEntry(ServiceExerter.COMPONENT,
+					PERSISTENCE_QUEUE_SIZE, int.class, queueSize);
+			batchSize = (Integer) config.getEntry(ServiceExerter.COMPONENT,
+					PERSISTENCE_BATCH_SIZE, int.class, batchSize);
+		} catch (Exception e) {
+			// do nothing, default values are used
+		}
+		persister = new PersistenceQueue(db.getEnvironment(), getProviderName(),
+				writers, queueSize, batchSize);
+		ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+		factory.setDaemon(true);
+		factory.setNameFormat(getProviderName() + "-StoreEvents-%2$d");
+		storeEventDispatcher = Executors.newSingleThreadExecutor(factory);
+		try {
+			storeEventHandler = new DispatchEventHandler(
+					new EventDescriptor(StoreEvent.class, StoreEvent.ID));
+		} catch (IOException e) {
+			logger.warn("Store events will not be published", e);
+		}
 	}
 	
 	/**
@@ -537,15 +475,12 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	 */
 	public void destroy() {
 		try {
-            int tries=0;
-            try {
-                while (objectsQueue.size()>0 && tries<80) {
-                    Thread.sleep(50);
-                    tries++;
-                }
-                if (tries==80) logger.warn("Interrupted while objects where still being used; size: "
-                + objectsQueue.size());
-            } catch (InterruptedException ie) {}
+			if (persister != null) {
+				persister.shutdown(SHUTDOWN_TIMEOUT);
+			}
+			if (storeEventDispatcher != null) {
+				storeEventDispatcher.shutdown();
+			}
 			if (db != null) {
 				db.close();
 			}
@@ -577,6 +512,10 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	
 	public StoredMap getStoredMap(Store storeType) {
         waitIfBusy();
+		return storedMap(storeType);
+	}
+
+	private StoredMap storedMap(Store storeType) {
 		StoredMap storedMap = null;
 		if (storeType == Store.context) {
 			storedMap = views.getContextMap();
@@ -615,36 +554,28 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	
 	public Uuid deleteIdentifiable(Object object) {
 		Uuid id = (Uuid) ((Identifiable) object).getId();
-		DeleteThread dt = null;
+		Store storeType;
 		if (object instanceof Context) {
-			dt = new DeleteThread(id, Store.context);
+			storeType = Store.context;
 		} else if (object instanceof Routine) {
-			dt = new DeleteThread(id, Store.exertion);
+			storeType = Store.exertion;
 		} else if (object instanceof Functionality) {
-			dt = new DeleteThread(id, Store.var);
+			storeType = Store.var;
 		} else if (object instanceof Variability) {
-			dt = new DeleteThread(id, Store.varmodel);
+			storeType = Store.varmodel;
 		} else if (object instanceof ModelTable) {
-            dt = new DeleteThread(id, Store.table);
-        } else {
-			dt = new DeleteThread(id, Store.object);			
+			storeType = Store.table;
+		} else {
+			storeType = Store.object;
 		}
-		dt.start();
-		id = dt.getUuid();
-		return id;
+		return submitDelete(id, storeType);
 	}
 	
 	private int getStoreSize(Store type) {
         waitIfBusy();
-		if (type == Store.context) {
-			return views.getContextSet().size();
-		} else if (type == Store.exertion) {
-			return views.getRoutineSet().size();
-		} else if (type == Store.table) {
-            return views.getTableSet().size();
-        } else {
-			return views.getUuidObjectSet().size();
-		}
+		if (type != Store.context && type != Store.exertion && type != Store.table)
+			type = Store.object;
+		return (int) db.count(type);
 	}
 	
 	private Store getStoreType(Object object) {
@@ -682,7 +613,35 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	@Override
 	public Context contextRecords(Context context) throws RemoteException,
 			ContextException, MalformedURLException {
-		return null;
+		Store type = (Store) context.getValue(StorageManagement.store_type);
+		Index index = (Index) context.getValue(StorageManagement.store_index);
+		Object offset = context.getValue(StorageManagement.store_offset);
+		Object limit = context.getValue(StorageManagement.store_limit);
+		List<ObjectInfo> records = query(type, index != null ? index : Index.created,
+				context.getValue(StorageManagement.store_from),
+				context.getValue(StorageManagement.store_to),
+				offset instanceof Integer ? (Integer) offset : 0,
+				limit instanceof Integer ? (Integer) limit : Integer.MAX_VALUE);
+		if (((ServiceContext)context).getContextReturn() != null)
+			context.putOutValue(((ServiceContext)context).getContextReturn().returnPath, records);
+		context.putOutValue(store_records, records);
+		return context;
+	}
+
+	/**
+	 * Returns a page of stored record descriptions ordered by the index,
+	 * without reading the stored objects.
+	 *
+	 * @see SorcerDatabase#query(Store, Index, Object, Object, int, int)
+	 */
+	public List<ObjectInfo> query(Store storeType, Index index, Object from, Object to,
+								  int offset, int limit) throws MalformedURLException, RemoteException {
+		waitIfBusy();
+		List<ObjectInfo> records = db.query(storeType, index, from, to, offset, limit);
+		for (ObjectInfo record : records) {
+			record.url = getDatabaseURL(storeType, record.uuid);
+		}
+		return records;
 	}
 
     @Override
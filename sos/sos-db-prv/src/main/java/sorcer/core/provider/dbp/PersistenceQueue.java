@@ -0,0 +1,211 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.dbp;
+
+import com.sleepycat.collections.TransactionRunner;
+import com.sleepycat.je.Environment;
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A bounded persistence pipeline for the {@link DatabaseProvider}. Writes are
+ * queued to a fixed number of writer threads selected by the hash of the
+ * written object's Uuid, so all writes of the same Uuid are applied in
+ * submission order. Each writer drains up to <code>batchSize</code> queued
+ * writes and commits them in a single BDB transaction (group commit).
+ * <p>
+ * Every submitted write is tracked by a future until committed, so readers of
+ * an in-flight Uuid wait exactly until its last write is done.
+ */
+public class PersistenceQueue {
+	static final Logger logger = LoggerFactory.getLogger(PersistenceQueue.class);
+
+	/**
+	 * A write applied to the database within a writer's transaction.
+	 */
+	public interface Write {
+		void apply() throws Exception;
+	}
+
+	private static class Task {
+		final Uuid uuid;
+		final Write write;
+		final CompletableFuture<Uuid> future = new CompletableFuture<Uuid>();
+
+		Task(Uuid uuid, Write write) {
+			this.uuid = uuid;
+			this.write = write;
+		}
+	}
+
+	private final TransactionRunner runner;
+
+	private final BlockingQueue<Task>[] queues;
+
+	private final ExecutorService writers;
+
+	private final int batchSize;
+
+	/* the last pending write per Uuid */
+	private final ConcurrentHashMap<Uuid, CompletableFuture<Uuid>> pending
+			= new ConcurrentHashMap<Uuid, CompletableFuture<Uuid>>();
+
+	private volatile boolean running = true;
+
+	@SuppressWarnings("unchecked")
+	public PersistenceQueue(Environment env, String name, int writerCount,
+							int queueSize, int batchSize) {
+		runner = new TransactionRunner(env);
+		this.batchSize = Math.max(1, batchSize);
+		queues = new BlockingQueue[Math.max(1, writerCount)];
+		ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+		factory.setDaemon(true);
+		factory.setNameFormat(name + "-Persister-%2$d");
+		writers = Executors.newFixedThreadPool(queues.length, factory);
+		for (int i = 0; i < queues.length; i++) {
+			final BlockingQueue<Task> queue = new ArrayBlockingQueue<Task>(Math.max(1, queueSize));
+			queues[i] = queue;
+			writers.execute(new Runnable() {
+				public void run() {
+					drain(queue);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Queues a write of the object with the given Uuid, blocking while the
+	 * writer's queue is full.
+	 *
+	 * @return the future completed when the write is committed
+	 */
+	public CompletableFuture<Uuid> submit(Uuid uuid, Write write) {
+		if (!running)
+			throw new RejectedExecutionException("Persistence queue is closed");
+		final Task task = new Task(uuid, write);
+		pending.put(uuid, task.future);
+		task.future.whenComplete((id, error) -> pending.remove(task.uuid, task.future));
+		try {
+			queues[(uuid.hashCode() & 0x7fffffff) % queues.length].put(task);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			task.future.completeExceptionally(e);
+		}
+		return task.future;
+	}
+
+	public boolean isPending(Uuid uuid) {
+		return pending.containsKey(uuid);
+	}
+
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Waits until the last write of <code>uuid</code> submitted so far is
+	 * committed or failed.
+	 */
+	public void await(Uuid uuid) {
+		CompletableFuture<Uuid> future = pending.get(uuid);
+		if (future != null)
+			awaitQuietly(future);
+	}
+
+	/**
+	 * Waits until all writes submitted so far are committed or failed.
+	 */
+	public void awaitAll() {
+		List<CompletableFuture<Uuid>> futures = new ArrayList<CompletableFuture<Uuid>>(pending.values());
+		awaitQuietly(CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])));
+	}
+
+	/**
+	 * Stops accepting writes and waits up to <code>timeout</code>
+	 * milliseconds for the queued writes to be committed.
+	 */
+	public void shutdown(long timeout) {
+		running = false;
+		List<CompletableFuture<Uuid>> futures = new ArrayList<CompletableFuture<Uuid>>(pending.values());
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+					.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			logger.warn("Closing while objects are still being persisted; size: " + pending.size());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// failures are logged by writers
+		}
+		writers.shutdownNow();
+	}
+
+	private void awaitQuietly(Future<?> future) {
+		try {
+			future.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while waiting for persisted objects");
+		} catch (ExecutionException e) {
+			// the failure was logged by the writer
+		}
+	}
+
+	private void drain(BlockingQueue<Task> queue) {
+		final List<Task> batch = new ArrayList<Task>(batchSize);
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+			queue.drainTo(batch, batchSize - 1);
+			try {
+				runner.run(() -> {
+					for (Task task : batch) {
+						task.write.apply();
+					}
+				});
+				for (Task task : batch) {
+					task.future.complete(task.uuid);
+				}
+			} catch (Exception e) {
+				// isolate the failing writes by committing one by one
+				for (Task task : batch) {
+					commit(task);
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private void commit(Task task) {
+		try {
+			runner.run(() -> task.write.apply());
+			task.future.complete(task.uuid);
+		} catch (Exception e) {
+			logger.warn("Failed to persist object: " + task.uuid, e);
+			task.future.completeExceptionally(e);
+		}
+	}
+}
@@ -26,7 +26,10 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.net.*;
 import java.nio.file.NotDirectoryException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -72,6 +75,10 @@ public class Webster implements WebsterService, Runnable {
     private boolean debug = false;
     private boolean isDaemon = false;
     private static final String SERVER_DESCRIPTION = Webster.class.getName();
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    // SHA-256 digests of served files by path, length and modification time
+    private static final int MAX_DIGESTS = 1024;
+    private static final Map<String, String> digests = new ConcurrentHashMap<>();
     private String tempDir;
     // Shared class server (webster) 
     private static Webster webster;
@@ -706,7 +713,7 @@ public class Webster implements WebsterService, Runnable {
                             }
                         }
                         if (header.getProperty("GET") != null) {
-                            pool.execute(new GetFile(s, fileName));
+                            pool.execute(new GetFile(s, fileName, header));
                         } else if (header.getProperty("PUT") != null) {
                             if(tempDir==null) {
                                 DataOutputStream clientStream = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
@@ -719,7 +726,7 @@ public class Webster implements WebsterService, Runnable {
                         } else if (header.getProperty("DELETE") != null) {
                             pool.execute(new DelFile(s, fileName));
                         } else if (header.getProperty("HEAD") != null) {
-                            pool.execute(new Head(s, fileName));
+                            pool.execute(new Head(s, fileName, header));
                         } else {
                             if (debug)
                                 System.out.println("bad request [" + line + "] from " + from);
@@ -854,6 +861,85 @@ public class Webster implements WebsterService, Runnable {
         return false;
     }
 
+    static String ignoreCaseProperty(Properties props, String field) {
+        Enumeration<?> names = props.propertyNames();
+        while (names.hasMoreElements()) {
+            String propName = (String) names.nextElement();
+            if (field.equalsIgnoreCase(propName)) {
+                return (props.getProperty(propName));
+            }
+        }
+        return (null);
+    }
+
+    /**
+     * Returns the first and last byte of a single "bytes=first-last",
+     * "bytes=first-" or "bytes=-suffix" range of a file of the given length,
+     * the whole file for no or an unsupported range, or null if the range is
+     * not satisfiable.
+     */
+    static long[] parseRange(String range, long length) {
+        long[] whole = new long[] { 0, length - 1 };
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0)
+            return whole;
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0)
+            return whole;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start, end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0)
+                    return null;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end)
+                return null;
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return whole;
+        }
+    }
+
+    /**
+     * Returns a "Digest: SHA-256=..." header line of the file if requested
+     * by the "Want-Digest" header, otherwise an empty string. Digests are
+     * cached by the path, length and modification time of files.
+     */
+    static String getDigestHeader(File file, Properties header) throws IOException {
+        String want = ignoreCaseProperty(header, "Want-Digest");
+        if (want == null || !want.toLowerCase().contains("sha-256"))
+            return "";
+        String key = file.getCanonicalPath() + ":" + file.length() + ":" + file.lastModified();
+        String digest = digests.get(key);
+        if (digest == null) {
+            MessageDigest md;
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                return "";
+            }
+            try (InputStream in = new FileInputStream(file)) {
+                byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1)
+                    md.update(buffer, 0, n);
+            }
+            digest = Base64.getEncoder().encodeToString(md.digest());
+            if (digests.size() >= MAX_DIGESTS)
+                digests.clear();
+            digests.put(key, digest);
+        }
+        return "Digest: SHA-256=" + digest + "\n";
+    }
+
     protected String[] expandRoots() throws IOException {
         if (expandedRoots.isEmpty()) {
             for (String root : websterRoot) {
@@ -873,10 +959,12 @@ public class Webster implements WebsterService, Runnable {
     class Head implements Runnable {
         private final Socket client;
         private final String fileName;
+        private final Properties rheader;
 
-        Head(Socket s, String fileName) {
+        Head(Socket s, String fileName, Properties header) {
             client = s;
             this.fileName = fileName;
+            rheader = header;
         }
 
         public void run() {
@@ -921,21 +1009,21 @@ public class Webster implements WebsterService, Runnable {
                             "Content-Type: " + fileType + "\n" +
                             "Content-Length: " + fileLength + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    DataInputStream requestedFile = new DataInputStream(
-                            new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
+                    long length = getFile.length();
                     String fileType =
                             fileName.substring(fileName.lastIndexOf(".") + 1);
                     fileType = MimeTypes.getProperty(fileType);
-                    logData.append("file size: [").append(fileLength).append("]");
+                    logData.append("file size: [").append(length).append("]");
                     header = "HTTP/1.0 200 OK\n"
                             + "Allow: GET\nMIME-Version: 1.0\n"
                             + "Server: " + SERVER_DESCRIPTION + "\n"
+                            + "Accept-Ranges: bytes\n"
+                            + getDigestHeader(getFile, rheader)
                             + "Content-Type: "
                             + fileType
                             + "\n"
                             + "Content-Length: "
-                            + fileLength
+                            + length
                             + "\r\n\r\n";
                 } else {
                     header = "HTTP/1.1 404 Not Found\r\n\r\n";
@@ -970,12 +1058,15 @@ public class Webster implements WebsterService, Runnable {
     class GetFile implements Runnable {
         private final Socket client;
         private final String fileName;
-        private DataInputStream requestedFile;
-        private int fileLength;
+        private final Properties rheader;
+        private long fileLength;
+        // first and last byte of the requested range of a file
+        private long[] range;
 
-        GetFile(Socket s, String fileName) {
+        GetFile(Socket s, String fileName, Properties header) {
             client = s;
             this.fileName = fileName;
+            rheader = header;
         }
 
         public void run() {
@@ -1024,15 +1115,26 @@ public class Webster implements WebsterService, Runnable {
                             + fileLength
                             + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    requestedFile = new DataInputStream( new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
+                    fileLength = getFile.length();
                     String fileType = fileName.substring(fileName.lastIndexOf(".") + 1);
                     fileType = MimeTypes.getProperty(fileType);
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
-                            + "Content-Type: " + fileType + "\n"
-                            + "Content-Length: " + fileLength + "\r\n\r\n";
+                    String rangeHeader = ignoreCaseProperty(rheader, "Range");
+                    range = parseRange(rangeHeader, fileLength);
+                    if (range == null) {
+                        header = "HTTP/1.0 416 Range Not Satisfiable\n"
+                                + "Content-Range: bytes */" + fileLength + "\r\n\r\n";
+                        logData.append("range not satisfiable: [").append(rangeHeader).append("]");
+                        goodRequest = false;
+                    } else {
+                        boolean partial = rangeHeader != null && range[1] - range[0] + 1 < fileLength;
+                        header = (partial ? "HTTP/1.0 206 Partial Content\n" : "HTTP/1.0 200 OK\n")
+                                + "Allow: GET\nMIME-Version: 1.0\n"
+                                + "Server: " + SERVER_DESCRIPTION + "\n"
+                                + "Accept-Ranges: bytes\n"
+                                + (partial ? "Content-Range: bytes " + range[0] + "-" + range[1] + "/" + fileLength + "\n" : "")
+                                + "Content-Type: " + fileType + "\n"
+                                + "Content-Length: " + (range[1] - range[0] + 1) + "\r\n\r\n";
+                    }
                 } else {
                     header = "HTTP/1.0 404 Not Found\r\n\r\n";
                 }
@@ -1043,11 +1145,20 @@ public class Webster implements WebsterService, Runnable {
                     if (getFile.isDirectory()) {
                         clientStream.writeBytes(dirData.toString());
                     } else if (getFile.exists()) {
-                        byte[] buffer = new byte[fileLength];
-                        requestedFile.readFully(buffer);
-                        logData.append("file size: [").append(fileLength).append("]");
-                        try {
-                            clientStream.write(buffer);
+                        logData.append("file size: [").append(fileLength).append("], range: [")
+                                .append(range[0]).append("-").append(range[1]).append("]");
+                        try (RandomAccessFile requestedFile = new RandomAccessFile(getFile, "r")) {
+                            // streams the range, files may be larger than memory
+                            requestedFile.seek(range[0]);
+                            byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+                            long remaining = range[1] - range[0] + 1;
+                            while (remaining > 0) {
+                                int n = requestedFile.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                                if (n < 0)
+                                    break;
+                                clientStream.write(buffer, 0, n);
+                                remaining -= n;
+                            }
                         } catch (Exception e) {
                             String s = String.format("Sending [%s], size[%s], to client at [%s]",
                                                      getFile.getAbsolutePath(),
@@ -1060,7 +1171,6 @@ public class Webster implements WebsterService, Runnable {
                                 e.printStackTrace();
                             }
                         }
-                        requestedFile.close();
                     } else {
                         logData.append("not found");
                     }
@@ -1202,17 +1312,6 @@ public class Webster implements WebsterService, Runnable {
             clientStream.flush();
             clientStream.close();
         }
-
-        public String ignoreCaseProperty(Properties props, String field) {
-            Enumeration<?> names = props.propertyNames();
-            while (names.hasMoreElements()) {
-                String propName = (String) names.nextElement();
-                if (field.equalsIgnoreCase(propName)) {
-                    return (props.getProperty(propName));
-                }
-            }
-            return (null);
-        }
     } // end of PutFile
 
     class DelFile implements Runnable {